@@ -1,8 +1,19 @@
 package io.storage.core;
 
+import io.storage.core.entities.FileEntity;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.ContentHashCache;
+import io.storage.core.hash.HashAlgorithm;
+import io.storage.metrics.MetricsRecorder;
+import io.storage.tracing.Tracer;
 import io.storage.utils.Assert;
 import io.storage.utils.StringUtils;
 
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * An abstract implementation of storage service provider. Provides a common facilities and utilities to all service
  * providers.
@@ -17,6 +28,31 @@ public abstract class AbstractStorageServiceProvider<C extends Credentials> impl
      */
     protected final Class<C> credentialsType;
 
+    /**
+     * Content hash algorithms computed inline while streaming file contents.
+     */
+    private volatile Set<HashAlgorithm> hashAlgorithms = Collections.unmodifiableSet(EnumSet.of(HashAlgorithm.CONTENT_HASH));
+
+    /**
+     * Hashes of files previously uploaded, for services that do not report hashes of existing files.
+     */
+    private final ContentHashCache hashCache = new ContentHashCache();
+
+    /**
+     * Statistics of {@link UploadMode#SKIP_UNCHANGED} writes.
+     */
+    private final UploadStatistics uploadStatistics = new UploadStatistics();
+
+    /**
+     * Recorder of operation metrics.
+     */
+    private volatile MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
+
+    /**
+     * Tracer of operations.
+     */
+    private volatile Tracer tracer = Tracer.NOOP;
+
     /**
      * Class constructor.
      *
@@ -63,6 +99,104 @@ public abstract class AbstractStorageServiceProvider<C extends Credentials> impl
         Assert.notNull(credentials, "Missing credentials (null value).");
     }
 
+    /**
+     * Create a new digest of the {@link #hashAlgorithms() configured hash algorithms}.
+     *
+     * @return New content digest.
+     */
+    protected ContentDigest newContentDigest() {
+        return new ContentDigest(hashAlgorithms);
+    }
+
+    /**
+     * Set the content hash algorithms computed while streaming file contents. Each algorithm adds CPU cost per byte
+     * streamed, so only required algorithms should be set (e.g.: {@link HashAlgorithm#CRC32C} is a cheap alternative
+     * when only corruption detection is required).
+     *
+     * @param algorithms Hash algorithms. May be empty, in which case only file size is verified.
+     * @throws IllegalArgumentException If <i>algorithms</i> is {@code null}.
+     */
+    public void setHashAlgorithms(Set<HashAlgorithm> algorithms) throws IllegalArgumentException {
+        Assert.notNull(algorithms, "Hash algorithms cannot be null.");
+        this.hashAlgorithms = Collections.unmodifiableSet(algorithms.isEmpty()
+                ? EnumSet.noneOf(HashAlgorithm.class)
+                : EnumSet.copyOf(algorithms));
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     * Hashes of uploaded files are cached, so unchanged files are detected even when the storage service does not report
+     * hashes. Uploaded and skipped bytes are counted by {@link #getUploadStatistics()}.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, UploadMode mode)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(mode, "Upload mode cannot be null.");
+        return mode == UploadMode.ALWAYS
+                ? writeFile(credentials, path, in)
+                : SkipUnchangedUpload.write(this, credentials, path, in, hashCache, uploadStatistics);
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     * Hashes of uploaded files are cached, so unchanged files are detected even when the storage service does not report
+     * hashes. Uploaded and skipped bytes are counted by {@link #getUploadStatistics()}.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, UploadMode mode)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(mode, "Upload mode cannot be null.");
+        return mode == UploadMode.ALWAYS
+                ? writeFile(credentials, path, data)
+                : SkipUnchangedUpload.write(this, credentials, path, data, hashCache, uploadStatistics);
+    }
+
+    /**
+     * @return Statistics of files and bytes uploaded versus skipped by {@link UploadMode#SKIP_UNCHANGED} writes.
+     */
+    public UploadStatistics getUploadStatistics() {
+        return uploadStatistics;
+    }
+
+    /**
+     * Set the recorder of this provider's operation metrics (e.g.: a shared
+     * {@link io.storage.metrics.MetricsRegistry MetricsRegistry}). Operations are recorded under the provider's simple
+     * class name.
+     *
+     * @param metricsRecorder Metrics recorder, {@link MetricsRecorder#NOOP} to disable metrics.
+     * @throws IllegalArgumentException If <i>metricsRecorder</i> is {@code null}.
+     */
+    public void setMetricsRecorder(MetricsRecorder metricsRecorder) throws IllegalArgumentException {
+        Assert.notNull(metricsRecorder, "Metrics recorder cannot be null.");
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    @Override
+    public MetricsRecorder metricsRecorder() {
+        return metricsRecorder;
+    }
+
+    /**
+     * Set the tracer of this provider's operations.
+     *
+     * @param tracer Tracer, {@link Tracer#NOOP} to disable tracing.
+     * @throws IllegalArgumentException If <i>tracer</i> is {@code null}.
+     */
+    public void setTracer(Tracer tracer) throws IllegalArgumentException {
+        Assert.notNull(tracer, "Tracer cannot be null.");
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Tracer tracer() {
+        return tracer;
+    }
+
+    @Override
+    public Set<HashAlgorithm> hashAlgorithms() {
+        return hashAlgorithms;
+    }
+
     @Override
     public Class<C> credentialsTypes() {
         return credentialsType;
@@ -73,7 +207,10 @@ public abstract class AbstractStorageServiceProvider<C extends Credentials> impl
      *
      * @param size Size to format.
      * @return Human-readable size.
+     * @deprecated File entities format their size on demand, see {@link FileEntity#getHumanReadableSize()}. Use
+     * {@link StringUtils#formatNumber(long)} to format other sizes.
      */
+    @Deprecated
     protected String toHumanReadableSize(long size) {
         return StringUtils.formatNumber(size);
     }
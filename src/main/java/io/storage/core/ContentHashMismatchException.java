@@ -0,0 +1,20 @@
+package io.storage.core;
+
+import io.storage.StorageException;
+
+/**
+ * This exception indicates that contents read from or written to a storage service does not match its expected size or
+ * content hash, i.e. - the contents was corrupted or truncated in transit.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ContentHashMismatchException extends StorageException {
+
+    public ContentHashMismatchException() {
+    }
+
+    public ContentHashMismatchException(String message) {
+        super(message);
+    }
+}
@@ -39,4 +39,12 @@ public abstract class Credentials {
         this.id = id;
         this.ownerId = ownerId;
     }
+
+    /**
+     * @return Key telling these credentials apart in state kept per credentials, e.g.: caches. This is the identifier,
+     * or this instance if the identifier is unknown.
+     */
+    public Object key() {
+        return id != null ? id : this;
+    }
 }
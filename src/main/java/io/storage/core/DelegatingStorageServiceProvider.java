@@ -0,0 +1,129 @@
+package io.storage.core;
+
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.utils.Assert;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Base class of decorating providers -- forwards every operation to an underlying (delegate) provider. Decorators
+ * override the operations they alter, e.g.: compressing contents on write and decompressing it on read.<p>
+ * {@link #readFile(Credentials, String, long, long, OutputStream) Ranged reads} are deliberately not forwarded, since
+ * offsets of decorated contents rarely match offsets of stored contents. By default they are served from this
+ * provider's {@link #readFile(Credentials, String, OutputStream) readFile}; decorators that can map ranges override
+ * them. For the same reason, {@link #find(Credentials, String, String, java.util.function.Predicate) searches} are
+ * not forwarded either -- they are served from this provider's listings, so filters see entities as decorated.
+ * Decorators that do not alter entities (e.g.: by size or name) should forward searches, so the underlying provider may
+ * evaluate them closer to the data.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public abstract class DelegatingStorageServiceProvider<C extends Credentials> extends AbstractStorageServiceProvider<C> {
+
+    /**
+     * Underlying provider.
+     */
+    protected final StorageServiceProvider<C> delegate;
+
+    /**
+     * Class constructor.
+     *
+     * @param delegate Underlying provider to forward operations to.
+     * @throws IllegalArgumentException If <i>delegate</i> is {@code null}.
+     */
+    protected DelegatingStorageServiceProvider(StorageServiceProvider<C> delegate) throws IllegalArgumentException {
+        super(requireDelegate(delegate).credentialsTypes());
+        this.delegate = delegate;
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.listFolderContents(credentials, path);
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.listFolder(credentials, path);
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        return delegate.exists(credentials, path);
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        return delegate.readFileMeta(credentials, path);
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        delegate.readFile(credentials, path, out);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return delegate.writeFile(credentials, path, in);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return delegate.writeFile(credentials, path, in, revision);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return delegate.writeFile(credentials, path, data);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return delegate.writeFile(credentials, path, data, revision);
+    }
+
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        delegate.delete(credentials, path);
+    }
+
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.copy(credentials, from, to);
+    }
+
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.move(credentials, from, to);
+    }
+
+    private static <C extends Credentials> StorageServiceProvider<C> requireDelegate(StorageServiceProvider<C> delegate) {
+        Assert.notNull(delegate, "Delegate provider cannot be null.");
+        return delegate;
+    }
+}
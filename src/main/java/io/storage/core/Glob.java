@@ -0,0 +1,352 @@
+package io.storage.core;
+
+import io.storage.utils.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled glob of entity paths, relative to the folder a {@link StorageServiceProvider#find find} starts at. The
+ * glob is a sequence of segments separated by forward slash, each matching a single path element. A segment may hold:
+ * <ul>
+ * <li>{@code *} - any number of characters.</li>
+ * <li>{@code ?} - a single character.</li>
+ * <li>{@code [abc]}, {@code [a-z]}, {@code [!a-z]} - a single character of (or not of) a set.</li>
+ * <li>{@code {pdf,doc}} - one of several alternatives.</li>
+ * <li>{@code \} - escapes the character that follows it.</li>
+ * </ul>
+ * A segment of {@code **} matches any number of path elements, including none. For example,
+ * <code>reports/**&#47;*.pdf</code> matches both {@code reports/q1.pdf} and {@code reports/2026/q2.pdf}. Matching is
+ * case-sensitive.<p>
+ * A glob is matched incrementally, one path element at a time, via {@link State states}. A state that
+ * {@link State#canMatchBelow() cannot match below} a folder allows searches to prune the folder's entire subtree.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class Glob {
+
+    /**
+     * Maximum number of segments, bounded by the bits of a state.
+     */
+    public static final int MAX_SEGMENTS = 63;
+
+    /**
+     * Glob, as compiled.
+     */
+    private final String pattern;
+
+    /**
+     * Compiled segments. A {@code null} entry denotes {@code **}.
+     */
+    private final Pattern[] segments;
+
+    /**
+     * Text of segments free of wildcards, {@code null} entries for all other segments.
+     */
+    private final String[] literals;
+
+    /**
+     * Text of last segment.
+     */
+    private final String last;
+
+    /**
+     * Initial state.
+     */
+    private final State start;
+
+    private Glob(String pattern, Pattern[] segments, String[] literals, String last) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.literals = literals;
+        this.last = last;
+        this.start = new State(closure(1L));
+    }
+
+    /**
+     * Compile a glob.
+     *
+     * @param pattern Glob to compile, e.g.: <code>**&#47;*.pdf</code>. A leading forward slash is ignored.
+     * @return Compiled glob.
+     * @throws IllegalArgumentException If <i>pattern</i> is {@code null}, empty or malformed.
+     */
+    public static Glob compile(String pattern) throws IllegalArgumentException {
+        Assert.notNull(pattern, "Glob cannot be null.");
+
+        List<String> parts = new ArrayList<>();
+        for (String part : pattern.split("/")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("Invalid glob: '" + pattern + "' (must have at least one segment).");
+        }
+        if (parts.size() > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("Invalid glob: " + pattern + " (must have at most " + MAX_SEGMENTS
+                    + " segments).");
+        }
+
+        Pattern[] segments = new Pattern[parts.size()];
+        String[] literals = new String[parts.size()];
+        for (int i = 0; i < segments.length; i++) {
+            String part = parts.get(i);
+            if (part.equals("**")) {
+                continue;
+            }
+            if (isLiteral(part)) {
+                literals[i] = part;
+            }
+            segments[i] = toRegex(part, pattern);
+        }
+
+        return new Glob(pattern, segments, literals, parts.get(parts.size() - 1));
+    }
+
+    /**
+     * @return State prior to matching any path element.
+     */
+    public State start() {
+        return start;
+    }
+
+    /**
+     * Match a relative path as a whole.
+     *
+     * @param relativePath Path relative to the folder the glob is applied to, e.g.: {@code reports/q1.pdf}.
+     * @return {@code true} if <i>relativePath</i> matches this glob, {@code false} if not.
+     * @throws IllegalArgumentException If <i>relativePath</i> is {@code null}.
+     */
+    public boolean matches(String relativePath) throws IllegalArgumentException {
+        Assert.notNull(relativePath, "Path cannot be null.");
+
+        State state = start;
+        for (String name : relativePath.split("/")) {
+            if (!name.isEmpty()) {
+                state = state.next(name);
+            }
+        }
+        return state.isMatch();
+    }
+
+    /**
+     * Leading segments free of wildcards, excluding the last segment. All matches reside under the folder these
+     * segments lead to, so searches may start there rather than walk to it. For example, {@code a/b/?/c}
+     * yields {@code [a, b]}.
+     *
+     * @return Leading literal segments, possibly empty.
+     */
+    public List<String> literalPrefix() {
+        int count = 0;
+        while (count < literals.length - 1 && literals[count] != null) {
+            count++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(literals).subList(0, count));
+    }
+
+    /**
+     * @return Literal text that names of matching entities start with, e.g.: {@code report} for a last segment of
+     * {@code report-*.pdf}. Empty if names may start with any text.
+     */
+    public String namePrefix() {
+        int length = 0;
+        while (length < last.length() && "*?[{\\".indexOf(last.charAt(length)) < 0) {
+            length++;
+        }
+        return last.substring(0, length);
+    }
+
+    /**
+     * @return {@code true} if this glob has a {@code **} segment, i.e. - it matches paths of any depth.
+     */
+    public boolean isRecursive() {
+        for (Pattern segment : segments) {
+            if (segment == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Maximum depth of matching paths, or {@link Integer#MAX_VALUE} if this glob is {@link #isRecursive()
+     * recursive}.
+     */
+    public int maxDepth() {
+        return isRecursive() ? Integer.MAX_VALUE : segments.length;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * Extend a set of segment positions with positions reachable by skipping {@code **} segments.
+     */
+    private long closure(long positions) {
+        for (int i = 0; i < segments.length; i++) {
+            if ((positions & (1L << i)) != 0 && segments[i] == null) {
+                positions |= 1L << (i + 1);
+            }
+        }
+        return positions;
+    }
+
+    private boolean matches(int segment, String name) {
+        return literals[segment] != null
+                ? literals[segment].equals(name)
+                : segments[segment].matcher(name).matches();
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if ("*?[{\\".indexOf(segment.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Translate a segment to a regular expression.
+     */
+    private static Pattern toRegex(String segment, String pattern) throws IllegalArgumentException {
+        StringBuilder regex = new StringBuilder();
+        boolean inAlternatives = false;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            switch (c) {
+                case '*':
+                    regex.append(".*");
+                    break;
+
+                case '?':
+                    regex.append('.');
+                    break;
+
+                case '\\':
+                    if (++i == segment.length()) {
+                        throw new IllegalArgumentException("Invalid glob: " + pattern + " (trailing escape character).");
+                    }
+                    appendLiteral(regex, segment.charAt(i));
+                    break;
+
+                case '[':
+                    int end = segment.indexOf(']', i + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Invalid glob: " + pattern + " (unclosed character class).");
+                    }
+                    regex.append('[');
+                    int from = i + 1;
+                    if (from < end && segment.charAt(from) == '!') {
+                        regex.append('^');
+                        from++;
+                    }
+                    for (int j = from; j < end; j++) {
+                        char member = segment.charAt(j);
+                        if (member == '-') {
+                            regex.append(member);
+                        } else {
+                            appendLiteral(regex, member);
+                        }
+                    }
+                    regex.append(']');
+                    i = end;
+                    break;
+
+                case '{':
+                    if (inAlternatives) {
+                        throw new IllegalArgumentException("Invalid glob: " + pattern + " (nested alternatives).");
+                    }
+                    inAlternatives = true;
+                    regex.append("(?:");
+                    break;
+
+                case '}':
+                    if (inAlternatives) {
+                        inAlternatives = false;
+                        regex.append(')');
+                    } else {
+                        appendLiteral(regex, c);
+                    }
+                    break;
+
+                case ',':
+                    if (inAlternatives) {
+                        regex.append('|');
+                    } else {
+                        appendLiteral(regex, c);
+                    }
+                    break;
+
+                default:
+                    appendLiteral(regex, c);
+            }
+        }
+        if (inAlternatives) {
+            throw new IllegalArgumentException("Invalid glob: " + pattern + " (unclosed alternatives).");
+        }
+
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static void appendLiteral(StringBuilder regex, char c) {
+        if (!Character.isLetterOrDigit(c)) {
+            regex.append('\\');
+        }
+        regex.append(c);
+    }
+
+    /**
+     * Progress of matching a path, element by element. States are immutable.
+     */
+    public final class State {
+
+        /**
+         * Bit set of segment positions the path matched up to. Position {@code segments.length} denotes a full match.
+         */
+        private final long positions;
+
+        private State(long positions) {
+            this.positions = positions;
+        }
+
+        /**
+         * @param name Name of next path element.
+         * @return State after matching <i>name</i>.
+         */
+        public State next(String name) {
+            long next = 0;
+            for (int i = 0; i < segments.length; i++) {
+                if ((positions & (1L << i)) != 0) {
+                    if (segments[i] == null) {
+                        next |= 1L << i;
+                    } else if (Glob.this.matches(i, name)) {
+                        next |= 1L << (i + 1);
+                    }
+                }
+            }
+            return next == positions ? this : new State(closure(next));
+        }
+
+        /**
+         * @return {@code true} if the path matched so far matches the glob.
+         */
+        public boolean isMatch() {
+            return (positions & (1L << segments.length)) != 0;
+        }
+
+        /**
+         * @return {@code true} if paths under the path matched so far may match the glob, {@code false} if no path
+         * under it can, i.e. - a folder at this path can be pruned.
+         */
+        public boolean canMatchBelow() {
+            return (positions & ((1L << segments.length) - 1)) != 0;
+        }
+    }
+}
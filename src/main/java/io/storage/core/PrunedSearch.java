@@ -0,0 +1,91 @@
+package io.storage.core;
+
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Fallback implementation of {@link StorageServiceProvider#find(Credentials, String, String, Predicate) find} for
+ * providers without native search support. Folders are listed recursively, starting at the glob's literal prefix;
+ * folders under which the glob cannot match are not listed at all.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class PrunedSearch {
+
+    private PrunedSearch() {
+    }
+
+    /**
+     * Find entities under a folder. Listing starts at the folder the glob's literal prefix leads to; if it does not
+     * exist, or an element of the prefix is not a folder, nothing matches.
+     *
+     * @param provider    Provider to search.
+     * @param credentials Credentials to access storage service.
+     * @param root        Path of folder to search under.
+     * @param glob        Glob of paths relative to <i>root</i>.
+     * @param filter      Filter of entities whose path matches <i>glob</i>.
+     * @param <C>         Generic type of credentials.
+     * @return Matching entities.
+     * @throws EntityNotFoundException    If <i>root</i> does not exist.
+     * @throws InvalidEntityPathException If <i>root</i> reference a non-folder entity.
+     */
+    static <C extends Credentials> List<BaseEntity> find(StorageServiceProvider<C> provider, C credentials, String root,
+                                                         Glob glob, Predicate<? super BaseEntity> filter)
+            throws EntityNotFoundException, InvalidEntityPathException {
+        EntityPath folder = EntityPath.parse(root);
+        Glob.State state = glob.start();
+        List<String> prefix = glob.literalPrefix();
+        for (String name : prefix) {
+            folder = folder.resolve(name);
+            state = state.next(name);
+        }
+
+        List<BaseEntity> matches = new ArrayList<>();
+        FolderListing listing;
+        if (prefix.isEmpty()) {
+            listing = provider.listFolder(credentials, root);
+        } else if (provider.exists(credentials, folder.toString())) {
+            try {
+                listing = provider.listFolder(credentials, folder.toString());
+            } catch (EntityNotFoundException | InvalidEntityPathException ex) {
+                // An element of the prefix is not a folder (or was just deleted).
+                return matches;
+            }
+        } else if (provider.exists(credentials, root)) {
+            return matches;
+        } else {
+            throw new EntityNotFoundException("Folder not found: " + root + ".");
+        }
+
+        walk(provider, credentials, listing, state, filter, matches);
+        return matches;
+    }
+
+    /**
+     * Collect matching entities of a folder listing and, recursively, of subfolders the glob may match under. The
+     * listing is closed once walked.
+     */
+    private static <C extends Credentials> void walk(StorageServiceProvider<C> provider, C credentials,
+                                                     FolderListing listing, Glob.State state,
+                                                     Predicate<? super BaseEntity> filter, List<BaseEntity> matches) {
+        try (FolderListing children = listing) {
+            for (BaseEntity entity : children) {
+                Glob.State next = state.next(entity.getName());
+                if (next.isMatch() && filter.test(entity)) {
+                    matches.add(entity);
+                }
+                if (entity instanceof FolderEntity && next.canMatchBelow()) {
+                    walk(provider, credentials, provider.listFolder(credentials, entity.getPath()), next, filter,
+                            matches);
+                }
+            }
+        }
+    }
+}
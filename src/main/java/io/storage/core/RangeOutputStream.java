@@ -0,0 +1,54 @@
+package io.storage.core;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream passing only a given range of the bytes written through it, discarding the rest. Used to implement
+ * ranged reads on top of full reads.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class RangeOutputStream extends FilterOutputStream {
+
+    /**
+     * Offset of first byte to pass.
+     */
+    private final long start;
+
+    /**
+     * Offset past the last byte to pass.
+     */
+    private final long end;
+
+    /**
+     * Offset of next byte written.
+     */
+    private long position;
+
+    RangeOutputStream(OutputStream out, long offset, long length) {
+        super(out);
+        this.start = offset;
+        this.end = length > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + length;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position >= start && position < end) {
+            out.write(b);
+        }
+        position++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long from = Math.max(position, start);
+        long to = Math.min(position + len, end);
+        if (from < to) {
+            out.write(b, off + (int) (from - position), (int) (to - from));
+        }
+        position += len;
+    }
+}
@@ -0,0 +1,162 @@
+package io.storage.core;
+
+import io.storage.StorageException;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.ContentHashCache;
+import io.storage.core.hash.HashAlgorithm;
+import io.storage.core.hash.HashingInputStream;
+import io.storage.utils.Assert;
+import io.storage.utils.Spool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of {@link UploadMode#SKIP_UNCHANGED} writes. The local content hash is computed and compared to the
+ * hash of the existing file, taken from {@link StorageServiceProvider#readFileMeta(Credentials, String) readFileMeta}
+ * or from a {@link ContentHashCache cache} of previous writes. The upload is skipped when they match.<p>
+ * Stream contents is spooled to a temporary file while hashed, so it can be uploaded after the comparison without
+ * holding it in memory.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class SkipUnchangedUpload {
+
+    private SkipUnchangedUpload() {
+    }
+
+    /**
+     * Write a file from an in-memory buffer, unless it is unchanged.
+     *
+     * @param provider    Provider to write to.
+     * @param credentials Credentials to access storage service.
+     * @param path        Path to file.
+     * @param data        Data to write.
+     * @param cache       Optional cache of known hashes (may be {@code null}).
+     * @param statistics  Optional statistics to update (may be {@code null}).
+     * @param <C>         Generic type of credentials.
+     * @return Existing file entity if upload was skipped, otherwise the written file entity.
+     */
+    static <C extends Credentials> FileEntity write(StorageServiceProvider<C> provider, C credentials, String path,
+                                                     byte[] data, ContentHashCache cache, UploadStatistics statistics) {
+        Assert.notNull(data, "Data cannot be null.");
+
+        ContentDigest digest = ContentDigest.of(comparableAlgorithms(provider), data);
+        FileEntity existing = findUnchanged(provider, credentials, path, digest, cache);
+        if (existing != null) {
+            return skipped(existing, statistics);
+        }
+
+        return uploaded(provider.writeFile(credentials, path, data), credentials, data.length, cache, statistics);
+    }
+
+    /**
+     * Write a file from a stream, unless it is unchanged.
+     *
+     * @param provider    Provider to write to.
+     * @param credentials Credentials to access storage service.
+     * @param path        Path to file.
+     * @param in          Input stream to read file data.
+     * @param cache       Optional cache of known hashes (may be {@code null}).
+     * @param statistics  Optional statistics to update (may be {@code null}).
+     * @param <C>         Generic type of credentials.
+     * @return Existing file entity if upload was skipped, otherwise the written file entity.
+     * @throws StorageException If contents could not be spooled.
+     */
+    static <C extends Credentials> FileEntity write(StorageServiceProvider<C> provider, C credentials, String path,
+                                                     InputStream in, ContentHashCache cache, UploadStatistics statistics)
+            throws StorageException {
+        Assert.notNull(in, "Input stream is null.");
+
+        ContentDigest digest = new ContentDigest(comparableAlgorithms(provider));
+        try (Spool spool = Spool.of(new HashingInputStream(in, digest))) {
+            FileEntity existing = findUnchanged(provider, credentials, path, digest, cache);
+            if (existing != null) {
+                return skipped(existing, statistics);
+            }
+
+            FileEntity file;
+            try (InputStream spooled = spool.open()) {
+                file = provider.writeFile(credentials, path, spooled);
+            } catch (IOException ex) {
+                throw new StorageException("Could not close spooled contents of " + path + ".", ex);
+            }
+            return uploaded(file, credentials, digest.getSize(), cache, statistics);
+        }
+    }
+
+    /**
+     * Find the existing file, if its contents matches the digest.
+     *
+     * @return Existing file (with its known hashes) or {@code null} if file does not exist or it was changed.
+     */
+    private static <C extends Credentials> FileEntity findUnchanged(StorageServiceProvider<C> provider, C credentials,
+                                                                    String path, ContentDigest digest,
+                                                                    ContentHashCache cache) {
+        FileEntity existing;
+        try {
+            existing = provider.readFileMeta(credentials, path);
+        } catch (EntityNotFoundException | InvalidEntityPathException ex) {
+            return null;
+        }
+
+        if (existing.size != digest.getSize()) {
+            return null;
+        }
+
+        Map<HashAlgorithm, String> known = existing.hashes;
+        if ((known == null || known.isEmpty()) && cache != null) {
+            known = cache.get(credentials, existing);
+        }
+
+        if (known != null) {
+            for (Map.Entry<HashAlgorithm, String> entry : digest.getHashes().entrySet()) {
+                String knownHash = known.get(entry.getKey());
+                if (knownHash != null) {
+                    if (!knownHash.equalsIgnoreCase(entry.getValue())) {
+                        return null;
+                    }
+
+                    existing.hashes = known;
+                    return existing;
+                }
+            }
+        }
+
+        // No comparable hash -- contents cannot be proven unchanged.
+        return null;
+    }
+
+    private static FileEntity skipped(FileEntity existing, UploadStatistics statistics) {
+        if (statistics != null) {
+            statistics.skipped(existing.size);
+        }
+
+        return existing;
+    }
+
+    private static <C extends Credentials> FileEntity uploaded(FileEntity file, C credentials, long size,
+                                                               ContentHashCache cache, UploadStatistics statistics) {
+        if (statistics != null) {
+            statistics.uploaded(size);
+        }
+        if (cache != null) {
+            cache.put(credentials, file);
+        }
+
+        return file;
+    }
+
+    /**
+     * Algorithms to compute locally: the provider's algorithms, or the content hash if provider computes none.
+     */
+    private static Set<HashAlgorithm> comparableAlgorithms(StorageServiceProvider<?> provider) {
+        Set<HashAlgorithm> algorithms = provider.hashAlgorithms();
+        return algorithms.isEmpty() ? EnumSet.of(HashAlgorithm.CONTENT_HASH) : algorithms;
+    }
+}
@@ -1,10 +1,22 @@
 package io.storage.core;
 
+import io.storage.core.entities.BaseEntity;
 import io.storage.core.entities.FileEntity;
 import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.HashAlgorithm;
+import io.storage.core.hash.HashingOutputStream;
+import io.storage.metrics.MetricsRecorder;
+import io.storage.tracing.Tracer;
+import io.storage.utils.Assert;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * //@formatter:off
@@ -49,6 +61,31 @@ public interface StorageServiceProvider<C extends Credentials> {
             CredentialsException,
             InvalidPathFormatException;
 
+    /**
+     * List folder contents lazily. Children are fetched from the underlying storage page by page while the returned
+     * listing is iterated, so the entire contents of the folder is never held in memory at once.<p>
+     * Default implementation adapts {@link #listFolderContents(Credentials, String)}. Providers that support paging
+     * should override this method.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param path        Path of folder.
+     * @return Folder listing.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws EntityNotFoundException    If <i>path</i> does not exist. May also be thrown while iterating the listing.
+     * @throws InvalidEntityPathException If <i>path</i> reference a non-folder entity.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    default FolderListing listFolder(C credentials, String path) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        return FolderListing.of(listFolderContents(credentials, path));
+    }
+
     /**
      * Check if file or folder exists.
      *
@@ -103,6 +140,70 @@ public interface StorageServiceProvider<C extends Credentials> {
             InvalidRevisionException,
             InvalidPathFormatException;
 
+    /**
+     * Read a range of a file.<p>
+     * Default implementation streams the entire file, passing only the requested range to <i>out</i>. Providers that
+     * support ranged reads natively should override this method.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param path        Path to file.
+     * @param offset      Offset of first byte to read.
+     * @param length      Maximum number of bytes to read. Fewer bytes are read if the file ends before the range does.
+     * @param out         Output stream to write file content.
+     * @throws IllegalArgumentException   If either arguments are {@code null} or <i>offset</i> or <i>length</i> are
+     *                                    negative.
+     * @throws EntityNotFoundException    If entity does not exist.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    default void readFile(C credentials, String path, long offset, long length, OutputStream out) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            CredentialsException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range (offset: " + offset + ", length: " + length + ").");
+        }
+
+        readFile(credentials, path, new RangeOutputStream(out, offset, length));
+    }
+
+    /**
+     * Read a file and verify its contents. Content hashes are computed while the file is streamed to <i>out</i>, so no
+     * extra pass over the data is made. The contents is verified against the file's size and any hash the storage
+     * service reports for it.<p>
+     * Since contents is verified only once fully streamed, <i>out</i> may already hold corrupted data when a
+     * {@link ContentHashMismatchException} is thrown.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param path        Path to file.
+     * @param out         Output stream to write file content.
+     * @return File entity metadata, including the {@link FileEntity#hashes hashes} computed while reading.
+     * @throws IllegalArgumentException     If either arguments are {@code null}.
+     * @throws EntityNotFoundException      If entity does not exist.
+     * @throws CredentialsException         If provided credentials are not supported by the underlying implementation or it
+     *                                      has expired.
+     * @throws InvalidPathFormatException   If <i>path</i> has invalid format.
+     * @throws ContentHashMismatchException If contents read does not match the file's size or hash.
+     */
+    default FileEntity readFileVerified(C credentials, String path, OutputStream out) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            CredentialsException,
+            InvalidPathFormatException,
+            ContentHashMismatchException {
+        Assert.notNull(out, "Output stream is null.");
+
+        FileEntity file = readFileMeta(credentials, path);
+        ContentDigest digest = new ContentDigest(hashAlgorithms());
+        readFile(credentials, path, new HashingOutputStream(out, digest));
+        digest.verify(file);
+        file.hashes = digest.getHashes();
+        return file;
+    }
+
     /**
      * Create new or overwrite existing file.
      *
@@ -201,6 +302,60 @@ public interface StorageServiceProvider<C extends Credentials> {
             InvalidRevisionException,
             InvalidPathFormatException;
 
+    /**
+     * Create new or overwrite existing file, subject to an upload mode. With {@link UploadMode#SKIP_UNCHANGED}, the
+     * contents is hashed locally and compared to the hash of the existing file; if they match, nothing is uploaded and
+     * the existing file is returned. Stream contents is spooled to a temporary file while hashed.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param path        Path to file.
+     * @param in          Input stream to read file data.
+     * @param mode        Upload mode.
+     * @return File entry representing the file.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws InvalidEntityPathException If path to entity is invalid.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    default FileEntity writeFile(C credentials, String path, InputStream in, UploadMode mode) throws
+            IllegalArgumentException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        Assert.notNull(mode, "Upload mode cannot be null.");
+        return mode == UploadMode.ALWAYS
+                ? writeFile(credentials, path, in)
+                : SkipUnchangedUpload.write(this, credentials, path, in, null, null);
+    }
+
+    /**
+     * Create new or overwrite existing file, subject to an upload mode. With {@link UploadMode#SKIP_UNCHANGED}, the
+     * contents is hashed locally and compared to the hash of the existing file; if they match, nothing is uploaded and
+     * the existing file is returned.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param path        Path to file.
+     * @param data        Data to write.
+     * @param mode        Upload mode.
+     * @return File entry representing the file.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws InvalidEntityPathException If path to entity is invalid.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    default FileEntity writeFile(C credentials, String path, byte[] data, UploadMode mode) throws
+            IllegalArgumentException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        Assert.notNull(mode, "Upload mode cannot be null.");
+        return mode == UploadMode.ALWAYS
+                ? writeFile(credentials, path, data)
+                : SkipUnchangedUpload.write(this, credentials, path, data, null, null);
+    }
+
     /**
      * Delete a file or directory.
      *
@@ -218,6 +373,115 @@ public interface StorageServiceProvider<C extends Credentials> {
             CredentialsException,
             InvalidPathFormatException;
 
+    /**
+     * Copy a file or folder (including its contents) to a new path.<p>
+     * Default implementation streams file contents from source to destination via
+     * {@link #readFile(Credentials, String, OutputStream) readFile} and
+     * {@link #writeFile(Credentials, String, InputStream) writeFile}, copying folders file by file. Providers that
+     * support server-side copy should override this method.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param from        Path of file or folder to copy.
+     * @param to          Destination path.
+     * @return Entity representing the destination.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws EntityNotFoundException    If <i>from</i> does not exist.
+     * @throws InvalidEntityPathException If <i>to</i> is invalid, equals <i>from</i> or lies under it.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If either paths have invalid format.
+     */
+    default BaseEntity copy(C credentials, String from, String to) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        return StreamingCopy.copy(this, credentials, from, to);
+    }
+
+    /**
+     * Move (rename) a file or folder (including its contents) to a new path.<p>
+     * Default implementation {@link #copy(Credentials, String, String) copies} the entity and then deletes the source.
+     * Providers that support server-side move should override this method.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param from        Path of file or folder to move.
+     * @param to          Destination path.
+     * @return Entity representing the destination.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws EntityNotFoundException    If <i>from</i> does not exist.
+     * @throws InvalidEntityPathException If <i>to</i> is invalid, equals <i>from</i> or lies under it.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If either paths have invalid format.
+     */
+    default BaseEntity move(C credentials, String from, String to) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        StreamingCopy.requireOutside(from, to);
+        BaseEntity result = copy(credentials, from, to);
+        delete(credentials, from);
+        return result;
+    }
+
+    /**
+     * Find files and folders under a folder, at any depth, whose path matches a {@link Glob glob} and which pass a
+     * filter. Only matching entities are retained, and folders under which the glob cannot match are not visited.<p>
+     * Default implementation lists folders recursively, starting at the glob's {@link Glob#literalPrefix() literal
+     * prefix}. Providers that can evaluate the search closer to the data should override this method. Decorating
+     * providers forward searches to the providers they decorate, unless they alter entities, e.g.: by compressing or
+     * encrypting contents, in which case entities are searched as listed by the decorating provider.
+     *
+     * @param credentials Credentials to access storage service.
+     * @param root        Path of folder to search under.
+     * @param glob        Glob of paths relative to <i>root</i>, e.g.: <code>**&#47;*.pdf</code>.
+     * @param filter      Filter of entities whose path matches <i>glob</i>, e.g.: by size or modification date.
+     * @return Matching entities, in no particular order.
+     * @throws IllegalArgumentException   If either arguments are {@code null} or <i>glob</i> is malformed.
+     * @throws EntityNotFoundException    If <i>root</i> does not exist.
+     * @throws InvalidEntityPathException If <i>root</i> reference a non-folder entity.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>root</i> has invalid format.
+     */
+    default List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        Assert.notNull(filter, "Filter cannot be null.");
+        return PrunedSearch.find(this, credentials, root, Glob.compile(glob), filter);
+    }
+
+    /**
+     * @return Content hash algorithms computed inline while files are written or {@link #readFileVerified read}.
+     * Defaults to {@link HashAlgorithm#CONTENT_HASH}.
+     */
+    default Set<HashAlgorithm> hashAlgorithms() {
+        return EnumSet.of(HashAlgorithm.CONTENT_HASH);
+    }
+
+    /**
+     * @return Recorder of this provider's operation metrics, as measured by
+     * {@link io.storage.manager.StorageService StorageService}. Defaults to {@link MetricsRecorder#NOOP}.
+     */
+    default MetricsRecorder metricsRecorder() {
+        return MetricsRecorder.NOOP;
+    }
+
+    /**
+     * @return Tracer of this provider's operations, invoked by {@link io.storage.manager.StorageService StorageService}
+     * and by providers around their remote calls. Defaults to {@link Tracer#NOOP}.
+     */
+    default Tracer tracer() {
+        return Tracer.NOOP;
+    }
+
     /**
      * @return The type credentials this provider requires.
      */
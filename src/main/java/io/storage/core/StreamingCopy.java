@@ -0,0 +1,100 @@
+package io.storage.core;
+
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.utils.Assert;
+import io.storage.utils.StreamPipe;
+
+/**
+ * Fallback implementation of {@link StorageServiceProvider#copy(Credentials, String, String) copy} for providers
+ * without server-side copy support. Files are streamed through a bounded pipe from source to destination; folders are
+ * copied recursively, file by file.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class StreamingCopy {
+
+    private StreamingCopy() {
+    }
+
+    /**
+     * Copy a file or folder.
+     *
+     * @param provider    Provider to copy within.
+     * @param credentials Credentials to access storage service.
+     * @param from        Path of source file or folder.
+     * @param to          Path of destination.
+     * @param <C>         Generic type of credentials.
+     * @return Entity representing the destination.
+     * @throws EntityNotFoundException    If <i>from</i> does not exist.
+     * @throws InvalidEntityPathException If <i>to</i> equals <i>from</i> or lies under it.
+     */
+    static <C extends Credentials> BaseEntity copy(StorageServiceProvider<C> provider, C credentials, String from, String to)
+            throws EntityNotFoundException, InvalidEntityPathException {
+        requireOutside(from, to);
+        try {
+            provider.readFileMeta(credentials, from);
+        } catch (EntityNotFoundException | InvalidEntityPathException ex) {
+            // Not a file -- either a folder or nothing at all.
+            if (!provider.exists(credentials, from)) {
+                throw new EntityNotFoundException("Unknown entity path: " + from);
+            }
+
+            return copyFolder(provider, credentials, from, EntityPath.parse(to));
+        }
+
+        return copyFile(provider, credentials, from, to);
+    }
+
+    /**
+     * Make sure a destination is neither its source nor under it. Copying a folder into its own subtree would copy its
+     * own output over and over, and moving it there would delete the copy along with the source.
+     *
+     * @param from Path of source file or folder.
+     * @param to   Path of destination.
+     * @throws InvalidEntityPathException If <i>to</i> equals <i>from</i> or lies under it.
+     */
+    static void requireOutside(String from, String to) throws InvalidEntityPathException {
+        Assert.notNull(from, "Source path cannot be null.");
+        Assert.notNull(to, "Destination path cannot be null.");
+        if (EntityPath.parse(to).isWithin(EntityPath.parse(from))) {
+            throw new InvalidEntityPathException("Invalid destination: " + to + " (must not be " + from
+                    + " or under it).");
+        }
+    }
+
+    /**
+     * Stream a single file from source to destination.
+     */
+    private static <C extends Credentials> FileEntity copyFile(StorageServiceProvider<C> provider, C credentials,
+                                                               String from, String to) {
+        return StreamPipe.transfer(
+                out -> provider.readFile(credentials, from, out),
+                in -> provider.writeFile(credentials, to, in));
+    }
+
+    /**
+     * Copy a folder recursively.
+     */
+    private static <C extends Credentials> FolderEntity copyFolder(StorageServiceProvider<C> provider, C credentials,
+                                                                   String from, EntityPath to) {
+        try (FolderListing listing = provider.listFolder(credentials, from)) {
+            for (BaseEntity entity : listing) {
+                EntityPath target = to.resolve(entity.getName());
+                if (entity instanceof FileEntity) {
+                    copyFile(provider, credentials, entity.getPath(), target.toString());
+                } else if (entity instanceof FolderEntity) {
+                    copyFolder(provider, credentials, entity.getPath(), target);
+                }
+            }
+        }
+
+        FolderEntity folder = new FolderEntity();
+        folder.location = to;
+        return folder;
+    }
+}
@@ -0,0 +1,22 @@
+package io.storage.core;
+
+/**
+ * Policy applied when writing a file that may already exist with identical contents.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public enum UploadMode {
+
+    /**
+     * Always upload file contents.
+     */
+    ALWAYS,
+
+    /**
+     * Compute the content hash locally and compare it to the existing file's hash (as reported by the storage service
+     * or cached from a previous write). If contents is unchanged, the upload is skipped and the existing file is
+     * returned.
+     */
+    SKIP_UNCHANGED
+}
@@ -0,0 +1,65 @@
+package io.storage.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts files and bytes uploaded versus skipped by {@link UploadMode#SKIP_UNCHANGED} writes. Counters are updated
+ * concurrently and may be read at any time.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class UploadStatistics {
+
+    private final LongAdder filesUploaded = new LongAdder();
+
+    private final LongAdder filesSkipped = new LongAdder();
+
+    private final LongAdder bytesUploaded = new LongAdder();
+
+    private final LongAdder bytesSkipped = new LongAdder();
+
+    /**
+     * @return Number of files uploaded.
+     */
+    public long getFilesUploaded() {
+        return filesUploaded.sum();
+    }
+
+    /**
+     * @return Number of files not uploaded, since contents was unchanged.
+     */
+    public long getFilesSkipped() {
+        return filesSkipped.sum();
+    }
+
+    /**
+     * @return Number of bytes uploaded.
+     */
+    public long getBytesUploaded() {
+        return bytesUploaded.sum();
+    }
+
+    /**
+     * @return Number of bytes not uploaded, since contents was unchanged.
+     */
+    public long getBytesSkipped() {
+        return bytesSkipped.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("uploaded: %d files (%d bytes), skipped: %d files (%d bytes)",
+                getFilesUploaded(), getBytesUploaded(), getFilesSkipped(), getBytesSkipped());
+    }
+
+    void uploaded(long bytes) {
+        filesUploaded.increment();
+        bytesUploaded.add(bytes);
+    }
+
+    void skipped(long bytes) {
+        filesSkipped.increment();
+        bytesSkipped.add(bytes);
+    }
+}
@@ -3,7 +3,11 @@ package io.storage.core.entities;
 import java.time.Instant;
 
 /**
- * Common traits of folder/file/references.
+ * Common traits of folder/file/references.<p>
+ * Since 1.1.0, an entity's location is held by {@link #location} only. The former public {@code name}, {@code path} and
+ * {@code parentPath} fields are replaced by {@link #getName()}, {@link #getPath()} and {@link #getParentPath()}. Note
+ * that parent paths no longer end with a forward slash, e.g.: {@code /contents/documents/logs} rather than
+ * {@code /contents/documents/logs/}, and that entities directly under the root folder have a parent path of {@code /}.
  *
  * @author Guy Raz Nir
  * @since 26/06/2017.
@@ -11,30 +15,44 @@ import java.time.Instant;
 public abstract class BaseEntity {
 
     /**
-     * Name of entity (name of file or folder).
+     * Location of the entity, e.g.: {@code /contents/documents/logs/trace.txt}. Entities listed from the same folder
+     * share their parent's location, path strings are only built on demand.
      */
-    public String name;
+    public EntityPath location;
 
     /**
-     * Full path to the entity, e.g.: {@code /contents/documents/logs/trace.txt}.
+     * Timestamp when entity was created.
      */
-    public String path;
+    public Instant creationDate;
 
     /**
-     * Path to parent. For example, if this entity's {@link #path} is {@code /contents/documents/logs/trace.txt}, than the
-     * {@code parentPath} is {@code /contents/documents/logs/}.
+     * Class constructor.
      */
-    public String parentPath;
+    public BaseEntity() {
+    }
 
     /**
-     * Timestamp when entity was created.
+     * @return Name of entity (name of file or folder) or {@code null} if location is unknown.
      */
-    public Instant creationDate;
+    public String getName() {
+        return location != null ? location.name() : null;
+    }
 
     /**
-     * Class constructor.
+     * @return Full path to the entity, e.g.: {@code /contents/documents/logs/trace.txt} or {@code null} if location is
+     * unknown.
      */
-    public BaseEntity() {
+    public String getPath() {
+        return location != null ? location.toString() : null;
+    }
+
+    /**
+     * @return Path to parent. For example, if this entity's {@link #getPath() path} is
+     * {@code /contents/documents/logs/trace.txt}, than the parent path is {@code /contents/documents/logs}. The root
+     * folder has no parent path ({@code null}).
+     */
+    public String getParentPath() {
+        return location != null && location.parent() != null ? location.parent().toString() : null;
     }
 
     /**
@@ -43,9 +61,8 @@ public abstract class BaseEntity {
      * @param target Target object to copy to.
      */
     protected void copyTo(BaseEntity target) {
-        target.name = this.name;
-        target.path = this.path;
-        target.parentPath = this.parentPath;
+        target.location = this.location;
+        target.creationDate = this.creationDate;
     }
 
 }
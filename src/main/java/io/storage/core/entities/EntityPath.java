@@ -0,0 +1,236 @@
+package io.storage.core.entities;
+
+import io.storage.utils.Assert;
+
+import java.util.NavigableMap;
+
+/**
+ * A compact, immutable representation of an entity path. A path is a chain of segments where each path references its
+ * parent, so entities sharing a parent folder also share the parent's representation rather than duplicating the
+ * parent's path string. Segments are interned, so equal segments are represented by a single string instance.<p>
+ * Path strings (e.g.: {@code /contents/documents/logs/trace.txt}) are only built on demand via {@link #toString()}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class EntityPath {
+
+    /**
+     * The root path -- {@code /}.
+     */
+    public static final EntityPath ROOT = new EntityPath(null, null);
+
+    /**
+     * Path separator.
+     */
+    private static final char SEPARATOR = '/';
+
+    /**
+     * Parent path or {@code null} if this is the root path.
+     */
+    private final EntityPath parent;
+
+    /**
+     * Last path segment (interned) or {@code null} if this is the root path.
+     */
+    private final String segment;
+
+    /**
+     * Pre-computed hash code.
+     */
+    private final int hash;
+
+    /**
+     * Class constructor.
+     *
+     * @param parent  Parent path.
+     * @param segment Interned last segment.
+     */
+    private EntityPath(EntityPath parent, String segment) {
+        this.parent = parent;
+        this.segment = segment;
+        this.hash = parent == null ? 0 : 31 * parent.hash + segment.hashCode();
+    }
+
+    /**
+     * Parse a path string. Empty segments, including trailing separator of folder paths, are ignored, so both
+     * {@code /documents} and {@code /documents/} are parsed to the same path.
+     *
+     * @param path Path to parse.
+     * @return Parsed path.
+     * @throws IllegalArgumentException If <i>path</i> is {@code null}.
+     */
+    public static EntityPath parse(String path) throws IllegalArgumentException {
+        Assert.notNull(path, "Path cannot be null.");
+
+        EntityPath result = ROOT;
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = path.length();
+            }
+
+            if (end > start) {
+                result = new EntityPath(result, path.substring(start, end).intern());
+            }
+            start = end + 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolve a direct child of this path.
+     *
+     * @param name Name of child.
+     * @return Child path.
+     * @throws IllegalArgumentException If <i>name</i> is {@code null}, empty or contains a separator.
+     */
+    public EntityPath resolve(String name) throws IllegalArgumentException {
+        Assert.notNull(name, "Name cannot be null.");
+        if (name.isEmpty() || name.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Invalid name: " + name);
+        }
+
+        return new EntityPath(this, name.intern());
+    }
+
+    /**
+     * @return Parent path or {@code null} if this is the root path.
+     */
+    public EntityPath parent() {
+        return parent;
+    }
+
+    /**
+     * @return Name of entity, i.e. - the last path segment. The name of the root path is {@code /}.
+     */
+    public String name() {
+        return parent == null ? "/" : segment;
+    }
+
+    /**
+     * @return {@code true} if this is the root path, {@code false} if not.
+     */
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    /**
+     * @return Number of segments in this path. The root path has depth of 0.
+     */
+    public int depth() {
+        int depth = 0;
+        for (EntityPath current = this; current.parent != null; current = current.parent) {
+            depth++;
+        }
+
+        return depth;
+    }
+
+    /**
+     * @param ancestor Path to check against.
+     * @return {@code true} if this path equals <i>ancestor</i> or lies under it, {@code false} if not.
+     * @throws IllegalArgumentException If <i>ancestor</i> is {@code null}.
+     */
+    public boolean isWithin(EntityPath ancestor) throws IllegalArgumentException {
+        Assert.notNull(ancestor, "Ancestor cannot be null.");
+
+        EntityPath current = this;
+        for (int levels = depth() - ancestor.depth(); levels > 0; levels--) {
+            current = current.parent;
+        }
+
+        return current.equals(ancestor);
+    }
+
+    /**
+     * @param other Path to check against.
+     * @return {@code true} if either path equals or lies under the other, i.e. - modifying one affects the other.
+     * @throws IllegalArgumentException If <i>other</i> is {@code null}.
+     */
+    public boolean isRelatedTo(EntityPath other) throws IllegalArgumentException {
+        Assert.notNull(other, "Other path cannot be null.");
+        return depth() >= other.depth() ? isWithin(other) : other.isWithin(this);
+    }
+
+    /**
+     * @return Path string of this path followed by a separator, which prefixes the paths of all its descendants, e.g.:
+     * {@code /contents/documents/} (or {@code /} for the root path).
+     */
+    public String toPrefix() {
+        return parent == null ? "/" : this + "/";
+    }
+
+    /**
+     * Select the entries of descendants of this path from a map keyed by path strings. Since descendants share this
+     * path's {@link #toPrefix() prefix}, they are selected as a single range rather than by scanning the map.
+     *
+     * @param paths Map keyed by path strings.
+     * @param <V>   Generic type of values.
+     * @return View of the entries of <i>paths</i> under this path.
+     * @throws IllegalArgumentException If <i>paths</i> is {@code null}.
+     */
+    public <V> NavigableMap<String, V> descendantsIn(NavigableMap<String, V> paths) throws IllegalArgumentException {
+        Assert.notNull(paths, "Paths cannot be null.");
+
+        String prefix = toPrefix();
+        return paths.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * @return Path string, e.g.: {@code /contents/documents/logs/trace.txt}.
+     */
+    @Override
+    public String toString() {
+        if (parent == null) {
+            return "/";
+        }
+
+        // Compute the exact length first, so the string is built without intermediate copies.
+        int length = 0;
+        for (EntityPath current = this; current.parent != null; current = current.parent) {
+            length += current.segment.length() + 1;
+        }
+
+        char[] characters = new char[length];
+        int position = length;
+        for (EntityPath current = this; current.parent != null; current = current.parent) {
+            position -= current.segment.length();
+            current.segment.getChars(0, current.segment.length(), characters, position);
+            characters[--position] = SEPARATOR;
+        }
+
+        return new String(characters);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EntityPath)) {
+            return false;
+        }
+
+        EntityPath current = this;
+        EntityPath other = (EntityPath) o;
+        while (current != other) {
+            // Segments are interned, so reference comparison is sufficient.
+            if (current == null || other == null || current.hash != other.hash || current.segment != other.segment) {
+                return false;
+            }
+
+            current = current.parent;
+            other = other.parent;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -1,6 +1,10 @@
 package io.storage.core.entities;
 
+import io.storage.core.hash.HashAlgorithm;
+import io.storage.utils.StringUtils;
+
 import java.time.Instant;
+import java.util.Map;
 
 /**
  * An entity representing a file.
@@ -15,15 +19,61 @@ public class FileEntity extends BaseEntity {
      */
     public long size;
 
-    /**
-     * Size of file in human readable format (e.g.: 1,455 bytes, 1.8GB, etc....).
-     */
-    public String humanReadableSize;
-
     /**
      * Timestamp when file was last modified. This field is optional, since not all storage service providers support file
      * modification timestamp.
      */
     public Instant modificationDate;
 
+    /**
+     * Content hashes, as lower-case hexadecimal strings, keyed by algorithm. This field is optional -- it is populated
+     * when hashes are computed while writing or reading the file, or when reported by the storage service.
+     */
+    public Map<HashAlgorithm, String> hashes;
+
+    /**
+     * Cached human-readable size. Computed on first access.
+     */
+    private String humanReadableSize;
+
+    /**
+     * Size of file in human readable format (e.g.: 1,455 bytes, 1.8GB, etc....). The value is computed on first access
+     * and cached, so {@link #size} should be set before calling this method.
+     *
+     * @return Human-readable size.
+     */
+    public String getHumanReadableSize() {
+        // Benign race: concurrent callers compute the same immutable value.
+        String result = humanReadableSize;
+        if (result == null) {
+            result = StringUtils.formatSize(size);
+            humanReadableSize = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * @param algorithm Hash algorithm.
+     * @return Content hash computed with the given algorithm or {@code null} if not available.
+     */
+    public String getHash(HashAlgorithm algorithm) {
+        return hashes != null ? hashes.get(algorithm) : null;
+    }
+
+    /**
+     * Create a copy of this entity, so callers may modify it without affecting the original. The hashes map is shared,
+     * since it is never modified once populated.
+     *
+     * @return Copy of this entity.
+     */
+    public FileEntity copy() {
+        FileEntity file = new FileEntity();
+        copyTo(file);
+        file.size = size;
+        file.modificationDate = modificationDate;
+        file.hashes = hashes;
+        return file;
+    }
+
 }
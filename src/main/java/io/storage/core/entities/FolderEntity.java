@@ -1,9 +1,15 @@
 package io.storage.core.entities;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Representation of a folder properties and contents.
+ * Representation of a folder properties and contents. Providers populate the children lists with array-backed lists
+ * trimmed to size. Callers crawling large folders should prefer {@link FolderListing}, which does not hold all children
+ * in memory.
  *
  * @author Guy Raz Nir
  * @since 26/06/2017
@@ -20,4 +26,61 @@ public class FolderEntity extends BaseEntity {
      */
     public List<FolderEntity> folders;
 
+    /**
+     * Create a deep copy of this entity, so callers may modify it (or its children) without affecting the original.
+     *
+     * @return Copy of this entity.
+     */
+    public FolderEntity copy() {
+        FolderEntity folder = new FolderEntity();
+        copyTo(folder);
+        if (files != null) {
+            folder.files = new ArrayList<>(files.size());
+            for (FileEntity file : files) {
+                folder.files.add(file.copy());
+            }
+        }
+        if (folders != null) {
+            folder.folders = new ArrayList<>(folders.size());
+            for (FolderEntity subFolder : folders) {
+                folder.folders.add(subFolder.copy());
+            }
+        }
+        return folder;
+    }
+
+    /**
+     * Add files under this folder, not necessarily listed yet, to its contents. Direct children are added as (copies
+     * of) files, replacing listed files of the same path. Deeper descendants add the sub-folder they reside under,
+     * unless already listed.
+     *
+     * @param descendants Files under this folder, keyed by path.
+     * @return This folder.
+     */
+    public FolderEntity merge(Map<String, FileEntity> descendants) {
+        List<FileEntity> mergedFiles = files != null ? new ArrayList<>(files) : new ArrayList<>();
+        List<FolderEntity> mergedFolders = folders != null ? new ArrayList<>(folders) : new ArrayList<>();
+
+        Set<String> folderNames = new HashSet<>();
+        mergedFolders.forEach(subFolder -> folderNames.add(subFolder.getName()));
+
+        String prefix = location.toPrefix();
+        for (Map.Entry<String, FileEntity> entry : descendants.entrySet()) {
+            String remainder = entry.getKey().substring(prefix.length());
+            int separator = remainder.indexOf('/');
+            if (separator < 0) {
+                mergedFiles.removeIf(listed -> entry.getKey().equals(listed.getPath()));
+                mergedFiles.add(entry.getValue().copy());
+            } else if (folderNames.add(remainder.substring(0, separator))) {
+                FolderEntity subFolder = new FolderEntity();
+                subFolder.location = location.resolve(remainder.substring(0, separator));
+                mergedFolders.add(subFolder);
+            }
+        }
+
+        files = mergedFiles;
+        folders = mergedFolders;
+        return this;
+    }
+
 }
@@ -0,0 +1,281 @@
+package io.storage.core.entities;
+
+import io.storage.StorageException;
+import io.storage.utils.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * A folder listing that fetches its children lazily, page by page, while the caller iterates over them. At any given
+ * moment only a single page of children is held in memory, which makes a listing suitable for crawling large folders.
+ * <p>
+ * Callers that require the classic, fully-populated {@link FolderEntity} can {@link #toFolderEntity() materialize} the
+ * listing. Each iteration starts a new pass over the underlying storage.<p>
+ * A pass may hold resources of the underlying storage (e.g.: an open directory handle) until it is fully iterated.
+ * Callers that may stop iterating early should {@link #close() close} the listing, typically via try-with-resources.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class FolderListing implements Iterable<BaseEntity>, AutoCloseable {
+
+    /**
+     * Folder properties. The folder's {@link FolderEntity#files files} and {@link FolderEntity#folders folders} are
+     * only populated after the listing is {@link #toFolderEntity() materialized}.
+     */
+    public final FolderEntity folder;
+
+    /**
+     * Source of the folder's children pages.
+     */
+    private final PageSource pageSource;
+
+    /**
+     * Passes that hold resources and were not fully iterated yet.
+     */
+    private final Set<AutoCloseable> openPasses =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Class constructor.
+     *
+     * @param folder     Folder properties.
+     * @param pageSource Source of children pages.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public FolderListing(FolderEntity folder, PageSource pageSource) throws IllegalArgumentException {
+        Assert.notNull(folder, "Folder cannot be null.");
+        Assert.notNull(pageSource, "Page source cannot be null.");
+        this.folder = folder;
+        this.pageSource = pageSource;
+    }
+
+    /**
+     * Create a listing over an already populated folder. Provided as an adapter for providers that do not support
+     * paging.
+     *
+     * @param folder Folder to adapt. Missing ({@code null}) file and sub-folder lists are treated as empty.
+     * @return A single-page listing of <i>folder</i>'s children.
+     * @throws IllegalArgumentException If <i>folder</i> is {@code null}.
+     */
+    public static FolderListing of(FolderEntity folder) throws IllegalArgumentException {
+        Assert.notNull(folder, "Folder cannot be null.");
+
+        List<BaseEntity> children = new ArrayList<>();
+        if (folder.files != null) {
+            children.addAll(folder.files);
+        }
+        if (folder.folders != null) {
+            children.addAll(folder.folders);
+        }
+
+        return new FolderListing(folder, () -> Collections.<List<? extends BaseEntity>>singletonList(children).iterator());
+    }
+
+    /**
+     * @return A new iterator over the folder's children. Pages are fetched from the underlying storage on demand.
+     */
+    @Override
+    public Iterator<BaseEntity> iterator() {
+        Iterator<List<? extends BaseEntity>> pages = pageSource.open();
+        if (pages instanceof AutoCloseable) {
+            openPasses.add((AutoCloseable) pages);
+        }
+        return new EntityIterator(pages, openPasses);
+    }
+
+    /**
+     * Release resources of passes that were not fully iterated. Iterators of such passes must not be used afterwards.
+     *
+     * @throws StorageException If resources could not be released.
+     */
+    @Override
+    public void close() throws StorageException {
+        List<AutoCloseable> passes;
+        synchronized (openPasses) {
+            passes = new ArrayList<>(openPasses);
+            openPasses.clear();
+        }
+
+        StorageException failure = null;
+        for (AutoCloseable pass : passes) {
+            try {
+                pass.close();
+            } catch (Exception ex) {
+                if (failure == null) {
+                    failure = new StorageException("Could not close folder listing (path: " + folder.getPath() + ").", ex);
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Create a listing of the same folder whose children are transformed by a given function. Children are transformed
+     * page by page while iterated, so the new listing remains lazy. Used by decorating providers that alter entities
+     * reported by an underlying provider (e.g.: the size of stored files).
+     *
+     * @param mapper Function to apply to each child.
+     * @return New folder listing.
+     * @throws IllegalArgumentException If <i>mapper</i> is {@code null}.
+     */
+    public FolderListing map(UnaryOperator<BaseEntity> mapper) throws IllegalArgumentException {
+        Assert.notNull(mapper, "Mapper cannot be null.");
+        return new FolderListing(folder, () -> new MappedPages(pageSource.open(), mapper));
+    }
+
+    /**
+     * Read all children and populate the folder's {@link FolderEntity#files files} and
+     * {@link FolderEntity#folders folders} lists. The lists are array-backed and trimmed to their actual size.
+     *
+     * @return The listing's {@link #folder}, fully populated.
+     */
+    public FolderEntity toFolderEntity() {
+        ArrayList<FileEntity> files = new ArrayList<>();
+        ArrayList<FolderEntity> folders = new ArrayList<>();
+
+        for (BaseEntity entity : this) {
+            if (entity instanceof FileEntity) {
+                files.add((FileEntity) entity);
+            } else if (entity instanceof FolderEntity) {
+                folders.add((FolderEntity) entity);
+            }
+        }
+
+        files.trimToSize();
+        folders.trimToSize();
+        folder.files = files;
+        folder.folders = folders;
+        return folder;
+    }
+
+    /**
+     * A source of children pages. Each call to {@link #open()} starts a new pass over the folder.
+     */
+    @FunctionalInterface
+    public interface PageSource {
+
+        /**
+         * Start a new pass over the folder's children. Iterators that hold resources should implement
+         * {@link AutoCloseable} and release them once the last page is read; they are closed by
+         * {@link FolderListing#close()} if iteration stops early.
+         *
+         * @return Iterator over pages of children. A page may be empty.
+         */
+        Iterator<List<? extends BaseEntity>> open();
+    }
+
+    /**
+     * Pages of an underlying pass, with each child transformed by a function. Closing the pages closes the underlying
+     * pass.
+     */
+    private static class MappedPages implements Iterator<List<? extends BaseEntity>>, AutoCloseable {
+
+        /**
+         * Underlying pages.
+         */
+        private final Iterator<List<? extends BaseEntity>> pages;
+
+        /**
+         * Function to apply to each child.
+         */
+        private final UnaryOperator<BaseEntity> mapper;
+
+        MappedPages(Iterator<List<? extends BaseEntity>> pages, UnaryOperator<BaseEntity> mapper) {
+            this.pages = pages;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pages.hasNext();
+        }
+
+        @Override
+        public List<? extends BaseEntity> next() {
+            List<? extends BaseEntity> page = pages.next();
+            List<BaseEntity> mapped = new ArrayList<>(page.size());
+            for (BaseEntity entity : page) {
+                mapped.add(mapper.apply(entity));
+            }
+
+            return mapped;
+        }
+
+        @Override
+        public void close() throws StorageException {
+            if (!(pages instanceof AutoCloseable)) {
+                return;
+            }
+
+            try {
+                ((AutoCloseable) pages).close();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new StorageException("Could not close underlying pages.", ex);
+            }
+        }
+    }
+
+    /**
+     * Flattens an iterator of pages into an iterator of entities, holding a single page at a time.
+     */
+    private static class EntityIterator implements Iterator<BaseEntity> {
+
+        /**
+         * Iterator over pages.
+         */
+        private final Iterator<List<? extends BaseEntity>> pages;
+
+        /**
+         * Iterator over the current page.
+         */
+        private Iterator<? extends BaseEntity> current = Collections.emptyIterator();
+
+        /**
+         * Passes of the listing not fully iterated yet, to remove the pages from once exhausted.
+         */
+        private final Set<AutoCloseable> openPasses;
+
+        EntityIterator(Iterator<List<? extends BaseEntity>> pages, Set<AutoCloseable> openPasses) {
+            this.pages = pages;
+            this.openPasses = openPasses;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // Skip over empty pages.
+            while (!current.hasNext() && pages.hasNext()) {
+                current = pages.next().iterator();
+            }
+
+            if (!current.hasNext()) {
+                // Pages release their resources once exhausted.
+                openPasses.remove(pages);
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public BaseEntity next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return current.next();
+        }
+    }
+}
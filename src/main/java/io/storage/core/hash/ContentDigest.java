@@ -0,0 +1,127 @@
+package io.storage.core.hash;
+
+import io.storage.core.ContentHashMismatchException;
+import io.storage.core.entities.FileEntity;
+import io.storage.utils.Assert;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes a set of content hashes, and counts bytes, over data fed incrementally. Typically fed by
+ * {@link HashingInputStream} or {@link HashingOutputStream} while data is streamed to or from a storage service, so
+ * hashes are computed without an extra pass over the data.<p>
+ * Instances are not thread-safe.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ContentDigest {
+
+    /**
+     * Hashers, per algorithm.
+     */
+    private final Map<HashAlgorithm, ContentHasher> hashers = new EnumMap<>(HashAlgorithm.class);
+
+    /**
+     * Number of bytes fed.
+     */
+    private long size;
+
+    /**
+     * Computed hashes or {@code null} if computation is not completed yet.
+     */
+    private Map<HashAlgorithm, String> hashes;
+
+    /**
+     * Class constructor.
+     *
+     * @param algorithms Algorithms to compute. May be empty, in which case only bytes are counted.
+     * @throws IllegalArgumentException If <i>algorithms</i> is {@code null}.
+     */
+    public ContentDigest(Set<HashAlgorithm> algorithms) throws IllegalArgumentException {
+        Assert.notNull(algorithms, "Algorithms cannot be null.");
+        for (HashAlgorithm algorithm : algorithms) {
+            hashers.put(algorithm, algorithm.newHasher());
+        }
+    }
+
+    /**
+     * Feed data.
+     *
+     * @param data   Data buffer.
+     * @param offset Offset of data within buffer.
+     * @param length Number of bytes to feed.
+     * @throws IllegalStateException If hashes were already {@link #getHashes() computed}.
+     */
+    public void update(byte[] data, int offset, int length) throws IllegalStateException {
+        Assert.state(hashes == null, "Content digest is already completed.");
+        for (ContentHasher hasher : hashers.values()) {
+            hasher.update(data, offset, length);
+        }
+        size += length;
+    }
+
+    /**
+     * @return Number of bytes fed so far.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Complete computation (if not completed yet) and return the computed hashes. No more data can be fed afterwards.
+     *
+     * @return Unmodifiable map of computed hashes, as lower-case hexadecimal strings.
+     */
+    public Map<HashAlgorithm, String> getHashes() {
+        if (hashes == null) {
+            Map<HashAlgorithm, String> result = new EnumMap<>(HashAlgorithm.class);
+            hashers.forEach((algorithm, hasher) -> result.put(algorithm, hasher.finish()));
+            hashes = Collections.unmodifiableMap(result);
+        }
+
+        return hashes;
+    }
+
+    /**
+     * Verify the digested content matches a given file's size and any hash the file carries for an algorithm computed
+     * by this digest.
+     *
+     * @param expected File entity holding the expected size and (optionally) hashes.
+     * @throws ContentHashMismatchException If content does not match.
+     */
+    public void verify(FileEntity expected) throws ContentHashMismatchException {
+        Assert.notNull(expected, "Expected file cannot be null.");
+
+        if (expected.size != size) {
+            throw new ContentHashMismatchException(String.format("Size mismatch for %s (expected: %d, actual: %d).",
+                    expected.getPath(), expected.size, size));
+        }
+
+        if (expected.hashes != null) {
+            for (Map.Entry<HashAlgorithm, String> entry : getHashes().entrySet()) {
+                String expectedHash = expected.hashes.get(entry.getKey());
+                if (expectedHash != null && !expectedHash.equalsIgnoreCase(entry.getValue())) {
+                    throw new ContentHashMismatchException(String.format("%s mismatch for %s (expected: %s, actual: %s).",
+                            entry.getKey(), expected.getPath(), expectedHash, entry.getValue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute hashes of an in-memory buffer.
+     *
+     * @param algorithms Algorithms to compute.
+     * @param data       Data to hash.
+     * @return Completed digest.
+     */
+    public static ContentDigest of(Set<HashAlgorithm> algorithms, byte[] data) {
+        ContentDigest digest = new ContentDigest(algorithms);
+        digest.update(data, 0, data.length);
+        return digest;
+    }
+}
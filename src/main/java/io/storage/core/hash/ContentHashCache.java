@@ -0,0 +1,126 @@
+package io.storage.core.hash;
+
+import io.storage.core.Credentials;
+import io.storage.core.entities.FileEntity;
+import io.storage.utils.Assert;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caches content hashes of files, for storage services that do not report hashes themselves. A cached hash is trusted
+ * only while the file's size and modification date are unchanged, so entries never have to be invalidated explicitly.
+ * Files without a modification date are never served from cache.<p>
+ * Entries are kept per credentials (released once credentials are garbage-collected), up to a maximum number of
+ * entries per credentials, evicting least recently used entries first.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ContentHashCache {
+
+    /**
+     * Default maximum number of entries per credentials.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /**
+     * Maximum number of entries per credentials.
+     */
+    private final int maxEntries;
+
+    /**
+     * Entries per credentials, keyed by file path.
+     */
+    private final Map<Credentials, Map<String, CachedHashes>> entries = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Construct a cache with {@link #DEFAULT_MAX_ENTRIES default capacity}.
+     */
+    public ContentHashCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param maxEntries Maximum number of entries per credentials. Must be greater than 0.
+     * @throws IllegalArgumentException If <i>maxEntries</i> is less than 1.
+     */
+    public ContentHashCache(int maxEntries) throws IllegalArgumentException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid max entries: " + maxEntries + " (must be greater than 0).");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cache the hashes of a file. Files without hashes or modification date are ignored.
+     *
+     * @param credentials Credentials the file was accessed with.
+     * @param file        File entity, including hashes.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public void put(Credentials credentials, FileEntity file) throws IllegalArgumentException {
+        Assert.notNull(credentials, "Credentials cannot be null.");
+        Assert.notNull(file, "File cannot be null.");
+
+        if (file.hashes == null || file.hashes.isEmpty() || file.modificationDate == null) {
+            return;
+        }
+
+        Map<String, CachedHashes> files = entries.computeIfAbsent(credentials, key -> newLruMap());
+        files.put(file.getPath(), new CachedHashes(file.size, file.modificationDate, file.hashes));
+    }
+
+    /**
+     * Lookup cached hashes of a file.
+     *
+     * @param credentials Credentials the file is accessed with.
+     * @param file        Current file metadata, as reported by the storage service.
+     * @return Cached hashes or {@code null} if none are cached or file was modified since.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public Map<HashAlgorithm, String> get(Credentials credentials, FileEntity file) throws IllegalArgumentException {
+        Assert.notNull(credentials, "Credentials cannot be null.");
+        Assert.notNull(file, "File cannot be null.");
+
+        Map<String, CachedHashes> files = entries.get(credentials);
+        CachedHashes entry = files != null ? files.get(file.getPath()) : null;
+        if (entry == null || entry.size != file.size || !entry.modificationDate.equals(file.modificationDate)) {
+            return null;
+        }
+
+        return entry.hashes;
+    }
+
+    private Map<String, CachedHashes> newLruMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedHashes> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Cached file state.
+     */
+    private static class CachedHashes {
+
+        final long size;
+
+        final Instant modificationDate;
+
+        final Map<HashAlgorithm, String> hashes;
+
+        CachedHashes(long size, Instant modificationDate, Map<HashAlgorithm, String> hashes) {
+            this.size = size;
+            this.modificationDate = modificationDate;
+            this.hashes = hashes;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.storage.core.hash;
+
+/**
+ * Incremental computation of a single content hash.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+interface ContentHasher {
+
+    /**
+     * Feed data to the hasher.
+     *
+     * @param data   Data buffer.
+     * @param offset Offset of data within buffer.
+     * @param length Number of bytes to feed.
+     */
+    void update(byte[] data, int offset, int length);
+
+    /**
+     * Complete hash computation. The hasher cannot be used afterwards.
+     *
+     * @return Hash value, as lower-case hexadecimal string.
+     */
+    String finish();
+}
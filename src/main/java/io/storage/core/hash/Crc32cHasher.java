@@ -0,0 +1,24 @@
+package io.storage.core.hash;
+
+import java.util.zip.CRC32C;
+
+/**
+ * Content hasher computing CRC32C checksum. Cheaper than cryptographic hashes, suitable for detecting corruption.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+class Crc32cHasher implements ContentHasher {
+
+    private final CRC32C checksum = new CRC32C();
+
+    @Override
+    public void update(byte[] data, int offset, int length) {
+        checksum.update(data, offset, length);
+    }
+
+    @Override
+    public String finish() {
+        return String.format("%08x", checksum.getValue());
+    }
+}
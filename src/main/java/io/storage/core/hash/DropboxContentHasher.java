@@ -0,0 +1,61 @@
+package io.storage.core.hash;
+
+import io.storage.utils.StringUtils;
+
+import java.security.MessageDigest;
+
+/**
+ * Content hasher implementing Dropbox's content hash scheme: data is split into 4MB blocks, each block is hashed with
+ * SHA-256, and the final hash is the SHA-256 of the concatenated block hashes.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+class DropboxContentHasher implements ContentHasher {
+
+    /**
+     * Size of each block, in bytes.
+     */
+    static final int BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Hash of the current block.
+     */
+    private final MessageDigest blockDigest = MessageDigestHasher.newDigest("SHA-256");
+
+    /**
+     * Hash of the concatenated block hashes.
+     */
+    private final MessageDigest overallDigest = MessageDigestHasher.newDigest("SHA-256");
+
+    /**
+     * Number of bytes fed to the current block.
+     */
+    private int blockPosition;
+
+    @Override
+    public void update(byte[] data, int offset, int length) {
+        while (length > 0) {
+            int count = Math.min(length, BLOCK_SIZE - blockPosition);
+            blockDigest.update(data, offset, count);
+            blockPosition += count;
+            offset += count;
+            length -= count;
+
+            if (blockPosition == BLOCK_SIZE) {
+                overallDigest.update(blockDigest.digest());
+                blockPosition = 0;
+            }
+        }
+    }
+
+    @Override
+    public String finish() {
+        if (blockPosition > 0) {
+            overallDigest.update(blockDigest.digest());
+            blockPosition = 0;
+        }
+
+        return StringUtils.toString(overallDigest.digest());
+    }
+}
@@ -0,0 +1,46 @@
+package io.storage.core.hash;
+
+/**
+ * Supported content hash algorithms.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public enum HashAlgorithm {
+
+    /**
+     * Dropbox content hash -- SHA-256 over the SHA-256 hashes of 4MB blocks. Matches the {@code content_hash} reported
+     * by Dropbox, so it can be compared across providers and with the Dropbox service.
+     */
+    CONTENT_HASH {
+        @Override
+        ContentHasher newHasher() {
+            return new DropboxContentHasher();
+        }
+    },
+
+    /**
+     * Plain SHA-256 of the entire contents.
+     */
+    SHA_256 {
+        @Override
+        ContentHasher newHasher() {
+            return new MessageDigestHasher("SHA-256");
+        }
+    },
+
+    /**
+     * CRC32C checksum of the entire contents.
+     */
+    CRC32C {
+        @Override
+        ContentHasher newHasher() {
+            return new Crc32cHasher();
+        }
+    };
+
+    /**
+     * @return A new hasher for this algorithm.
+     */
+    abstract ContentHasher newHasher();
+}
@@ -0,0 +1,95 @@
+package io.storage.core.hash;
+
+import io.storage.utils.Assert;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that feeds all data read through it to a {@link ContentDigest}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class HashingInputStream extends FilterInputStream {
+
+    /**
+     * Digest to feed.
+     */
+    private final ContentDigest digest;
+
+    /**
+     * Class constructor.
+     *
+     * @param in     Input stream to read from.
+     * @param digest Digest to feed.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public HashingInputStream(InputStream in, ContentDigest digest) throws IllegalArgumentException {
+        super(in);
+        Assert.notNull(in, "Input stream cannot be null.");
+        Assert.notNull(digest, "Digest cannot be null.");
+        this.digest = digest;
+    }
+
+    /**
+     * @return Digest fed by this stream.
+     */
+    public ContentDigest getDigest() {
+        return digest;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            digest.update(new byte[]{(byte) b}, 0, 1);
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int count = in.read(b, off, len);
+        if (count > 0) {
+            digest.update(b, off, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Skipped bytes are read (and hashed) rather than skipped, so the digest covers the entire stream.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (count < 0) {
+                break;
+            }
+            skipped += count;
+        }
+
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        // Not supported -- re-reading data would corrupt the digest.
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("Mark/reset is not supported.");
+    }
+}
@@ -0,0 +1,54 @@
+package io.storage.core.hash;
+
+import io.storage.utils.Assert;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that feeds all data written through it to a {@link ContentDigest}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class HashingOutputStream extends FilterOutputStream {
+
+    /**
+     * Digest to feed.
+     */
+    private final ContentDigest digest;
+
+    /**
+     * Class constructor.
+     *
+     * @param out    Output stream to write to.
+     * @param digest Digest to feed.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public HashingOutputStream(OutputStream out, ContentDigest digest) throws IllegalArgumentException {
+        super(out);
+        Assert.notNull(out, "Output stream cannot be null.");
+        Assert.notNull(digest, "Digest cannot be null.");
+        this.digest = digest;
+    }
+
+    /**
+     * @return Digest fed by this stream.
+     */
+    public ContentDigest getDigest() {
+        return digest;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        digest.update(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        digest.update(b, off, len);
+    }
+}
@@ -0,0 +1,47 @@
+package io.storage.core.hash;
+
+import io.storage.StorageException;
+import io.storage.utils.StringUtils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content hasher backed by a JCA {@link MessageDigest}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+class MessageDigestHasher implements ContentHasher {
+
+    private final MessageDigest digest;
+
+    MessageDigestHasher(String algorithm) throws StorageException {
+        this.digest = newDigest(algorithm);
+    }
+
+    @Override
+    public void update(byte[] data, int offset, int length) {
+        digest.update(data, offset, length);
+    }
+
+    @Override
+    public String finish() {
+        return StringUtils.toString(digest.digest());
+    }
+
+    /**
+     * Create a new message digest.
+     *
+     * @param algorithm Name of JCA algorithm.
+     * @return New message digest.
+     * @throws StorageException If algorithm is not supported by the platform.
+     */
+    static MessageDigest newDigest(String algorithm) throws StorageException {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new StorageException(algorithm + " is not supported by this platform.", ex);
+        }
+    }
+}
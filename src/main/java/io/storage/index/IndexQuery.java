@@ -0,0 +1,212 @@
+package io.storage.index;
+
+import io.storage.utils.Assert;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Criteria of a {@link MetadataIndex#search(IndexQuery) metadata index search}. All criteria set must match; name
+ * criteria are case-insensitive. For example, PDF files over 1MB modified this year under {@code /reports}:
+ * <pre>
+ *     new IndexQuery().under("/reports").extension("pdf").sizeBetween(1024 * 1024, Long.MAX_VALUE)
+ *             .modifiedBetween(startOfYear, null)
+ * </pre>
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class IndexQuery {
+
+    /**
+     * Default maximum number of results.
+     */
+    public static final int DEFAULT_LIMIT = 1000;
+
+    String under;
+
+    String namePrefix;
+
+    String nameContains;
+
+    String nameSuffix;
+
+    long minSize = Long.MIN_VALUE;
+
+    long maxSize = Long.MAX_VALUE;
+
+    long modifiedFrom = Long.MIN_VALUE;
+
+    long modifiedTo = Long.MAX_VALUE;
+
+    boolean filesOnly;
+
+    boolean foldersOnly;
+
+    int limit = DEFAULT_LIMIT;
+
+    /**
+     * Match entities under a folder, at any depth.
+     *
+     * @param folder Path of folder.
+     * @return This query.
+     * @throws IllegalArgumentException If <i>folder</i> is {@code null}.
+     */
+    public IndexQuery under(String folder) throws IllegalArgumentException {
+        Assert.notNull(folder, "Folder cannot be null.");
+        String normalized = IndexRecord.normalize(folder);
+        this.under = normalized.equals("/") ? null : normalized + "/";
+        return this;
+    }
+
+    /**
+     * Match entities whose name starts with a prefix.
+     *
+     * @param prefix Prefix of name.
+     * @return This query.
+     * @throws IllegalArgumentException If <i>prefix</i> is {@code null}.
+     */
+    public IndexQuery nameStartsWith(String prefix) throws IllegalArgumentException {
+        Assert.notNull(prefix, "Prefix cannot be null.");
+        this.namePrefix = prefix.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    /**
+     * Match entities whose name contains a text. Texts of 3 characters or more are looked up by trigrams, shorter ones
+     * are matched by scanning.
+     *
+     * @param text Text contained in name.
+     * @return This query.
+     * @throws IllegalArgumentException If <i>text</i> is {@code null}.
+     */
+    public IndexQuery nameContains(String text) throws IllegalArgumentException {
+        Assert.notNull(text, "Text cannot be null.");
+        this.nameContains = text.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    /**
+     * Match files of an extension.
+     *
+     * @param extension Extension, with or without a leading dot, e.g.: {@code pdf}.
+     * @return This query.
+     * @throws IllegalArgumentException If <i>extension</i> is {@code null}.
+     */
+    public IndexQuery extension(String extension) throws IllegalArgumentException {
+        Assert.notNull(extension, "Extension cannot be null.");
+        this.nameSuffix = (extension.startsWith(".") ? extension : "." + extension).toLowerCase(Locale.ROOT);
+        this.filesOnly = true;
+        return this;
+    }
+
+    /**
+     * Match files of a size range.
+     *
+     * @param min Minimum size, in bytes (inclusive).
+     * @param max Maximum size, in bytes (inclusive).
+     * @return This query.
+     * @throws IllegalArgumentException If <i>min</i> is greater than <i>max</i>.
+     */
+    public IndexQuery sizeBetween(long min, long max) throws IllegalArgumentException {
+        if (min > max) {
+            throw new IllegalArgumentException("Invalid size range: " + min + ".." + max + " (min must not exceed max).");
+        }
+        this.minSize = min;
+        this.maxSize = max;
+        this.filesOnly = true;
+        return this;
+    }
+
+    /**
+     * Match files modified in a time range. Files of unknown modification time do not match.
+     *
+     * @param from Start of range (inclusive) or {@code null} if unbounded.
+     * @param to   End of range (inclusive) or {@code null} if unbounded.
+     * @return This query.
+     */
+    public IndexQuery modifiedBetween(Instant from, Instant to) {
+        this.modifiedFrom = from != null ? from.toEpochMilli() : Long.MIN_VALUE + 1;
+        this.modifiedTo = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        this.filesOnly = true;
+        return this;
+    }
+
+    /**
+     * Match files only.
+     *
+     * @return This query.
+     */
+    public IndexQuery filesOnly() {
+        this.filesOnly = true;
+        this.foldersOnly = false;
+        return this;
+    }
+
+    /**
+     * Match folders only.
+     *
+     * @return This query.
+     */
+    public IndexQuery foldersOnly() {
+        this.foldersOnly = true;
+        this.filesOnly = false;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of results. Defaults to {@link #DEFAULT_LIMIT}.
+     *
+     * @param limit Maximum number of results.
+     * @return This query.
+     * @throws IllegalArgumentException If <i>limit</i> is not positive.
+     */
+    public IndexQuery limit(int limit) throws IllegalArgumentException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Invalid limit: " + limit + " (must be positive).");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    boolean hasSizeRange() {
+        return minSize != Long.MIN_VALUE || maxSize != Long.MAX_VALUE;
+    }
+
+    boolean hasModifiedRange() {
+        return modifiedFrom != Long.MIN_VALUE || modifiedTo != Long.MAX_VALUE;
+    }
+
+    /**
+     * @return Text to look up by trigrams or {@code null} if there is none.
+     */
+    String trigramText() {
+        if (nameContains != null && nameContains.length() >= 3) {
+            return nameContains;
+        }
+        return nameSuffix != null && nameSuffix.length() >= 3 ? nameSuffix : null;
+    }
+
+    /**
+     * @param record Record to test.
+     * @return {@code true} if <i>record</i> is of a live entity matching all criteria.
+     */
+    boolean matches(IndexRecord record) {
+        if (record.deleted || (filesOnly && record.folder) || (foldersOnly && !record.folder)) {
+            return false;
+        }
+        if (under != null && !record.path.startsWith(under)) {
+            return false;
+        }
+        if ((namePrefix != null && !record.name.startsWith(namePrefix))
+                || (nameContains != null && !record.name.contains(nameContains))
+                || (nameSuffix != null && !record.name.endsWith(nameSuffix))) {
+            return false;
+        }
+        if (hasSizeRange() && (record.size < minSize || record.size > maxSize)) {
+            return false;
+        }
+        return !hasModifiedRange() || (record.modified != IndexRecord.UNKNOWN && record.modified >= modifiedFrom
+                && record.modified <= modifiedTo);
+    }
+}
@@ -0,0 +1,132 @@
+package io.storage.index;
+
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Metadata of an indexed entity, or a tombstone marking its removal. Records are immutable.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class IndexRecord {
+
+    /**
+     * Value of an unknown size or timestamp.
+     */
+    static final long UNKNOWN = Long.MIN_VALUE;
+
+    /**
+     * Normalized path, e.g.: {@code /contents/documents/trace.txt}.
+     */
+    final String path;
+
+    /**
+     * Lower-case name, i.e. - last path segment.
+     */
+    final String name;
+
+    final boolean folder;
+
+    final boolean deleted;
+
+    final long size;
+
+    /**
+     * Modification time, in epoch milliseconds, or {@link #UNKNOWN}.
+     */
+    final long modified;
+
+    /**
+     * Creation time, in epoch milliseconds, or {@link #UNKNOWN}.
+     */
+    final long created;
+
+    IndexRecord(String path, boolean folder, boolean deleted, long size, long modified, long created) {
+        this.path = path;
+        this.name = nameOf(path);
+        this.folder = folder;
+        this.deleted = deleted;
+        this.size = size;
+        this.modified = modified;
+        this.created = created;
+    }
+
+    /**
+     * Create a record of an entity.
+     *
+     * @param path   Normalized path of entity.
+     * @param entity Entity.
+     * @return Record.
+     */
+    static IndexRecord of(String path, BaseEntity entity) {
+        if (entity instanceof FileEntity) {
+            FileEntity file = (FileEntity) entity;
+            return new IndexRecord(path, false, false, file.size, millisOf(file.modificationDate),
+                    millisOf(file.creationDate));
+        }
+        return new IndexRecord(path, true, false, UNKNOWN, UNKNOWN, millisOf(entity.creationDate));
+    }
+
+    /**
+     * @param path Normalized path of removed entity.
+     * @return Tombstone of <i>path</i>.
+     */
+    static IndexRecord tombstone(String path) {
+        return new IndexRecord(path, false, true, UNKNOWN, UNKNOWN, UNKNOWN);
+    }
+
+    /**
+     * @param path Normalized path.
+     * @return Record of the same metadata at another path.
+     */
+    IndexRecord relocate(String path) {
+        return new IndexRecord(path, folder, deleted, size, modified, created);
+    }
+
+    /**
+     * @return Entity described by this record.
+     */
+    BaseEntity toEntity() {
+        BaseEntity entity;
+        if (folder) {
+            entity = new FolderEntity();
+        } else {
+            FileEntity file = new FileEntity();
+            file.size = size;
+            file.modificationDate = instantOf(modified);
+            entity = file;
+        }
+
+        entity.location = EntityPath.parse(path);
+        entity.creationDate = instantOf(created);
+        return entity;
+    }
+
+    /**
+     * @param path Path to normalize.
+     * @return Normalized path, e.g.: {@code /documents} for both {@code documents} and {@code /documents/}.
+     */
+    static String normalize(String path) {
+        return EntityPath.parse(path).toString();
+    }
+
+    private static String nameOf(String path) {
+        int separator = path.lastIndexOf('/');
+        return (separator >= 0 && separator < path.length() - 1 ? path.substring(separator + 1) : path)
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static long millisOf(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : UNKNOWN;
+    }
+
+    private static Instant instantOf(long millis) {
+        return millis != UNKNOWN ? Instant.ofEpochMilli(millis) : null;
+    }
+}
@@ -0,0 +1,313 @@
+package io.storage.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * An immutable segment of a {@link MetadataIndex}: records sorted by path, persisted in a single file. Once loaded, a
+ * segment keeps its records in memory along with lookup structures -- names sorted for prefix lookup, posting lists of
+ * name trigrams, and files sorted by size and by modification time for range lookup.<p>
+ * A <i>base</i> segment is the outcome of a compaction. It holds all live records of the segments older than itself,
+ * which are obsolete once it is written.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class IndexSegment {
+
+    /**
+     * File signature ("SIDX").
+     */
+    private static final int MAGIC = 0x53494458;
+
+    private static final int VERSION = 1;
+
+    private static final int FOLDER = 1;
+
+    private static final int DELETED = 2;
+
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Sequence number, newer segments have greater ones.
+     */
+    final long id;
+
+    /**
+     * Indicates this segment supersedes all older ones.
+     */
+    final boolean base;
+
+    /**
+     * Segment's file.
+     */
+    final Path file;
+
+    /**
+     * Records, sorted by path.
+     */
+    private final IndexRecord[] records;
+
+    /**
+     * Positions of records, sorted by name.
+     */
+    private final int[] byName;
+
+    /**
+     * Positions of records of files, sorted by size.
+     */
+    private final int[] bySize;
+
+    /**
+     * Positions of records of files of known modification time, sorted by it.
+     */
+    private final int[] byModified;
+
+    /**
+     * Ascending positions of records whose name contains a trigram, by packed trigram.
+     */
+    private final Map<Long, int[]> trigrams;
+
+    private IndexSegment(long id, boolean base, Path file, IndexRecord[] records) {
+        this.id = id;
+        this.base = base;
+        this.file = file;
+        this.records = records;
+        this.byName = sortedPositions(records, r -> true, Comparator.comparing(r -> r.name));
+        this.bySize = sortedPositions(records, r -> !r.folder && !r.deleted, Comparator.comparingLong(r -> r.size));
+        this.byModified = sortedPositions(records, r -> !r.folder && !r.deleted && r.modified != IndexRecord.UNKNOWN,
+                Comparator.comparingLong(r -> r.modified));
+        this.trigrams = trigramsOf(records);
+    }
+
+    /**
+     * Write a segment.
+     *
+     * @param file    File to write to. Written atomically, via a temporary file.
+     * @param id      Sequence number of segment.
+     * @param base    {@code true} if this segment supersedes all older ones.
+     * @param records Records, sorted by path.
+     * @return Written segment.
+     * @throws IOException If the segment could not be written.
+     */
+    static IndexSegment write(Path file, long id, boolean base, Collection<IndexRecord> records) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(id);
+            out.writeBoolean(base);
+            out.writeInt(records.size());
+            for (IndexRecord record : records) {
+                out.writeUTF(record.path);
+                out.writeByte((record.folder ? FOLDER : 0) | (record.deleted ? DELETED : 0));
+                out.writeLong(record.size);
+                out.writeLong(record.modified);
+                out.writeLong(record.created);
+            }
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new IndexSegment(id, base, file, records.toArray(new IndexRecord[0]));
+    }
+
+    /**
+     * Read a segment.
+     *
+     * @param file Segment's file.
+     * @return Segment.
+     * @throws IOException If the segment could not be read or is corrupt.
+     */
+    static IndexSegment read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an index segment of a supported version: " + file);
+            }
+
+            long id = in.readLong();
+            boolean base = in.readBoolean();
+            IndexRecord[] records = new IndexRecord[in.readInt()];
+            for (int i = 0; i < records.length; i++) {
+                String path = in.readUTF();
+                int flags = in.readByte();
+                records[i] = new IndexRecord(path, (flags & FOLDER) != 0, (flags & DELETED) != 0, in.readLong(),
+                        in.readLong(), in.readLong());
+            }
+            return new IndexSegment(id, base, file, records);
+        }
+    }
+
+    /**
+     * @param path Normalized path.
+     * @return Record of <i>path</i> (possibly a tombstone) or {@code null} if this segment has none.
+     */
+    IndexRecord get(String path) {
+        int position = lowerBound(null, r -> r.path.compareTo(path) >= 0);
+        return position < records.length && records[position].path.equals(path) ? records[position] : null;
+    }
+
+    /**
+     * @return All records, sorted by path.
+     */
+    IndexRecord[] records() {
+        return records;
+    }
+
+    /**
+     * Pass records that may match a query, looked up by its most selective criterion, to a consumer. Records passed
+     * are not necessarily matching.
+     *
+     * @param query    Query.
+     * @param consumer Consumer of candidate records.
+     */
+    void candidates(IndexQuery query, Consumer<IndexRecord> consumer) {
+        String text = query.trigramText();
+        if (text != null) {
+            for (int position : trigramPositions(text)) {
+                consumer.accept(records[position]);
+            }
+        } else if (query.namePrefix != null && !query.namePrefix.isEmpty()) {
+            int from = lowerBound(byName, r -> r.name.compareTo(query.namePrefix) >= 0);
+            for (int i = from; i < byName.length && records[byName[i]].name.startsWith(query.namePrefix); i++) {
+                consumer.accept(records[byName[i]]);
+            }
+        } else if (query.hasSizeRange()) {
+            int from = lowerBound(bySize, r -> r.size >= query.minSize);
+            for (int i = from; i < bySize.length && records[bySize[i]].size <= query.maxSize; i++) {
+                consumer.accept(records[bySize[i]]);
+            }
+        } else if (query.hasModifiedRange()) {
+            int from = lowerBound(byModified, r -> r.modified >= query.modifiedFrom);
+            for (int i = from; i < byModified.length && records[byModified[i]].modified <= query.modifiedTo; i++) {
+                consumer.accept(records[byModified[i]]);
+            }
+        } else if (query.under != null) {
+            int from = lowerBound(null, r -> r.path.compareTo(query.under) >= 0);
+            for (int i = from; i < records.length && records[i].path.startsWith(query.under); i++) {
+                consumer.accept(records[i]);
+            }
+        } else {
+            for (IndexRecord record : records) {
+                consumer.accept(record);
+            }
+        }
+    }
+
+    /**
+     * @return Ascending positions of records whose name contains all trigrams of <i>text</i>.
+     */
+    private int[] trigramPositions(String text) {
+        int[] result = null;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            int[] postings = trigrams.getOrDefault(trigramOf(text, i), NONE);
+            result = result == null ? postings : intersect(result, postings);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result != null ? result : NONE;
+    }
+
+    /**
+     * Find the first position in an order (or in path order, if {@code null}) whose record satisfies a monotonic
+     * predicate.
+     */
+    private int lowerBound(int[] order, Predicate<IndexRecord> atOrAfter) {
+        int low = 0;
+        int high = order != null ? order.length : records.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (atOrAfter.test(records[order != null ? order[middle] : middle])) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int[] sortedPositions(IndexRecord[] records, Predicate<IndexRecord> filter,
+                                         Comparator<IndexRecord> comparator) {
+        Integer[] positions = new Integer[records.length];
+        int count = 0;
+        for (int i = 0; i < records.length; i++) {
+            if (filter.test(records[i])) {
+                positions[count++] = i;
+            }
+        }
+
+        Arrays.sort(positions, 0, count, (a, b) -> comparator.compare(records[a], records[b]));
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = positions[i];
+        }
+        return result;
+    }
+
+    private static Map<Long, int[]> trigramsOf(IndexRecord[] records) {
+        Map<Long, int[]> postings = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (int position = 0; position < records.length; position++) {
+            String name = records[position].name;
+            for (int i = 0; i + 3 <= name.length(); i++) {
+                long trigram = trigramOf(name, i);
+                int size = sizes.getOrDefault(trigram, 0);
+                int[] list = postings.get(trigram);
+                if (list == null) {
+                    list = new int[4];
+                } else if (list[size - 1] == position) {
+                    // Trigram repeats within name.
+                    continue;
+                } else if (size == list.length) {
+                    list = Arrays.copyOf(list, size * 2);
+                }
+
+                list[size] = position;
+                postings.put(trigram, list);
+                sizes.put(trigram, size + 1);
+            }
+        }
+
+        postings.replaceAll((trigram, list) -> Arrays.copyOf(list, sizes.get(trigram)));
+        return postings;
+    }
+
+    private static long trigramOf(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,649 @@
+package io.storage.index;
+
+import io.storage.StorageException;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.utils.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * An embedded, on-disk index of file and folder metadata of a single storage (i.e. - a single credentials), answering
+ * searches by name, extension, size and modification time without touching the storage service.<p>
+ * The index is a log-structured merge of sorted segments: changes are kept in memory until a
+ * {@link #setFlushThreshold(int) threshold} is reached and then written as a new immutable segment, sorted by path.
+ * Newer segments shadow older ones, removals are recorded as tombstones, and once there are more than a
+ * {@link #setMaxSegments(int) maximum} of segments they are compacted into one. Each loaded segment keeps its records
+ * in memory with lookup structures for name prefixes, name trigrams (for substring and extension searches), sizes and
+ * modification times, so searches are answered in milliseconds.<p>
+ * An index is built by {@link #crawl(String, FolderLister) crawling} a folder tree and kept fresh by applying changes
+ * ({@link #put(String, BaseEntity) put}, {@link #remove(String) remove}, {@link #copy(String, String) copy} and
+ * {@link #move(String, String) move}) as they are made, e.g.: by a {@code StorageService}. Changes not yet flushed are
+ * lost if the process terminates without {@link #close() closing} the index; a crawl restores them. The index is
+ * thread-safe: searches run concurrently, changes are serialized.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class MetadataIndex implements Closeable {
+
+    /**
+     * Default number of changes kept in memory before they are written as a segment.
+     */
+    public static final int DEFAULT_FLUSH_THRESHOLD = 4096;
+
+    /**
+     * Default maximum number of segments before they are compacted.
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(MetadataIndex.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".idx";
+
+    /**
+     * Directory of segment files.
+     */
+    private final Path directory;
+
+    /**
+     * Guards changes and searches.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Changes not flushed yet, by normalized path.
+     */
+    private TreeMap<String, IndexRecord> changes = new TreeMap<>();
+
+    /**
+     * Segments, newest first.
+     */
+    private final List<IndexSegment> segments = new ArrayList<>();
+
+    /**
+     * Sequence number of next segment.
+     */
+    private long nextSegmentId;
+
+    /**
+     * Sequence number of the latest change applied by {@link #put put}, {@link #remove remove}, {@link #copy copy} or
+     * {@link #move move}.
+     */
+    private long changeSequence;
+
+    /**
+     * Sequence number of the latest change per path. Kept only while crawls are in progress, so a crawl does not
+     * override changes made after it started.
+     */
+    private final Map<String, Long> changedAt = new HashMap<>();
+
+    /**
+     * Sequence number of the latest removal (or move away) per root of a removed subtree. Kept only while crawls are in
+     * progress.
+     */
+    private final Map<String, Long> subtreeRemovedAt = new HashMap<>();
+
+    /**
+     * Number of crawls in progress.
+     */
+    private int crawls;
+
+    private boolean closed;
+
+    private volatile int flushThreshold = DEFAULT_FLUSH_THRESHOLD;
+
+    private volatile int maxSegments = DEFAULT_MAX_SEGMENTS;
+
+    /**
+     * Open an index, creating it if it does not exist.
+     *
+     * @param directory Directory of index files.
+     * @throws IllegalArgumentException If <i>directory</i> is {@code null}.
+     * @throws StorageException         If the index could not be opened.
+     */
+    public MetadataIndex(Path directory) throws IllegalArgumentException, StorageException {
+        Assert.notNull(directory, "Directory cannot be null.");
+        this.directory = directory;
+
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path file : files) {
+                    segments.add(IndexSegment.read(file));
+                }
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Could not open metadata index (directory: " + directory + ").", ex);
+        }
+
+        segments.sort((a, b) -> Long.compare(b.id, a.id));
+        nextSegmentId = segments.isEmpty() ? 1 : segments.get(0).id + 1;
+
+        // Segments older than the latest compaction are obsolete (left behind if it was interrupted).
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).base) {
+                List<IndexSegment> obsolete = new ArrayList<>(segments.subList(i + 1, segments.size()));
+                segments.removeAll(obsolete);
+                deleteFiles(obsolete);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Add or replace metadata of an entity.
+     *
+     * @param path   Path of entity.
+     * @param entity Metadata of entity. Its location is ignored.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws StorageException         If changes could not be flushed.
+     */
+    public void put(String path, BaseEntity entity) throws IllegalArgumentException, StorageException {
+        Assert.notNull(path, "Path cannot be null.");
+        Assert.notNull(entity, "Entity cannot be null.");
+        IndexRecord record = IndexRecord.of(IndexRecord.normalize(path), entity);
+        update(changes -> {
+            changes.put(record.path, record);
+            changed(record.path);
+        });
+    }
+
+    /**
+     * Remove metadata of an entity and, if it is a folder, of all its descendants.
+     *
+     * @param path Path of entity.
+     * @throws IllegalArgumentException If <i>path</i> is {@code null}.
+     * @throws StorageException         If changes could not be flushed.
+     */
+    public void remove(String path) throws IllegalArgumentException, StorageException {
+        Assert.notNull(path, "Path cannot be null.");
+        String normalized = IndexRecord.normalize(path);
+        update(changes -> {
+            for (IndexRecord record : liveSubtree(normalized)) {
+                changes.put(record.path, IndexRecord.tombstone(record.path));
+                changed(record.path);
+            }
+            subtreeRemoved(normalized);
+        });
+    }
+
+    /**
+     * Copy metadata of an entity and, if it is a folder, of all its descendants to another path.
+     *
+     * @param from Path of entity.
+     * @param to   Path of copy.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws StorageException         If changes could not be flushed.
+     */
+    public void copy(String from, String to) throws IllegalArgumentException, StorageException {
+        relocate(from, to, false);
+    }
+
+    /**
+     * Move metadata of an entity and, if it is a folder, of all its descendants to another path.
+     *
+     * @param from Path of entity.
+     * @param to   New path of entity.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws StorageException         If changes could not be flushed.
+     */
+    public void move(String from, String to) throws IllegalArgumentException, StorageException {
+        relocate(from, to, true);
+    }
+
+    /**
+     * Index a folder tree, replacing what is indexed under it. Entities are listed folder by folder, and entities
+     * indexed under the folder that no longer exist are removed once the crawl completes. The index may be searched,
+     * and changed, while it is crawled: entities changed (or removed) after the crawl started are left as changed,
+     * since the crawl may have listed them before the change.
+     *
+     * @param root   Path of folder to crawl.
+     * @param lister Lists children of a folder, e.g.: {@code path -> provider.listFolder(credentials, path)}.
+     * @return Number of entities indexed.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws StorageException         If a folder could not be listed or changes could not be flushed. Entities listed
+     *                                  so far remain indexed, entities that no longer exist are not removed.
+     */
+    public int crawl(String root, FolderLister lister) throws IllegalArgumentException, StorageException {
+        Assert.notNull(root, "Root cannot be null.");
+        Assert.notNull(lister, "Lister cannot be null.");
+
+        long start = beginCrawl();
+        try {
+            Set<String> seen = new HashSet<>();
+            Deque<String> folders = new ArrayDeque<>();
+            folders.add(IndexRecord.normalize(root));
+            while (!folders.isEmpty()) {
+                String folder = folders.poll();
+                List<IndexRecord> children = new ArrayList<>();
+                for (BaseEntity child : lister.list(folder)) {
+                    String path = folder.equals("/") ? "/" + child.getName() : folder + "/" + child.getName();
+                    children.add(IndexRecord.of(path, child));
+                    seen.add(path);
+                    if (child instanceof FolderEntity) {
+                        folders.add(path);
+                    }
+                }
+
+                update(changes -> children.forEach(record -> {
+                    if (!isChangedSince(record.path, start)) {
+                        changes.put(record.path, record);
+                    }
+                }));
+            }
+
+            String normalizedRoot = IndexRecord.normalize(root);
+            update(changes -> {
+                for (IndexRecord record : liveSubtree(normalizedRoot)) {
+                    if (!record.path.equals(normalizedRoot) && !seen.contains(record.path)
+                            && !isChangedSince(record.path, start)) {
+                        changes.put(record.path, IndexRecord.tombstone(record.path));
+                    }
+                }
+            });
+
+            logger.debug("Crawled {} entities under {}.", seen.size(), normalizedRoot);
+            return seen.size();
+        } finally {
+            endCrawl();
+        }
+    }
+
+    /**
+     * Search for entities.
+     *
+     * @param query Search criteria.
+     * @return Matching entities, sorted by path, up to the query's limit.
+     * @throws IllegalArgumentException If <i>query</i> is {@code null}.
+     */
+    public List<BaseEntity> search(IndexQuery query) throws IllegalArgumentException {
+        Assert.notNull(query, "Query cannot be null.");
+
+        lock.readLock().lock();
+        try {
+            Map<String, IndexRecord> matches = new TreeMap<>();
+            Consumer<IndexRecord> collector = record -> {
+                if (query.matches(record) && latest(record.path) == record) {
+                    matches.put(record.path, record);
+                }
+            };
+
+            (query.under != null ? changes.subMap(query.under, query.under + Character.MAX_VALUE) : changes)
+                    .values().forEach(collector);
+            for (IndexSegment segment : segments) {
+                segment.candidates(query, collector);
+            }
+
+            List<BaseEntity> result = new ArrayList<>(Math.min(matches.size(), query.limit));
+            for (IndexRecord record : matches.values()) {
+                if (result.size() == query.limit) {
+                    break;
+                }
+                result.add(record.toEntity());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param path Path of entity.
+     * @return Indexed metadata of entity or {@code null} if it is not indexed.
+     * @throws IllegalArgumentException If <i>path</i> is {@code null}.
+     */
+    public BaseEntity get(String path) throws IllegalArgumentException {
+        Assert.notNull(path, "Path cannot be null.");
+        lock.readLock().lock();
+        try {
+            IndexRecord record = latest(IndexRecord.normalize(path));
+            return record != null && !record.deleted ? record.toEntity() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write changes kept in memory as a new segment.
+     *
+     * @throws StorageException If the segment could not be written.
+     */
+    public void flush() throws StorageException {
+        lock.writeLock().lock();
+        try {
+            flushChanges();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merge all segments, and changes kept in memory, into a single segment without tombstones.
+     *
+     * @throws StorageException If the merged segment could not be written.
+     */
+    public void compact() throws StorageException {
+        lock.writeLock().lock();
+        try {
+            flushChanges();
+            compactSegments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of segments.
+     */
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Set the number of changes kept in memory before they are written as a segment.
+     *
+     * @param flushThreshold Number of changes.
+     * @throws IllegalArgumentException If <i>flushThreshold</i> is not positive.
+     */
+    public void setFlushThreshold(int flushThreshold) throws IllegalArgumentException {
+        if (flushThreshold < 1) {
+            throw new IllegalArgumentException("Invalid flush threshold: " + flushThreshold + " (must be positive).");
+        }
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * Set the maximum number of segments before they are compacted.
+     *
+     * @param maxSegments Maximum number of segments.
+     * @throws IllegalArgumentException If <i>maxSegments</i> is not positive.
+     */
+    public void setMaxSegments(int maxSegments) throws IllegalArgumentException {
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("Invalid maximum segments: " + maxSegments + " (must be positive).");
+        }
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Flush changes kept in memory and close the index. Further changes are rejected.
+     *
+     * @throws StorageException If changes could not be flushed.
+     */
+    @Override
+    public void close() throws StorageException {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                flushChanges();
+                closed = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply changes, flushing them once they reach the threshold.
+     */
+    private void update(Consumer<TreeMap<String, IndexRecord>> change) throws StorageException {
+        lock.writeLock().lock();
+        try {
+            Assert.state(!closed, "Metadata index is closed.");
+            change.accept(changes);
+            if (changes.size() >= flushThreshold) {
+                flushChanges();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void relocate(String from, String to, boolean move) throws IllegalArgumentException, StorageException {
+        Assert.notNull(from, "Source path cannot be null.");
+        Assert.notNull(to, "Target path cannot be null.");
+        String source = IndexRecord.normalize(from);
+        String target = IndexRecord.normalize(to);
+        update(changes -> {
+            List<IndexRecord> subtree = liveSubtree(source);
+            if (move) {
+                for (IndexRecord record : subtree) {
+                    changes.put(record.path, IndexRecord.tombstone(record.path));
+                    changed(record.path);
+                }
+                subtreeRemoved(source);
+            }
+            for (IndexRecord record : subtree) {
+                String path = target + record.path.substring(source.length());
+                changes.put(path, record.relocate(path));
+                changed(path);
+            }
+        });
+    }
+
+    /**
+     * Start tracking changes for a crawl.
+     *
+     * @return Sequence number of the latest change made before the crawl started.
+     */
+    private long beginCrawl() {
+        lock.writeLock().lock();
+        try {
+            crawls++;
+            return changeSequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void endCrawl() {
+        lock.writeLock().lock();
+        try {
+            if (--crawls == 0) {
+                changedAt.clear();
+                subtreeRemovedAt.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Record a change of a path. Must be called holding the write lock.
+     */
+    private void changed(String path) {
+        changeSequence++;
+        if (crawls > 0) {
+            changedAt.put(path, changeSequence);
+        }
+    }
+
+    /**
+     * Record a removal of a subtree. Must be called holding the write lock.
+     */
+    private void subtreeRemoved(String root) {
+        changeSequence++;
+        if (crawls > 0) {
+            subtreeRemovedAt.put(root, changeSequence);
+        }
+    }
+
+    /**
+     * @return {@code true} if a path was changed, or a subtree holding it was removed, after a given change. Must be
+     * called holding the write lock.
+     */
+    private boolean isChangedSince(String path, long sequence) {
+        if (changedAt.getOrDefault(path, 0L) > sequence) {
+            return true;
+        }
+
+        for (String ancestor = path; ancestor != null; ancestor = parentOf(ancestor)) {
+            if (subtreeRemovedAt.getOrDefault(ancestor, 0L) > sequence) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Latest records of a path and its descendants that are not removed. Must be called holding the lock.
+     */
+    private List<IndexRecord> liveSubtree(String path) {
+        List<IndexRecord> result = new ArrayList<>();
+        IndexRecord record = latest(path);
+        if (record != null && !record.deleted) {
+            result.add(record);
+        }
+
+        IndexQuery descendants = new IndexQuery().under(path);
+        Map<String, IndexRecord> matches = new TreeMap<>();
+        Consumer<IndexRecord> collector = candidate -> {
+            if (descendants.matches(candidate) && latest(candidate.path) == candidate) {
+                matches.put(candidate.path, candidate);
+            }
+        };
+        (descendants.under != null ? changes.subMap(descendants.under, descendants.under + Character.MAX_VALUE)
+                : changes).values().forEach(collector);
+        for (IndexSegment segment : segments) {
+            segment.candidates(descendants, collector);
+        }
+
+        result.addAll(matches.values());
+        return result;
+    }
+
+    /**
+     * @return Latest record of a path (possibly a tombstone) or {@code null} if there is none. Must be called holding
+     * the lock.
+     */
+    private IndexRecord latest(String path) {
+        IndexRecord record = changes.get(path);
+        for (int i = 0; record == null && i < segments.size(); i++) {
+            record = segments.get(i).get(path);
+        }
+        return record;
+    }
+
+    private void flushChanges() throws StorageException {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        long id = nextSegmentId++;
+        // An index with no segments has nothing to shadow, so its first segment needs no tombstones.
+        boolean base = segments.isEmpty();
+        List<IndexRecord> records = new ArrayList<>(changes.values());
+        if (base) {
+            records.removeIf(record -> record.deleted);
+        }
+
+        try {
+            segments.add(0, IndexSegment.write(segmentFile(id), id, base, records));
+        } catch (IOException ex) {
+            throw new StorageException("Could not write metadata index segment (directory: " + directory + ").", ex);
+        }
+        changes = new TreeMap<>();
+
+        if (segments.size() > maxSegments) {
+            compactSegments();
+        }
+    }
+
+    private void compactSegments() throws StorageException {
+        if (segments.size() < 2) {
+            return;
+        }
+
+        Map<String, IndexRecord> merged = new TreeMap<>();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            for (IndexRecord record : segments.get(i).records()) {
+                merged.put(record.path, record);
+            }
+        }
+        merged.values().removeIf(record -> record.deleted);
+
+        long id = nextSegmentId++;
+        IndexSegment compacted;
+        try {
+            compacted = IndexSegment.write(segmentFile(id), id, true, merged.values());
+        } catch (IOException ex) {
+            throw new StorageException("Could not write metadata index segment (directory: " + directory + ").", ex);
+        }
+
+        List<IndexSegment> obsolete = new ArrayList<>(segments);
+        segments.clear();
+        segments.add(compacted);
+        deleteFiles(obsolete);
+        logger.debug("Compacted {} segments into {} records.", obsolete.size(), merged.size());
+    }
+
+    /**
+     * @return Parent of a normalized path or {@code null} for the root.
+     */
+    private static String parentOf(String path) {
+        if (path.equals("/")) {
+            return null;
+        }
+
+        int separator = path.lastIndexOf('/');
+        return separator == 0 ? "/" : path.substring(0, separator);
+    }
+
+    private Path segmentFile(long id) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static void deleteFiles(List<IndexSegment> obsolete) {
+        for (IndexSegment segment : obsolete) {
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException ex) {
+                // Left behind, it is deleted when the index is next opened.
+                logger.warn("Could not delete obsolete index segment {}.", segment.file, ex);
+            }
+        }
+    }
+
+    /**
+     * Lists children of a folder while {@link #crawl(String, FolderLister) crawling}.
+     */
+    @FunctionalInterface
+    public interface FolderLister {
+
+        /**
+         * @param path Path of folder.
+         * @return Children of folder.
+         * @throws StorageException If the folder could not be listed.
+         */
+        Iterable<BaseEntity> list(String path) throws StorageException;
+    }
+}
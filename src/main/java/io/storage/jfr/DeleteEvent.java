@@ -0,0 +1,15 @@
+package io.storage.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File or folder deletion.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+@Name("io.storage.Delete")
+@Label("Storage Delete")
+final class DeleteEvent extends StorageEvent {
+}
@@ -0,0 +1,15 @@
+package io.storage.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Folder listing.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+@Name("io.storage.List")
+@Label("Storage List")
+final class ListEvent extends StorageEvent {
+}
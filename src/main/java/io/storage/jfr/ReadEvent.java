@@ -0,0 +1,15 @@
+package io.storage.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File contents or metadata read.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+@Name("io.storage.Read")
+@Label("Storage Read")
+final class ReadEvent extends StorageEvent {
+}
@@ -0,0 +1,15 @@
+package io.storage.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Call to a remote storage service.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+@Name("io.storage.RemoteCall")
+@Label("Storage Remote Call")
+final class RemoteCallEvent extends StorageEvent {
+}
@@ -0,0 +1,57 @@
+package io.storage.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of Java Flight Recorder events emitted by the storage layer. The event's duration is the time the
+ * operation took, so waits on remote services line up with CPU and GC activity in a recording.<p>
+ * Paths are not recorded, only their hash, so recordings may be shared without exposing file names.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ * @see StorageEvents
+ */
+@Category("Storage")
+@StackTrace(false)
+public abstract class StorageEvent extends Event {
+
+    /**
+     * Name of provider.
+     */
+    @Label("Provider")
+    @Description("Storage service provider that executed the operation.")
+    public String provider;
+
+    /**
+     * Name of operation.
+     */
+    @Label("Operation")
+    public String operation;
+
+    /**
+     * Hash of path, rather than the path itself.
+     */
+    @Label("Path Hash")
+    @Description("Hash of the path operated on.")
+    public int pathHash;
+
+    /**
+     * Number of bytes read or written, zero if none.
+     */
+    @Label("Bytes")
+    @Description("Number of bytes transferred, if applicable.")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Outcome of operation.
+     */
+    @Label("Outcome")
+    @Description("'success' or the class name of the failure.")
+    public String outcome;
+}
@@ -0,0 +1,119 @@
+package io.storage.jfr;
+
+import io.storage.metrics.StorageOperation;
+import jdk.jfr.EventType;
+
+/**
+ * Emits {@link StorageEvent Java Flight Recorder events} for storage operations. When recording of an event type is
+ * disabled, {@link #begin(StorageOperation)} returns {@code null} without allocating, so instrumented code costs a
+ * single check.<p>
+ * Operations are mapped to event types as follows:
+ * <ul>
+ *     <li>{@code io.storage.Read} - file reads, metadata reads and existence checks.</li>
+ *     <li>{@code io.storage.Write} - file writes, copies and moves.</li>
+ *     <li>{@code io.storage.List} - folder listings.</li>
+ *     <li>{@code io.storage.Delete} - deletions.</li>
+ *     <li>{@code io.storage.RemoteCall} - calls to a remote service, issued by providers.</li>
+ * </ul>
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class StorageEvents {
+
+    /**
+     * Outcome of a successful operation.
+     */
+    public static final String SUCCESS = "success";
+
+    private static final EventType READ = EventType.getEventType(ReadEvent.class);
+
+    private static final EventType WRITE = EventType.getEventType(WriteEvent.class);
+
+    private static final EventType LIST = EventType.getEventType(ListEvent.class);
+
+    private static final EventType DELETE = EventType.getEventType(DeleteEvent.class);
+
+    private static final EventType REMOTE_CALL = EventType.getEventType(RemoteCallEvent.class);
+
+    private StorageEvents() {
+    }
+
+    /**
+     * Begin an event of a storage operation.
+     *
+     * @param operation Operation about to be executed.
+     * @return Started event or {@code null} if recording of the event type is disabled.
+     */
+    public static StorageEvent begin(StorageOperation operation) {
+        StorageEvent event;
+        switch (operation) {
+            case READ_FILE:
+            case READ_FILE_META:
+            case EXISTS:
+                event = READ.isEnabled() ? new ReadEvent() : null;
+                break;
+            case WRITE_FILE:
+            case COPY:
+            case MOVE:
+                event = WRITE.isEnabled() ? new WriteEvent() : null;
+                break;
+            case LIST_FOLDER:
+            case FIND:
+                event = LIST.isEnabled() ? new ListEvent() : null;
+                break;
+            case DELETE:
+                event = DELETE.isEnabled() ? new DeleteEvent() : null;
+                break;
+            default:
+                event = null;
+        }
+
+        if (event != null) {
+            event.operation = operation.name();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Begin an event of a call to a remote service.
+     *
+     * @param operation Name of remote operation.
+     * @return Started event or {@code null} if recording of remote calls is disabled.
+     */
+    public static StorageEvent beginRemoteCall(String operation) {
+        if (!REMOTE_CALL.isEnabled()) {
+            return null;
+        }
+
+        StorageEvent event = new RemoteCallEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Complete an event and commit it to the recording, unless it is below the configured duration threshold.
+     *
+     * @param event    Event to commit. Ignored if {@code null}.
+     * @param provider Name of provider that executed the operation.
+     * @param path     Path operated on (only its hash is recorded). May be {@code null}.
+     * @param bytes    Number of bytes transferred.
+     * @param failure  Failure of operation or {@code null} if it succeeded.
+     */
+    public static void commit(StorageEvent event, String provider, String path, long bytes, Throwable failure) {
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.provider = provider;
+            event.pathHash = path != null ? path.hashCode() : 0;
+            event.bytes = bytes;
+            event.outcome = failure == null ? SUCCESS : failure.getClass().getName();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.storage.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File contents write, copy or move.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+@Name("io.storage.Write")
+@Label("Storage Write")
+final class WriteEvent extends StorageEvent {
+}
@@ -0,0 +1,155 @@
+package io.storage.manager;
+
+import io.storage.utils.Assert;
+import io.storage.utils.TokenBucket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bandwidth limits of file contents transferred by {@link StorageService storage services}. Limits are set per
+ * {@link Direction direction}, globally, per provider (by its simple class name) and per credentials (by id); a
+ * transfer is subject to all limits that apply to it, and concurrent transfers share each limit fairly.<p>
+ * Limits may be changed at any time. Changes to a limit apply to transfers already in progress, whereas a limit set for
+ * a provider or credentials for the first time applies to transfers started afterwards. Limit lookup is made once per
+ * transfer, the byte path itself is lock-free (see {@link TokenBucket}). Until a limit is first set, transfers are not
+ * throttled at all.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class BandwidthPolicy {
+
+    /**
+     * Limits of no transfer.
+     */
+    private static final TokenBucket[] NO_LIMITS = new TokenBucket[0];
+
+    /**
+     * Global limits, by direction ordinal.
+     */
+    private final TokenBucket[] global = {new TokenBucket(0), new TokenBucket(0)};
+
+    /**
+     * Per-provider limits, by direction ordinal.
+     */
+    private final List<Map<String, TokenBucket>> providers = List.of(new ConcurrentHashMap<>(),
+            new ConcurrentHashMap<>());
+
+    /**
+     * Per-credentials limits, by direction ordinal.
+     */
+    private final List<Map<String, TokenBucket>> credentials = List.of(new ConcurrentHashMap<>(),
+            new ConcurrentHashMap<>());
+
+    /**
+     * Indicates whether any limit was ever set. Until then, transfers are not throttled at all.
+     */
+    private volatile boolean limited;
+
+    /**
+     * Set the global limit of a direction.
+     *
+     * @param direction      Direction to limit.
+     * @param bytesPerSecond Limit, in bytes per second, or 0 to remove the limit.
+     * @throws IllegalArgumentException If <i>direction</i> is {@code null} or <i>bytesPerSecond</i> is negative.
+     */
+    public void setGlobalLimit(Direction direction, long bytesPerSecond) throws IllegalArgumentException {
+        Assert.notNull(direction, "Direction cannot be null.");
+        global[direction.ordinal()].setRate(bytesPerSecond);
+        limited = true;
+    }
+
+    /**
+     * Set the limit of a provider in a direction.
+     *
+     * @param direction      Direction to limit.
+     * @param providerName   Simple class name of provider.
+     * @param bytesPerSecond Limit, in bytes per second, or 0 to remove the limit.
+     * @throws IllegalArgumentException If either arguments are {@code null} or <i>bytesPerSecond</i> is negative.
+     */
+    public void setProviderLimit(Direction direction, String providerName, long bytesPerSecond)
+            throws IllegalArgumentException {
+        Assert.notNull(direction, "Direction cannot be null.");
+        Assert.notNull(providerName, "Provider name cannot be null.");
+        setLimit(providers.get(direction.ordinal()), providerName, bytesPerSecond);
+    }
+
+    /**
+     * Set the limit of a credentials in a direction.
+     *
+     * @param direction      Direction to limit.
+     * @param credentialsId  Identifier of credentials.
+     * @param bytesPerSecond Limit, in bytes per second, or 0 to remove the limit.
+     * @throws IllegalArgumentException If either arguments are {@code null} or <i>bytesPerSecond</i> is negative.
+     */
+    public void setCredentialsLimit(Direction direction, String credentialsId, long bytesPerSecond)
+            throws IllegalArgumentException {
+        Assert.notNull(direction, "Direction cannot be null.");
+        Assert.notNull(credentialsId, "Credentials identifier cannot be null.");
+        setLimit(credentials.get(direction.ordinal()), credentialsId, bytesPerSecond);
+    }
+
+    /**
+     * @param direction Direction of transfer.
+     * @return Global limit, in bytes per second, or 0 if unlimited.
+     */
+    public long getGlobalLimit(Direction direction) {
+        return global[direction.ordinal()].getRate();
+    }
+
+    /**
+     * Find the limits that apply to a transfer.
+     *
+     * @param direction     Direction of transfer.
+     * @param providerName  Simple class name of provider.
+     * @param credentialsId Identifier of credentials or {@code null} if it has none.
+     * @return Limiting buckets, empty if the transfer is unlimited.
+     */
+    TokenBucket[] limitsOf(Direction direction, String providerName, String credentialsId) {
+        if (!limited) {
+            return NO_LIMITS;
+        }
+
+        // Buckets are returned even if unlimited, so limits changed later apply to transfers already in progress.
+        TokenBucket providerLimit = providers.get(direction.ordinal()).get(providerName);
+        TokenBucket credentialsLimit = credentialsId != null
+                ? credentials.get(direction.ordinal()).get(credentialsId)
+                : null;
+        List<TokenBucket> limits = new ArrayList<>(3);
+        limits.add(global[direction.ordinal()]);
+        if (providerLimit != null) {
+            limits.add(providerLimit);
+        }
+        if (credentialsLimit != null) {
+            limits.add(credentialsLimit);
+        }
+        return limits.toArray(NO_LIMITS);
+    }
+
+    private void setLimit(Map<String, TokenBucket> limits, String key, long bytesPerSecond) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + bytesPerSecond + " (must not be negative).");
+        }
+        limits.computeIfAbsent(key, k -> new TokenBucket(bytesPerSecond)).setRate(bytesPerSecond);
+        limited = true;
+    }
+
+    /**
+     * Direction of transfer.
+     */
+    public enum Direction {
+
+        /**
+         * File contents read from storage.
+         */
+        READ,
+
+        /**
+         * File contents written to storage.
+         */
+        WRITE
+    }
+}
@@ -2,9 +2,14 @@ package io.storage.manager;
 
 import io.storage.core.Credentials;
 import io.storage.core.CredentialsException;
+import io.storage.StorageException;
 import io.storage.core.StorageServiceProvider;
+import io.storage.index.MetadataIndex;
 import io.storage.utils.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -16,6 +21,11 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DefaultStorageManagerImpl implements StorageManager {
 
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DefaultStorageManagerImpl.class);
+
     /**
      * Maintains mapping between each known credential type and its associated service provider.
      */
@@ -27,6 +37,26 @@ public class DefaultStorageManagerImpl implements StorageManager {
      */
     private CredentialsRepository repository = new MemoryCredentialsRepository();
 
+    /**
+     * Bandwidth limits of all services looked up via this manager.
+     */
+    private final BandwidthPolicy bandwidthPolicy = new BandwidthPolicy();
+
+    /**
+     * Schedulers of operations, per provider.
+     */
+    private final Map<StorageServiceProvider<?>, PriorityScheduler> schedulers = new ConcurrentHashMap<>();
+
+    /**
+     * Metadata indexes, per credentials identifier. Opened on first use.
+     */
+    private final Map<String, MetadataIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Directory of metadata indexes or {@code null} if storages are not indexed.
+     */
+    private volatile Path indexDirectory;
+
     @Override
     public String addCredentials(Credentials credentials) throws IllegalArgumentException, InvalidStorageTypeException {
         Assert.notNull(credentials, "Credentials cannot be null.");
@@ -59,7 +89,8 @@ public class DefaultStorageManagerImpl implements StorageManager {
                             credentials.getClass().getSimpleName()));
         }
 
-        return new StorageService(credentials, provider);
+        return new StorageService(credentials, provider, bandwidthPolicy, schedulers.get(provider),
+                Priority.INTERACTIVE, indexDirectory != null ? getIndex(credentialId) : null);
     }
 
     @Override
@@ -87,4 +118,92 @@ public class DefaultStorageManagerImpl implements StorageManager {
     public void setRepository(CredentialsRepository repository) {
         this.repository = repository;
     }
+
+    /**
+     * @return Bandwidth limits of file contents transferred by services looked up via this manager. Limits may be
+     * changed at any time.
+     */
+    public BandwidthPolicy getBandwidthPolicy() {
+        return bandwidthPolicy;
+    }
+
+    /**
+     * Schedule operations of services of a provider by their {@link Priority priority class}.
+     *
+     * @param provider  Provider whose operations to schedule.
+     * @param scheduler Scheduler or {@code null} to execute operations immediately. Applies to services looked up
+     *                  afterwards.
+     * @throws IllegalArgumentException If <i>provider</i> is {@code null}.
+     */
+    public void setPriorityScheduler(StorageServiceProvider<? extends Credentials> provider,
+                                     PriorityScheduler scheduler) throws IllegalArgumentException {
+        Assert.notNull(provider, "Provider cannot be null.");
+        if (scheduler != null) {
+            schedulers.put(provider, scheduler);
+        } else {
+            schedulers.remove(provider);
+        }
+    }
+
+    /**
+     * Index metadata of storages accessed via this manager, in a sub-directory per credentials. Services looked up
+     * afterwards keep their storage's index fresh as they modify it; an index is populated by
+     * {@link #crawlIndex(String, String) crawling}.
+     *
+     * @param indexDirectory Directory of indexes.
+     * @throws IllegalArgumentException If <i>indexDirectory</i> is {@code null}.
+     */
+    public void setIndexDirectory(Path indexDirectory) throws IllegalArgumentException {
+        Assert.notNull(indexDirectory, "Index directory cannot be null.");
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * @param credentialId Credentials identifier.
+     * @return Metadata index of the storage of <i>credentialId</i>, or {@code null} if storages are not indexed.
+     * @throws IllegalArgumentException If <i>credentialId</i> is {@code null}.
+     * @throws StorageException         If the index could not be opened.
+     */
+    public MetadataIndex getIndex(String credentialId) throws IllegalArgumentException, StorageException {
+        Assert.notNull(credentialId, "Credentials identifier cannot be null.");
+        Path directory = indexDirectory;
+        return directory != null
+                ? indexes.computeIfAbsent(credentialId, id -> new MetadataIndex(directory.resolve(id)))
+                : null;
+    }
+
+    /**
+     * Index a folder tree of a storage, replacing what is indexed under it.
+     *
+     * @param credentialId Credentials identifier.
+     * @param root         Path of folder to crawl.
+     * @return Number of entities indexed.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws IllegalStateException    If storages are not indexed.
+     * @throws CredentialsException     If credentials are unknown.
+     * @throws StorageException         If a folder could not be listed or the index could not be updated.
+     */
+    public int crawlIndex(String credentialId, String root)
+            throws IllegalArgumentException, IllegalStateException, CredentialsException, StorageException {
+        Assert.state(indexDirectory != null, "Index directory is not set.");
+        return lookupService(credentialId).crawlIndex(root);
+    }
+
+    /**
+     * Flush and close all metadata indexes. Indexes are reopened on next use.
+     */
+    public void closeIndexes() {
+        for (String credentialId : indexes.keySet()) {
+            MetadataIndex index = indexes.remove(credentialId);
+            if (index == null) {
+                continue;
+            }
+
+            try {
+                index.close();
+            } catch (StorageException ex) {
+                logger.error("Could not close metadata index (credentials: {}).", credentialId, ex);
+            }
+        }
+    }
 }
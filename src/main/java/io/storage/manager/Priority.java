@@ -0,0 +1,26 @@
+package io.storage.manager;
+
+/**
+ * Priority class of storage operations, from highest to lowest. Operations of a {@link StorageService} are scheduled by
+ * its {@link StorageService#withPriority(Priority) priority} when the service has a {@link PriorityScheduler}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public enum Priority {
+
+    /**
+     * Operations a user is waiting for.
+     */
+    INTERACTIVE,
+
+    /**
+     * Operations no one is waiting for, that should still complete soon (e.g.: synchronization, prefetching).
+     */
+    BACKGROUND,
+
+    /**
+     * Long-running bulk operations (e.g.: crawls and migrations).
+     */
+    BULK
+}
@@ -0,0 +1,415 @@
+package io.storage.manager;
+
+import io.storage.StorageException;
+import io.storage.metrics.HistogramSnapshot;
+import io.storage.metrics.LatencyHistogram;
+import io.storage.utils.Assert;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Schedules operations against a storage service provider by {@link Priority priority class}, so bulk operations
+ * cannot push up the latency of interactive ones.<p>
+ * The scheduler admits up to a {@link #PriorityScheduler(int) maximum number} of concurrent operations, each class up to
+ * its own {@link #setClassLimit(Priority, int) limit} (by default, bulk operations may take half of the capacity and
+ * background operations three quarters of it, so higher classes always have room). Operations beyond the limits wait
+ * in a queue per class and are admitted in priority order, as capacity frees up. Operations are executed on the calling
+ * thread once admitted, so streams passed to them are used as usual.<p>
+ * Starvation is prevented in two ways: a waiting operation is promoted by one class per
+ * {@link #setAgingInterval(Duration) aging interval}, and an operation that waited for the
+ * {@link #setMaxWait(Duration) maximum wait} is admitted beyond the limits. The latter also breaks waits on capacity held
+ * by a dependent operation, e.g.: the writing side of a piped transfer waiting for its reading side (the
+ * {@link TransferEngine} admits both sides as one operation when they share a scheduler).<p>
+ * Queue wait times, queue lengths and counts of operations are tracked per class.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class PriorityScheduler {
+
+    /**
+     * Default interval a waiting operation is promoted by one class after.
+     */
+    public static final Duration DEFAULT_AGING_INTERVAL = Duration.ofMillis(500);
+
+    /**
+     * Default maximum time an operation waits before it is admitted regardless of limits.
+     */
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(10);
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * Guards admission state.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Maximum number of concurrent operations.
+     */
+    private final int maxConcurrency;
+
+    /**
+     * Maximum number of concurrent operations per class, by priority ordinal.
+     */
+    private final int[] classLimits;
+
+    /**
+     * Waiting operations per class, by priority ordinal, in arrival order.
+     */
+    private final List<Deque<Waiter>> queues;
+
+    /**
+     * Number of running operations per class, by priority ordinal.
+     */
+    private final int[] running;
+
+    /**
+     * Total number of running operations.
+     */
+    private int totalRunning;
+
+    /**
+     * Statistics per class, by priority ordinal.
+     */
+    private final ClassStatistics[] statistics;
+
+    private volatile long agingNanos = DEFAULT_AGING_INTERVAL.toNanos();
+
+    private volatile long maxWaitNanos = DEFAULT_MAX_WAIT.toNanos();
+
+    /**
+     * Class constructor.
+     *
+     * @param maxConcurrency Maximum number of concurrent operations.
+     * @throws IllegalArgumentException If <i>maxConcurrency</i> is not positive.
+     */
+    public PriorityScheduler(int maxConcurrency) throws IllegalArgumentException {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Invalid concurrency: " + maxConcurrency + " (must be positive).");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        this.classLimits = new int[PRIORITIES.length];
+        this.queues = new ArrayList<>(PRIORITIES.length);
+        this.running = new int[PRIORITIES.length];
+        this.statistics = new ClassStatistics[PRIORITIES.length];
+        for (Priority priority : PRIORITIES) {
+            queues.add(new ArrayDeque<>());
+            statistics[priority.ordinal()] = new ClassStatistics();
+        }
+
+        classLimits[Priority.INTERACTIVE.ordinal()] = maxConcurrency;
+        classLimits[Priority.BACKGROUND.ordinal()] = Math.max(1, maxConcurrency * 3 / 4);
+        classLimits[Priority.BULK.ordinal()] = Math.max(1, maxConcurrency / 2);
+    }
+
+    /**
+     * Execute an operation once admitted.
+     *
+     * @param priority Priority class of operation.
+     * @param call     Operation to execute, on the calling thread.
+     * @param <T>      Generic type of operation's result.
+     * @return Result of operation.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws StorageException         If interrupted while waiting to be admitted.
+     */
+    public <T> T execute(Priority priority, Supplier<T> call) throws IllegalArgumentException, StorageException {
+        Assert.notNull(priority, "Priority cannot be null.");
+        Assert.notNull(call, "Call cannot be null.");
+
+        admit(priority);
+        try {
+            return call.get();
+        } finally {
+            release(priority);
+        }
+    }
+
+    /**
+     * Set the maximum number of concurrent operations of a class.
+     *
+     * @param priority Priority class.
+     * @param limit    Maximum number of concurrent operations, up to the scheduler's maximum.
+     * @throws IllegalArgumentException If <i>priority</i> is {@code null} or <i>limit</i> is out of range.
+     */
+    public void setClassLimit(Priority priority, int limit) throws IllegalArgumentException {
+        Assert.notNull(priority, "Priority cannot be null.");
+        if (limit < 1 || limit > maxConcurrency) {
+            throw new IllegalArgumentException("Invalid class limit: " + limit + " (must be between 1 and "
+                    + maxConcurrency + ").");
+        }
+
+        lock.lock();
+        try {
+            classLimits[priority.ordinal()] = limit;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Set the interval a waiting operation is promoted by one class after.
+     *
+     * @param agingInterval Aging interval.
+     * @throws IllegalArgumentException If <i>agingInterval</i> is {@code null} or not positive.
+     */
+    public void setAgingInterval(Duration agingInterval) throws IllegalArgumentException {
+        Assert.notNull(agingInterval, "Aging interval cannot be null.");
+        if (agingInterval.isNegative() || agingInterval.isZero()) {
+            throw new IllegalArgumentException("Invalid aging interval: " + agingInterval + " (must be positive).");
+        }
+        this.agingNanos = agingInterval.toNanos();
+    }
+
+    /**
+     * Set the maximum time an operation waits before it is admitted regardless of limits.
+     *
+     * @param maxWait Maximum wait.
+     * @throws IllegalArgumentException If <i>maxWait</i> is {@code null} or not positive.
+     */
+    public void setMaxWait(Duration maxWait) throws IllegalArgumentException {
+        Assert.notNull(maxWait, "Maximum wait cannot be null.");
+        if (maxWait.isNegative() || maxWait.isZero()) {
+            throw new IllegalArgumentException("Invalid maximum wait: " + maxWait + " (must be positive).");
+        }
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * @param priority Priority class.
+     * @return Statistics of <i>priority</i>.
+     * @throws IllegalArgumentException If <i>priority</i> is {@code null}.
+     */
+    public Statistics getStatistics(Priority priority) throws IllegalArgumentException {
+        Assert.notNull(priority, "Priority cannot be null.");
+        ClassStatistics stats = statistics[priority.ordinal()];
+        lock.lock();
+        try {
+            return new Statistics(stats.executed.sum(), stats.promoted.sum(), stats.overflowed.sum(),
+                    queues.get(priority.ordinal()).size(), running[priority.ordinal()], stats.queueWait.snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until an operation of a class may run.
+     */
+    private void admit(Priority priority) throws StorageException {
+        int index = priority.ordinal();
+        long start = System.nanoTime();
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (isQueueEmpty(index) && hasCapacity(index)) {
+                // Fast path: nothing waits ahead of this operation.
+                occupy(index);
+                statistics[index].queueWait.record(0);
+                return;
+            }
+
+            waiter = new Waiter(priority, start, lock.newCondition());
+            queues.get(index).addLast(waiter);
+            while (!waiter.admitted) {
+                long remaining = start + maxWaitNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    queues.get(index).remove(waiter);
+                    occupy(index);
+                    statistics[index].overflowed.increment();
+                    break;
+                }
+
+                try {
+                    waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException ex) {
+                    if (waiter.admitted) {
+                        // Capacity was already taken on behalf of this operation.
+                        release(index);
+                    } else {
+                        queues.get(index).remove(waiter);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new StorageException("Interrupted while waiting to be scheduled.", ex);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        statistics[index].queueWait.record(System.nanoTime() - start);
+    }
+
+    private void release(Priority priority) {
+        lock.lock();
+        try {
+            release(priority.ordinal());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(int index) {
+        running[index]--;
+        totalRunning--;
+        statistics[index].executed.increment();
+        dispatch();
+    }
+
+    /**
+     * Admit waiting operations while there is capacity: the operation with the highest effective priority (its class,
+     * promoted by its age) first, and the oldest first among equals.
+     */
+    private void dispatch() {
+        while (totalRunning < maxConcurrency) {
+            long now = System.nanoTime();
+            Waiter next = null;
+            int nextRank = Integer.MAX_VALUE;
+            for (Deque<Waiter> queue : queues) {
+                Waiter head = queue.peekFirst();
+                if (head == null || !hasCapacity(head.priority.ordinal())) {
+                    continue;
+                }
+
+                int rank = rankOf(head, now);
+                if (next == null || rank < nextRank || (rank == nextRank && head.enqueuedAt - next.enqueuedAt < 0)) {
+                    next = head;
+                    nextRank = rank;
+                }
+            }
+
+            if (next == null) {
+                return;
+            }
+
+            int index = next.priority.ordinal();
+            queues.get(index).removeFirst();
+            if (nextRank < index) {
+                statistics[index].promoted.increment();
+            }
+            occupy(index);
+            next.admitted = true;
+            next.condition.signal();
+        }
+    }
+
+    private int rankOf(Waiter waiter, long now) {
+        long promotions = (now - waiter.enqueuedAt) / agingNanos;
+        return (int) Math.max(0, waiter.priority.ordinal() - promotions);
+    }
+
+    private boolean isQueueEmpty(int index) {
+        // Operations of the same or a higher class that wait go first.
+        for (int i = 0; i <= index; i++) {
+            if (!queues.get(i).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasCapacity(int index) {
+        return totalRunning < maxConcurrency && running[index] < classLimits[index];
+    }
+
+    private void occupy(int index) {
+        running[index]++;
+        totalRunning++;
+    }
+
+    /**
+     * Snapshot of a priority class's statistics.
+     */
+    public static final class Statistics {
+
+        /**
+         * Number of operations executed.
+         */
+        public final long executed;
+
+        /**
+         * Number of operations admitted ahead of a higher class due to their age.
+         */
+        public final long promoted;
+
+        /**
+         * Number of operations admitted beyond limits, after waiting for the maximum wait.
+         */
+        public final long overflowed;
+
+        /**
+         * Number of operations waiting.
+         */
+        public final int queued;
+
+        /**
+         * Number of operations running.
+         */
+        public final int running;
+
+        /**
+         * Time operations waited before admitted, in nanoseconds.
+         */
+        public final HistogramSnapshot queueWait;
+
+        Statistics(long executed, long promoted, long overflowed, int queued, int running,
+                   HistogramSnapshot queueWait) {
+            this.executed = executed;
+            this.promoted = promoted;
+            this.overflowed = overflowed;
+            this.queued = queued;
+            this.running = running;
+            this.queueWait = queueWait;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("executed: %d, queued: %d, running: %d, promoted: %d, overflowed: %d, "
+                            + "wait p50/p99: %.1f/%.1f ms", executed, queued, running, promoted, overflowed,
+                    queueWait.getPercentile(50) / 1e6, queueWait.getPercentile(99) / 1e6);
+        }
+    }
+
+    /**
+     * Statistics of a priority class, updated concurrently.
+     */
+    private static final class ClassStatistics {
+
+        final LongAdder executed = new LongAdder();
+
+        final LongAdder promoted = new LongAdder();
+
+        final LongAdder overflowed = new LongAdder();
+
+        final LatencyHistogram queueWait = new LatencyHistogram();
+    }
+
+    /**
+     * An operation waiting to be admitted.
+     */
+    private static final class Waiter {
+
+        final Priority priority;
+
+        final long enqueuedAt;
+
+        final Condition condition;
+
+        boolean admitted;
+
+        Waiter(Priority priority, long enqueuedAt, Condition condition) {
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+            this.condition = condition;
+        }
+    }
+}
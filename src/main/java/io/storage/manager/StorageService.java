@@ -1,20 +1,58 @@
 package io.storage.manager;
 
+import io.storage.StorageException;
 import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
 import io.storage.core.entities.FileEntity;
 import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.index.MetadataIndex;
+import io.storage.jfr.StorageEvent;
+import io.storage.jfr.StorageEvents;
+import io.storage.metrics.MetricsRecorder;
+import io.storage.metrics.StorageOperation;
+import io.storage.tracing.Span;
+import io.storage.tracing.TraceContext;
+import io.storage.tracing.Tracer;
+import io.storage.utils.Assert;
+import io.storage.utils.ThrottledInputStream;
+import io.storage.utils.ThrottledOutputStream;
+import io.storage.utils.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
- * Storage service is an encapsulation of both the credentials to access the storage and the actual implementation.
+ * Storage service is an encapsulation of both the credentials to access the storage and the actual implementation.<p>
+ * Each operation is measured and reported to the provider's {@link StorageServiceProvider#metricsRecorder() metrics
+ * recorder}, emitted as a {@link StorageEvents flight recorder event} and traced by the provider's
+ * {@link StorageServiceProvider#tracer() tracer}, unless they are disabled. File contents transferred are subject to the
+ * {@link BandwidthPolicy bandwidth limits} of the service's manager, and operations are scheduled by their
+ * {@link #withPriority(Priority) priority class} if the provider has a {@link PriorityScheduler}. If the service has a
+ * {@link MetadataIndex metadata index}, modifications made through it are applied to the index as they complete.
  *
  * @author Guy Raz Nir
  * @since 25/06/2017
  */
 public class StorageService {
 
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(StorageService.class);
+
     /**
      * Credentials to access the actual storage service.
      */
@@ -25,12 +63,110 @@ public class StorageService {
      */
     private final StorageServiceProvider<Credentials> provider;
 
+    /**
+     * Names of operation spans, by operation ordinal.
+     */
+    private static final String[] SPAN_NAMES = spanNames();
+
+    /**
+     * Bandwidth limits of an unlimited transfer.
+     */
+    private static final TokenBucket[] NO_LIMITS = new TokenBucket[0];
+
+    /**
+     * Name of provider, as reported to metrics.
+     */
+    private final String providerName;
+
+    /**
+     * Bandwidth limits of file contents or {@code null} if unlimited.
+     */
+    private final BandwidthPolicy bandwidthPolicy;
+
+    /**
+     * Scheduler of operations against the provider or {@code null} if operations are executed immediately.
+     */
+    private final PriorityScheduler scheduler;
+
+    /**
+     * Priority class of this service's operations.
+     */
+    private final Priority priority;
+
+    /**
+     * Index of the storage's metadata or {@code null} if it is not indexed.
+     */
+    private final MetadataIndex index;
+
     /**
      * Class constructor.
      */
     StorageService(Credentials credentials, StorageServiceProvider<Credentials> provider) {
+        this(credentials, provider, null, null, Priority.INTERACTIVE, null);
+    }
+
+    /**
+     * Class constructor.
+     */
+    StorageService(Credentials credentials, StorageServiceProvider<Credentials> provider,
+                   BandwidthPolicy bandwidthPolicy) {
+        this(credentials, provider, bandwidthPolicy, null, Priority.INTERACTIVE, null);
+    }
+
+    /**
+     * Class constructor.
+     */
+    StorageService(Credentials credentials, StorageServiceProvider<Credentials> provider,
+                   BandwidthPolicy bandwidthPolicy, PriorityScheduler scheduler, Priority priority,
+                   MetadataIndex index) {
         this.credentials = credentials;
         this.provider = provider;
+        this.providerName = provider.getClass().getSimpleName();
+        this.bandwidthPolicy = bandwidthPolicy;
+        this.scheduler = scheduler;
+        this.priority = priority;
+        this.index = index;
+    }
+
+    /**
+     * Create a view of this service whose operations are of another priority class. Services are
+     * {@link Priority#INTERACTIVE interactive} by default.
+     *
+     * @param priority Priority class of operations.
+     * @return Service of the same storage, whose operations are of <i>priority</i>.
+     * @throws IllegalArgumentException If <i>priority</i> is {@code null}.
+     */
+    public StorageService withPriority(Priority priority) throws IllegalArgumentException {
+        Assert.notNull(priority, "Priority cannot be null.");
+        return priority == this.priority
+                ? this
+                : new StorageService(credentials, provider, bandwidthPolicy, scheduler, priority, index);
+    }
+
+    /**
+     * @return Priority class of this service's operations.
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return Scheduler of operations against the provider or {@code null} if operations are executed immediately.
+     */
+    PriorityScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Create a view of this service whose operations are executed immediately, for callers already admitted by the
+     * scheduler on the service's behalf.
+     *
+     * @return Service of the same storage, whose operations are not scheduled.
+     */
+    StorageService unscheduled() {
+        return scheduler == null
+                ? this
+                : new StorageService(credentials, provider, bandwidthPolicy, null, priority, index);
     }
 
     /**
@@ -51,7 +187,31 @@ public class StorageService {
             InvalidEntityPathException,
             CredentialsException,
             InvalidPathFormatException {
-        return provider.listFolderContents(credentials, path);
+        return measure(StorageOperation.LIST_FOLDER, path, () -> provider.listFolderContents(credentials, path));
+    }
+
+    /**
+     * List folder contents lazily, fetching children page by page while the returned listing is iterated.<p>
+     * Only the creation of the listing is measured and scheduled; pages are fetched on the caller's thread while
+     * iterating, outside of metrics and admission control. Callers that may stop iterating early should close the
+     * listing.
+     *
+     * @param path Path of folder.
+     * @return Folder listing.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws EntityNotFoundException    If <i>path</i> does not exist.
+     * @throws InvalidEntityPathException If <i>path</i> reference a non-folder entity.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    FolderListing listFolder(String path) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        return measure(StorageOperation.LIST_FOLDER, path, () -> provider.listFolder(credentials, path));
     }
 
     /**
@@ -68,7 +228,7 @@ public class StorageService {
             IllegalArgumentException,
             CredentialsException,
             InvalidPathFormatException {
-        return provider.exists(credentials, path);
+        return measure(StorageOperation.EXISTS, path, () -> provider.exists(credentials, path));
     }
 
     /**
@@ -86,7 +246,7 @@ public class StorageService {
             EntityNotFoundException,
             CredentialsException,
             InvalidPathFormatException {
-        return provider.readFileMeta(credentials, path);
+        return measure(StorageOperation.READ_FILE_META, path, () -> provider.readFileMeta(credentials, path));
     }
 
     /**
@@ -106,7 +266,29 @@ public class StorageService {
             CredentialsException,
             InvalidRevisionException,
             InvalidPathFormatException {
-        provider.readFile(credentials, path, out);
+        read(path, out, counting -> provider.readFile(credentials, path, counting));
+    }
+
+    /**
+     * Read a range of a file.
+     *
+     * @param path   Path to file.
+     * @param offset Offset of first byte to read.
+     * @param length Maximum number of bytes to read.
+     * @param out    Output stream to write file content.
+     * @throws IllegalArgumentException   If either arguments are {@code null} or <i>offset</i> or <i>length</i> are
+     *                                    negative.
+     * @throws EntityNotFoundException    If entity does not exist.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    void readFile(String path, long offset, long length, OutputStream out) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            CredentialsException,
+            InvalidPathFormatException {
+        read(path, out, counting -> provider.readFile(credentials, path, offset, length, counting));
     }
 
     /**
@@ -129,7 +311,7 @@ public class StorageService {
             CredentialsException,
             InvalidRevisionException,
             InvalidPathFormatException {
-        return provider.writeFile(credentials, path, in);
+        return indexed(path, write(path, in, counting -> provider.writeFile(credentials, path, counting)));
     }
 
     /**
@@ -157,7 +339,7 @@ public class StorageService {
             CredentialsException,
             InvalidRevisionException,
             InvalidPathFormatException {
-        return provider.writeFile(credentials, path, in, revision);
+        return indexed(path, write(path, in, counting -> provider.writeFile(credentials, path, counting, revision)));
     }
 
     /**
@@ -180,7 +362,12 @@ public class StorageService {
             CredentialsException,
             InvalidRevisionException,
             InvalidPathFormatException {
-        return provider.writeFile(credentials, path, data);
+        if (data != null && isThrottled(BandwidthPolicy.Direction.WRITE)) {
+            return writeFile(path, new ByteArrayInputStream(data));
+        }
+
+        return indexed(path, measure(StorageOperation.WRITE_FILE, path,
+                () -> provider.writeFile(credentials, path, data), 0, length(data)));
     }
 
     /**
@@ -208,7 +395,61 @@ public class StorageService {
             CredentialsException,
             InvalidRevisionException,
             InvalidPathFormatException {
-        return provider.writeFile(credentials, path, data, revision);
+        if (data != null && isThrottled(BandwidthPolicy.Direction.WRITE)) {
+            return writeFile(path, new ByteArrayInputStream(data), revision);
+        }
+
+        return indexed(path, measure(StorageOperation.WRITE_FILE, path,
+                () -> provider.writeFile(credentials, path, data, revision), 0, length(data)));
+    }
+
+    /**
+     * Create new or overwrite existing file, subject to an upload mode. With {@link UploadMode#SKIP_UNCHANGED}, the
+     * upload is skipped if the existing file has identical contents.
+     *
+     * @param path Path to file.
+     * @param in   Input stream to read file data.
+     * @param mode Upload mode.
+     * @return File entry representing the file.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws InvalidEntityPathException If path to entity is invalid.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    FileEntity writeFile(String path, InputStream in, UploadMode mode) throws
+            IllegalArgumentException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        return indexed(path, write(path, in, counting -> provider.writeFile(credentials, path, counting, mode)));
+    }
+
+    /**
+     * Create new or overwrite existing file, subject to an upload mode. With {@link UploadMode#SKIP_UNCHANGED}, the
+     * upload is skipped if the existing file has identical contents.
+     *
+     * @param path Path to file.
+     * @param data Data to write.
+     * @param mode Upload mode.
+     * @return File entry representing the file.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws InvalidEntityPathException If path to entity is invalid.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     */
+    FileEntity writeFile(String path, byte[] data, UploadMode mode) throws
+            IllegalArgumentException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        if (data != null && isThrottled(BandwidthPolicy.Direction.WRITE)) {
+            return writeFile(path, new ByteArrayInputStream(data), mode);
+        }
+
+        return indexed(path, measure(StorageOperation.WRITE_FILE, path,
+                () -> provider.writeFile(credentials, path, data, mode), 0, length(data)));
     }
 
     /**
@@ -226,8 +467,426 @@ public class StorageService {
             EntityNotFoundException,
             CredentialsException,
             InvalidPathFormatException {
-        provider.delete(credentials, path);
+        measure(StorageOperation.DELETE, path, () -> {
+            provider.delete(credentials, path);
+            return null;
+        });
+        if (index != null) {
+            updateIndex(path, () -> index.remove(path));
+        }
+    }
+
+    /**
+     * Copy a file or folder (including its contents) to a new path.
+     *
+     * @param from Path of file or folder to copy.
+     * @param to   Destination path.
+     * @return Entity representing the destination.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws EntityNotFoundException    If <i>from</i> does not exist.
+     * @throws InvalidEntityPathException If <i>to</i> is invalid.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If either paths have invalid format.
+     */
+    BaseEntity copy(String from, String to) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        BaseEntity copy = measure(StorageOperation.COPY, from, () -> provider.copy(credentials, from, to));
+        if (index != null) {
+            updateIndex(to, () -> {
+                index.copy(from, to);
+                if (copy != null) {
+                    index.put(to, copy);
+                }
+            });
+        }
+        return copy;
+    }
+
+    /**
+     * Move (rename) a file or folder (including its contents) to a new path.
+     *
+     * @param from Path of file or folder to move.
+     * @param to   Destination path.
+     * @return Entity representing the destination.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws EntityNotFoundException    If <i>from</i> does not exist.
+     * @throws InvalidEntityPathException If <i>to</i> is invalid.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If either paths have invalid format.
+     */
+    BaseEntity move(String from, String to) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        BaseEntity moved = measure(StorageOperation.MOVE, from, () -> provider.move(credentials, from, to));
+        if (index != null) {
+            updateIndex(to, () -> {
+                index.move(from, to);
+                if (moved != null) {
+                    index.put(to, moved);
+                }
+            });
+        }
+        return moved;
+    }
+
+    /**
+     * Find files and folders under a folder whose path matches a glob and which pass a filter. The search is evaluated
+     * by the provider, e.g.: natively or via a pruned recursive listing.
+     *
+     * @param root   Path of folder to search under.
+     * @param glob   Glob of paths relative to <i>root</i>, e.g.: <code>**&#47;*.pdf</code>.
+     * @param filter Filter of entities whose path matches <i>glob</i>.
+     * @return Matching entities, in no particular order.
+     * @throws IllegalArgumentException   If either arguments are {@code null} or <i>glob</i> is malformed.
+     * @throws EntityNotFoundException    If <i>root</i> does not exist.
+     * @throws InvalidEntityPathException If <i>root</i> reference a non-folder entity.
+     * @throws CredentialsException       If provided credentials are not supported by the underlying implementation or it has
+     *                                    expired.
+     * @throws InvalidPathFormatException If <i>root</i> has invalid format.
+     * @see Glob
+     */
+    List<BaseEntity> find(String root, String glob, Predicate<? super BaseEntity> filter) throws
+            IllegalArgumentException,
+            EntityNotFoundException,
+            InvalidEntityPathException,
+            CredentialsException,
+            InvalidPathFormatException {
+        return measure(StorageOperation.FIND, root, () -> provider.find(credentials, root, glob, filter));
+    }
+
+    /**
+     * Index a folder tree of this service's storage, replacing what is indexed under it. Folders are listed as
+     * {@link Priority#BACKGROUND background} operations.
+     *
+     * @param root Path of folder to crawl.
+     * @return Number of entities indexed.
+     * @throws IllegalArgumentException If <i>root</i> is {@code null}.
+     * @throws IllegalStateException    If the service has no metadata index.
+     * @throws StorageException         If a folder could not be listed or the index could not be updated.
+     */
+    int crawlIndex(String root) throws IllegalArgumentException, IllegalStateException, StorageException {
+        Assert.state(index != null, "Storage service has no metadata index.");
+        StorageService lister = withPriority(Priority.BACKGROUND);
+        return index.crawl(root, lister::listFolder);
     }
 
+    /**
+     * @return Index of the storage's metadata or {@code null} if it is not indexed.
+     */
+    MetadataIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Perform an operation, observing it if metrics, flight recording or tracing are enabled.
+     */
+    private <T> T measure(StorageOperation operation, String path, Supplier<T> call) {
+        return measure(operation, path, call, 0, 0);
+    }
 
+    /**
+     * Perform an operation that transfers a known number of bytes, once scheduled, observing it if metrics, flight
+     * recording or tracing are enabled.
+     */
+    private <T> T measure(StorageOperation operation, String path, Supplier<T> call, long bytesIn, long bytesOut) {
+        if (scheduler != null) {
+            // Queue wait is not part of the operation's observed latency.
+            return scheduler.execute(priority, () -> observed(operation, path, call, bytesIn, bytesOut));
+        }
+        return observed(operation, path, call, bytesIn, bytesOut);
+    }
+
+    private <T> T observed(StorageOperation operation, String path, Supplier<T> call, long bytesIn, long bytesOut) {
+        Observation observation = observe(operation, path);
+        if (observation == null) {
+            return call.get();
+        }
+
+        Throwable failure = null;
+        try {
+            return call.get();
+        } catch (RuntimeException | Error ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            observation.completed(bytesIn, bytesOut, failure);
+        }
+    }
+
+    /**
+     * Read file contents, counting bytes read if metrics, flight recording or tracing are enabled and throttling them
+     * if limited.
+     */
+    private void read(String path, OutputStream out, Consumer<OutputStream> reader) {
+        if (scheduler != null) {
+            scheduler.execute(priority, () -> {
+                observedRead(path, out, reader);
+                return null;
+            });
+        } else {
+            observedRead(path, out, reader);
+        }
+    }
+
+    private void observedRead(String path, OutputStream out, Consumer<OutputStream> reader) {
+        TokenBucket[] limits = limitsOf(BandwidthPolicy.Direction.READ);
+        if (limits.length > 0 && out != null) {
+            out = new ThrottledOutputStream(out, limits);
+        }
+
+        Observation observation = observe(StorageOperation.READ_FILE, path);
+        if (observation == null) {
+            reader.accept(out);
+            return;
+        }
+
+        CountingOutputStream counting = new CountingOutputStream(out);
+        Throwable failure = null;
+        try {
+            reader.accept(counting);
+        } catch (RuntimeException | Error ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            observation.completed(counting.count, 0, failure);
+        }
+    }
+
+    /**
+     * Write file contents, counting bytes written if metrics, flight recording or tracing are enabled and throttling
+     * them if limited.
+     */
+    private FileEntity write(String path, InputStream in, Function<InputStream, FileEntity> writer) {
+        return scheduler != null
+                ? scheduler.execute(priority, () -> observedWrite(path, in, writer))
+                : observedWrite(path, in, writer);
+    }
+
+    private FileEntity observedWrite(String path, InputStream in, Function<InputStream, FileEntity> writer) {
+        if (in == null) {
+            // Let the provider reject it.
+            return writer.apply(null);
+        }
+
+        TokenBucket[] limits = limitsOf(BandwidthPolicy.Direction.WRITE);
+        if (limits.length > 0) {
+            in = new ThrottledInputStream(in, limits);
+        }
+
+        Observation observation = observe(StorageOperation.WRITE_FILE, path);
+        if (observation == null) {
+            return writer.apply(in);
+        }
+
+        CountingInputStream counting = new CountingInputStream(in);
+        Throwable failure = null;
+        try {
+            return writer.apply(counting);
+        } catch (RuntimeException | Error ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            observation.completed(0, counting.count, failure);
+        }
+    }
+
+    /**
+     * @return Bandwidth limits of transfers in <i>direction</i>, empty if unlimited.
+     */
+    private TokenBucket[] limitsOf(BandwidthPolicy.Direction direction) {
+        return bandwidthPolicy != null
+                ? bandwidthPolicy.limitsOf(direction, providerName, credentials.id)
+                : NO_LIMITS;
+    }
+
+    private boolean isThrottled(BandwidthPolicy.Direction direction) {
+        return limitsOf(direction).length > 0;
+    }
+
+    /**
+     * Start observing an operation.
+     *
+     * @return Observation or {@code null} if metrics, flight recording and tracing are all disabled.
+     */
+    private Observation observe(StorageOperation operation, String path) {
+        MetricsRecorder metrics = provider.metricsRecorder();
+        Tracer tracer = provider.tracer();
+        StorageEvent event = StorageEvents.begin(operation);
+        if (!metrics.isEnabled() && !tracer.isEnabled() && event == null) {
+            return null;
+        }
+
+        return new Observation(operation, path, metrics, tracer.isEnabled() ? tracer : null, event);
+    }
+
+    /**
+     * Apply a written file to the index, if any.
+     */
+    private FileEntity indexed(String path, FileEntity file) {
+        if (index != null && file != null) {
+            updateIndex(path, () -> index.put(path, file));
+        }
+        return file;
+    }
+
+    /**
+     * Apply a completed modification to the index. Failures are logged, since the modification itself succeeded; a
+     * later crawl repairs the index.
+     */
+    private void updateIndex(String path, Runnable change) {
+        try {
+            change.run();
+        } catch (RuntimeException ex) {
+            logger.warn("Could not update metadata index (path: {}).", path, ex);
+        }
+    }
+
+    private static String[] spanNames() {
+        StorageOperation[] operations = StorageOperation.values();
+        String[] names = new String[operations.length];
+        for (StorageOperation operation : operations) {
+            names[operation.ordinal()] = "storage." + operation.name().toLowerCase(Locale.ROOT);
+        }
+        return names;
+    }
+
+    private static long length(byte[] data) {
+        return data != null ? data.length : 0;
+    }
+
+    /**
+     * An operation in progress, reported to metrics, flight recorder and tracer once completed.
+     */
+    private class Observation {
+
+        private final StorageOperation operation;
+
+        private final String path;
+
+        private final MetricsRecorder metrics;
+
+        private final StorageEvent event;
+
+        private final Span span;
+
+        private final TraceContext.Scope scope;
+
+        private final long start = System.nanoTime();
+
+        Observation(StorageOperation operation, String path, MetricsRecorder metrics, Tracer tracer,
+                    StorageEvent event) {
+            this.operation = operation;
+            this.path = path;
+            this.metrics = metrics;
+            this.event = event;
+            if (tracer != null) {
+                span = tracer.startSpan(SPAN_NAMES[operation.ordinal()], TraceContext.current());
+                span.setAttribute("storage.provider", providerName);
+                span.setAttribute("storage.path", String.valueOf(path));
+                // Make the span current, so spans of the provider's remote calls are nested in it.
+                scope = TraceContext.attach(span);
+            } else {
+                span = null;
+                scope = null;
+            }
+        }
+
+        /**
+         * Report the operation. The span is ended (and its scope closed) even if reporting to metrics or flight recorder
+         * fails.
+         *
+         * @param failure Failure of the operation, {@code null} if it succeeded.
+         */
+        void completed(long bytesIn, long bytesOut, Throwable failure) {
+            try {
+                if (metrics.isEnabled()) {
+                    long latency = System.nanoTime() - start;
+                    if (failure == null) {
+                        metrics.recordSuccess(providerName, operation, latency, bytesIn, bytesOut);
+                    } else {
+                        metrics.recordFailure(providerName, operation, latency, failure);
+                    }
+                }
+
+                StorageEvents.commit(event, providerName, path, bytesIn + bytesOut, failure);
+            } finally {
+                if (span != null) {
+                    scope.close();
+                    if (bytesIn > 0) {
+                        span.setAttribute("storage.bytes_in", bytesIn);
+                    }
+                    if (bytesOut > 0) {
+                        span.setAttribute("storage.bytes_out", bytesOut);
+                    }
+                    if (failure != null) {
+                        span.recordError(failure);
+                    }
+                    span.end();
+                }
+            }
+        }
+    }
+
+    /**
+     * Output stream that counts bytes written through it.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Input stream that counts bytes read through it.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package io.storage.manager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A handle of an in-progress transfer started by {@link TransferEngine}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class Transfer {
+
+    /**
+     * Transfer progress.
+     */
+    private final TransferProgress progress = new TransferProgress();
+
+    /**
+     * Number of files not yet processed. Starts at 1 to account for the submission phase itself, so the transfer is not
+     * considered completed while files are still being submitted.
+     */
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    /**
+     * Completed once all submitted files were processed.
+     */
+    private final CompletableFuture<TransferProgress> completion = new CompletableFuture<>();
+
+    Transfer() {
+    }
+
+    /**
+     * @return Transfer progress and throughput metrics.
+     */
+    public TransferProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return A future completed with the final progress once all files were processed (whether successfully or not).
+     */
+    public CompletableFuture<TransferProgress> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Wait for transfer to complete.
+     *
+     * @return Final transfer progress.
+     * @throws InterruptedException If current thread was interrupted while waiting.
+     */
+    public TransferProgress await() throws InterruptedException {
+        try {
+            return completion.get();
+        } catch (ExecutionException ex) {
+            // Completion is never completed exceptionally -- failures are recorded per file.
+            throw new IllegalStateException("Unexpected transfer failure.", ex.getCause());
+        }
+    }
+
+    /**
+     * Wait for transfer to complete, up to a given timeout.
+     *
+     * @param timeout Maximum time to wait.
+     * @param unit    Time unit of <i>timeout</i>.
+     * @return Final transfer progress.
+     * @throws InterruptedException If current thread was interrupted while waiting.
+     * @throws TimeoutException     If transfer did not complete within the given timeout.
+     */
+    public TransferProgress await(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        try {
+            return completion.get(timeout, unit);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Unexpected transfer failure.", ex.getCause());
+        }
+    }
+
+    /**
+     * Register a new file as pending.
+     */
+    void fileSubmitted() {
+        pending.incrementAndGet();
+        progress.fileSubmitted();
+    }
+
+    /**
+     * Mark a pending file (or the submission phase) as done.
+     */
+    void done() {
+        if (pending.decrementAndGet() == 0) {
+            progress.completed();
+            completion.complete(progress);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package io.storage.manager;
+
+import io.storage.StorageException;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.tracing.TraceContext;
+import io.storage.utils.Assert;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transfers files between any two {@link StorageService storage services}, e.g.: when migrating a tenant from Dropbox
+ * to a local file system.<p>
+ * Each file is streamed from source to target through a pipe with a bounded buffer, so files are never materialized in
+ * memory. Files are transferred in parallel, up to a configurable number of concurrent transfers. A transfer can be
+ * resumed by re-running it with a {@link ResumeMode} that skips files already present at the target.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TransferEngine {
+
+    /**
+     * Default number of concurrent file transfers.
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    /**
+     * Default size of pipe buffer per file transfer, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = StreamPipe.DEFAULT_BUFFER_SIZE;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(TransferEngine.class);
+
+    /**
+     * Executes the writing side of each file transfer. The number of threads limits the number of concurrent transfers.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Executes the reading side of each file transfer and folder crawling.
+     */
+    private final ExecutorService pumps;
+
+    /**
+     * Size of pipe buffer per file transfer, in bytes.
+     */
+    private volatile int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /**
+     * Policy for files already existing at the target.
+     */
+    private volatile ResumeMode resumeMode = ResumeMode.NONE;
+
+    /**
+     * Priority class of transfer operations.
+     */
+    private volatile Priority priority = Priority.BULK;
+
+    /**
+     * Construct a new transfer engine with {@link #DEFAULT_CONCURRENCY default concurrency}.
+     */
+    public TransferEngine() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param concurrency Maximum number of concurrent file transfers. Must be greater than 0.
+     * @throws IllegalArgumentException If <i>concurrency</i> is less than 1.
+     */
+    public TransferEngine(int concurrency) throws IllegalArgumentException {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Invalid concurrency: " + concurrency + " (must be greater than 0).");
+        }
+
+        this.workers = Executors.newFixedThreadPool(concurrency, StreamPipe.daemonThreadFactory("storage-transfer-"));
+        this.pumps = Executors.newCachedThreadPool(StreamPipe.daemonThreadFactory("storage-transfer-pump-"));
+    }
+
+    /**
+     * Copy files from source to target storage service. Files are written to the same paths at the target.
+     *
+     * @param source Source storage service.
+     * @param target Target storage service.
+     * @param paths  Paths of files to copy.
+     * @return Transfer handle.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public Transfer copy(StorageService source, StorageService target, Collection<String> paths)
+            throws IllegalArgumentException {
+        return transfer(source, target, paths, false);
+    }
+
+    /**
+     * Move files from source to target storage service. Each source file is deleted once it was successfully
+     * transferred.
+     *
+     * @param source Source storage service.
+     * @param target Target storage service.
+     * @param paths  Paths of files to move.
+     * @return Transfer handle.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public Transfer move(StorageService source, StorageService target, Collection<String> paths)
+            throws IllegalArgumentException {
+        return transfer(source, target, paths, true);
+    }
+
+    /**
+     * Copy all files under a given folder, recursively, from source to target storage service. Folders are crawled
+     * lazily while files are transferred.
+     *
+     * @param source     Source storage service.
+     * @param target     Target storage service.
+     * @param folderPath Path of folder to copy.
+     * @return Transfer handle.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public Transfer copyFolder(StorageService source, StorageService target, String folderPath)
+            throws IllegalArgumentException {
+        return transferFolder(source, target, folderPath, false);
+    }
+
+    /**
+     * Move all files under a given folder, recursively, from source to target storage service. Each source file is
+     * deleted once it was successfully transferred; source folders are left in place.
+     *
+     * @param source     Source storage service.
+     * @param target     Target storage service.
+     * @param folderPath Path of folder to move.
+     * @return Transfer handle.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public Transfer moveFolder(StorageService source, StorageService target, String folderPath)
+            throws IllegalArgumentException {
+        return transferFolder(source, target, folderPath, true);
+    }
+
+    /**
+     * Shutdown the engine. Transfers already submitted are completed, new transfers are rejected.
+     */
+    public void shutdown() {
+        workers.shutdown();
+        pumps.shutdown();
+    }
+
+    /**
+     * Set the size of pipe buffer allocated per file transfer.
+     *
+     * @param bufferSize Buffer size, in bytes. Must be greater than 0.
+     * @throws IllegalArgumentException If <i>bufferSize</i> is less than 1.
+     */
+    public void setBufferSize(int bufferSize) throws IllegalArgumentException {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize + " (must be greater than 0).");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Set the policy for files already existing at the target.
+     *
+     * @param resumeMode Resume mode.
+     * @throws IllegalArgumentException If <i>resumeMode</i> is {@code null}.
+     */
+    public void setResumeMode(ResumeMode resumeMode) throws IllegalArgumentException {
+        Assert.notNull(resumeMode, "Resume mode cannot be null.");
+        this.resumeMode = resumeMode;
+    }
+
+    /**
+     * Set the priority class of operations of transfers submitted afterwards. Transfers are {@link Priority#BULK bulk}
+     * by default.
+     *
+     * @param priority Priority class.
+     * @throws IllegalArgumentException If <i>priority</i> is {@code null}.
+     */
+    public void setPriority(Priority priority) throws IllegalArgumentException {
+        Assert.notNull(priority, "Priority cannot be null.");
+        this.priority = priority;
+    }
+
+    /**
+     * Submit a collection of files for transfer.
+     */
+    private Transfer transfer(StorageService source, StorageService target, Collection<String> paths, boolean move)
+            throws IllegalArgumentException {
+        Assert.notNull(source, "Source cannot be null.");
+        Assert.notNull(target, "Target cannot be null.");
+        Assert.notNull(paths, "Paths cannot be null.");
+        source = source.withPriority(priority);
+        target = target.withPriority(priority);
+
+        Transfer transfer = new Transfer();
+        try {
+            for (String path : paths) {
+                submit(transfer, source, target, path, move);
+            }
+        } finally {
+            transfer.done();
+        }
+
+        return transfer;
+    }
+
+    /**
+     * Crawl a folder and submit its files for transfer.
+     */
+    private Transfer transferFolder(StorageService source, StorageService target, String folderPath, boolean move)
+            throws IllegalArgumentException {
+        Assert.notNull(source, "Source cannot be null.");
+        Assert.notNull(target, "Target cannot be null.");
+        Assert.notNull(folderPath, "Folder path cannot be null.");
+        StorageService prioritizedSource = source.withPriority(priority);
+        StorageService prioritizedTarget = target.withPriority(priority);
+
+        Transfer transfer = new Transfer();
+        pumps.execute(TraceContext.wrap(() -> {
+            String current = folderPath;
+            try {
+                Deque<String> folders = new ArrayDeque<>();
+                folders.push(folderPath);
+                while (!folders.isEmpty()) {
+                    current = folders.pop();
+                    try (FolderListing listing = prioritizedSource.listFolder(current)) {
+                        for (BaseEntity entity : listing) {
+                            if (entity instanceof FileEntity) {
+                                submit(transfer, prioritizedSource, prioritizedTarget, entity.getPath(), move);
+                            } else if (entity instanceof FolderEntity) {
+                                folders.push(entity.getPath());
+                            }
+                        }
+                    }
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Could not list folder {}, transfer is incomplete.", current, ex);
+                transfer.getProgress().fileFailed(current, ex);
+            } finally {
+                transfer.done();
+            }
+        }));
+
+        return transfer;
+    }
+
+    /**
+     * Submit a single file for transfer.
+     */
+    private void submit(Transfer transfer, StorageService source, StorageService target, String path, boolean move) {
+        TransferProgress progress = transfer.getProgress();
+        transfer.fileSubmitted();
+
+        workers.execute(TraceContext.wrap(() -> {
+            try {
+                if (isUpToDate(source, target, path)) {
+                    logger.debug("Skipping {}, target is up to date.", path);
+                    progress.fileSkipped();
+                } else {
+                    stream(source, target, path, progress);
+                    progress.fileTransferred();
+                }
+
+                if (move) {
+                    source.delete(path);
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Could not transfer {}.", path, ex);
+                progress.fileFailed(path, ex);
+            } finally {
+                transfer.done();
+            }
+        }));
+    }
+
+    /**
+     * Stream a single file from source to target. The source is read on a pump thread into a bounded pipe while the
+     * target is written on the calling thread.<p>
+     * When both services share a scheduler, the transfer is admitted by it as a single operation. Admitted separately,
+     * one side could hold the last permit of its class while the other waits for it.
+     */
+    private void stream(StorageService source, StorageService target, String path, TransferProgress progress) {
+        PriorityScheduler scheduler = source.getScheduler();
+        if (scheduler == null || scheduler != target.getScheduler()) {
+            pipe(source, target, path, progress);
+            return;
+        }
+
+        scheduler.execute(source.getPriority(), () -> {
+            pipe(source.unscheduled(), target.unscheduled(), path, progress);
+            return null;
+        });
+    }
+
+    private void pipe(StorageService source, StorageService target, String path, TransferProgress progress) {
+        StreamPipe.transfer(
+                out -> source.readFile(path, new CountingOutputStream(out, progress)),
+                in -> target.writeFile(path, in),
+                bufferSize,
+                pumps);
+    }
+
+    /**
+     * Check if target already holds an up-to-date copy of a source file, according to {@link #resumeMode}.
+     */
+    private boolean isUpToDate(StorageService source, StorageService target, String path) {
+        ResumeMode mode = this.resumeMode;
+        if (mode == ResumeMode.NONE || !target.exists(path)) {
+            return false;
+        }
+
+        if (source.readFileMeta(path).size != target.readFileMeta(path).size) {
+            return false;
+        }
+
+        return mode == ResumeMode.SIZE || Arrays.equals(checksum(source, path), checksum(target, path));
+    }
+
+    /**
+     * Compute SHA-256 checksum of a file by streaming its contents.
+     */
+    private static byte[] checksum(StorageService service, String path) throws StorageException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new StorageException("SHA-256 is not supported by this platform.", ex);
+        }
+
+        service.readFile(path, new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+        return digest.digest();
+    }
+
+    /**
+     * Policy for handling files that already exist at the target.
+     */
+    public enum ResumeMode {
+
+        /**
+         * Always transfer files, overwriting existing ones.
+         */
+        NONE,
+
+        /**
+         * Skip files that exist at the target with the same size.
+         */
+        SIZE,
+
+        /**
+         * Skip files that exist at the target with the same size and SHA-256 checksum. Checksums are computed by
+         * streaming both copies, which is still cheaper than uploading.
+         */
+        CHECKSUM
+    }
+
+    /**
+     * Output stream that counts bytes written through it.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private final TransferProgress progress;
+
+        CountingOutputStream(OutputStream out, TransferProgress progress) {
+            super(out);
+            this.progress = progress;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            progress.bytesTransferred(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            progress.bytesTransferred(len);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.storage.manager;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress and throughput metrics of a {@link Transfer}. All counters are updated concurrently by the transfer's
+ * workers and may be read at any time.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TransferProgress {
+
+    /**
+     * Number of files submitted for transfer.
+     */
+    private final AtomicLong filesSubmitted = new AtomicLong();
+
+    /**
+     * Number of files transferred successfully.
+     */
+    private final AtomicLong filesTransferred = new AtomicLong();
+
+    /**
+     * Number of files skipped, since they already exist at the target.
+     */
+    private final AtomicLong filesSkipped = new AtomicLong();
+
+    /**
+     * Number of bytes streamed from source to target.
+     */
+    private final LongAdder bytesTransferred = new LongAdder();
+
+    /**
+     * Files that could not be transferred and the failure cause.
+     */
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Timestamp when transfer started, in nanoseconds.
+     */
+    private final long startTime = System.nanoTime();
+
+    /**
+     * Timestamp when transfer ended, in nanoseconds, or 0 if transfer is still in progress.
+     */
+    private volatile long endTime;
+
+    /**
+     * @return Number of files submitted for transfer so far.
+     */
+    public long getFilesSubmitted() {
+        return filesSubmitted.get();
+    }
+
+    /**
+     * @return Number of files transferred successfully.
+     */
+    public long getFilesTransferred() {
+        return filesTransferred.get();
+    }
+
+    /**
+     * @return Number of files skipped, since identical files already exist at the target.
+     */
+    public long getFilesSkipped() {
+        return filesSkipped.get();
+    }
+
+    /**
+     * @return Number of files that failed to transfer.
+     */
+    public long getFilesFailed() {
+        return failures.size();
+    }
+
+    /**
+     * @return Number of bytes streamed from source to target.
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred.sum();
+    }
+
+    /**
+     * @return Unmodifiable view of files that failed to transfer (path to failure cause).
+     */
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return Time elapsed since transfer started (or total transfer time, if completed), in milliseconds.
+     */
+    public long getElapsedMillis() {
+        long end = endTime;
+        return ((end != 0 ? end : System.nanoTime()) - startTime) / 1_000_000L;
+    }
+
+    /**
+     * @return Average throughput since transfer started, in bytes per second.
+     */
+    public double getBytesPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed > 0 ? getBytesTransferred() * 1000.0 / elapsed : 0.0;
+    }
+
+    /**
+     * @return {@code true} if all submitted files were processed, {@code false} if transfer is still in progress.
+     */
+    public boolean isCompleted() {
+        return endTime != 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("submitted: %d, transferred: %d, skipped: %d, failed: %d, bytes: %d, %.1f bytes/sec",
+                getFilesSubmitted(),
+                getFilesTransferred(),
+                getFilesSkipped(),
+                getFilesFailed(),
+                getBytesTransferred(),
+                getBytesPerSecond());
+    }
+
+    void fileSubmitted() {
+        filesSubmitted.incrementAndGet();
+    }
+
+    void fileTransferred() {
+        filesTransferred.incrementAndGet();
+    }
+
+    void fileSkipped() {
+        filesSkipped.incrementAndGet();
+    }
+
+    void fileFailed(String path, Throwable cause) {
+        failures.put(path, cause);
+    }
+
+    void bytesTransferred(long count) {
+        bytesTransferred.add(count);
+    }
+
+    void completed() {
+        endTime = System.nanoTime();
+    }
+}
@@ -0,0 +1,75 @@
+package io.storage.metrics;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class HistogramSnapshot {
+
+    /**
+     * Number of recorded values.
+     */
+    public final long count;
+
+    /**
+     * Sum of recorded values.
+     */
+    public final long sum;
+
+    /**
+     * Largest recorded value.
+     */
+    public final long max;
+
+    /**
+     * Count per bucket.
+     */
+    private final long[] counts;
+
+    HistogramSnapshot(long[] counts, long sum, long max) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+
+        this.counts = counts;
+        this.count = total;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * @return Mean of recorded values, or 0 if none were recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile Percentile, between 0 and 100 (e.g.: 99.9).
+     * @return Value at the given percentile (the upper bound of its bucket, capped by {@link #max}), or 0 if no values
+     * were recorded.
+     * @throws IllegalArgumentException If <i>percentile</i> is out of range.
+     */
+    public long getPercentile(double percentile) throws IllegalArgumentException {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile + " (must be between 0 and 100).");
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValueOf(i), max);
+            }
+        }
+
+        return max;
+    }
+}
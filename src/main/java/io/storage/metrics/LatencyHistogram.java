@@ -0,0 +1,96 @@
+package io.storage.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with log-linear buckets, in the spirit of HdrHistogram: each power-of-two range of
+ * values is split into {@value #SUB_BUCKETS} equal buckets, so any recorded value is reported within about 3% of its
+ * actual value, from nanoseconds up to hours, in a fixed amount of memory. Recording costs an atomic increment of the
+ * value's bucket and an add to a {@link LongAdder} sum. The maximum is read on every call but only updated, by a
+ * compare-and-set loop, when a new maximum is recorded.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of bits of precision kept per value.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Number of buckets per power-of-two range.
+     */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest power of two tracked. Larger values are recorded in the last bucket.
+     */
+    private static final int MAX_EXPONENT = 44;
+
+    /**
+     * Total number of buckets.
+     */
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value.
+     *
+     * @param value Value to record, e.g.: latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long clamped = Math.max(value, 0);
+        counts.incrementAndGet(indexOf(clamped));
+        sum.add(clamped);
+        if (clamped > max.get()) {
+            max.accumulateAndGet(clamped, Math::max);
+        }
+    }
+
+    /**
+     * @return Snapshot of recorded values. Values recorded while the snapshot is taken may be partially reflected.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+
+        return new HistogramSnapshot(snapshot, sum.sum(), max.get());
+    }
+
+    /**
+     * @return Bucket index of <i>value</i>.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int index = SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    /**
+     * @return Highest value recorded in bucket <i>index</i>.
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
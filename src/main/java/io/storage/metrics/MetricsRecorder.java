@@ -0,0 +1,60 @@
+package io.storage.metrics;
+
+/**
+ * Instrumentation SPI -- receives the outcome of each storage operation. Implementations are called on the caller's
+ * thread, once per operation, so they must be thread-safe and cheap (no I/O, no locking); see {@link MetricsRegistry}
+ * for an in-process implementation.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Recorder that discards all measurements. Operations are not timed at all when it is used.
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordSuccess(String provider, StorageOperation operation, long latencyNanos, long bytesIn,
+                                  long bytesOut) {
+        }
+
+        @Override
+        public void recordFailure(String provider, StorageOperation operation, long latencyNanos, Throwable failure) {
+        }
+    };
+
+    /**
+     * @return {@code true} if operations should be measured. When {@code false}, callers may skip timing and byte
+     * counting altogether.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Record a successful operation.
+     *
+     * @param provider     Name of provider that performed the operation.
+     * @param operation    Operation performed.
+     * @param latencyNanos Duration of operation, in nanoseconds.
+     * @param bytesIn      Number of bytes read from storage.
+     * @param bytesOut     Number of bytes written to storage.
+     */
+    void recordSuccess(String provider, StorageOperation operation, long latencyNanos, long bytesIn, long bytesOut);
+
+    /**
+     * Record a failed operation.
+     *
+     * @param provider     Name of provider that performed the operation.
+     * @param operation    Operation performed.
+     * @param latencyNanos Duration of operation until it failed, in nanoseconds.
+     * @param failure      Failure.
+     */
+    void recordFailure(String provider, StorageOperation operation, long latencyNanos, Throwable failure);
+}
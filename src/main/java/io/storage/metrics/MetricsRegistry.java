@@ -0,0 +1,112 @@
+package io.storage.metrics;
+
+import io.storage.utils.Assert;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process {@link MetricsRecorder}, keeping per-provider, per-operation call counts, error counts by exception
+ * type, bytes read and written and a {@link LatencyHistogram latency histogram}. Recording is lock-free; the current
+ * state is exported by {@link #snapshot()}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class MetricsRegistry implements MetricsRecorder {
+
+    /**
+     * Metrics per provider name.
+     */
+    private final Map<String, OperationMetrics[]> providers = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordSuccess(String provider, StorageOperation operation, long latencyNanos, long bytesIn,
+                              long bytesOut) {
+        OperationMetrics metrics = metricsOf(provider, operation);
+        metrics.calls.increment();
+        metrics.latency.record(latencyNanos);
+        if (bytesIn > 0) {
+            metrics.bytesIn.add(bytesIn);
+        }
+        if (bytesOut > 0) {
+            metrics.bytesOut.add(bytesOut);
+        }
+    }
+
+    @Override
+    public void recordFailure(String provider, StorageOperation operation, long latencyNanos, Throwable failure) {
+        OperationMetrics metrics = metricsOf(provider, operation);
+        metrics.calls.increment();
+        metrics.latency.record(latencyNanos);
+        metrics.errors.computeIfAbsent(failure.getClass().getName(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return Snapshot of all metrics recorded so far.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Map<StorageOperation, MetricsSnapshot.OperationSnapshot>> snapshot = new TreeMap<>();
+        for (Map.Entry<String, OperationMetrics[]> provider : providers.entrySet()) {
+            Map<StorageOperation, MetricsSnapshot.OperationSnapshot> operations = new EnumMap<>(StorageOperation.class);
+            for (StorageOperation operation : StorageOperation.values()) {
+                OperationMetrics metrics = provider.getValue()[operation.ordinal()];
+                if (metrics.calls.sum() > 0) {
+                    operations.put(operation, metrics.snapshot());
+                }
+            }
+            snapshot.put(provider.getKey(), operations);
+        }
+
+        return new MetricsSnapshot(Instant.now(), snapshot);
+    }
+
+    private OperationMetrics metricsOf(String provider, StorageOperation operation) {
+        Assert.notNull(provider, "Provider name cannot be null.");
+        Assert.notNull(operation, "Operation cannot be null.");
+
+        OperationMetrics[] operations = providers.get(provider);
+        if (operations == null) {
+            operations = providers.computeIfAbsent(provider, key -> newOperationMetrics());
+        }
+        return operations[operation.ordinal()];
+    }
+
+    private static OperationMetrics[] newOperationMetrics() {
+        OperationMetrics[] operations = new OperationMetrics[StorageOperation.values().length];
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new OperationMetrics();
+        }
+        return operations;
+    }
+
+    /**
+     * Metrics of a single operation of a single provider.
+     */
+    private static final class OperationMetrics {
+
+        final LongAdder calls = new LongAdder();
+
+        final LongAdder bytesIn = new LongAdder();
+
+        final LongAdder bytesOut = new LongAdder();
+
+        /**
+         * Error count per exception class name.
+         */
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        MetricsSnapshot.OperationSnapshot snapshot() {
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((type, count) -> errorCounts.put(type, count.sum()));
+            return new MetricsSnapshot.OperationSnapshot(calls.sum(), errorCounts, bytesIn.sum(), bytesOut.sum(),
+                    latency.snapshot());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.storage.metrics;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of a {@link MetricsRegistry}, for export to monitoring systems or logs.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * Time the snapshot was taken.
+     */
+    public final Instant timestamp;
+
+    /**
+     * Metrics per provider name and operation. Operations never performed are omitted.
+     */
+    public final Map<String, Map<StorageOperation, OperationSnapshot>> providers;
+
+    MetricsSnapshot(Instant timestamp, Map<String, Map<StorageOperation, OperationSnapshot>> providers) {
+        this.timestamp = timestamp;
+        this.providers = Collections.unmodifiableMap(providers);
+    }
+
+    /**
+     * @param provider  Provider name.
+     * @param operation Operation.
+     * @return Metrics of the given operation, or {@code null} if it was never performed by <i>provider</i>.
+     */
+    public OperationSnapshot get(String provider, StorageOperation operation) {
+        Map<StorageOperation, OperationSnapshot> operations = providers.get(provider);
+        return operations != null ? operations.get(operation) : null;
+    }
+
+    /**
+     * @return Multi-line, human-readable summary: one line per provider and operation.
+     */
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder("Storage metrics at ").append(timestamp).append(':');
+        providers.forEach((provider, operations) -> operations.forEach((operation, metrics) -> buf
+                .append(System.lineSeparator())
+                .append(provider).append('.').append(operation).append(": ")
+                .append(metrics)));
+        return buf.toString();
+    }
+
+    /**
+     * Metrics of a single operation of a single provider.
+     */
+    public static final class OperationSnapshot {
+
+        /**
+         * Number of calls, including failed ones.
+         */
+        public final long calls;
+
+        /**
+         * Number of failed calls per exception class name.
+         */
+        public final Map<String, Long> errors;
+
+        /**
+         * Number of bytes read from storage.
+         */
+        public final long bytesIn;
+
+        /**
+         * Number of bytes written to storage.
+         */
+        public final long bytesOut;
+
+        /**
+         * Latency of calls, in nanoseconds.
+         */
+        public final HistogramSnapshot latency;
+
+        OperationSnapshot(long calls, Map<String, Long> errors, long bytesIn, long bytesOut,
+                          HistogramSnapshot latency) {
+            this.calls = calls;
+            this.errors = Collections.unmodifiableMap(errors);
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+            this.latency = latency;
+        }
+
+        /**
+         * @return Total number of failed calls.
+         */
+        public long getErrorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls=%d errors=%d in=%d out=%d p50=%.3fms p99=%.3fms max=%.3fms",
+                    calls, getErrorCount(), bytesIn, bytesOut,
+                    latency.getPercentile(50) / 1e6, latency.getPercentile(99) / 1e6, latency.max / 1e6);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.storage.metrics;
+
+/**
+ * Storage operations tracked by {@link MetricsRecorder metrics}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public enum StorageOperation {
+
+    /**
+     * Folder listing, either full or paged.
+     */
+    LIST_FOLDER,
+
+    /**
+     * Existence check of a file or folder.
+     */
+    EXISTS,
+
+    /**
+     * File metadata lookup.
+     */
+    READ_FILE_META,
+
+    /**
+     * File contents read, either full or ranged.
+     */
+    READ_FILE,
+
+    /**
+     * File contents write.
+     */
+    WRITE_FILE,
+
+    /**
+     * File or folder deletion.
+     */
+    DELETE,
+
+    /**
+     * File or folder copy.
+     */
+    COPY,
+
+    /**
+     * File or folder move.
+     */
+    MOVE,
+
+    /**
+     * Search of files and folders by glob and filter.
+     */
+    FIND
+}
@@ -0,0 +1,675 @@
+package io.storage.providers.circuitbreaker;
+
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.utils.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A decorating provider that stops calling a degraded storage service, so callers fail fast rather than block until
+ * timeouts fire.<p>
+ * Calls are tracked per credentials (by {@link Credentials#id id}, or by instance if it has none), in a window of the
+ * most recent calls. Once enough calls were made and the fraction of failed calls, or of metadata calls slower than a
+ * {@link #setSlowCallThreshold(Duration) threshold}, reaches its limit, the circuit <i>opens</i>: calls are rejected
+ * with a {@link CircuitOpenException} without reaching the service. After an {@link #setOpenDuration(Duration) open
+ * duration} the circuit is <i>half-open</i> and lets a few probing calls through: if all succeed the circuit closes,
+ * otherwise it opens again.<p>
+ * Only failures that indicate the service is unhealthy count (see {@link #setFailureClassifier(FailureClassifier)}),
+ * e.g.: a missing file does not. Content transfers are not subject to the slow call threshold, since their duration
+ * depends on their size. Pages of a {@link #listFolder(Credentials, String) listing} fetched while it is iterated are
+ * not guarded.<p>
+ * State changes are logged and published to {@link #addListener(CircuitListener) listeners}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class CircuitBreakingStorageServiceProvider<C extends Credentials> extends DelegatingStorageServiceProvider<C> {
+
+    /**
+     * Default number of recent calls a circuit's state is decided by.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    /**
+     * Default minimum number of calls in window before a circuit may open.
+     */
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+    /**
+     * Default fraction of failed calls that opens a circuit.
+     */
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    /**
+     * Default fraction of slow calls that opens a circuit.
+     */
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.8;
+
+    /**
+     * Default duration of a metadata call considered slow.
+     */
+    public static final Duration DEFAULT_SLOW_CALL_THRESHOLD = Duration.ofSeconds(10);
+
+    /**
+     * Default time a circuit stays open before it is probed.
+     */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * Default number of successful probes that close a half-open circuit.
+     */
+    public static final int DEFAULT_PROBES = 3;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakingStorageServiceProvider.class);
+
+    /**
+     * Circuits, by credentials key.
+     */
+    private final Map<Object, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Listeners to circuit state changes.
+     */
+    private final List<CircuitListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of calls rejected while circuits were open.
+     */
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    /**
+     * Number of times circuits opened.
+     */
+    private final LongAdder trips = new LongAdder();
+
+    /**
+     * Name of decorated provider, as reported to listeners.
+     */
+    private final String providerName;
+
+    private volatile int windowSize = DEFAULT_WINDOW_SIZE;
+
+    private volatile int minimumCalls = DEFAULT_MINIMUM_CALLS;
+
+    private volatile double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+
+    private volatile double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+
+    private volatile Duration slowCallThreshold = DEFAULT_SLOW_CALL_THRESHOLD;
+
+    private volatile Duration openDuration = DEFAULT_OPEN_DURATION;
+
+    private volatile int probes = DEFAULT_PROBES;
+
+    private volatile FailureClassifier failureClassifier = FailureClassifier.DEFAULT;
+
+    /**
+     * Class constructor.
+     *
+     * @param delegate Provider to guard.
+     * @throws IllegalArgumentException If <i>delegate</i> is {@code null}.
+     */
+    public CircuitBreakingStorageServiceProvider(StorageServiceProvider<C> delegate) throws IllegalArgumentException {
+        super(delegate);
+        this.providerName = delegate.getClass().getSimpleName();
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return guard(credentials, true, () -> delegate.listFolderContents(credentials, path));
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return guard(credentials, true, () -> delegate.listFolder(credentials, path));
+    }
+
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return guard(credentials, true, () -> delegate.find(credentials, root, glob, filter));
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        return guard(credentials, true, () -> delegate.exists(credentials, path));
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        return guard(credentials, true, () -> delegate.readFileMeta(credentials, path));
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        guard(credentials, false, () -> {
+            delegate.readFile(credentials, path, out);
+            return null;
+        });
+    }
+
+    @Override
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        guard(credentials, false, () -> {
+            delegate.readFile(credentials, path, offset, length, out);
+            return null;
+        });
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return guard(credentials, false, () -> delegate.writeFile(credentials, path, in));
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return guard(credentials, false, () -> delegate.writeFile(credentials, path, in, revision));
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return guard(credentials, false, () -> delegate.writeFile(credentials, path, data));
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return guard(credentials, false, () -> delegate.writeFile(credentials, path, data, revision));
+    }
+
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        guard(credentials, true, () -> {
+            delegate.delete(credentials, path);
+            return null;
+        });
+    }
+
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return guard(credentials, true, () -> delegate.copy(credentials, from, to));
+    }
+
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return guard(credentials, true, () -> delegate.move(credentials, from, to));
+    }
+
+    /**
+     * Set the number of recent calls a circuit's state is decided by. Windows of existing circuits are reset.
+     *
+     * @param windowSize Number of calls.
+     * @throws IllegalArgumentException If <i>windowSize</i> is not positive.
+     */
+    public void setWindowSize(int windowSize) throws IllegalArgumentException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Invalid window size: " + windowSize + " (must be positive).");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Set the minimum number of calls in window before a circuit may open, so a few early failures do not open it.
+     *
+     * @param minimumCalls Number of calls.
+     * @throws IllegalArgumentException If <i>minimumCalls</i> is not positive.
+     */
+    public void setMinimumCalls(int minimumCalls) throws IllegalArgumentException {
+        if (minimumCalls < 1) {
+            throw new IllegalArgumentException("Invalid minimum calls: " + minimumCalls + " (must be positive).");
+        }
+        this.minimumCalls = minimumCalls;
+    }
+
+    /**
+     * Set the fraction of failed calls in window that opens a circuit.
+     *
+     * @param failureRateThreshold Fraction, between 0 (exclusive) and 1.
+     * @throws IllegalArgumentException If <i>failureRateThreshold</i> is out of range.
+     */
+    public void setFailureRateThreshold(double failureRateThreshold) throws IllegalArgumentException {
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("Invalid failure rate threshold: " + failureRateThreshold
+                    + " (must be between 0 and 1).");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    /**
+     * Set the fraction of slow calls in window that opens a circuit.
+     *
+     * @param slowCallRateThreshold Fraction, between 0 (exclusive) and 1.
+     * @throws IllegalArgumentException If <i>slowCallRateThreshold</i> is out of range.
+     */
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) throws IllegalArgumentException {
+        if (!(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+            throw new IllegalArgumentException("Invalid slow call rate threshold: " + slowCallRateThreshold
+                    + " (must be between 0 and 1).");
+        }
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    /**
+     * Set the duration of a metadata call considered slow.
+     *
+     * @param slowCallThreshold Duration.
+     * @throws IllegalArgumentException If <i>slowCallThreshold</i> is {@code null} or not positive.
+     */
+    public void setSlowCallThreshold(Duration slowCallThreshold) throws IllegalArgumentException {
+        Assert.notNull(slowCallThreshold, "Slow call threshold cannot be null.");
+        if (slowCallThreshold.isNegative() || slowCallThreshold.isZero()) {
+            throw new IllegalArgumentException("Invalid slow call threshold: " + slowCallThreshold
+                    + " (must be positive).");
+        }
+        this.slowCallThreshold = slowCallThreshold;
+    }
+
+    /**
+     * Set the time a circuit stays open before it is probed.
+     *
+     * @param openDuration Duration.
+     * @throws IllegalArgumentException If <i>openDuration</i> is {@code null} or negative.
+     */
+    public void setOpenDuration(Duration openDuration) throws IllegalArgumentException {
+        Assert.notNull(openDuration, "Open duration cannot be null.");
+        if (openDuration.isNegative()) {
+            throw new IllegalArgumentException("Invalid open duration: " + openDuration + " (must not be negative).");
+        }
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Set the number of probing calls let through a half-open circuit. The circuit closes once all succeed.
+     *
+     * @param probes Number of probes.
+     * @throws IllegalArgumentException If <i>probes</i> is not positive.
+     */
+    public void setProbes(int probes) throws IllegalArgumentException {
+        if (probes < 1) {
+            throw new IllegalArgumentException("Invalid number of probes: " + probes + " (must be positive).");
+        }
+        this.probes = probes;
+    }
+
+    /**
+     * Set the classifier of failures that count against a circuit.
+     *
+     * @param failureClassifier Failure classifier.
+     * @throws IllegalArgumentException If <i>failureClassifier</i> is {@code null}.
+     */
+    public void setFailureClassifier(FailureClassifier failureClassifier) throws IllegalArgumentException {
+        Assert.notNull(failureClassifier, "Failure classifier cannot be null.");
+        this.failureClassifier = failureClassifier;
+    }
+
+    /**
+     * Register a listener to circuit state changes.
+     *
+     * @param listener Listener to register.
+     * @throws IllegalArgumentException If <i>listener</i> is {@code null}.
+     */
+    public void addListener(CircuitListener listener) throws IllegalArgumentException {
+        Assert.notNull(listener, "Listener cannot be null.");
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister a listener.
+     *
+     * @param listener Listener to unregister.
+     */
+    public void removeListener(CircuitListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param credentials Credentials to query.
+     * @return State of the circuit of <i>credentials</i>.
+     * @throws IllegalArgumentException If <i>credentials</i> is {@code null}.
+     */
+    public State getState(C credentials) throws IllegalArgumentException {
+        Assert.notNull(credentials, "Credentials cannot be null.");
+        Circuit circuit = circuits.get(credentials.key());
+        return circuit != null ? circuit.getState() : State.CLOSED;
+    }
+
+    /**
+     * Close the circuit of credentials, e.g.: after the service is known to have recovered.
+     *
+     * @param credentials Credentials whose circuit to close.
+     * @throws IllegalArgumentException If <i>credentials</i> is {@code null}.
+     */
+    public void reset(C credentials) throws IllegalArgumentException {
+        Assert.notNull(credentials, "Credentials cannot be null.");
+        Circuit circuit = circuits.get(credentials.key());
+        if (circuit != null) {
+            circuit.close();
+        }
+    }
+
+    /**
+     * @return Number of calls rejected while circuits were open.
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    /**
+     * @return Number of times circuits opened.
+     */
+    public long getTrips() {
+        return trips.sum();
+    }
+
+    /**
+     * Execute a call, subject to the circuit of its credentials.
+     *
+     * @param credentials Credentials of call.
+     * @param metadata    {@code true} if this is a metadata call, subject to the slow call threshold.
+     * @param call        Call to execute.
+     */
+    private <T> T guard(C credentials, boolean metadata, Supplier<T> call) throws CircuitOpenException {
+        Assert.notNull(credentials, "Credentials cannot be null.");
+        Object key = credentials.key();
+        Circuit circuit = circuits.computeIfAbsent(key, Circuit::new);
+        boolean probe = circuit.acquire();
+
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException ex) {
+            circuit.record(probe, failureClassifier.isFailure(ex), false);
+            throw ex;
+        }
+
+        boolean slow = metadata && System.nanoTime() - start > slowCallThreshold.toNanos();
+        circuit.record(probe, false, slow);
+        return result;
+    }
+
+    /**
+     * Describe a circuit key for logging, without exposing credentials.
+     */
+    private static String describe(Object key) {
+        return key instanceof String ? (String) key : "credentials without id";
+    }
+
+    /**
+     * State of a circuit.
+     */
+    public enum State {
+
+        /**
+         * Calls are let through and tracked.
+         */
+        CLOSED,
+
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+
+        /**
+         * A limited number of probing calls are let through, to find whether the service recovered.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Decides whether a failed call counts against its circuit.
+     */
+    @FunctionalInterface
+    public interface FailureClassifier {
+
+        /**
+         * Default classifier: all failures count, apart from those caused by the request itself (e.g.: a missing file,
+         * an invalid path or revision, or invalid credentials).
+         */
+        FailureClassifier DEFAULT = ex -> !(ex instanceof IllegalArgumentException
+                || ex instanceof EntityNotFoundException
+                || ex instanceof InvalidEntityPathException
+                || ex instanceof InvalidPathFormatException
+                || ex instanceof InvalidRevisionException
+                || ex instanceof CredentialsException
+                || ex instanceof CircuitOpenException);
+
+        /**
+         * @param failure Failure of a call.
+         * @return {@code true} if <i>failure</i> indicates the storage service is unhealthy.
+         */
+        boolean isFailure(RuntimeException failure);
+    }
+
+    /**
+     * Listener to circuit state changes. Invoked synchronously on the thread whose call changed the state, so it must
+     * not block.
+     */
+    @FunctionalInterface
+    public interface CircuitListener {
+
+        /**
+         * A circuit changed its state.
+         *
+         * @param provider Simple class name of guarded provider.
+         * @param key      Key of circuit -- the credentials' id, or the credentials if it has none.
+         * @param from     Previous state.
+         * @param to       New state.
+         */
+        void stateChanged(String provider, Object key, State from, State to);
+    }
+
+    /**
+     * Circuit of a single credentials key.
+     */
+    private final class Circuit {
+
+        private final Object key;
+
+        private State state = State.CLOSED;
+
+        /**
+         * Outcomes of recent calls, in a ring buffer.
+         */
+        private Outcome[] window;
+
+        private int windowIndex;
+
+        private int calls;
+
+        private int failures;
+
+        private int slowCalls;
+
+        /**
+         * Time the circuit last opened at, by {@link System#nanoTime()}.
+         */
+        private long openedAt;
+
+        private int probesInFlight;
+
+        private int probesSucceeded;
+
+        Circuit(Object key) {
+            this.key = key;
+            this.window = new Outcome[windowSize];
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        /**
+         * Acquire permission to call.
+         *
+         * @return {@code true} if the call is a probe of a half-open circuit.
+         * @throws CircuitOpenException If the circuit is open, or half-open with all probes taken.
+         */
+        synchronized boolean acquire() throws CircuitOpenException {
+            if (state == State.OPEN) {
+                long remaining = openDuration.toNanos() - (System.nanoTime() - openedAt);
+                if (remaining > 0) {
+                    rejectedCalls.increment();
+                    throw new CircuitOpenException("Circuit of " + providerName + " is open, call rejected.",
+                            Duration.ofNanos(remaining));
+                }
+
+                probesInFlight = 0;
+                probesSucceeded = 0;
+                transition(State.HALF_OPEN);
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight + probesSucceeded >= probes) {
+                    rejectedCalls.increment();
+                    throw new CircuitOpenException("Circuit of " + providerName + " is half-open, call rejected.",
+                            Duration.ZERO);
+                }
+
+                probesInFlight++;
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Record the outcome of a call.
+         */
+        synchronized void record(boolean probe, boolean failed, boolean slow) {
+            if (probe) {
+                if (state != State.HALF_OPEN) {
+                    // Circuit was reset meanwhile.
+                    return;
+                }
+
+                probesInFlight--;
+                if (failed || slow) {
+                    open();
+                } else if (++probesSucceeded >= probes) {
+                    close();
+                }
+                return;
+            }
+
+            if (state != State.CLOSED) {
+                // Call started before the circuit opened.
+                return;
+            }
+
+            if (window.length != windowSize) {
+                resetWindow();
+            }
+
+            Outcome previous = window[windowIndex];
+            if (previous != null) {
+                calls--;
+                failures -= previous == Outcome.FAILED ? 1 : 0;
+                slowCalls -= previous == Outcome.SLOW ? 1 : 0;
+            }
+
+            Outcome outcome = failed ? Outcome.FAILED : (slow ? Outcome.SLOW : Outcome.SUCCEEDED);
+            window[windowIndex] = outcome;
+            windowIndex = (windowIndex + 1) % window.length;
+            calls++;
+            failures += outcome == Outcome.FAILED ? 1 : 0;
+            slowCalls += outcome == Outcome.SLOW ? 1 : 0;
+
+            if (calls >= minimumCalls && (failures >= failureRateThreshold * calls
+                    || slowCalls >= slowCallRateThreshold * calls)) {
+                open();
+            }
+        }
+
+        synchronized void close() {
+            resetWindow();
+            if (state != State.CLOSED) {
+                transition(State.CLOSED);
+            }
+        }
+
+        private void open() {
+            if (state == State.CLOSED) {
+                logger.warn("Circuit of {} ({}) opened after {} failed and {} slow of {} calls.", providerName,
+                        describe(key), failures, slowCalls, calls);
+            } else {
+                logger.warn("Circuit of {} ({}) re-opened, probe failed.", providerName, describe(key));
+            }
+
+            openedAt = System.nanoTime();
+            trips.increment();
+            transition(State.OPEN);
+        }
+
+        private void resetWindow() {
+            window = new Outcome[windowSize];
+            windowIndex = 0;
+            calls = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+
+        private void transition(State to) {
+            State from = state;
+            state = to;
+            if (to != State.OPEN) {
+                logger.info("Circuit of {} ({}) is {}.", providerName, describe(key), to);
+            }
+
+            for (CircuitListener listener : listeners) {
+                try {
+                    listener.stateChanged(providerName, key, from, to);
+                } catch (RuntimeException ex) {
+                    logger.warn("Circuit listener failed.", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Outcome of a call.
+     */
+    private enum Outcome {
+        SUCCEEDED, FAILED, SLOW
+    }
+}
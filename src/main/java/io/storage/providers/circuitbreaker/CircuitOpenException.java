@@ -0,0 +1,38 @@
+package io.storage.providers.circuitbreaker;
+
+import io.storage.StorageException;
+
+import java.time.Duration;
+
+/**
+ * Indicates an operation was rejected without being attempted, since the circuit of its provider and credentials is
+ * open: the storage service recently failed or responded too slowly too often.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class CircuitOpenException extends StorageException {
+
+    /**
+     * Time until the circuit allows probing calls again.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Class constructor.
+     *
+     * @param message    Error message.
+     * @param retryAfter Time until the circuit allows probing calls again.
+     */
+    public CircuitOpenException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return Time until the circuit allows probing calls again. Zero if it already does, but all probes are taken.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,334 @@
+package io.storage.providers.coalescing;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A decorating provider that coalesces identical concurrent metadata requests, so a burst of callers asking the same
+ * question pays for a single round-trip to the storage service.<p>
+ * {@link #exists(Credentials, String) exists}, {@link #readFileMeta(Credentials, String) readFileMeta} and
+ * {@link #listFolderContents(Credentials, String) listFolderContents} calls are keyed by credentials (by
+ * {@link Credentials#id id}, or by instance if it has none), operation and path. The first caller of a key executes the
+ * request on its own thread; callers of the same key arriving while it is in flight wait for it and share its outcome.
+ * Results are copied for each waiting caller, so callers (and decorators above this one) may alter what they receive.
+ * Failures are rethrown to all waiting callers as is.<p>
+ * Nothing is cached: once a request completes, the next caller issues a new one. A modification completed through this
+ * provider detaches requests in flight on its paths, their ancestors and descendants, so callers arriving afterwards
+ * never share a result fetched before the modification.<p>
+ * A waiting caller that is interrupted stops waiting without affecting the others. If the executing caller is
+ * interrupted and its request fails, waiting callers do not inherit its failure -- one of them executes the request
+ * again.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class CoalescingStorageServiceProvider<C extends Credentials> extends DelegatingStorageServiceProvider<C> {
+
+    /**
+     * Requests in flight, by key.
+     */
+    private final Map<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Number of coalescable calls.
+     */
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Number of calls served by a request of another caller.
+     */
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    /**
+     * Class constructor.
+     *
+     * @param delegate Provider to coalesce requests to.
+     * @throws IllegalArgumentException If <i>delegate</i> is {@code null}.
+     */
+    public CoalescingStorageServiceProvider(StorageServiceProvider<C> delegate) throws IllegalArgumentException {
+        super(delegate);
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return coalesce(Kind.LIST_FOLDER_CONTENTS, credentials, path,
+                () -> delegate.listFolderContents(credentials, path), FolderEntity::copy);
+    }
+
+    /**
+     * Searches are forwarded as is -- a filter may be any predicate, so searches cannot be told equal and coalesced.
+     */
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.find(credentials, root, glob, filter);
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        return coalesce(Kind.EXISTS, credentials, path, () -> delegate.exists(credentials, path),
+                UnaryOperator.identity());
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        return coalesce(Kind.READ_FILE_META, credentials, path, () -> delegate.readFileMeta(credentials, path),
+                FileEntity::copy);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, in);
+        } finally {
+            detach(credentials, path);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, in, revision);
+        } finally {
+            detach(credentials, path);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, data);
+        } finally {
+            detach(credentials, path);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, data, revision);
+        } finally {
+            detach(credentials, path);
+        }
+    }
+
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        try {
+            delegate.delete(credentials, path);
+        } finally {
+            detach(credentials, path);
+        }
+    }
+
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        try {
+            return delegate.copy(credentials, from, to);
+        } finally {
+            detach(credentials, to);
+        }
+    }
+
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        try {
+            return delegate.move(credentials, from, to);
+        } finally {
+            detach(credentials, from);
+            detach(credentials, to);
+        }
+    }
+
+    /**
+     * @return Number of {@code exists}, {@code readFileMeta} and {@code listFolderContents} calls made.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return Number of calls served by a request made on behalf of another caller, i.e. - round-trips saved.
+     */
+    public long getCoalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    /**
+     * Execute a request, or wait for an identical one in flight.
+     *
+     * @param kind        Kind of request.
+     * @param credentials Credentials of request.
+     * @param path        Path of request.
+     * @param call        Request to execute.
+     * @param copier      Copies a result for a waiting caller.
+     */
+    private <T> T coalesce(Kind kind, C credentials, String path, Supplier<T> call, UnaryOperator<T> copier) {
+        if (credentials == null || path == null) {
+            // Let the delegate report invalid arguments.
+            return call.get();
+        }
+
+        calls.increment();
+        FlightKey key = new FlightKey(credentials.key(), kind, path);
+        while (true) {
+            Flight flight = new Flight();
+            Flight inFlight = flights.putIfAbsent(key, flight);
+            if (inFlight == null) {
+                return execute(key, flight, call);
+            }
+
+            coalescedCalls.increment();
+            try {
+                @SuppressWarnings("unchecked")
+                T result = (T) inFlight.result.get();
+                return copier.apply(result);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted while waiting for a request in flight.", ex);
+            } catch (ExecutionException ex) {
+                if (inFlight.abandoned) {
+                    // The failure is due to the executing caller's interruption, not the request's.
+                    coalescedCalls.decrement();
+                    continue;
+                }
+                throw rethrow(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Execute a request on behalf of all callers waiting for it.
+     */
+    private <T> T execute(FlightKey key, Flight flight, Supplier<T> call) {
+        try {
+            T result = call.get();
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.abandoned = Thread.currentThread().isInterrupted();
+            flight.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Detach requests in flight affected by a modification of a path, so callers arriving afterwards issue new ones.
+     */
+    private void detach(C credentials, String path) {
+        if (credentials == null || path == null || flights.isEmpty()) {
+            return;
+        }
+
+        Object credentialsKey = credentials.key();
+        EntityPath modified = EntityPath.parse(path);
+        flights.keySet().removeIf(key -> key.credentials.equals(credentialsKey)
+                && EntityPath.parse(key.path).isRelatedTo(modified));
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return failure instanceof RuntimeException
+                ? (RuntimeException) failure
+                : new StorageException("Request in flight failed.", failure);
+    }
+
+    /**
+     * Kinds of coalescable requests.
+     */
+    private enum Kind {
+        EXISTS,
+        READ_FILE_META,
+        LIST_FOLDER_CONTENTS
+    }
+
+    /**
+     * Key of a request.
+     */
+    private static final class FlightKey {
+
+        final Object credentials;
+
+        final Kind kind;
+
+        final String path;
+
+        FlightKey(Object credentials, Kind kind, String path) {
+            this.credentials = credentials;
+            this.kind = kind;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+
+            FlightKey other = (FlightKey) o;
+            return kind == other.kind && path.equals(other.path) && credentials.equals(other.credentials);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(credentials, kind, path);
+        }
+    }
+
+    /**
+     * A request in flight.
+     */
+    private static final class Flight {
+
+        /**
+         * Outcome of request.
+         */
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        /**
+         * Indicates the request failed while its executing caller was interrupted.
+         */
+        volatile boolean abandoned;
+    }
+}
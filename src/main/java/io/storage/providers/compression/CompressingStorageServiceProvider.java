@@ -0,0 +1,595 @@
+package io.storage.providers.compression;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.HashingInputStream;
+import io.storage.utils.Assert;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+/**
+ * A decorating provider that compresses file contents on write and decompresses it on read, while streaming. Contents
+ * is never held in memory whole, apart from a small sample.<p>
+ * The decision whether to compress is made per file: the first {@link #setSampleSize(int) sample} of each file is
+ * compressed trial-wise and the file is stored uncompressed if the savings are below a
+ * {@link #setMinimumSavings(double) threshold} (e.g.: images and archives).<p>
+ * Each stored file starts with a short header recording the codec and, when known at write time, the original size.
+ * {@link FileEntity#size Sizes} reported for a single file (e.g.: by {@link #readFileMeta readFileMeta}) are original
+ * sizes: taken from a cache of files written or read through this provider, otherwise from the header (fetched by
+ * aborting a download once the header arrives), and only for large files written from a stream -- whose size is
+ * unknown when the header is written -- by decompressing the file once. Listings never access file contents: files
+ * whose original size is not cached are listed with their stored size. Files stored without a header (e.g.: written
+ * before compression was enabled) are read as-is.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class CompressingStorageServiceProvider<C extends Credentials> extends DelegatingStorageServiceProvider<C> {
+
+    /**
+     * Default number of bytes sampled per file to decide whether to compress it.
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+
+    /**
+     * Default minimal fraction of the sample's size that compression must save.
+     */
+    public static final double DEFAULT_MINIMUM_SAVINGS = 0.1;
+
+    /**
+     * Magic bytes identifying a file stored by this provider.
+     */
+    private static final byte[] MAGIC = {'S', 'I', 'O', 'Z'};
+
+    /**
+     * Header format version.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * Header size: magic, version, codec identifier and original size.
+     */
+    static final int HEADER_SIZE = MAGIC.length + 1 + 1 + Long.BYTES;
+
+    /**
+     * Codec identifier of contents stored uncompressed.
+     */
+    private static final int STORED = 0;
+
+    /**
+     * Original size value of files whose size was unknown when the header was written.
+     */
+    private static final long UNKNOWN_SIZE = -1;
+
+    /**
+     * Maximum number of cached original sizes per credentials.
+     */
+    private static final int MAX_CACHED_SIZES = 10_000;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(CompressingStorageServiceProvider.class);
+
+    /**
+     * Codecs available for reading, by identifier.
+     */
+    private final Map<Integer, CompressionCodec> codecs = new ConcurrentHashMap<>();
+
+    /**
+     * Original sizes of stored files, per credentials and path.
+     */
+    private final Map<C, Map<String, SizeEntry>> sizes = new ConcurrentHashMap<>();
+
+    /**
+     * Codec used for writing.
+     */
+    private volatile CompressionCodec codec;
+
+    /**
+     * Number of bytes sampled per file.
+     */
+    private volatile int sampleSize = DEFAULT_SAMPLE_SIZE;
+
+    /**
+     * Minimal fraction of sample size that compression must save.
+     */
+    private volatile double minimumSavings = DEFAULT_MINIMUM_SAVINGS;
+
+    /**
+     * Construct a new provider, compressing with {@link JdkCodecs#DEFLATE Deflate}.
+     *
+     * @param delegate Provider to store compressed files in.
+     * @throws IllegalArgumentException If <i>delegate</i> is {@code null}.
+     */
+    public CompressingStorageServiceProvider(StorageServiceProvider<C> delegate) throws IllegalArgumentException {
+        this(delegate, JdkCodecs.DEFLATE);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param delegate Provider to store compressed files in.
+     * @param codec    Codec to compress with.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public CompressingStorageServiceProvider(StorageServiceProvider<C> delegate, CompressionCodec codec)
+            throws IllegalArgumentException {
+        super(delegate);
+        for (JdkCodecs jdkCodec : JdkCodecs.values()) {
+            registerCodec(jdkCodec);
+        }
+        setCodec(codec);
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return listFolder(credentials, path).toFolderEntity();
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.listFolder(credentials, path).map(entity -> toListed(credentials, entity));
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        return toOriginal(credentials, delegate.readFileMeta(credentials, path));
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+
+        StreamPipe.transfer(
+                pipe -> delegate.readFile(credentials, path, pipe),
+                in -> decode(path, in, out));
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeCompressed(credentials, path, in, UNKNOWN_SIZE, null);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeCompressed(credentials, path, in, UNKNOWN_SIZE, revision);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        return writeCompressed(credentials, path, new ByteArrayInputStream(data), data.length, null);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        return writeCompressed(credentials, path, new ByteArrayInputStream(data), data.length, revision);
+    }
+
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return toOriginal(credentials, delegate.copy(credentials, from, to));
+    }
+
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return toOriginal(credentials, delegate.move(credentials, from, to));
+    }
+
+    /**
+     * Set the codec used to compress files. The codec is also {@link #registerCodec(CompressionCodec) registered} for
+     * reading. Files already stored with other codecs remain readable as long as their codecs are registered.
+     *
+     * @param codec Codec to compress with.
+     * @throws IllegalArgumentException If <i>codec</i> is {@code null} or has an invalid identifier.
+     */
+    public void setCodec(CompressionCodec codec) throws IllegalArgumentException {
+        registerCodec(codec);
+        this.codec = codec;
+    }
+
+    /**
+     * Register a codec for reading files compressed with it.
+     *
+     * @param codec Codec to register.
+     * @throws IllegalArgumentException If <i>codec</i> is {@code null} or has an invalid identifier.
+     */
+    public void registerCodec(CompressionCodec codec) throws IllegalArgumentException {
+        Assert.notNull(codec, "Codec cannot be null.");
+        if (codec.id() < 1 || codec.id() > 255) {
+            throw new IllegalArgumentException("Invalid codec identifier: " + codec.id() + " (must be within 1-255).");
+        }
+        codecs.put(codec.id(), codec);
+    }
+
+    /**
+     * Set the number of bytes sampled per file to decide whether to compress it.
+     *
+     * @param sampleSize Sample size, in bytes. Must be greater than 0.
+     * @throws IllegalArgumentException If <i>sampleSize</i> is less than 1.
+     */
+    public void setSampleSize(int sampleSize) throws IllegalArgumentException {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Invalid sample size: " + sampleSize + " (must be greater than 0).");
+        }
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Set the minimal fraction of a sample's size that compression must save for a file to be stored compressed. A
+     * value of 0 compresses any file that does not grow.
+     *
+     * @param minimumSavings Minimal savings fraction, within 0 (inclusive) and 1 (exclusive).
+     * @throws IllegalArgumentException If <i>minimumSavings</i> is out of range.
+     */
+    public void setMinimumSavings(double minimumSavings) throws IllegalArgumentException {
+        if (minimumSavings < 0 || minimumSavings >= 1) {
+            throw new IllegalArgumentException("Invalid minimum savings: " + minimumSavings + " (must be within [0, 1)).");
+        }
+        this.minimumSavings = minimumSavings;
+    }
+
+    /**
+     * Write a file: sample its contents, choose whether to compress it and stream header and (compressed) contents to
+     * the delegate.
+     */
+    private FileEntity writeCompressed(C credentials, String path, InputStream in, long knownSize, String revision) {
+        Assert.notNull(in, "Input stream is null.");
+
+        // Hashes describe the original contents, not the stored one.
+        ContentDigest digest = newContentDigest();
+        InputStream source = new HashingInputStream(in, digest);
+
+        byte[] sample;
+        try {
+            sample = source.readNBytes(sampleSize);
+        } catch (IOException ex) {
+            throw new StorageException("Could not read contents of " + path + ".", ex);
+        }
+
+        long originalSize = knownSize != UNKNOWN_SIZE ? knownSize : sample.length < sampleSize ? sample.length : UNKNOWN_SIZE;
+        CompressionCodec selected = isCompressible(sample) ? codec : null;
+        logger.debug("Writing {} {}.", path, selected != null ? "compressed with " + selected.name() : "uncompressed");
+
+        FileEntity stored = StreamPipe.transfer(
+                pipe -> encode(path, pipe, selected, originalSize, sample, source),
+                pipeIn -> revision != null
+                        ? delegate.writeFile(credentials, path, pipeIn, revision)
+                        : delegate.writeFile(credentials, path, pipeIn));
+
+        if (stored.modificationDate != null) {
+            cacheSize(credentials, stored, digest.getSize());
+        }
+        stored.size = digest.getSize();
+        stored.hashes = digest.getHashes();
+        return stored;
+    }
+
+    /**
+     * Write header and contents, compressed with a given codec (or uncompressed, if codec is {@code null}).
+     */
+    private void encode(String path, OutputStream pipe, CompressionCodec selected, long originalSize, byte[] sample,
+                        InputStream rest) {
+        try {
+            DataOutputStream header = new DataOutputStream(pipe);
+            header.write(MAGIC);
+            header.writeByte(VERSION);
+            header.writeByte(selected != null ? selected.id() : STORED);
+            header.writeLong(originalSize);
+
+            OutputStream out = selected != null ? selected.encoder(pipe) : pipe;
+            try {
+                out.write(sample);
+                rest.transferTo(out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Could not encode contents of " + path + ".", ex);
+        }
+    }
+
+    /**
+     * Decode a stored file to its original contents.
+     *
+     * @return Number of original bytes written to <i>out</i>.
+     */
+    private long decode(String path, InputStream in, OutputStream out) {
+        try {
+            byte[] header = in.readNBytes(HEADER_SIZE);
+            Header parsed = Header.parse(header);
+
+            if (parsed == null) {
+                // Not written by this provider -- pass contents as-is.
+                out.write(header);
+                return header.length + in.transferTo(out);
+            } else if (parsed.codecId == STORED) {
+                return in.transferTo(out);
+            }
+
+            try (InputStream decoder = codecFor(path, parsed.codecId).decoder(in)) {
+                return decoder.transferTo(out);
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Could not decode contents of " + path + ".", ex);
+        }
+    }
+
+    /**
+     * Trial-compress a sample to estimate whether compressing the file is worthwhile.
+     */
+    private boolean isCompressible(byte[] sample) {
+        if (sample.length == 0) {
+            return false;
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            long compressed = 0;
+            while (!deflater.finished()) {
+                compressed += deflater.deflate(buffer);
+            }
+
+            return compressed <= sample.length * (1 - minimumSavings);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Replace a stored file's size with its original size. Hashes reported by the delegate describe the stored
+     * contents, so they are dropped.
+     */
+    private <T extends BaseEntity> T toOriginal(C credentials, T entity) {
+        if (entity instanceof FileEntity) {
+            FileEntity file = (FileEntity) entity;
+            file.size = originalSize(credentials, file);
+            file.hashes = null;
+        }
+
+        return entity;
+    }
+
+    /**
+     * Replace a listed file's size with its original size, if cached. Unlike {@link #toOriginal(Credentials, BaseEntity)},
+     * the stored file is not accessed, so files of uncached size keep their stored size.
+     */
+    private BaseEntity toListed(C credentials, BaseEntity entity) {
+        if (entity instanceof FileEntity) {
+            FileEntity file = (FileEntity) entity;
+            SizeEntry entry = cachedSize(credentials, file);
+            if (entry != null) {
+                file.size = entry.originalSize;
+            }
+            file.hashes = null;
+        }
+
+        return entity;
+    }
+
+    /**
+     * @return Cached size entry of a stored file, or {@code null} if none is cached or the file changed since.
+     */
+    private SizeEntry cachedSize(C credentials, FileEntity stored) {
+        Map<String, SizeEntry> cached = sizes.get(credentials);
+        SizeEntry entry = cached != null ? cached.get(stored.getPath()) : null;
+        return entry != null && entry.matches(stored) ? entry : null;
+    }
+
+    /**
+     * Resolve the original size of a stored file.
+     */
+    private long originalSize(C credentials, FileEntity stored) {
+        SizeEntry entry = cachedSize(credentials, stored);
+        if (entry != null) {
+            return entry.originalSize;
+        }
+
+        long originalSize = fetchOriginalSize(credentials, stored);
+        if (stored.modificationDate != null) {
+            cacheSize(credentials, stored, originalSize);
+        }
+
+        return originalSize;
+    }
+
+    /**
+     * Fetch the original size of a stored file from its header, decompressing the file if the header does not record
+     * it.
+     */
+    private long fetchOriginalSize(C credentials, FileEntity stored) {
+        HeaderCapture capture = new HeaderCapture();
+        try {
+            delegate.readFile(credentials, stored.getPath(), capture);
+        } catch (StorageException ex) {
+            // Download is aborted once the header is captured; any other failure is genuine.
+            if (!capture.isComplete()) {
+                throw ex;
+            }
+        }
+
+        Header header = Header.parse(capture.toByteArray());
+        if (header == null) {
+            return stored.size;
+        } else if (header.originalSize != UNKNOWN_SIZE) {
+            return header.originalSize;
+        } else if (header.codecId == STORED) {
+            return stored.size - HEADER_SIZE;
+        }
+
+        logger.debug("Decompressing {} to resolve its original size.", stored.getPath());
+        CountingOutputStream counter = new CountingOutputStream();
+        readFile(credentials, stored.getPath(), counter);
+        return counter.count;
+    }
+
+    private void cacheSize(C credentials, FileEntity stored, long originalSize) {
+        sizes.computeIfAbsent(credentials, key -> newLruMap())
+                .put(stored.getPath(), new SizeEntry(stored.size, stored.modificationDate, originalSize));
+    }
+
+    private CompressionCodec codecFor(String path, int codecId) throws StorageException {
+        CompressionCodec result = codecs.get(codecId);
+        if (result == null) {
+            throw new StorageException("File " + path + " is compressed with an unknown codec (id: " + codecId + ").");
+        }
+
+        return result;
+    }
+
+    private static Map<String, SizeEntry> newLruMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SizeEntry> eldest) {
+                return size() > MAX_CACHED_SIZES;
+            }
+        });
+    }
+
+    /**
+     * Parsed file header.
+     */
+    private static class Header {
+
+        final int codecId;
+
+        final long originalSize;
+
+        Header(int codecId, long originalSize) {
+            this.codecId = codecId;
+            this.originalSize = originalSize;
+        }
+
+        /**
+         * @return Parsed header or {@code null} if data does not start with a valid header.
+         */
+        static Header parse(byte[] data) {
+            if (data.length < HEADER_SIZE
+                    || !Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length)
+                    || data[MAGIC.length] != VERSION) {
+                return null;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(data, MAGIC.length + 1, 1 + Long.BYTES);
+            return new Header(buffer.get() & 0xFF, buffer.getLong());
+        }
+    }
+
+    /**
+     * Cached original size of a stored file, valid while the stored file is unchanged.
+     */
+    private static class SizeEntry {
+
+        final long storedSize;
+
+        final Instant modificationDate;
+
+        final long originalSize;
+
+        SizeEntry(long storedSize, Instant modificationDate, long originalSize) {
+            this.storedSize = storedSize;
+            this.modificationDate = modificationDate;
+            this.originalSize = originalSize;
+        }
+
+        boolean matches(FileEntity stored) {
+            return storedSize == stored.size && modificationDate.equals(stored.modificationDate);
+        }
+    }
+
+    /**
+     * Captures the header of a file and aborts the download once it is complete.
+     */
+    private static class HeaderCapture extends OutputStream {
+
+        private final byte[] header = new byte[HEADER_SIZE];
+
+        private int length;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int count = Math.min(len, HEADER_SIZE - length);
+            System.arraycopy(b, off, header, length, count);
+            length += count;
+
+            if (isComplete()) {
+                throw new IOException("Header captured, download aborted.");
+            }
+        }
+
+        boolean isComplete() {
+            return length == HEADER_SIZE;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(header, length);
+        }
+    }
+
+    /**
+     * Output stream that discards data and counts it.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.storage.providers.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A streaming compression codec. Implementations other than the {@link JdkCodecs JDK codecs} (e.g.: LZ4 or Zstandard
+ * bindings) can be registered with {@link CompressingStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return Codec identifier, recorded in the header of each compressed file. Must be unique among registered codecs
+     * and within 1-255; 0 is reserved for uncompressed contents.
+     */
+    int id();
+
+    /**
+     * @return Codec name, for logging purposes.
+     */
+    String name();
+
+    /**
+     * Create a compressing stream. Closing the returned stream must complete the compressed data and close <i>out</i>.
+     *
+     * @param out Stream to write compressed data to.
+     * @return Stream accepting uncompressed data.
+     * @throws IOException If stream could not be created.
+     */
+    OutputStream encoder(OutputStream out) throws IOException;
+
+    /**
+     * Create a decompressing stream.
+     *
+     * @param in Stream to read compressed data from.
+     * @return Stream providing uncompressed data.
+     * @throws IOException If stream could not be created (e.g.: invalid compressed data).
+     */
+    InputStream decoder(InputStream in) throws IOException;
+}
@@ -0,0 +1,90 @@
+package io.storage.providers.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression codecs provided by the JDK.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public enum JdkCodecs implements CompressionCodec {
+
+    /**
+     * Raw Deflate, with default compression level.
+     */
+    DEFLATE(1) {
+        @Override
+        public OutputStream encoder(OutputStream out) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            return new DeflaterOutputStream(out, deflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        // Explicitly provided deflaters are not released by the stream.
+                        deflater.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decoder(InputStream in) {
+            Inflater inflater = new Inflater();
+            return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+    },
+
+    /**
+     * GZIP format, with default compression level.
+     */
+    GZIP(2) {
+        @Override
+        public OutputStream encoder(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream decoder(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    };
+
+    /**
+     * Size of codec internal buffers.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Codec identifier.
+     */
+    private final int id;
+
+    JdkCodecs(int id) {
+        this.id = id;
+    }
+
+    @Override
+    public int id() {
+        return id;
+    }
+}
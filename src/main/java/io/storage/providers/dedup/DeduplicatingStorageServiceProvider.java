@@ -0,0 +1,777 @@
+package io.storage.providers.dedup;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.HashAlgorithm;
+import io.storage.core.hash.HashingInputStream;
+import io.storage.utils.Assert;
+import io.storage.utils.Locks;
+import io.storage.utils.Spool;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A storage service provider that stores file contents content-addressed by hash in an underlying (backend) provider,
+ * such as a local file system. Identical contents written under different paths is stored -- and uploaded -- once.<p>
+ * The backend holds two trees:
+ * <ul>
+ * <li>{@value #BLOBS_ROOT} -- file contents, named after its {@link HashAlgorithm#CONTENT_HASH content hash}.</li>
+ * <li>{@value #MANIFEST_ROOT} -- a manifest file per logical file, mirroring its path and holding its hash and size.</li>
+ * </ul>
+ * The manifest of each credentials is loaded into memory on first access, so listing and metadata lookups do not touch
+ * the backend. Blobs are reference-counted by manifest entries; blobs no longer referenced (including blobs orphaned by
+ * an interrupted write) are deleted by a background collector.<p>
+ * Files copied or moved within this provider only add (or relink) manifest entries, no contents is copied.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class DeduplicatingStorageServiceProvider<C extends Credentials> extends AbstractStorageServiceProvider<C> {
+
+    /**
+     * Backend folder holding file contents.
+     */
+    public static final String BLOBS_ROOT = "/.dedup/blobs";
+
+    /**
+     * Backend folder holding manifest files.
+     */
+    public static final String MANIFEST_ROOT = "/.dedup/manifest";
+
+    /**
+     * Number of lock stripes for paths and for hashes.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicatingStorageServiceProvider.class);
+
+    /**
+     * Underlying provider storing blobs and manifest.
+     */
+    private final StorageServiceProvider<C> backend;
+
+    /**
+     * In-memory manifest index, per credentials.
+     */
+    private final Map<C, Index> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Serialize manifest updates of the same path.
+     */
+    private final Object[] pathLocks = Locks.newMonitors(LOCK_STRIPES);
+
+    /**
+     * Serialize reference count changes and collection of the same blob.
+     */
+    private final Object[] hashLocks = Locks.newMonitors(LOCK_STRIPES);
+
+    /**
+     * Deletes unreferenced blobs in the background.
+     */
+    private final ExecutorService collector =
+            Executors.newSingleThreadExecutor(StreamPipe.daemonThreadFactory("storage-dedup-collector-"));
+
+    /**
+     * Number of bytes written that did not have to be stored, since identical contents was already stored.
+     */
+    private final LongAdder bytesDeduplicated = new LongAdder();
+
+    /**
+     * Class constructor.
+     *
+     * @param backend Provider to store blobs and manifest in.
+     * @throws IllegalArgumentException If <i>backend</i> is {@code null}.
+     */
+    public DeduplicatingStorageServiceProvider(StorageServiceProvider<C> backend) throws IllegalArgumentException {
+        super(requireBackend(backend).credentialsTypes());
+        this.backend = backend;
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException {
+        validateCredentials(credentials);
+        validatePath(path);
+        EntityPath location = EntityPath.parse(path);
+        Index index = getIndex(credentials);
+
+        if (index.entries.containsKey(location.toString())) {
+            throw new InvalidEntityPathException("Path references a file: " + path);
+        }
+
+        FolderEntity folder = new FolderEntity();
+        folder.location = location;
+        folder.files = new ArrayList<>();
+        folder.folders = new ArrayList<>();
+
+        // Descendants of a sub-folder are not necessarily adjacent, e.g.: '/a-b/x', '/a.txt', '/a/y' (both '-' and '.'
+        // sort before '/'), so emitted sub-folder names are tracked.
+        Set<String> subFolders = new HashSet<>();
+        for (Map.Entry<String, ManifestEntry> entry : location.descendantsIn(index.entries).entrySet()) {
+            String remainder = entry.getKey().substring(location.toPrefix().length());
+            int separator = remainder.indexOf('/');
+            if (separator < 0) {
+                folder.files.add(toFileEntity(EntityPath.parse(entry.getKey()), entry.getValue()));
+            } else {
+                String name = remainder.substring(0, separator);
+                if (subFolders.add(name)) {
+                    FolderEntity subFolder = new FolderEntity();
+                    subFolder.location = location.resolve(name);
+                    folder.folders.add(subFolder);
+                }
+            }
+        }
+
+        if (!location.isRoot() && folder.files.isEmpty() && folder.folders.isEmpty()) {
+            throw new EntityNotFoundException("Unknown folder: " + path);
+        }
+
+        return folder;
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException {
+        // Served from memory, so there is nothing to gain from paging.
+        return FolderListing.of(listFolderContents(credentials, path));
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        validateCredentials(credentials);
+        validatePath(path);
+        EntityPath location = EntityPath.parse(path);
+        Index index = getIndex(credentials);
+
+        return location.isRoot()
+                || index.entries.containsKey(location.toString())
+                || !location.descendantsIn(index.entries).isEmpty();
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return toFileEntity(location, requireEntry(getIndex(credentials), location.toString()));
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        ManifestEntry entry = requireEntry(getIndex(credentials), normalize(credentials, path));
+        backend.readFile(credentials, blobPath(entry.hash), out);
+    }
+
+    @Override
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        ManifestEntry entry = requireEntry(getIndex(credentials), normalize(credentials, path));
+        backend.readFile(credentials, blobPath(entry.hash), offset, length, out);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(in, "Input stream is null.");
+        String normalized = normalize(credentials, path);
+
+        // Contents must be hashed before it is known whether it has to be uploaded at all.
+        ContentDigest digest = newDigest();
+        try (Spool spool = Spool.of(new HashingInputStream(in, digest))) {
+            return store(credentials, normalized, digest, blob -> {
+                try (InputStream spooled = spool.open()) {
+                    backend.writeFile(credentials, blob, spooled);
+                } catch (IOException ex) {
+                    throw new StorageException("Could not close spooled contents of " + path + ".", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Revisions are not supported -- <i>revision</i> is ignored.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeFile(credentials, path, in);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        String normalized = normalize(credentials, path);
+
+        ContentDigest digest = newDigest();
+        digest.update(data, 0, data.length);
+        return store(credentials, normalized, digest, blob -> backend.writeFile(credentials, blob, data));
+    }
+
+    /**
+     * Revisions are not supported -- <i>revision</i> is ignored.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeFile(credentials, path, data);
+    }
+
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        Index index = getIndex(credentials);
+
+        if (index.entries.containsKey(location.toString())) {
+            unlink(credentials, index, location.toString());
+            pruneManifestFolders(credentials, index, Collections.singletonList(location.toString()));
+            return;
+        }
+
+        List<String> paths = new ArrayList<>(location.descendantsIn(index.entries).keySet());
+        if (paths.isEmpty()) {
+            throw new EntityNotFoundException("Unknown entity: " + path);
+        }
+
+        for (String filePath : paths) {
+            unlink(credentials, index, filePath);
+        }
+        pruneManifestFolders(credentials, index, paths);
+    }
+
+    /**
+     * Copy a file or folder by adding manifest entries that reference the same blobs. No contents is copied.
+     */
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath source = EntityPath.parse(normalize(credentials, from));
+        EntityPath target = EntityPath.parse(normalize(credentials, to));
+        requireOutside(source, target);
+        Index index = getIndex(credentials);
+
+        ManifestEntry entry = index.entries.get(source.toString());
+        if (entry != null) {
+            return toFileEntity(target, link(credentials, index, target.toString(), entry.hash, entry.size));
+        }
+
+        NavigableMap<String, ManifestEntry> entries = source.descendantsIn(index.entries);
+        if (entries.isEmpty()) {
+            throw new EntityNotFoundException("Unknown entity: " + from);
+        }
+
+        String sourcePrefix = source.toPrefix();
+        String targetPrefix = target.toPrefix();
+        for (Map.Entry<String, ManifestEntry> child : new ArrayList<>(entries.entrySet())) {
+            String childPath = targetPrefix + child.getKey().substring(sourcePrefix.length());
+            link(credentials, index, childPath, child.getValue().hash, child.getValue().size);
+        }
+
+        FolderEntity folder = new FolderEntity();
+        folder.location = target;
+        return folder;
+    }
+
+    /**
+     * Move a file or folder by relinking manifest entries, one file at a time. No contents is copied, and each blob
+     * remains referenced throughout, so it is never collected mid-move.
+     */
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath source = EntityPath.parse(normalize(credentials, from));
+        EntityPath target = EntityPath.parse(normalize(credentials, to));
+        requireOutside(source, target);
+        Index index = getIndex(credentials);
+
+        ManifestEntry entry = index.entries.get(source.toString());
+        if (entry != null) {
+            ManifestEntry moved = link(credentials, index, target.toString(), entry.hash, entry.size);
+            unlink(credentials, index, source.toString());
+            pruneManifestFolders(credentials, index, Collections.singletonList(source.toString()));
+            return toFileEntity(target, moved);
+        }
+
+        List<Map.Entry<String, ManifestEntry>> entries =
+                new ArrayList<>(source.descendantsIn(index.entries).entrySet());
+        if (entries.isEmpty()) {
+            throw new EntityNotFoundException("Unknown entity: " + from);
+        }
+
+        String sourcePrefix = source.toPrefix();
+        String targetPrefix = target.toPrefix();
+        List<String> paths = new ArrayList<>(entries.size());
+        for (Map.Entry<String, ManifestEntry> child : entries) {
+            String childPath = targetPrefix + child.getKey().substring(sourcePrefix.length());
+            link(credentials, index, childPath, child.getValue().hash, child.getValue().size);
+            unlink(credentials, index, child.getKey());
+            paths.add(child.getKey());
+        }
+        pruneManifestFolders(credentials, index, paths);
+
+        FolderEntity folder = new FolderEntity();
+        folder.location = target;
+        return folder;
+    }
+
+    @Override
+    public Set<HashAlgorithm> hashAlgorithms() {
+        // Content hash is always known, since blobs are addressed by it.
+        Set<HashAlgorithm> algorithms = EnumSet.of(HashAlgorithm.CONTENT_HASH);
+        algorithms.addAll(super.hashAlgorithms());
+        return algorithms;
+    }
+
+    /**
+     * @return Number of bytes written that were not stored (nor uploaded to the backend), since identical contents was
+     * already stored.
+     */
+    public long getBytesDeduplicated() {
+        return bytesDeduplicated.sum();
+    }
+
+    /**
+     * Stop the background collector. Pending collections are completed; blobs released afterwards are collected on the
+     * next start, when the manifest is reloaded.
+     */
+    public void shutdown() {
+        collector.shutdown();
+    }
+
+    /**
+     * Wait until all collections scheduled so far are completed.
+     *
+     * @throws InterruptedException If current thread was interrupted while waiting.
+     */
+    void awaitCollector() throws InterruptedException {
+        try {
+            collector.submit(() -> {
+            }).get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Unexpected collector failure.", ex.getCause());
+        }
+    }
+
+    /**
+     * Store contents under a given path: upload the blob (unless already stored) and write the manifest entry.
+     */
+    private FileEntity store(C credentials, String path, ContentDigest digest, BlobWriter writer) {
+        String hash = digest.getHashes().get(HashAlgorithm.CONTENT_HASH);
+        ManifestEntry entry = link(credentials, getIndex(credentials), path, hash, digest.getSize(), writer);
+
+        FileEntity file = toFileEntity(EntityPath.parse(path), entry);
+        file.hashes = digest.getHashes();
+        return file;
+    }
+
+    /**
+     * Link a path to an already stored blob.
+     */
+    private ManifestEntry link(C credentials, Index index, String path, String hash, long size) {
+        return link(credentials, index, path, hash, size, blob -> {
+            throw new StorageException("Blob " + hash + " is missing from backend (referenced by " + path + ").");
+        });
+    }
+
+    /**
+     * Reference a blob from a path, storing the blob first if required, and write the path's manifest entry. The blob
+     * previously referenced by the path (if any) is released.
+     */
+    private ManifestEntry link(C credentials, Index index, String path, String hash, long size, BlobWriter writer) {
+        acquire(credentials, index, hash, size, writer);
+
+        synchronized (lockFor(pathLocks, path)) {
+            ManifestEntry entry;
+            try {
+                entry = writeManifest(credentials, path, hash, size);
+            } catch (RuntimeException ex) {
+                release(credentials, index, hash);
+                throw ex;
+            }
+
+            ManifestEntry previous = index.entries.put(path, entry);
+            if (previous != null) {
+                release(credentials, index, previous.hash);
+            }
+
+            return entry;
+        }
+    }
+
+    /**
+     * Add a reference to a blob, storing the blob first if required. The reference is taken before the blob is
+     * checked or stored, so the collector cannot delete it meanwhile; the backend is accessed outside of locks. Of
+     * concurrent writers of the same new blob, the first stores it and the others wait for it.
+     */
+    private void acquire(C credentials, Index index, String hash, long size, BlobWriter writer) {
+        CompletableFuture<Void> upload;
+        boolean first;
+        synchronized (lockFor(hashLocks, hash)) {
+            first = index.references.merge(hash, 1, Integer::sum) == 1;
+            if (first) {
+                upload = new CompletableFuture<>();
+                index.uploads.put(hash, upload);
+            } else {
+                upload = index.uploads.get(hash);
+            }
+        }
+
+        if (!first) {
+            if (upload != null) {
+                try {
+                    upload.join();
+                } catch (CompletionException | CancellationException ex) {
+                    release(credentials, index, hash);
+                    throw new StorageException("Could not store blob " + hash + ".", ex.getCause());
+                }
+            }
+            bytesDeduplicated.add(size);
+            return;
+        }
+
+        try {
+            // A blob pending collection is still present and can be revived.
+            if (!backend.exists(credentials, blobPath(hash))) {
+                writer.write(blobPath(hash));
+            } else {
+                bytesDeduplicated.add(size);
+            }
+            upload.complete(null);
+        } catch (RuntimeException ex) {
+            upload.completeExceptionally(ex);
+            release(credentials, index, hash);
+            throw ex;
+        } finally {
+            index.uploads.remove(hash, upload);
+        }
+    }
+
+    /**
+     * Remove a path's manifest entry and release its blob.
+     */
+    private void unlink(C credentials, Index index, String path) {
+        synchronized (lockFor(pathLocks, path)) {
+            ManifestEntry entry = index.entries.remove(path);
+            if (entry != null) {
+                deleteQuietly(credentials, manifestPath(path));
+                release(credentials, index, entry.hash);
+            }
+        }
+    }
+
+    /**
+     * Delete manifest folders left without files by removal of given paths, deepest first, since backends may not
+     * delete non-empty folders (e.g.: a local file system). Folders still holding files are kept. Failing to delete a
+     * folder is logged rather than thrown, since the files themselves are already removed.
+     */
+    private void pruneManifestFolders(C credentials, Index index, Collection<String> removedPaths) {
+        Set<EntityPath> folders = new HashSet<>();
+        for (String path : removedPaths) {
+            for (EntityPath folder = EntityPath.parse(path).parent(); !folder.isRoot(); folder = folder.parent()) {
+                if (!folders.add(folder)) {
+                    break;
+                }
+            }
+        }
+
+        List<EntityPath> deepestFirst = new ArrayList<>(folders);
+        deepestFirst.sort(Comparator.comparingInt(EntityPath::depth).reversed());
+        for (EntityPath folder : deepestFirst) {
+            if (!folder.descendantsIn(index.entries).isEmpty()) {
+                continue;
+            }
+
+            try {
+                deleteQuietly(credentials, manifestPath(folder.toString()));
+            } catch (RuntimeException ex) {
+                logger.warn("Could not delete manifest folder of {}.", folder, ex);
+            }
+        }
+    }
+
+    /**
+     * Drop a reference to a blob, scheduling its collection once it is no longer referenced.
+     */
+    private void release(C credentials, Index index, String hash) {
+        synchronized (lockFor(hashLocks, hash)) {
+            if (index.references.merge(hash, -1, Integer::sum) <= 0) {
+                index.references.remove(hash);
+                scheduleCollection(credentials, index, hash);
+            }
+        }
+    }
+
+    /**
+     * Schedule deletion of a blob, provided it is still unreferenced when the collector gets to it.
+     */
+    private void scheduleCollection(C credentials, Index index, String hash) {
+        collector.execute(() -> collect(credentials, index, hash));
+    }
+
+    /**
+     * Delete a blob if it is unreferenced. Executed by the collector.
+     */
+    private void collect(C credentials, Index index, String hash) {
+        synchronized (lockFor(hashLocks, hash)) {
+            if (index.references.getOrDefault(hash, 0) > 0) {
+                return;
+            }
+
+            try {
+                deleteQuietly(credentials, blobPath(hash));
+                logger.debug("Collected unreferenced blob {}.", hash);
+            } catch (RuntimeException ex) {
+                logger.warn("Could not collect blob {}, it will be collected on next reload.", hash, ex);
+            }
+        }
+    }
+
+    /**
+     * Write a manifest file in the backend.
+     */
+    private ManifestEntry writeManifest(C credentials, String path, String hash, long size) {
+        byte[] data = (hash + "\n" + size).getBytes(StandardCharsets.UTF_8);
+        FileEntity manifest = backend.writeFile(credentials, manifestPath(path), data);
+        return new ManifestEntry(hash, size,
+                manifest.modificationDate != null ? manifest.modificationDate : Instant.now());
+    }
+
+    /**
+     * Fetch the manifest index of given credentials, loading it from the backend on first access.
+     */
+    private Index getIndex(C credentials) {
+        return indexes.computeIfAbsent(credentials, this::loadIndex);
+    }
+
+    /**
+     * Load manifest index from the backend and schedule collection of blobs not referenced by it.
+     */
+    private Index loadIndex(C credentials) {
+        Index index = new Index();
+        if (!backend.exists(credentials, MANIFEST_ROOT)) {
+            return index;
+        }
+
+        Deque<String> folders = new ArrayDeque<>();
+        folders.push(MANIFEST_ROOT);
+        while (!folders.isEmpty()) {
+            try (FolderListing listing = backend.listFolder(credentials, folders.pop())) {
+                for (BaseEntity entity : listing) {
+                    if (entity instanceof FolderEntity) {
+                        folders.push(entity.getPath());
+                    } else if (entity instanceof FileEntity) {
+                        String path = entity.getPath().substring(MANIFEST_ROOT.length());
+                        ManifestEntry entry = readManifest(credentials, (FileEntity) entity);
+                        index.entries.put(path, entry);
+                        index.references.merge(entry.hash, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        logger.info("Loaded deduplication manifest of {} files ({} blobs).", index.entries.size(), index.references.size());
+
+        collector.execute(() -> collectOrphans(credentials, index));
+        return index;
+    }
+
+    /**
+     * Read a single manifest file.
+     */
+    private ManifestEntry readManifest(C credentials, FileEntity manifest) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        backend.readFile(credentials, manifest.getPath(), buffer);
+
+        String[] fields = new String(buffer.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        if (fields.length != 2) {
+            throw new StorageException("Corrupted manifest file: " + manifest.getPath());
+        }
+
+        Instant modificationDate = manifest.modificationDate != null ? manifest.modificationDate : Instant.now();
+        return new ManifestEntry(fields[0], Long.parseLong(fields[1]), modificationDate);
+    }
+
+    /**
+     * Collect all blobs not referenced by the manifest, e.g.: blobs left by a write interrupted before its manifest
+     * entry was written. Executed by the collector.
+     */
+    private void collectOrphans(C credentials, Index index) {
+        try {
+            if (!backend.exists(credentials, BLOBS_ROOT)) {
+                return;
+            }
+
+            try (FolderListing buckets = backend.listFolder(credentials, BLOBS_ROOT)) {
+                for (BaseEntity bucket : buckets) {
+                    try (FolderListing blobs = backend.listFolder(credentials, bucket.getPath())) {
+                        for (BaseEntity blob : blobs) {
+                            if (!index.references.containsKey(blob.getName())) {
+                                collect(credentials, index, blob.getName());
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Could not scan for orphaned blobs.", ex);
+        }
+    }
+
+    private FileEntity toFileEntity(EntityPath location, ManifestEntry entry) {
+        FileEntity file = new FileEntity();
+        file.location = location;
+        file.size = entry.size;
+        file.modificationDate = entry.modificationDate;
+        file.hashes = Collections.singletonMap(HashAlgorithm.CONTENT_HASH, entry.hash);
+        return file;
+    }
+
+    private ContentDigest newDigest() {
+        return new ContentDigest(hashAlgorithms());
+    }
+
+    private String normalize(C credentials, String path) {
+        validateCredentials(credentials);
+        validatePath(path);
+        return EntityPath.parse(path).toString();
+    }
+
+    private ManifestEntry requireEntry(Index index, String path) throws EntityNotFoundException {
+        ManifestEntry entry = index.entries.get(path);
+        if (entry == null) {
+            throw new EntityNotFoundException("Unknown file: " + path);
+        }
+
+        return entry;
+    }
+
+    private void deleteQuietly(C credentials, String path) {
+        try {
+            backend.delete(credentials, path);
+        } catch (EntityNotFoundException ignore) {
+            // Already deleted.
+        }
+    }
+
+    private static void requireOutside(EntityPath source, EntityPath target) throws InvalidEntityPathException {
+        if (target.isWithin(source)) {
+            throw new InvalidEntityPathException("Invalid destination: " + target + " (must not be " + source
+                    + " or under it).");
+        }
+    }
+
+    private static String blobPath(String hash) {
+        return BLOBS_ROOT + "/" + hash.substring(0, 2) + "/" + hash;
+    }
+
+    private static String manifestPath(String path) {
+        return MANIFEST_ROOT + path;
+    }
+
+    private static Object lockFor(Object[] locks, String key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    private static <C extends Credentials> StorageServiceProvider<C> requireBackend(StorageServiceProvider<C> backend) {
+        Assert.notNull(backend, "Backend provider cannot be null.");
+        return backend;
+    }
+
+    /**
+     * Uploads a blob to the backend.
+     */
+    @FunctionalInterface
+    private interface BlobWriter {
+
+        /**
+         * @param blobPath Backend path of blob.
+         */
+        void write(String blobPath);
+    }
+
+    /**
+     * A single manifest entry.
+     */
+    private static class ManifestEntry {
+
+        final String hash;
+
+        final long size;
+
+        final Instant modificationDate;
+
+        ManifestEntry(String hash, long size, Instant modificationDate) {
+            this.hash = hash;
+            this.size = size;
+            this.modificationDate = modificationDate;
+        }
+    }
+
+    /**
+     * In-memory manifest index of a single credentials.
+     */
+    private static class Index {
+
+        /**
+         * Manifest entries, keyed by (normalized) path. Sorted, so folder contents can be served by range lookups.
+         */
+        final NavigableMap<String, ManifestEntry> entries = new ConcurrentSkipListMap<>();
+
+        /**
+         * Number of manifest entries referencing each blob. Changes are guarded by hash lock stripes.
+         */
+        final Map<String, Integer> references = new ConcurrentHashMap<>();
+
+        /**
+         * Blobs being stored, by hash. Writers that reference a blob being stored wait for it.
+         */
+        final Map<String, CompletableFuture<Void>> uploads = new ConcurrentHashMap<>();
+    }
+}
@@ -9,8 +9,20 @@ import com.dropbox.core.v2.files.*;
 import io.storage.StorageException;
 import io.storage.core.*;
 import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
 import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.HashingInputStream;
+import io.storage.core.hash.HashingOutputStream;
+import io.storage.jfr.StorageEvent;
+import io.storage.jfr.StorageEvents;
+import io.storage.tracing.Span;
+import io.storage.tracing.TraceContext;
+import io.storage.tracing.Tracer;
 import io.storage.utils.Assert;
+import io.storage.utils.HedgingPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,9 +30,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * Dropbox storage service provider.
@@ -30,11 +46,36 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DropboxStorageServiceProvider extends AbstractStorageServiceProvider<DropboxCredentials> {
 
+    /**
+     * Name of provider, as reported in flight recorder events.
+     */
+    private static final String PROVIDER_NAME = "Dropbox";
+
+    /**
+     * Maximum number of search matches per request, as allowed by Dropbox.
+     */
+    private static final long SEARCH_PAGE_SIZE = 1000;
+
+    /**
+     * Minimum length of a search query. Shorter name prefixes are too common to narrow a search.
+     */
+    private static final int MIN_SEARCH_QUERY_LENGTH = 3;
+
     /**
      * Cache Dropbox client for optimal performance.
      */
     private final Map<String, DbxClientV2> clientCache = new ConcurrentHashMap<>();
 
+    /**
+     * Hedging policy of idempotent metadata operations, or {@code null} if they are not hedged.
+     */
+    private volatile HedgingPolicy hedgingPolicy;
+
+    /**
+     * Whether {@link #find find} may be served by Dropbox search.
+     */
+    private volatile boolean searchEnabled;
+
     /**
      * Class logger.
      */
@@ -50,49 +91,29 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
     @Override
     public FolderEntity listFolderContents(DropboxCredentials credentials, String path)
             throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException {
-        //
-        // Create new folder entry.
-        //
-        FolderEntity folder = new FolderEntity();
-        folder.name = extractFolderName(path);
-        folder.path = path;
-        folder.files = new LinkedList<>();
-        folder.folders = new LinkedList<>();
-
-        //
-        // Query Dropbox service for folder contents.
-        //
-        logger.info("listFolderContents: Querying path: {}.", path);
-        ListFolderResult result = execute("list folder", credentials, path,
-                (client, folderPath) -> client.files().listFolder(adjustPath(folderPath)));
-        logger.info("listFolderContents: Found {} entries at path {} (has more: {}).",
-                result.getEntries().size(),
-                path,
-                result.getHasMore());
+        return listFolder(credentials, path).toFolderEntity();
+    }
 
+    @Override
+    public FolderListing listFolder(DropboxCredentials credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException {
         //
-        // Translate each Dropbox record to StorageIO file/folder entities.
+        // Create new folder entry. Children are fetched page by page while the listing is iterated.
         //
-        for (Metadata metadata : result.getEntries()) {
-            // Process Dropbox file/folder metadata, skip other types (such as 'DeletedMetadata').
-            if (metadata instanceof FileMetadata) {
-                folder.files.add(createFileEntry(path, (FileMetadata) metadata));
-            } else if (metadata instanceof FolderMetadata) {
-                folder.folders.add(createFolderEntry(path, (FolderMetadata) metadata));
-            }
-        }
+        FolderEntity folder = new FolderEntity();
+        folder.location = EntityPath.parse(path);
 
-        return folder;
+        return new FolderListing(folder, () -> new ListFolderPages(credentials, path));
     }
 
     @Override
     public boolean exists(DropboxCredentials credentials, String path)
             throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
 
-        return execute("exists", credentials, path,
+        return executeIdempotent("exists", credentials, path,
                 (client, filePath) -> {
                     try {
-                        return "/".equals(filePath) || client.files().getMetadata(path) != null;
+                        return "/".equals(filePath) || client.files().getMetadata(filePath) != null;
                     } catch (GetMetadataErrorException ex) {
                         return false;
                     }
@@ -102,11 +123,11 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
     @Override
     public FileEntity readFileMeta(DropboxCredentials credentials, String path)
             throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
-        Metadata metadata = execute("read file metadata", credentials, path,
-                (client, filePath) -> client.files().getMetadata(path));
+        Metadata metadata = executeIdempotent("read file metadata", credentials, path,
+                (client, filePath) -> client.files().getMetadata(filePath));
 
         if (metadata instanceof FileMetadata) {
-            return createFileEntry(path, (FileMetadata) metadata);
+            return createFileEntry(EntityPath.parse(path).parent(), (FileMetadata) metadata);
         } else {
             throw new EntityNotFoundException(
                     "Invalid entity time: " + path + " (expected file-class entity, found directory-class entity).");
@@ -152,7 +173,7 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
         Assert.notNull(out, "Output stream is null.");
 
         FileMetadata file = execute("read file", credentials, path, (client, filePath) -> {
-            DbxDownloader<FileMetadata> downloader = client.files().download(path);
+            DbxDownloader<FileMetadata> downloader = client.files().download(filePath);
             downloader.download(out);
             downloader.close();
             return downloader.getResult();
@@ -160,19 +181,162 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
         logger.info("Successfully downloaded file {} ({} bytes).", file.getName(), file.getSize());
     }
 
+    /**
+     * Read a file in a single download request, verifying the contents against the metadata returned with it.
+     */
+    @Override
+    public FileEntity readFileVerified(DropboxCredentials credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, ContentHashMismatchException {
+        Assert.notNull(out, "Output stream is null.");
+
+        ContentDigest digest = newContentDigest();
+        FileMetadata metadata = execute("read file", credentials, path, (client, filePath) -> {
+            DbxDownloader<FileMetadata> downloader = client.files().download(filePath);
+            downloader.download(new HashingOutputStream(out, digest));
+            downloader.close();
+            return downloader.getResult();
+        });
+
+        FileEntity file = createFileEntry(EntityPath.parse(path).parent(), metadata);
+        digest.verify(file);
+        file.hashes = digest.getHashes();
+        logger.info("Successfully downloaded and verified file {} ({} bytes).", file.getName(), file.size);
+        return file;
+    }
+
+    /**
+     * Copy a file or folder using Dropbox server-side copy, so no contents is transferred through this process.
+     */
+    @Override
+    public BaseEntity copy(DropboxCredentials credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException {
+        Assert.notNull(to, "Destination path cannot be null.");
+
+        Metadata metadata = execute("copy", credentials, from,
+                (client, fromPath) -> client.files().copy(adjustPath(fromPath), adjustPath(normalizePath(to))));
+        return createEntry(EntityPath.parse(to).parent(), metadata);
+    }
+
+    /**
+     * Move a file or folder using Dropbox server-side move, so no contents is transferred through this process.
+     */
+    @Override
+    public BaseEntity move(DropboxCredentials credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException {
+        Assert.notNull(to, "Destination path cannot be null.");
+
+        Metadata metadata = execute("move", credentials, from,
+                (client, fromPath) -> client.files().move(adjustPath(fromPath), adjustPath(normalizePath(to))));
+        return createEntry(EntityPath.parse(to).parent(), metadata);
+    }
+
+    /**
+     * Find files and folders via Dropbox search, if {@link #setSearchEnabled(boolean) enabled}, where the glob is
+     * recursive and names of matching entities start with a word of at least {@link #MIN_SEARCH_QUERY_LENGTH}
+     * characters, e.g.: <code>**&#47;invoice-*.pdf</code>. Search narrows the query server-side to names starting with
+     * that word; its matches are then matched against the glob and filter. Other globs are served by a pruned recursive
+     * listing.
+     */
+    @Override
+    public List<BaseEntity> find(DropboxCredentials credentials, String root, String glob,
+                                 Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException {
+        Assert.notNull(filter, "Filter cannot be null.");
+        Glob pattern = Glob.compile(glob);
+        String query = searchEnabled ? searchQueryOf(pattern) : null;
+        if (query == null) {
+            return super.find(credentials, root, glob, filter);
+        }
+
+        EntityPath base = EntityPath.parse(normalizePath(root));
+        EntityPath folder = base;
+        for (String name : pattern.literalPrefix()) {
+            folder = folder.resolve(name);
+        }
+
+        // Search does not tell a missing folder from one without matches, so folders are looked up first.
+        List<BaseEntity> matches = new ArrayList<>();
+        if (!isFolder(credentials, folder.toString())) {
+            requireFolder(credentials, base.toString());
+            return matches;
+        }
+
+        long start = 0;
+        boolean hasMore = true;
+        while (hasMore) {
+            long offset = start;
+            SearchResult result = executeIdempotent("search", credentials, folder.toString(),
+                    (client, folderPath) -> client.files().searchBuilder(adjustPath(folderPath), query)
+                            .withStart(offset)
+                            .withMaxResults(SEARCH_PAGE_SIZE)
+                            .start());
+            logger.debug("find: Search of '{}' under {} returned {} matches (has more: {}).",
+                    query, folder, result.getMatches().size(), result.getMore());
+
+            for (SearchMatch match : result.getMatches()) {
+                Metadata metadata = match.getMetadata();
+                if (!(metadata instanceof FileMetadata || metadata instanceof FolderMetadata)) {
+                    continue;
+                }
+
+                EntityPath location = EntityPath.parse(metadata.getPathDisplay());
+                String relativePath = relativePath(base, metadata.getPathDisplay());
+                if (relativePath != null && pattern.matches(relativePath)) {
+                    BaseEntity entity = createEntry(location.parent(), metadata);
+                    if (filter.test(entity)) {
+                        matches.add(entity);
+                    }
+                }
+            }
+
+            hasMore = result.getMore();
+            start = result.getStart();
+        }
+
+        return matches;
+    }
+
+    /**
+     * Set the hedging policy of idempotent metadata operations (metadata lookups and folder listings). A lookup that
+     * did not return within the policy's delay is duplicated, and the first response is taken. Hedging is disabled by
+     * default.
+     *
+     * @param hedgingPolicy Hedging policy or {@code null} to disable hedging.
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * Enable serving {@link #find find} by Dropbox search rather than by listing folders. Dropbox indexes changes with
+     * a delay, so entities written or deleted recently may be missing from, or linger in, search results. Search is
+     * disabled by default.
+     *
+     * @param searchEnabled {@code true} to search where the glob allows it, {@code false} to always list folders.
+     */
+    public void setSearchEnabled(boolean searchEnabled) {
+        this.searchEnabled = searchEnabled;
+    }
+
     private FileEntity writeFileInternal(DropboxCredentials credentials, String path, InputStream in, String revision)
             throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException {
         Assert.notNull(in, "Input stream is null.");
 
-        FileMetadata file = execute("write file", credentials, path, (client, filePath) -> {
+        // Hashes are computed while the upload consumes the stream.
+        ContentDigest digest = newContentDigest();
+        FileMetadata metadata = execute("write file", credentials, path, (client, filePath) -> {
             UploadBuilder build = client.files().uploadBuilder(adjustPath(path)).withAutorename(false);
             if (revision != null) {
                 build.withMode(WriteMode.update(revision));
             }
 
-            return build.uploadAndFinish(in);
+            return build.uploadAndFinish(new HashingInputStream(in, digest));
         });
-        return createFileEntry(path, file);
+
+        FileEntity file = createFileEntry(EntityPath.parse(path).parent(), metadata);
+        digest.verify(file);
+        file.hashes = digest.getHashes();
+        return file;
     }
 
     /**
@@ -252,15 +416,13 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
      * @param source     Dropbox file metadata.
      * @return File entry representing Dropbox file metadata.
      */
-    private FileEntity createFileEntry(String parentPath, FileMetadata source) {
+    private FileEntity createFileEntry(EntityPath parentPath, FileMetadata source) {
         FileEntity file = new FileEntity();
-        file.name = source.getName();
-        file.path = parentPath + (parentPath.endsWith("/") ? "" : "/") + file.name;
-        file.parentPath = parentPath;
+        file.location = parentPath.resolve(source.getName());
         file.creationDate = null;   // Dropbox service does not support file creation date.
         file.modificationDate = source.getServerModified().toInstant();
         file.size = source.getSize();
-        file.humanReadableSize = toHumanReadableSize(file.size);
+        // Dropbox 'content_hash' is not exposed by the bundled SDK, so hashes are populated only when computed locally.
         return file;
     }
 
@@ -271,14 +433,115 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
      * @param source     Dropbox folder metadata.
      * @return Folder entry for the given Dropbox folder metadata.
      */
-    private FolderEntity createFolderEntry(String parentPath, FolderMetadata source) {
+    private FolderEntity createFolderEntry(EntityPath parentPath, FolderMetadata source) {
         FolderEntity folder = new FolderEntity();
-        folder.name = source.getName();
-        folder.path = parentPath + (parentPath.endsWith("/") ? "" : "/") + folder.name;
-        folder.parentPath = parentPath.equals("/") ? "" : parentPath;
+        folder.location = parentPath.resolve(source.getName());
         return folder;
     }
 
+    /**
+     * Creates a new file or folder entry from a given Dropbox metadata.
+     *
+     * @param parentPath Parent folder path.
+     * @param source     Dropbox file or folder metadata.
+     * @return Entry for the given Dropbox metadata.
+     * @throws StorageException If metadata is neither file nor folder metadata.
+     */
+    private BaseEntity createEntry(EntityPath parentPath, Metadata source) throws StorageException {
+        if (source instanceof FileMetadata) {
+            return createFileEntry(parentPath, (FileMetadata) source);
+        } else if (source instanceof FolderMetadata) {
+            return createFolderEntry(parentPath, (FolderMetadata) source);
+        }
+
+        throw new StorageException("Unexpected metadata type: " + source.getClass().getSimpleName());
+    }
+
+    /**
+     * @return {@code true} if <i>path</i> references an existing folder, {@code false} if not.
+     */
+    private boolean isFolder(DropboxCredentials credentials, String path) throws CredentialsException {
+        return "/".equals(path) || metadataOf(credentials, path) instanceof FolderMetadata;
+    }
+
+    /**
+     * @throws EntityNotFoundException    If <i>path</i> does not exist.
+     * @throws InvalidEntityPathException If <i>path</i> references a non-folder entity.
+     */
+    private void requireFolder(DropboxCredentials credentials, String path)
+            throws EntityNotFoundException, InvalidEntityPathException, CredentialsException {
+        if ("/".equals(path)) {
+            return;
+        }
+
+        Metadata metadata = metadataOf(credentials, path);
+        if (metadata == null) {
+            throw new EntityNotFoundException("Folder not found: " + path + ".");
+        } else if (!(metadata instanceof FolderMetadata)) {
+            throw new InvalidEntityPathException(
+                    "Invalid entity type: " + path + " (expected folder-class entity, found file-class entity).");
+        }
+    }
+
+    /**
+     * @return Metadata of an entity or {@code null} if it does not exist.
+     */
+    private Metadata metadataOf(DropboxCredentials credentials, String path) throws CredentialsException {
+        return executeIdempotent("read metadata", credentials, path,
+                (client, filePath) -> {
+                    try {
+                        return client.files().getMetadata(filePath);
+                    } catch (GetMetadataErrorException ex) {
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Resolve the query to search for entities matching a glob.
+     *
+     * @param glob Glob.
+     * @return Query or {@code null} if the glob is not served by search.
+     */
+    private static String searchQueryOf(Glob glob) {
+        if (!glob.isRecursive()) {
+            return null;
+        }
+
+        // Dropbox matches query words against the beginning of words of names, so only a leading word is used.
+        String prefix = glob.namePrefix();
+        int length = 0;
+        while (length < prefix.length() && Character.isLetterOrDigit(prefix.charAt(length))) {
+            length++;
+        }
+        return length >= MIN_SEARCH_QUERY_LENGTH ? prefix.substring(0, length) : null;
+    }
+
+    /**
+     * Resolve the path of an entity relative to a folder.
+     *
+     * @param folder Folder.
+     * @param path   Path of entity, as reported by Dropbox.
+     * @return Relative path or {@code null} if <i>path</i> is not under <i>folder</i>.
+     */
+    private static String relativePath(EntityPath folder, String path) {
+        // Dropbox paths are case-insensitive, so path elements of the folder are skipped rather than compared.
+        String[] names = path.split("/");
+        int skip = folder.depth();
+        StringBuilder relative = new StringBuilder();
+        for (String name : names) {
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                relative.append(relative.length() > 0 ? "/" : "").append(name);
+            }
+        }
+        return relative.length() > 0 ? relative.toString() : null;
+    }
+
     /**
      * Adjust a given path to match Dropbox service specifications.
      *
@@ -298,25 +561,22 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
     }
 
     /**
-     * Extract a folder name from a given path.
+     * Executes an idempotent Dropbox operation, hedged according to the {@link #setHedgingPolicy(HedgingPolicy)
+     * hedging policy}, if set.
      *
-     * @param path Path to extract folder name. <b>NOTE: </b>This parameter must not be {@code null} has this method does
-     *             not validate input.
-     * @return Folder name.
+     * @param operationName Name of operation. Required for logging, exception handling and latency tracking.
+     * @param credentials   Credentials to access the service.
+     * @param path          Path to resource.
+     * @param consumer      The consumer that executes the operation. May be executed twice, concurrently.
+     * @param <T>           Generic type of consumer's return type.
+     * @return Result value.
      */
-    private String extractFolderName(String path) {
-        if (path.isEmpty() || path.equals("/")) {
-            return "/";
-        }
-
-        if (path.endsWith("/")) {
-            path = path.substring(0, path.length() - 1);
-        }
-
-        int index = path.lastIndexOf('/');
-        path = path.substring(index);
-
-        return path;
+    private <T> T executeIdempotent(String operationName, DropboxCredentials credentials, String path,
+                                    Callee<T> consumer) {
+        HedgingPolicy policy = hedgingPolicy;
+        return policy == null
+                ? execute(operationName, credentials, path, consumer)
+                : policy.execute(operationName, () -> execute(operationName, credentials, path, consumer));
     }
 
     /**
@@ -354,28 +614,135 @@ public class DropboxStorageServiceProvider extends AbstractStorageServiceProvide
 
         // Validate and normalize path.
         path = normalizePath(path);
+        StorageEvent event = StorageEvents.beginRemoteCall(operationName);
+        Tracer tracer = tracer();
+        Span span = null;
+        if (tracer.isEnabled()) {
+            span = tracer.startSpan("dropbox " + operationName, TraceContext.current());
+            span.setAttribute("storage.path", path);
+        }
+        Throwable failure = null;
         try {
             return consumer.apply(client, path);
         } catch (InvalidAccessTokenException ex) {
             // Handle invalid credentials, possibly the token has been expired.
+            failure = ex;
             throw handleInvalidAccessTokenException(credentials, ex);
         } catch (UploadErrorException ex) {
+            failure = ex;
             if (ex.errorValue.isPath()) {
                 throw new InvalidEntityPathException("Invalid path: " + path, ex);
             } else {
                 throw new StorageException("Operation " + operationName + " failed.", ex);
             }
         } catch (DbxException ex) {
+            failure = ex;
             throw new StorageException("Operation " + operationName + " failed.", ex);
         } catch (IOException ex) {
+            failure = ex;
             throw new StorageException("I/O error occurred during " + operationName, ex);
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
         } finally {
+            StorageEvents.commit(event, PROVIDER_NAME, path, 0, failure);
+            if (span != null) {
+                if (failure != null) {
+                    span.recordError(failure);
+                }
+                span.end();
+            }
             if (cleanupCallback != null) {
                 cleanupCallback.invoke();
             }
         }
     }
 
+    /**
+     * Iterates over the pages of a Dropbox folder listing. The first page is fetched via {@code listFolder}, subsequent
+     * pages are fetched via {@code listFolderContinue} using the cursor returned by the previous page.
+     */
+    private class ListFolderPages implements Iterator<List<? extends BaseEntity>> {
+
+        /**
+         * Credentials to access the service.
+         */
+        private final DropboxCredentials credentials;
+
+        /**
+         * Path of folder to list.
+         */
+        private final String path;
+
+        /**
+         * Parsed folder path, shared by all listed children.
+         */
+        private final EntityPath location;
+
+        /**
+         * Cursor of the last fetched page or {@code null} if no page was fetched yet.
+         */
+        private String cursor;
+
+        /**
+         * Indicates whether Dropbox has more entries to provide.
+         */
+        private boolean hasMore = true;
+
+        ListFolderPages(DropboxCredentials credentials, String path) {
+            this.credentials = credentials;
+            this.path = path;
+            this.location = EntityPath.parse(path);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasMore;
+        }
+
+        @Override
+        public List<? extends BaseEntity> next() {
+            if (!hasMore) {
+                throw new NoSuchElementException();
+            }
+
+            //
+            // Query Dropbox service for the next page of folder contents.
+            //
+            logger.info("listFolderContents: Querying path: {}.", path);
+            ListFolderResult result;
+            if (cursor == null) {
+                result = executeIdempotent("list folder", credentials, path,
+                        (client, folderPath) -> client.files().listFolder(adjustPath(folderPath)));
+            } else {
+                result = executeIdempotent("list folder continue", credentials, path,
+                        (client, folderPath) -> client.files().listFolderContinue(cursor));
+            }
+            logger.info("listFolderContents: Found {} entries at path {} (has more: {}).",
+                    result.getEntries().size(),
+                    path,
+                    result.getHasMore());
+
+            cursor = result.getCursor();
+            hasMore = result.getHasMore();
+
+            //
+            // Translate each Dropbox record to StorageIO file/folder entities.
+            //
+            List<BaseEntity> page = new ArrayList<>(result.getEntries().size());
+            for (Metadata metadata : result.getEntries()) {
+                // Process Dropbox file/folder metadata, skip other types (such as 'DeletedMetadata').
+                if (metadata instanceof FileMetadata) {
+                    page.add(createFileEntry(location, (FileMetadata) metadata));
+                } else if (metadata instanceof FolderMetadata) {
+                    page.add(createFolderEntry(location, (FolderMetadata) metadata));
+                }
+            }
+
+            return page;
+        }
+    }
+
     /**
      * Definition of functional callee that executes a Dropbox service operation. The callee accepts a client instance and
      * validated/normalized path.
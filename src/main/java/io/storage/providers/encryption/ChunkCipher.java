@@ -0,0 +1,162 @@
+package io.storage.providers.encryption;
+
+import io.storage.StorageException;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * Encrypts and decrypts the chunks of a single file with AES-GCM.<p>
+ * The file's data key is derived with HKDF-SHA256 from the master key and the file's random salt, so each file is
+ * encrypted with its own key. Each chunk's nonce encodes its index and whether it is the final chunk, so reordered,
+ * dropped or truncated chunks fail authentication. The file header is authenticated as additional data of every chunk.
+ * <p>
+ * {@code Cipher} and {@code Mac} instances are expensive to create and are reused per thread. Instances of this class
+ * are not thread-safe.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class ChunkCipher {
+
+    /**
+     * Size of authentication tag appended to each chunk, in bytes.
+     */
+    static final int TAG_SIZE = 16;
+
+    /**
+     * Size of data key, in bytes (AES-256).
+     */
+    private static final int KEY_SIZE = 32;
+
+    /**
+     * Size of GCM nonce, in bytes.
+     */
+    private static final int NONCE_SIZE = 12;
+
+    /**
+     * HKDF context information, binding derived keys to their purpose.
+     */
+    private static final byte[] KEY_INFO = "storageio file data key".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException ex) {
+            throw new StorageException("AES-GCM is not supported by this platform.", ex);
+        }
+    });
+
+    private static final ThreadLocal<Mac> MACS = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException ex) {
+            throw new StorageException("HmacSHA256 is not supported by this platform.", ex);
+        }
+    });
+
+    /**
+     * File data key.
+     */
+    private final SecretKeySpec key;
+
+    /**
+     * File header, authenticated with each chunk.
+     */
+    private final byte[] header;
+
+    /**
+     * Nonce of current chunk.
+     */
+    private final byte[] nonce = new byte[NONCE_SIZE];
+
+    /**
+     * Class constructor.
+     *
+     * @param masterKey Master key material.
+     * @param salt      File salt.
+     * @param header    File header.
+     * @throws StorageException If data key could not be derived.
+     */
+    ChunkCipher(byte[] masterKey, byte[] salt, byte[] header) throws StorageException {
+        this.key = new SecretKeySpec(deriveKey(masterKey, salt), "AES");
+        this.header = header;
+    }
+
+    /**
+     * Encrypt a chunk.
+     *
+     * @param index  Chunk index.
+     * @param last   Whether this is the file's final chunk.
+     * @param input  Plaintext buffer.
+     * @param length Number of plaintext bytes.
+     * @param output Output buffer, at least {@code length + TAG_SIZE} long.
+     * @return Number of bytes written to <i>output</i>.
+     * @throws StorageException If encryption failed.
+     */
+    int encrypt(long index, boolean last, byte[] input, int length, byte[] output) throws StorageException {
+        try {
+            return init(Cipher.ENCRYPT_MODE, index, last).doFinal(input, 0, length, output, 0);
+        } catch (GeneralSecurityException ex) {
+            throw new StorageException("Could not encrypt chunk " + index + ".", ex);
+        }
+    }
+
+    /**
+     * Decrypt and authenticate a chunk.
+     *
+     * @param index  Chunk index.
+     * @param last   Whether this is the file's final chunk.
+     * @param input  Encrypted chunk buffer.
+     * @param length Number of encrypted bytes (including tag).
+     * @param output Output buffer, at least {@code length - TAG_SIZE} long.
+     * @return Number of bytes written to <i>output</i>.
+     * @throws StorageException If chunk failed authentication (i.e.: it was corrupted, tampered with or truncated) or
+     *                          decryption failed.
+     */
+    int decrypt(long index, boolean last, byte[] input, int length, byte[] output) throws StorageException {
+        try {
+            return init(Cipher.DECRYPT_MODE, index, last).doFinal(input, 0, length, output, 0);
+        } catch (AEADBadTagException ex) {
+            throw new StorageException("Chunk " + index + " failed authentication (corrupted or tampered contents).", ex);
+        } catch (GeneralSecurityException ex) {
+            throw new StorageException("Could not decrypt chunk " + index + ".", ex);
+        }
+    }
+
+    private Cipher init(int mode, long index, boolean last) throws GeneralSecurityException {
+        for (int i = 7; i >= 0; i--) {
+            nonce[i] = (byte) (index >>> (8 * (7 - i)));
+        }
+        nonce[NONCE_SIZE - 1] = (byte) (last ? 1 : 0);
+
+        Cipher cipher = CIPHERS.get();
+        cipher.init(mode, key, new GCMParameterSpec(TAG_SIZE * 8, nonce));
+        cipher.updateAAD(header);
+        return cipher;
+    }
+
+    /**
+     * Derive a data key with HKDF-SHA256 (RFC 5869). A single expansion block suffices for a 256-bit key.
+     */
+    private static byte[] deriveKey(byte[] masterKey, byte[] salt) throws StorageException {
+        try {
+            Mac mac = MACS.get();
+            mac.init(new SecretKeySpec(salt, "HmacSHA256"));
+            byte[] pseudoRandomKey = mac.doFinal(masterKey);
+
+            mac.init(new SecretKeySpec(pseudoRandomKey, "HmacSHA256"));
+            mac.update(KEY_INFO);
+            mac.update((byte) 1);
+            return Arrays.copyOf(mac.doFinal(), KEY_SIZE);
+        } catch (GeneralSecurityException ex) {
+            throw new StorageException("Could not derive file data key.", ex);
+        }
+    }
+}
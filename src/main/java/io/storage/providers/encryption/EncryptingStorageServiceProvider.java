@@ -0,0 +1,447 @@
+package io.storage.providers.encryption;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.HashingInputStream;
+import io.storage.utils.Assert;
+import io.storage.utils.BufferPool;
+import io.storage.utils.StreamPipe;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A decorating provider that encrypts file contents on write and decrypts it on read (client-side, at-rest
+ * encryption), while streaming.<p>
+ * Contents is split into fixed-size chunks, each encrypted and authenticated with AES-GCM. Each file is encrypted with
+ * its own data key, derived from the credentials' master key (provided by a {@link MasterKeyProvider}) and a random
+ * per-file salt. Stored files consist of a header (format version, chunk size and salt) followed by the encrypted
+ * chunks.<p>
+ * Since chunks are independent, {@link #readFile(Credentials, String, long, long, OutputStream) ranged reads} fetch and
+ * decrypt only the chunks overlapping the requested range. Cipher instances and chunk buffers are reused, so throughput
+ * stays close to the throughput of the underlying provider.<p>
+ * The chunk size is recorded in each file, but must remain constant for a given store: it is used to compute
+ * plaintext sizes and chunk offsets without reading file headers.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class EncryptingStorageServiceProvider<C extends Credentials> extends DelegatingStorageServiceProvider<C> {
+
+    /**
+     * Default chunk size, in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Maximum chunk size, in bytes.
+     */
+    public static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Magic bytes identifying a file stored by this provider.
+     */
+    private static final byte[] MAGIC = {'S', 'I', 'O', 'E'};
+
+    /**
+     * Header format version.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * Size of per-file salt, in bytes.
+     */
+    private static final int SALT_SIZE = 16;
+
+    /**
+     * Header size: magic, version, chunk size and salt.
+     */
+    static final int HEADER_SIZE = MAGIC.length + 1 + Integer.BYTES + SALT_SIZE;
+
+    /**
+     * Maximum number of idle buffers retained per pool.
+     */
+    private static final int MAX_POOLED_BUFFERS = 32;
+
+    /**
+     * Provides master keys per credentials.
+     */
+    private final MasterKeyProvider<C> keyProvider;
+
+    /**
+     * Size of plaintext chunk, in bytes.
+     */
+    private final int chunkSize;
+
+    /**
+     * Plaintext chunk buffers.
+     */
+    private final BufferPool plainBuffers;
+
+    /**
+     * Encrypted chunk buffers.
+     */
+    private final BufferPool sealedBuffers;
+
+    /**
+     * Generates per-file salts.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Construct a new provider with {@link #DEFAULT_CHUNK_SIZE default chunk size}.
+     *
+     * @param delegate    Provider to store encrypted files in.
+     * @param keyProvider Provides master keys per credentials.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public EncryptingStorageServiceProvider(StorageServiceProvider<C> delegate, MasterKeyProvider<C> keyProvider)
+            throws IllegalArgumentException {
+        this(delegate, keyProvider, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param delegate    Provider to store encrypted files in.
+     * @param keyProvider Provides master keys per credentials.
+     * @param chunkSize   Size of plaintext chunks, in bytes. Larger chunks reduce overhead, smaller chunks reduce the
+     *                    amount of data fetched by ranged reads.
+     * @throws IllegalArgumentException If either arguments are {@code null} or <i>chunkSize</i> is out of range.
+     */
+    public EncryptingStorageServiceProvider(StorageServiceProvider<C> delegate,
+                                            MasterKeyProvider<C> keyProvider,
+                                            int chunkSize) throws IllegalArgumentException {
+        super(delegate);
+        Assert.notNull(keyProvider, "Key provider cannot be null.");
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize + " (must be within 1-" + MAX_CHUNK_SIZE + ").");
+        }
+
+        this.keyProvider = keyProvider;
+        this.chunkSize = chunkSize;
+        this.plainBuffers = new BufferPool(chunkSize, MAX_POOLED_BUFFERS);
+        this.sealedBuffers = new BufferPool(chunkSize + ChunkCipher.TAG_SIZE, MAX_POOLED_BUFFERS);
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return listFolder(credentials, path).toFolderEntity();
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.listFolder(credentials, path).map(this::toPlaintext);
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        return toPlaintext(delegate.readFileMeta(credentials, path));
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        byte[] masterKey = masterKey(credentials);
+
+        StreamPipe.transfer(
+                pipe -> delegate.readFile(credentials, path, pipe),
+                in -> {
+                    ChunkCipher cipher = newCipher(path, masterKey, readHeader(path, in));
+                    decrypt(path, cipher, in, out, 0, -1, 0, Long.MAX_VALUE);
+                    return null;
+                });
+    }
+
+    /**
+     * Read a range of a file, fetching and decrypting only the chunks overlapping the range.
+     */
+    @Override
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range (offset: " + offset + ", length: " + length + ").");
+        }
+
+        byte[] masterKey = masterKey(credentials);
+        long storedSize = delegate.readFileMeta(credentials, path).size;
+        long end = Math.min(plaintextSize(storedSize), length > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + length);
+        if (offset >= end) {
+            return;
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_SIZE);
+        delegate.readFile(credentials, path, 0, HEADER_SIZE, header);
+        ChunkCipher cipher = newCipher(path, masterKey, readHeader(path, new ByteArrayInputStream(header.toByteArray())));
+
+        long firstChunk = offset / chunkSize;
+        long lastChunk = (end - 1) / chunkSize;
+        long sealedChunkSize = chunkSize + ChunkCipher.TAG_SIZE;
+        StreamPipe.transfer(
+                pipe -> delegate.readFile(credentials, path, HEADER_SIZE + firstChunk * sealedChunkSize,
+                        (lastChunk - firstChunk + 1) * sealedChunkSize, pipe),
+                in -> {
+                    decrypt(path, cipher, in, out, firstChunk, chunkCount(storedSize), offset - firstChunk * chunkSize,
+                            end - offset);
+                    return null;
+                });
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeEncrypted(credentials, path, in, null);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeEncrypted(credentials, path, in, revision);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        return writeEncrypted(credentials, path, new ByteArrayInputStream(data), null);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        return writeEncrypted(credentials, path, new ByteArrayInputStream(data), revision);
+    }
+
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        // Data keys depend only on the master key and the salt stored in the file, so encrypted files can be copied as-is.
+        return toPlaintext(delegate.copy(credentials, from, to));
+    }
+
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return toPlaintext(delegate.move(credentials, from, to));
+    }
+
+    /**
+     * @return Size of plaintext chunks, in bytes.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Encrypt contents and stream it to the delegate.
+     */
+    private FileEntity writeEncrypted(C credentials, String path, InputStream in, String revision) {
+        Assert.notNull(in, "Input stream is null.");
+        byte[] masterKey = masterKey(credentials);
+
+        byte[] salt = new byte[SALT_SIZE];
+        random.nextBytes(salt);
+        byte[] header = ByteBuffer.allocate(HEADER_SIZE).put(MAGIC).put(VERSION).putInt(chunkSize).put(salt).array();
+        ChunkCipher cipher = new ChunkCipher(masterKey, salt, header);
+
+        // Hashes describe the plaintext, not the stored contents.
+        ContentDigest digest = newContentDigest();
+        InputStream source = new HashingInputStream(in, digest);
+
+        FileEntity stored = StreamPipe.transfer(
+                pipe -> encrypt(path, cipher, header, source, pipe),
+                pipeIn -> revision != null
+                        ? delegate.writeFile(credentials, path, pipeIn, revision)
+                        : delegate.writeFile(credentials, path, pipeIn));
+
+        stored.size = digest.getSize();
+        stored.hashes = digest.getHashes();
+        return stored;
+    }
+
+    /**
+     * Write header and encrypted chunks.
+     */
+    private void encrypt(String path, ChunkCipher cipher, byte[] header, InputStream source, OutputStream out) {
+        byte[] plain = plainBuffers.acquire();
+        byte[] sealed = sealedBuffers.acquire();
+        try {
+            out.write(header);
+
+            PushbackInputStream in = new PushbackInputStream(source, 1);
+            long index = 0;
+            boolean last;
+            do {
+                int count = in.readNBytes(plain, 0, chunkSize);
+                last = count < chunkSize || isEndOfStream(in);
+                out.write(sealed, 0, cipher.encrypt(index++, last, plain, count, sealed));
+            } while (!last);
+        } catch (IOException ex) {
+            throw new StorageException("Could not encrypt contents of " + path + ".", ex);
+        } finally {
+            plainBuffers.release(plain);
+            sealedBuffers.release(sealed);
+        }
+    }
+
+    /**
+     * Decrypt a sequence of chunks, passing a range of the plaintext to <i>out</i>.
+     *
+     * @param in          Stream of encrypted chunks, starting at <i>firstChunk</i>.
+     * @param firstChunk  Index of first chunk in stream.
+     * @param totalChunks Total number of chunks in file or -1 if unknown, in which case the final chunk is detected by
+     *                    end of stream.
+     * @param skip        Number of plaintext bytes to skip.
+     * @param length      Maximum number of plaintext bytes to pass.
+     */
+    private void decrypt(String path, ChunkCipher cipher, InputStream in, OutputStream out, long firstChunk,
+                         long totalChunks, long skip, long length) {
+        byte[] sealed = sealedBuffers.acquire();
+        byte[] plain = plainBuffers.acquire();
+        try {
+            PushbackInputStream source = new PushbackInputStream(in, 1);
+            long index = firstChunk;
+            boolean last;
+            do {
+                int count = source.readNBytes(sealed, 0, sealed.length);
+                last = totalChunks >= 0 ? index == totalChunks - 1 : count < sealed.length || isEndOfStream(source);
+                if (count < ChunkCipher.TAG_SIZE || (!last && count < sealed.length)) {
+                    throw new StorageException("Encrypted contents of " + path + " is truncated (chunk " + index + ").");
+                }
+
+                int plainCount = cipher.decrypt(index++, last, sealed, count, plain);
+                int from = (int) Math.min(skip, plainCount);
+                int passed = (int) Math.min(plainCount - from, length);
+                out.write(plain, from, passed);
+                skip -= from;
+                length -= passed;
+            } while (!last && length > 0);
+        } catch (IOException ex) {
+            throw new StorageException("Could not decrypt contents of " + path + ".", ex);
+        } finally {
+            sealedBuffers.release(sealed);
+            plainBuffers.release(plain);
+        }
+    }
+
+    /**
+     * Read and validate a file header.
+     *
+     * @return Header bytes.
+     */
+    private byte[] readHeader(String path, InputStream in) {
+        byte[] header;
+        try {
+            header = in.readNBytes(HEADER_SIZE);
+        } catch (IOException ex) {
+            throw new StorageException("Could not read header of " + path + ".", ex);
+        }
+
+        if (header.length < HEADER_SIZE || !Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new StorageException("File " + path + " is not encrypted by this provider.");
+        } else if (header[MAGIC.length] != VERSION) {
+            throw new StorageException("File " + path + " has unsupported encryption format version " + header[MAGIC.length] + ".");
+        }
+
+        int fileChunkSize = ByteBuffer.wrap(header, MAGIC.length + 1, Integer.BYTES).getInt();
+        if (fileChunkSize != chunkSize) {
+            throw new StorageException("File " + path + " was encrypted with chunk size " + fileChunkSize
+                    + " (expected: " + chunkSize + ").");
+        }
+
+        return header;
+    }
+
+    private ChunkCipher newCipher(String path, byte[] masterKey, byte[] header) {
+        byte[] salt = Arrays.copyOfRange(header, HEADER_SIZE - SALT_SIZE, HEADER_SIZE);
+        return new ChunkCipher(masterKey, salt, header);
+    }
+
+    private byte[] masterKey(C credentials) throws CredentialsException {
+        validateCredentials(credentials);
+        SecretKey key = keyProvider.masterKey(credentials);
+        if (key == null || key.getEncoded() == null) {
+            throw new CredentialsException("No master key available for credentials " + credentials.id + ".");
+        }
+
+        return key.getEncoded();
+    }
+
+    /**
+     * Replace a stored file's size with its plaintext size. Hashes reported by the delegate describe the stored
+     * contents, so they are dropped.
+     */
+    private <T extends BaseEntity> T toPlaintext(T entity) {
+        if (entity instanceof FileEntity) {
+            FileEntity file = (FileEntity) entity;
+            file.size = plaintextSize(file.size);
+            file.hashes = null;
+        }
+
+        return entity;
+    }
+
+    /**
+     * Number of chunks in a stored file. Even an empty file has a single (empty) chunk.
+     */
+    private long chunkCount(long storedSize) {
+        long sealedChunkSize = chunkSize + ChunkCipher.TAG_SIZE;
+        return Math.max(1, (storedSize - HEADER_SIZE + sealedChunkSize - 1) / sealedChunkSize);
+    }
+
+    private long plaintextSize(long storedSize) {
+        return Math.max(0, storedSize - HEADER_SIZE - chunkCount(storedSize) * ChunkCipher.TAG_SIZE);
+    }
+
+    private static boolean isEndOfStream(PushbackInputStream in) throws IOException {
+        int next = in.read();
+        if (next < 0) {
+            return true;
+        }
+
+        in.unread(next);
+        return false;
+    }
+
+    /**
+     * Provides the master key of given credentials, e.g.: from a key management service.
+     */
+    @FunctionalInterface
+    public interface MasterKeyProvider<C extends Credentials> {
+
+        /**
+         * @param credentials Credentials to provide a master key for.
+         * @return Master key. Its encoded form is used as key material.
+         * @throws CredentialsException If no master key is available for the given credentials.
+         */
+        SecretKey masterKey(C credentials) throws CredentialsException;
+    }
+}
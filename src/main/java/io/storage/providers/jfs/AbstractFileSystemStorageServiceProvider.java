@@ -2,14 +2,30 @@ package io.storage.providers.jfs;
 
 import io.storage.StorageException;
 import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
 import io.storage.core.entities.FileEntity;
 import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.HashingInputStream;
 import io.storage.utils.Assert;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 /**
  * An abstract {@link FileSystem} based storage service provider. Actual implementations can derive from this
@@ -53,10 +69,17 @@ public abstract class AbstractFileSystemStorageServiceProvider<C extends Credent
     @Override
     public FolderEntity listFolderContents(C credentials, String path)
             throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException, InvalidPathFormatException {
+        return listFolder(credentials, path).toFolderEntity();
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException, InvalidPathFormatException {
         Path fsPath = getPathFor(credentials, path, PathType.DIRECTORY);
 
-        // Generate folder entry.
-        return toFolderEntry(fsPath);
+        // Generate folder entry. Children are read page by page while the listing is iterated.
+        FolderEntity folder = toFolderEntry(fsPath);
+        return new FolderListing(folder, () -> new DirectoryPages(fsPath, folder.location));
     }
 
     @Override
@@ -71,18 +94,49 @@ public abstract class AbstractFileSystemStorageServiceProvider<C extends Credent
 
     }
 
+    /**
+     * Read a range of a file, seeking directly to its offset.
+     */
     @Override
-    public FileEntity writeFile(C credentials, String path, InputStream in)
-            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException, InvalidPathFormatException {
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range (offset: " + offset + ", length: " + length + ").");
+        }
 
         Path file = getPathFor(credentials, path, PathType.REGULAR_FILE);
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            channel.position(offset);
+            InputStream in = Channels.newInputStream(channel);
+            byte[] buffer = new byte[8192];
+            long remaining = length;
+            int count;
+            while (remaining > 0 && (count = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) >= 0) {
+                out.write(buffer, 0, count);
+                remaining -= count;
+            }
+        } catch (IOException ex) {
+            throw new StorageException("File read I/O error (path: " + path + ").", ex);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException, InvalidPathFormatException {
+        Assert.notNull(in, "Input stream is null.");
+        Path file = getWritablePathFor(credentials, path);
+        ContentDigest digest = newContentDigest();
         try {
-            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(new HashingInputStream(in, digest), file, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException ez) {
             throw new StorageException("File write I/O error (path: " + path + ").");
         }
 
-        return toFileEntity(file);
+        FileEntity entity = toFileEntity(file);
+        digest.verify(entity);
+        entity.hashes = digest.getHashes();
+        return entity;
     }
 
     @Override
@@ -95,14 +149,18 @@ public abstract class AbstractFileSystemStorageServiceProvider<C extends Credent
     public FileEntity writeFile(C credentials, String path, byte[] data)
             throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException, InvalidPathFormatException {
         Assert.notNull(data, "Data cannot be null.");
-        Path file = getPathFor(credentials, path, PathType.REGULAR_FILE);
+        Path file = getWritablePathFor(credentials, path);
         try {
-            Files.write(file, data, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            Files.write(file, data, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
         } catch (IOException ez) {
             throw new StorageException("File write I/O error (path: " + path + ").");
         }
 
-        return toFileEntity(file);
+        FileEntity entity = toFileEntity(file);
+        ContentDigest digest = ContentDigest.of(hashAlgorithms(), data);
+        digest.verify(entity);
+        entity.hashes = digest.getHashes();
+        return entity;
     }
 
     @Override
@@ -122,6 +180,134 @@ public abstract class AbstractFileSystemStorageServiceProvider<C extends Credent
         }
     }
 
+    /**
+     * Copy a file or folder. Files are copied path-to-path, letting the platform use its native copy mechanism (e.g.:
+     * in-kernel copy or reflinks, where supported) rather than streaming contents through this process. A folder cannot
+     * be copied into its own subtree.
+     */
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException, InvalidPathFormatException {
+        Path source = getExistingPathFor(credentials, from);
+        requireOutside(credentials, source, from, to);
+        Path target = getWritablePathFor(credentials, to);
+        try {
+            if (Files.isDirectory(source)) {
+                copyTree(source, target);
+            } else {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Could not copy " + from + " to " + to + ".", ex);
+        }
+
+        return toEntity(target);
+    }
+
+    /**
+     * Move a file or folder. The move is performed atomically (a rename) if the file system supports it. A folder cannot
+     * be moved into its own subtree.
+     */
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException, InvalidPathFormatException {
+        Path source = getExistingPathFor(credentials, from);
+        requireOutside(credentials, source, from, to);
+        Path target = getWritablePathFor(credentials, to);
+        try {
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Could not move " + from + " to " + to + ".", ex);
+        }
+
+        return toEntity(target);
+    }
+
+    /**
+     * Find files and folders in a single walk of the directory tree, starting at the glob's literal prefix. The walk is
+     * bounded by the glob's depth, directories under which the glob cannot match are skipped as a whole, and entities
+     * are created only for matching paths, from the attributes read by the walk itself.
+     */
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(filter, "Filter cannot be null.");
+        Glob pattern = Glob.compile(glob);
+        Path start = getPathFor(credentials, root, PathType.DIRECTORY);
+        Glob.State initial = pattern.start();
+        List<String> prefix = pattern.literalPrefix();
+        for (String name : prefix) {
+            start = start.resolve(name);
+            initial = initial.next(name);
+        }
+
+        List<BaseEntity> matches = new ArrayList<>();
+        if (!Files.isDirectory(start)) {
+            return matches;
+        }
+
+        Path top = start;
+        Glob.State topState = initial;
+        int maxDepth = pattern.maxDepth() - prefix.size();
+        Deque<Glob.State> states = new ArrayDeque<>();
+        try {
+            Files.walkFileTree(top, EnumSet.noneOf(FileVisitOption.class), maxDepth, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    if (dir.equals(top)) {
+                        states.push(topState);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    Glob.State state = visit(dir, attributes);
+                    if (!state.canMatchBelow()) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    states.push(state);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    // Directories at the maximum depth are visited as files.
+                    visit(file, attributes);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+                    states.pop();
+                    if (ex != null) {
+                        throw ex;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                private Glob.State visit(Path path, BasicFileAttributes attributes) {
+                    Glob.State state = states.peek().next(path.getFileName().toString());
+                    if (state.isMatch()) {
+                        EntityPath location = EntityPath.parse(path.toString());
+                        BaseEntity entity = attributes.isDirectory()
+                                ? toFolderEntry(location, attributes)
+                                : toFileEntity(location, attributes);
+                        if (filter.test(entity)) {
+                            matches.add(entity);
+                        }
+                    }
+                    return state;
+                }
+            });
+        } catch (IOException ex) {
+            throw new StorageException("Could not search folder (path: " + root + ", glob: " + glob + ").", ex);
+        }
+
+        return matches;
+    }
+
     /**
      * Creates a new file system, register within the internal repository and return the caller credentials for accessing
      * it.
@@ -176,6 +362,56 @@ public abstract class AbstractFileSystemStorageServiceProvider<C extends Credent
         return fsPath;
     }
 
+    /**
+     * Resolve a path of an existing file or folder.
+     *
+     * @param credentials Credentials to use.
+     * @param path        Path to file or folder.
+     * @return Path to file or folder.
+     * @throws IllegalArgumentException    If either arguments are {@code null}.
+     * @throws UnknownCredentialsException If provided <i>credentials</i> are unknown.
+     * @throws EntityNotFoundException     If <i>path</i> does not exist.
+     */
+    protected Path getExistingPathFor(C credentials, String path)
+            throws IllegalArgumentException, UnknownCredentialsException, EntityNotFoundException {
+        Path fsPath = getPathFor(credentials, path, null);
+        if (!Files.exists(fsPath)) {
+            throw new EntityNotFoundException("Unknown entity path: " + path);
+        }
+
+        return fsPath;
+    }
+
+    /**
+     * Resolve a path of a file to write. The file itself may not exist yet, but the path must not reference a
+     * directory. Missing parent directories are created, the same way remote storage services do.
+     *
+     * @param credentials Credentials to use.
+     * @param path        Path to file.
+     * @return Path to file.
+     * @throws IllegalArgumentException    If either arguments are {@code null}.
+     * @throws UnknownCredentialsException If provided <i>credentials</i> are unknown.
+     * @throws InvalidEntityPathException  If <i>path</i> references a directory.
+     */
+    protected Path getWritablePathFor(C credentials, String path)
+            throws IllegalArgumentException, UnknownCredentialsException, InvalidEntityPathException {
+        Path file = getPathFor(credentials, path, null);
+        if (Files.isDirectory(file)) {
+            throw new InvalidEntityPathException("Path " + path + " is not a regular file.");
+        }
+
+        Path parent = file.getParent();
+        if (parent != null) {
+            try {
+                Files.createDirectories(parent);
+            } catch (IOException ex) {
+                throw new InvalidEntityPathException("Could not create parent folder of " + path + ".", ex);
+            }
+        }
+
+        return file;
+    }
+
     /**
      * Fetch cached copy of a file system or create a new instance (if implementation supports the action) for a given
      * credentials.
@@ -205,19 +441,145 @@ public abstract class AbstractFileSystemStorageServiceProvider<C extends Credent
      *
      * @param file Java NIO file to convert.
      * @return New file entry.
+     * @throws StorageException If file attributes could not be read.
+     */
+    protected FileEntity toFileEntity(Path file) throws StorageException {
+        return toFileEntity(file, EntityPath.parse(file.toString()));
+    }
+
+    /**
+     * Convert a Java NIO {@code File} instance to <i>StorageIO</i> {@link FileEntity} with a known location.
+     *
+     * @param file     Java NIO file to convert.
+     * @param location Location of file.
+     * @return New file entry.
+     * @throws StorageException If file attributes could not be read.
+     */
+    protected FileEntity toFileEntity(Path file, EntityPath location) throws StorageException {
+        return toFileEntity(location, readAttributes(file));
+    }
+
+    /**
+     * Create a <i>StorageIO</i> {@link FileEntity} of a file whose attributes were already read.
+     *
+     * @param location   Location of file.
+     * @param attributes Attributes of file.
+     * @return New file entry.
      */
-    protected FileEntity toFileEntity(Path file) {
-        return null;
+    private FileEntity toFileEntity(EntityPath location, BasicFileAttributes attributes) {
+        FileEntity entity = new FileEntity();
+        entity.location = location;
+        entity.creationDate = attributes.creationTime().toInstant();
+        entity.modificationDate = attributes.lastModifiedTime().toInstant();
+        entity.size = attributes.size();
+        return entity;
     }
 
     /**
-     * Convert Java NIO {@code Path} to a <i>StorageIO</i> {@link FolderEntity}.
+     * Convert Java NIO {@code Path} to a <i>StorageIO</i> {@link FolderEntity}. The folder's children are not
+     * populated.
      *
      * @param folder Path to folder.
      * @return New folder entry.
+     * @throws StorageException If folder attributes could not be read.
+     */
+    protected FolderEntity toFolderEntry(Path folder) throws StorageException {
+        return toFolderEntry(folder, EntityPath.parse(folder.toString()));
+    }
+
+    /**
+     * Convert Java NIO {@code Path} to a <i>StorageIO</i> {@link FolderEntity} with a known location. The folder's
+     * children are not populated.
+     *
+     * @param folder   Path to folder.
+     * @param location Location of folder.
+     * @return New folder entry.
+     * @throws StorageException If folder attributes could not be read.
+     */
+    protected FolderEntity toFolderEntry(Path folder, EntityPath location) throws StorageException {
+        return toFolderEntry(location, readAttributes(folder));
+    }
+
+    /**
+     * Create a <i>StorageIO</i> {@link FolderEntity} of a folder whose attributes were already read.
+     *
+     * @param location   Location of folder.
+     * @param attributes Attributes of folder.
+     * @return New folder entry.
+     */
+    private FolderEntity toFolderEntry(EntityPath location, BasicFileAttributes attributes) {
+        FolderEntity entity = new FolderEntity();
+        entity.location = location;
+        entity.creationDate = attributes.creationTime().toInstant();
+        return entity;
+    }
+
+    /**
+     * Convert a Java NIO {@code Path} to either {@link FileEntity} or {@link FolderEntity}, based on its type.
+     *
+     * @param path Path to convert.
+     * @return New entity.
+     * @throws StorageException If attributes could not be read.
+     */
+    protected BaseEntity toEntity(Path path) throws StorageException {
+        return Files.isDirectory(path) ? toFolderEntry(path) : toFileEntity(path);
+    }
+
+    /**
+     * Make sure a copy or move destination is neither its source nor under it, so a folder is never copied into its own
+     * subtree.
+     *
+     * @param credentials Credentials to use.
+     * @param source      Source file or directory.
+     * @param from        Path of source.
+     * @param to          Path of destination.
+     * @throws InvalidEntityPathException If <i>to</i> equals <i>from</i> or lies under it.
+     */
+    private void requireOutside(C credentials, Path source, String from, String to) throws InvalidEntityPathException {
+        Path target = getPathFor(credentials, to, null).normalize();
+        if (target.startsWith(source.normalize())) {
+            throw new InvalidEntityPathException("Invalid destination: " + to + " (must not be " + from
+                    + " or under it).");
+        }
+    }
+
+    /**
+     * Copy a directory tree.
+     *
+     * @param source Source directory.
+     * @param target Target directory.
+     * @throws IOException If an I/O error occurred.
+     */
+    private void copyTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file).toString()),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Read basic attributes of a given path.
+     *
+     * @param path Path to read attributes of.
+     * @return Basic attributes.
+     * @throws StorageException If attributes could not be read.
      */
-    protected FolderEntity toFolderEntry(Path folder) {
-        return null;
+    private BasicFileAttributes readAttributes(Path path) throws StorageException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            throw new StorageException("Could not read attributes (path: " + path + ").", ex);
+        }
     }
 
     /**
@@ -243,6 +605,100 @@ public abstract class AbstractFileSystemStorageServiceProvider<C extends Credent
      */
     protected abstract String getFileSystemIdentifier(C credentials) throws UnknownCredentialsException;
 
+    /**
+     * Iterates over the entries of a directory in pages of {@link #PAGE_SIZE} entries. The underlying directory stream is
+     * kept open between pages and closed once all entries were read, a page could not be read or the listing is
+     * {@link FolderListing#close() closed}.
+     */
+    private class DirectoryPages implements Iterator<List<? extends BaseEntity>>, AutoCloseable {
+
+        /**
+         * Maximum number of entries per page.
+         */
+        private static final int PAGE_SIZE = 1024;
+
+        /**
+         * Directory stream to read entries from.
+         */
+        private final DirectoryStream<Path> stream;
+
+        /**
+         * Iterator over directory stream.
+         */
+        private final Iterator<Path> entries;
+
+        /**
+         * Location of the listed folder, shared by all listed children.
+         */
+        private final EntityPath location;
+
+        DirectoryPages(Path folder, EntityPath location) throws StorageException {
+            this.location = location;
+            try {
+                this.stream = Files.newDirectoryStream(folder);
+            } catch (IOException ex) {
+                throw new StorageException("Could not list folder (path: " + folder + ").", ex);
+            }
+            this.entries = stream.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasMoreEntries()) {
+                return true;
+            }
+
+            close();
+            return false;
+        }
+
+        @Override
+        public List<? extends BaseEntity> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            List<BaseEntity> page = new ArrayList<>();
+            try {
+                while (page.size() < PAGE_SIZE && hasMoreEntries()) {
+                    Path entry = entries.next();
+                    EntityPath entryLocation = location.resolve(entry.getFileName().toString());
+                    page.add(Files.isDirectory(entry) ? toFolderEntry(entry, entryLocation) : toFileEntity(entry, entryLocation));
+                }
+            } catch (RuntimeException ex) {
+                close();
+                throw ex;
+            }
+
+            return page;
+        }
+
+        /**
+         * @return {@code true} if directory stream has more entries, {@code false} if not.
+         * @throws StorageException If an I/O error occurred while reading the directory.
+         */
+        private boolean hasMoreEntries() throws StorageException {
+            try {
+                return entries.hasNext();
+            } catch (DirectoryIteratorException ex) {
+                close();
+                throw new StorageException("Could not list folder.", ex.getCause());
+            }
+        }
+
+        /**
+         * Close the directory stream, ignoring errors.
+         */
+        @Override
+        public void close() {
+            try {
+                stream.close();
+            } catch (IOException ignore) {
+                // Nothing to do -- all entries were already read.
+            }
+        }
+    }
+
     /**
      * Types of files.
      */
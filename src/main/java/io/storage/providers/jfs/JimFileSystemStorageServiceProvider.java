@@ -7,13 +7,13 @@ import java.nio.file.FileSystem;
 
 public class JimFileSystemStorageServiceProvider extends AbstractFileSystemStorageServiceProvider<JimFSCredentials> {
 
-    private SimpleFileSystemRepository repository;
+    private final SimpleFileSystemRepository repository;
 
     /**
      * Class constructor.
      */
     public JimFileSystemStorageServiceProvider() {
-        super(JimFSCredentials.class, new SimpleFileSystemRepository());
+        this(new SimpleFileSystemRepository());
     }
 
     /**
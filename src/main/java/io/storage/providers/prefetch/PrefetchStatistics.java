@@ -0,0 +1,129 @@
+package io.storage.providers.prefetch;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts prefetches made by a {@link PrefetchingStorageServiceProvider} and metadata calls served by them, to tell
+ * whether prefetching pays off. Counters are updated concurrently and may be read at any time.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class PrefetchStatistics {
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder prefetches = new LongAdder();
+
+    private final LongAdder used = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private final LongAdder cancelled = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * @return Number of metadata calls served by a prefetched entry.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of metadata calls forwarded to the storage service.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Ratio of metadata calls served by a prefetched entry, between 0 and 1.
+     */
+    public double getHitRatio() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    /**
+     * @return Number of listings prefetched from the storage service. File metadata kept from a listing at hand is not
+     * counted, as it costs no round-trip.
+     */
+    public long getPrefetches() {
+        return prefetches.sum();
+    }
+
+    /**
+     * @return Number of prefetched listings that served at least one call.
+     */
+    public long getUsed() {
+        return used.sum();
+    }
+
+    /**
+     * @return Ratio of prefetched entries that served at least one call, between 0 and 1. A low ratio means most
+     * prefetches are wasted round-trips.
+     */
+    public double getAccuracy() {
+        long prefetches = getPrefetches();
+        return prefetches > 0 ? (double) getUsed() / prefetches : 0.0;
+    }
+
+    /**
+     * @return Number of prefetches not made since the prefetch budget or cache was full.
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return Number of prefetches cancelled before they started.
+     */
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    /**
+     * @return Number of prefetches that failed.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits: %d, misses: %d, prefetches: %d (%d used, %d failed), skipped: %d, cancelled: %d",
+                getHits(), getMisses(), getPrefetches(), getUsed(), getFailed(), getSkipped(), getCancelled());
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void prefetched() {
+        prefetches.increment();
+    }
+
+    void used() {
+        used.increment();
+    }
+
+    void skipped() {
+        skipped.increment();
+    }
+
+    void cancelled() {
+        cancelled.increment();
+    }
+
+    void failed() {
+        failed.increment();
+    }
+}
@@ -0,0 +1,608 @@
+package io.storage.providers.prefetch;
+
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.utils.Assert;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * A decorating provider that predicts the next metadata calls of a browsing user: once a folder is
+ * {@link #listFolderContents(Credentials, String) listed}, the listings of its first {@link #setTopK(int) top-K}
+ * subfolders are prefetched in the background, and the metadata of its top-K most recently modified files is taken from
+ * the listing itself. Subsequent {@code listFolderContents}, {@code readFileMeta} and {@code exists} calls are served
+ * from prefetched entries until they {@link #setTimeToLive(Duration) expire}.<p>
+ * Prefetching is bounded: no more than a {@link #setBudget(int) budget} of prefetches are pending at any time and no more
+ * than a {@link #setMaxEntries(int) maximum} of entries are kept; prefetches beyond either are skipped. By default,
+ * listing another folder with the same credentials cancels prefetches of the previous listing that have not started yet
+ * (see {@link CancellationPolicy}).<p>
+ * Entries are only kept for prefetched results, callers receive copies of them. A modification made through this
+ * provider drops entries of its paths, their ancestors and descendants, and discards prefetches in progress with the
+ * same credentials, so stale entries are never served afterwards. Modifications made by others are seen once entries
+ * expire.<p>
+ * Hit ratio and accuracy of prefetching are reported by {@link #getStatistics()}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class PrefetchingStorageServiceProvider<C extends Credentials> extends DelegatingStorageServiceProvider<C> {
+
+    /**
+     * Default number of subfolders and of files prefetched per listing.
+     */
+    public static final int DEFAULT_TOP_K = 8;
+
+    /**
+     * Default maximum number of pending prefetches.
+     */
+    public static final int DEFAULT_BUDGET = 32;
+
+    /**
+     * Default maximum number of prefetched entries kept.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /**
+     * Default time a prefetched entry is served for.
+     */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(30);
+
+    /**
+     * Default number of threads prefetching.
+     */
+    public static final int DEFAULT_THREADS = 2;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PrefetchingStorageServiceProvider.class);
+
+    /**
+     * Most recently modified files first, files of unknown modification time last.
+     */
+    private static final Comparator<FileEntity> MOST_RECENT_FIRST = Comparator.comparing(
+            (FileEntity file) -> file.modificationDate, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    /**
+     * Prefetched entries.
+     */
+    private final Map<EntryKey, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Latest batch of prefetches, per credentials key.
+     */
+    private final Map<Object, Batch> batches = new ConcurrentHashMap<>();
+
+    /**
+     * Number of prefetches scheduled and not finished yet.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Number of modifications per credentials key, so prefetches that overlap a modification with the same credentials
+     * are discarded.
+     */
+    private final Map<Object, AtomicLong> modifications = new ConcurrentHashMap<>();
+
+    /**
+     * Executes prefetches.
+     */
+    private final ExecutorService prefetcher =
+            Executors.newFixedThreadPool(DEFAULT_THREADS, StreamPipe.daemonThreadFactory("storage-prefetch-"));
+
+    /**
+     * Hit, miss and prefetch counters.
+     */
+    private final PrefetchStatistics statistics = new PrefetchStatistics();
+
+    private volatile int topK = DEFAULT_TOP_K;
+
+    private volatile int budget = DEFAULT_BUDGET;
+
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private volatile Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    private volatile CancellationPolicy cancellationPolicy = CancellationPolicy.ON_NAVIGATION;
+
+    /**
+     * Class constructor.
+     *
+     * @param delegate Provider to prefetch from.
+     * @throws IllegalArgumentException If <i>delegate</i> is {@code null}.
+     */
+    public PrefetchingStorageServiceProvider(StorageServiceProvider<C> delegate) throws IllegalArgumentException {
+        super(delegate);
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        if (credentials == null || path == null) {
+            return delegate.listFolderContents(credentials, path);
+        }
+
+        FolderEntity folder = (FolderEntity) lookup(Kind.LISTING, credentials, path);
+        if (folder != null) {
+            folder = folder.copy();
+        } else {
+            statistics.miss();
+            folder = delegate.listFolderContents(credentials, path);
+        }
+
+        if (folder != null && topK > 0) {
+            prefetchChildren(credentials, folder);
+        }
+        return folder;
+    }
+
+    /**
+     * Searches are forwarded as is, and do not prefetch the entities they find.
+     */
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return delegate.find(credentials, root, glob, filter);
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        if (credentials == null || path == null) {
+            return delegate.exists(credentials, path);
+        }
+
+        if (lookup(Kind.META, credentials, path) != null || lookup(Kind.LISTING, credentials, path) != null) {
+            return true;
+        }
+
+        statistics.miss();
+        return delegate.exists(credentials, path);
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        if (credentials == null || path == null) {
+            return delegate.readFileMeta(credentials, path);
+        }
+
+        FileEntity file = (FileEntity) lookup(Kind.META, credentials, path);
+        if (file != null) {
+            return file.copy();
+        }
+
+        statistics.miss();
+        return delegate.readFileMeta(credentials, path);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, in);
+        } finally {
+            invalidate(credentials, path);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, in, revision);
+        } finally {
+            invalidate(credentials, path);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, data);
+        } finally {
+            invalidate(credentials, path);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        try {
+            return delegate.writeFile(credentials, path, data, revision);
+        } finally {
+            invalidate(credentials, path);
+        }
+    }
+
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        try {
+            delegate.delete(credentials, path);
+        } finally {
+            invalidate(credentials, path);
+        }
+    }
+
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        try {
+            return delegate.copy(credentials, from, to);
+        } finally {
+            invalidate(credentials, to);
+        }
+    }
+
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        try {
+            return delegate.move(credentials, from, to);
+        } finally {
+            invalidate(credentials, from);
+            invalidate(credentials, to);
+        }
+    }
+
+    /**
+     * Set the number of subfolders whose listings are prefetched, and of files whose metadata is kept, per listing.
+     *
+     * @param topK Number of subfolders and of files, or 0 to stop prefetching.
+     * @throws IllegalArgumentException If <i>topK</i> is negative.
+     */
+    public void setTopK(int topK) throws IllegalArgumentException {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Invalid top-K: " + topK + " (must not be negative).");
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Set the maximum number of pending prefetches. Prefetches beyond it are skipped.
+     *
+     * @param budget Maximum number of pending prefetches.
+     * @throws IllegalArgumentException If <i>budget</i> is not positive.
+     */
+    public void setBudget(int budget) throws IllegalArgumentException {
+        if (budget < 1) {
+            throw new IllegalArgumentException("Invalid budget: " + budget + " (must be positive).");
+        }
+        this.budget = budget;
+    }
+
+    /**
+     * Set the maximum number of prefetched entries kept. Prefetches beyond it are skipped until entries expire.
+     *
+     * @param maxEntries Maximum number of entries.
+     * @throws IllegalArgumentException If <i>maxEntries</i> is not positive.
+     */
+    public void setMaxEntries(int maxEntries) throws IllegalArgumentException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid maximum entries: " + maxEntries + " (must be positive).");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Set the time a prefetched entry is served for. Applies to entries prefetched afterwards.
+     *
+     * @param timeToLive Time to live.
+     * @throws IllegalArgumentException If <i>timeToLive</i> is {@code null} or not positive.
+     */
+    public void setTimeToLive(Duration timeToLive) throws IllegalArgumentException {
+        Assert.notNull(timeToLive, "Time to live cannot be null.");
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Invalid time to live: " + timeToLive + " (must be positive).");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Set the policy for cancelling pending prefetches. Defaults to {@link CancellationPolicy#ON_NAVIGATION}.
+     *
+     * @param cancellationPolicy Cancellation policy.
+     * @throws IllegalArgumentException If <i>cancellationPolicy</i> is {@code null}.
+     */
+    public void setCancellationPolicy(CancellationPolicy cancellationPolicy) throws IllegalArgumentException {
+        Assert.notNull(cancellationPolicy, "Cancellation policy cannot be null.");
+        this.cancellationPolicy = cancellationPolicy;
+    }
+
+    /**
+     * @return Hit, miss and prefetch counters.
+     */
+    public PrefetchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Stop prefetching and drop all prefetched entries. Calls are forwarded to the underlying provider afterwards.
+     */
+    public void shutdown() {
+        prefetcher.shutdownNow();
+        entries.clear();
+    }
+
+    /**
+     * Find an unexpired prefetched entry.
+     *
+     * @return Prefetched value (not to be exposed to callers) or {@code null} if there is none.
+     */
+    private Object lookup(Kind kind, C credentials, String path) {
+        EntryKey key = new EntryKey(credentials.key(), kind, EntityPath.parse(path));
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        if (entry.fetched && entry.used.compareAndSet(false, true)) {
+            statistics.used();
+        }
+        statistics.hit();
+        return entry.value;
+    }
+
+    /**
+     * Prefetch listings of top subfolders and keep metadata of top files of a listed folder.
+     */
+    private void prefetchChildren(C credentials, FolderEntity folder) {
+        Object credentialsKey = credentials.key();
+        Batch batch = new Batch();
+        if (cancellationPolicy == CancellationPolicy.ON_NAVIGATION) {
+            Batch previous = batches.put(credentialsKey, batch);
+            if (previous != null) {
+                previous.cancelled = true;
+            }
+        }
+
+        int topK = this.topK;
+        if (folder.files != null) {
+            List<FileEntity> files = new ArrayList<>(folder.files);
+            files.sort(MOST_RECENT_FIRST);
+            for (FileEntity file : files.subList(0, Math.min(topK, files.size()))) {
+                EntryKey key = new EntryKey(credentialsKey, Kind.META, file.location);
+                if (file.location != null && !isFresh(key)) {
+                    // Metadata is already at hand, no round-trip required.
+                    store(key, file.copy(), modificationsOf(credentialsKey).get(), false);
+                }
+            }
+        }
+
+        if (folder.folders != null) {
+            for (FolderEntity subFolder : folder.folders.subList(0, Math.min(topK, folder.folders.size()))) {
+                if (subFolder.location != null) {
+                    schedule(batch, credentials, new EntryKey(credentialsKey, Kind.LISTING, subFolder.location));
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule a prefetch of a listing, within budget.
+     */
+    private void schedule(Batch batch, C credentials, EntryKey key) {
+        if (isFresh(key)) {
+            return;
+        }
+
+        if (pending.incrementAndGet() > budget) {
+            pending.decrementAndGet();
+            statistics.skipped();
+            return;
+        }
+
+        long modification = modificationsOf(key.credentials).get();
+        try {
+            prefetcher.execute(() -> {
+                try {
+                    if (batch.cancelled) {
+                        statistics.cancelled();
+                        return;
+                    }
+
+                    store(key, delegate.listFolderContents(credentials, key.path.toString()), modification, true);
+                } catch (RuntimeException ex) {
+                    statistics.failed();
+                    logger.debug("Could not prefetch listing of {}.", key.path, ex);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Shut down.
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return {@code true} if there is an unexpired entry of <i>key</i>.
+     */
+    private boolean isFresh(EntryKey key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.expiresAt - System.nanoTime() > 0;
+    }
+
+    /**
+     * Keep a prefetched entry, unless a modification was made since it was fetched or there is no room for it. Only
+     * entries <i>fetched</i> ahead of demand count as prefetches; metadata kept from a listing at hand costs nothing.
+     */
+    private void store(EntryKey key, Object value, long modification, boolean fetched) {
+        if (entries.size() >= maxEntries) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+            if (entries.size() >= maxEntries) {
+                if (fetched) {
+                    statistics.skipped();
+                }
+                return;
+            }
+        }
+
+        Entry entry = new Entry(value, System.nanoTime() + timeToLive.toNanos(), fetched);
+        entries.put(key, entry);
+        if (fetched) {
+            statistics.prefetched();
+        }
+
+        // Checked after the entry is visible, so it is dropped either here or by the modification's invalidation.
+        if (modificationsOf(key.credentials).get() != modification) {
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Drop entries affected by a modification of a path and discard prefetches in progress.
+     */
+    private void invalidate(C credentials, String path) {
+        if (credentials == null) {
+            return;
+        }
+
+        Object credentialsKey = credentials.key();
+        modificationsOf(credentialsKey).incrementAndGet();
+        if (path == null || entries.isEmpty()) {
+            return;
+        }
+
+        EntityPath modified = EntityPath.parse(path);
+        entries.keySet().removeIf(key -> key.credentials.equals(credentialsKey) && key.path.isRelatedTo(modified));
+    }
+
+    private AtomicLong modificationsOf(Object credentialsKey) {
+        return modifications.computeIfAbsent(credentialsKey, key -> new AtomicLong());
+    }
+
+    /**
+     * Policy for cancelling pending prefetches.
+     */
+    public enum CancellationPolicy {
+
+        /**
+         * Listing a folder cancels prefetches of the previous listing, with the same credentials, that have not started
+         * yet -- the user moved on, so its predictions no longer hold.
+         */
+        ON_NAVIGATION,
+
+        /**
+         * Prefetches are never cancelled.
+         */
+        NEVER
+    }
+
+    /**
+     * Kinds of prefetched entries.
+     */
+    private enum Kind {
+        LISTING,
+        META
+    }
+
+    /**
+     * Key of a prefetched entry.
+     */
+    private static final class EntryKey {
+
+        final Object credentials;
+
+        final Kind kind;
+
+        final EntityPath path;
+
+        EntryKey(Object credentials, Kind kind, EntityPath path) {
+            this.credentials = credentials;
+            this.kind = kind;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntryKey)) {
+                return false;
+            }
+
+            EntryKey other = (EntryKey) o;
+            return kind == other.kind && path.equals(other.path) && credentials.equals(other.credentials);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(credentials, kind, path);
+        }
+    }
+
+    /**
+     * A prefetched entry.
+     */
+    private static final class Entry {
+
+        final Object value;
+
+        /**
+         * Time, by {@link System#nanoTime()}, the entry expires at.
+         */
+        final long expiresAt;
+
+        /**
+         * Whether the entry was fetched from the storage service ahead of demand, rather than kept from a listing.
+         */
+        final boolean fetched;
+
+        /**
+         * Set once the entry served a call.
+         */
+        final AtomicBoolean used = new AtomicBoolean();
+
+        Entry(Object value, long expiresAt, boolean fetched) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.fetched = fetched;
+        }
+    }
+
+    /**
+     * Prefetches scheduled for a single listing.
+     */
+    private static final class Batch {
+
+        volatile boolean cancelled;
+    }
+}
@@ -0,0 +1,23 @@
+package io.storage.providers.replicated;
+
+import io.storage.StorageException;
+
+/**
+ * Indicates an operation succeeded on some replicas, but not on enough of them to reach the required quorum. Replicas
+ * that did apply the operation are not rolled back.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class QuorumException extends StorageException {
+
+    /**
+     * Class constructor.
+     *
+     * @param message Error message.
+     * @param cause   Failure of the first replica that failed.
+     */
+    public QuorumException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,1068 @@
+package io.storage.providers.replicated;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.HashAlgorithm;
+import io.storage.tracing.TraceContext;
+import io.storage.utils.Assert;
+import io.storage.utils.Spool;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A storage service provider mirroring all files to several backing providers (replicas), e.g.: two local file systems
+ * and a Dropbox account.
+ * <ul>
+ * <li>Writes, deletes, copies and moves are applied to all replicas in parallel. An operation completes once a
+ * {@link #setWriteQuorum(int) quorum} of replicas acknowledged it; the remaining replicas complete in the
+ * background. Operations of the same path are applied to each replica in the order they were issued, so a replica
+ * lagging behind never applies an earlier write over a later one.</li>
+ * <li>Reads are served by whichever replica answers first. The replica with the lowest observed latency is asked
+ * first; if it did not answer within the {@link #setHedgeDelay(Duration) hedge delay} (or failed), the next replica is
+ * asked as well, and so on. The first replica to answer wins and the others are cancelled. File contents are claimed by
+ * the first replica to produce a byte, so the caller's stream is never written by two replicas.</li>
+ * <li>Replicas diverge when an operation fails on some of them. Diverged paths are {@link #repair(Credentials, String)
+ * repaired} in the background, until all replicas agree.</li>
+ * </ul>
+ * Repair resolves divergence by majority: a file present in a minority of replicas is deleted, otherwise the version
+ * held by most replicas (compared by size, and by {@link HashAlgorithm#CONTENT_HASH content hash} when all replicas
+ * report it) is copied to the others, ties going to the most recently modified version. With a majority write quorum
+ * (the default) an acknowledged write is therefore never reverted by repair; with a smaller quorum it might be.<p>
+ * Pending repairs are kept in memory only. Replicas diverged before the process stopped can be reconciled by calling
+ * {@link #repair(Credentials, String)} for their root folder.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ReplicatedStorageServiceProvider<C extends Credentials> extends AbstractStorageServiceProvider<C> {
+
+    /**
+     * Default delay before asking another replica to serve a read.
+     */
+    public static final Duration DEFAULT_HEDGE_DELAY = Duration.ofMillis(100);
+
+    /**
+     * Default delay before repairing a diverged path, and between repair attempts.
+     */
+    public static final Duration DEFAULT_REPAIR_DELAY = Duration.ofSeconds(30);
+
+    /**
+     * Weight of the most recent sample in a replica's latency moving average.
+     */
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReplicatedStorageServiceProvider.class);
+
+    /**
+     * Replicas, in configuration order. The first one is the primary replica.
+     */
+    private final List<Replica> replicas;
+
+    /**
+     * Executes replica operations.
+     */
+    private final ExecutorService executor =
+            Executors.newCachedThreadPool(StreamPipe.daemonThreadFactory("storage-replica-"));
+
+    /**
+     * Repairs diverged paths.
+     */
+    private final ScheduledExecutorService repairer =
+            Executors.newSingleThreadScheduledExecutor(StreamPipe.daemonThreadFactory("storage-replica-repair-"));
+
+    /**
+     * Paths scheduled for repair, as (credentials, path) pairs, so a path diverged repeatedly is repaired once.
+     */
+    private final Set<List<Object>> pendingRepairs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of reads served after asking more than one replica.
+     */
+    private final LongAdder hedgedReads = new LongAdder();
+
+    /**
+     * Number of files copied or deleted by repair.
+     */
+    private final LongAdder repairs = new LongAdder();
+
+    /**
+     * Number of replicas that must acknowledge a write.
+     */
+    private volatile int writeQuorum;
+
+    /**
+     * Delay before asking another replica to serve a read.
+     */
+    private volatile Duration hedgeDelay = DEFAULT_HEDGE_DELAY;
+
+    /**
+     * Delay before repairing a diverged path.
+     */
+    private volatile Duration repairDelay = DEFAULT_REPAIR_DELAY;
+
+    /**
+     * Class constructor. Write quorum defaults to a majority of the replicas.
+     *
+     * @param replicas Backing providers. The first one is the primary replica, which verifies revisions of writes.
+     * @throws IllegalArgumentException If <i>replicas</i> is {@code null}, empty or contains {@code null} elements.
+     */
+    public ReplicatedStorageServiceProvider(List<StorageServiceProvider<C>> replicas) throws IllegalArgumentException {
+        super(requirePrimary(replicas).credentialsTypes());
+
+        List<Replica> list = new ArrayList<>(replicas.size());
+        for (StorageServiceProvider<C> provider : replicas) {
+            Assert.notNull(provider, "Replica provider cannot be null.");
+            list.add(new Replica(provider, list.size()));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.writeQuorum = replicas.size() / 2 + 1;
+    }
+
+    /**
+     * Folder contents are listed by the replica answering first.
+     */
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        String normalized = normalize(credentials, path);
+        return race((provider, claim) -> provider.listFolderContents(credentials, normalized));
+    }
+
+    /**
+     * Listings are fetched lazily, page by page, so they are not hedged. They are served by the fastest replica.
+     */
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        String normalized = normalize(credentials, path);
+        return replicasByLatency().get(0).provider.listFolder(credentials, normalized);
+    }
+
+    /**
+     * Searches are served by the fastest replica, same as {@link #listFolder listings}.
+     */
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        String normalized = normalize(credentials, root);
+        return replicasByLatency().get(0).provider.find(credentials, normalized, glob, filter);
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        String normalized = normalize(credentials, path);
+        return race((provider, claim) -> provider.exists(credentials, normalized));
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        String normalized = normalize(credentials, path);
+        return race((provider, claim) -> provider.readFileMeta(credentials, normalized));
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     * Contents are streamed by the first replica to produce a byte. Should that replica fail mid-stream, the read fails
+     * -- it is not resumed from another replica, since part of the contents was already written to <i>out</i>.
+     */
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        String normalized = normalize(credentials, path);
+        race((provider, claim) -> {
+            provider.readFile(credentials, normalized, new ClaimingOutputStream(out, claim));
+            return null;
+        });
+    }
+
+    @Override
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        String normalized = normalize(credentials, path);
+        race((provider, claim) -> {
+            provider.readFile(credentials, normalized, offset, length, new ClaimingOutputStream(out, claim));
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     * Contents are spooled to a temporary file once, and streamed from it to each replica.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeFile(credentials, path, in, (String) null);
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     * Contents are spooled to a temporary file once, and streamed from it to each replica. A <i>revision</i> is
+     * verified by the primary replica: the file is written to it first, and to the others only if the revision matched.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(in, "Input stream is null.");
+        String normalized = normalize(credentials, path);
+
+        Spool spool = Spool.of(in);
+        try {
+            FileEntity primary = revision != null
+                    ? writePrimary(credentials, normalized,
+                    provider -> write(spool, stream -> provider.writeFile(credentials, normalized, stream, revision)))
+                    : null;
+            return replicateWrite(credentials, normalized, primary,
+                    provider -> write(spool, stream -> provider.writeFile(credentials, normalized, stream)),
+                    spool::close);
+        } catch (RuntimeException ex) {
+            spool.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeFile(credentials, path, data, (String) null);
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     * A <i>revision</i> is verified by the primary replica: the file is written to it first, and to the others only if
+     * the revision matched.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        String normalized = normalize(credentials, path);
+
+        FileEntity primary = revision != null
+                ? writePrimary(credentials, normalized,
+                provider -> provider.writeFile(credentials, normalized, data, revision))
+                : null;
+        return replicateWrite(credentials, normalized, primary,
+                provider -> provider.writeFile(credentials, normalized, data),
+                () -> {
+                });
+    }
+
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        String normalized = normalize(credentials, path);
+
+        List<Boolean> deleted = replicate(credentials, replicas, writeQuorum, replica -> {
+            try {
+                replica.provider.delete(credentials, normalized);
+                return true;
+            } catch (EntityNotFoundException ex) {
+                // Already absent from this replica, which is the desired outcome.
+                return false;
+            }
+        }, () -> {
+        }, normalized);
+
+        if (!deleted.contains(true)) {
+            throw new EntityNotFoundException("Unknown entity path: " + path);
+        }
+    }
+
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        String source = normalize(credentials, from);
+        String target = normalize(credentials, to);
+        return replicate(credentials, replicas, writeQuorum,
+                replica -> replica.provider.copy(credentials, source, target),
+                () -> {
+                }, target).get(0);
+    }
+
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        String source = normalize(credentials, from);
+        String target = normalize(credentials, to);
+        return replicate(credentials, replicas, writeQuorum,
+                replica -> replica.provider.move(credentials, source, target),
+                () -> {
+                }, source, target).get(0);
+    }
+
+    /**
+     * Reconcile all replicas of a file, or of all files under a folder (recursively), on the calling thread. Files are
+     * compared by their metadata, so replicas of the same size (and same content hash, where reported) are considered
+     * equal. See class documentation for how divergence is resolved.<p>
+     * Files being written while a folder is reconciled may be seen on a minority of replicas and deleted, so a folder
+     * should be reconciled while it is not written to.
+     *
+     * @param credentials Credentials to access replicas.
+     * @param path        Path of file or folder to reconcile.
+     * @return Number of files copied or deleted across all replicas.
+     * @throws IllegalArgumentException   If either arguments are {@code null}.
+     * @throws CredentialsException       If provided credentials are not supported by the replicas or it has expired.
+     * @throws InvalidPathFormatException If <i>path</i> has invalid format.
+     * @throws StorageException           If any replica could not be read or repaired. Replicas that could not be
+     *                                    reached are never considered to have lost a file.
+     */
+    public int repair(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException, StorageException {
+        String normalized = normalize(credentials, path);
+
+        FileEntity[] versions = fileVersions(credentials, normalized);
+        if (Arrays.stream(versions).anyMatch(Objects::nonNull)) {
+            return reconcile(credentials, normalized, versions);
+        }
+
+        int fixes = 0;
+        Deque<String> folders = new ArrayDeque<>();
+        folders.push(normalized);
+        while (!folders.isEmpty()) {
+            String folder = folders.pop();
+            Map<String, FileEntity[]> files = new TreeMap<>();
+            Set<String> subFolders = new TreeSet<>();
+            for (Replica replica : replicas) {
+                try {
+                    for (BaseEntity entity : replica.provider.listFolder(credentials, folder)) {
+                        if (entity instanceof FileEntity) {
+                            files.computeIfAbsent(entity.getPath(), key -> new FileEntity[replicas.size()])
+                                    [replica.index] = (FileEntity) entity;
+                        } else if (entity instanceof FolderEntity) {
+                            subFolders.add(entity.getPath());
+                        }
+                    }
+                } catch (EntityNotFoundException ex) {
+                    // Folder is missing from this replica -- its files are reconciled as missing.
+                }
+            }
+
+            for (Map.Entry<String, FileEntity[]> file : files.entrySet()) {
+                fixes += reconcile(credentials, file.getKey(), file.getValue());
+            }
+            folders.addAll(subFolders);
+        }
+
+        return fixes;
+    }
+
+    /**
+     * Stop background repairs and replica operations. Pending repairs are dropped.
+     */
+    public void shutdown() {
+        if (!pendingRepairs.isEmpty()) {
+            logger.warn("Shutting down with {} diverged paths not repaired.", pendingRepairs.size());
+        }
+
+        repairer.shutdownNow();
+        executor.shutdown();
+    }
+
+    /**
+     * Set the number of replicas that must acknowledge a write, delete, copy or move before it completes. Defaults to
+     * a majority of the replicas.
+     *
+     * @param writeQuorum Write quorum. Must be between 1 and the number of replicas.
+     * @throws IllegalArgumentException If <i>writeQuorum</i> is out of range.
+     */
+    public void setWriteQuorum(int writeQuorum) throws IllegalArgumentException {
+        if (writeQuorum < 1 || writeQuorum > replicas.size()) {
+            throw new IllegalArgumentException("Invalid write quorum: " + writeQuorum + " (must be between 1 and "
+                    + replicas.size() + ").");
+        }
+        this.writeQuorum = writeQuorum;
+    }
+
+    /**
+     * Set the delay before asking another replica to serve a read. A shorter delay trims tail latency at the cost of
+     * more duplicate reads.
+     *
+     * @param hedgeDelay Hedge delay.
+     * @throws IllegalArgumentException If <i>hedgeDelay</i> is {@code null} or negative.
+     */
+    public void setHedgeDelay(Duration hedgeDelay) throws IllegalArgumentException {
+        Assert.notNull(hedgeDelay, "Hedge delay cannot be null.");
+        if (hedgeDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid hedge delay: " + hedgeDelay + " (must not be negative).");
+        }
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /**
+     * Set the delay before repairing a diverged path, and between repair attempts of a path that could not be repaired.
+     *
+     * @param repairDelay Repair delay.
+     * @throws IllegalArgumentException If <i>repairDelay</i> is {@code null} or negative.
+     */
+    public void setRepairDelay(Duration repairDelay) throws IllegalArgumentException {
+        Assert.notNull(repairDelay, "Repair delay cannot be null.");
+        if (repairDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid repair delay: " + repairDelay + " (must not be negative).");
+        }
+        this.repairDelay = repairDelay;
+    }
+
+    /**
+     * @return Number of reads served after asking more than one replica.
+     */
+    public long getHedgedReads() {
+        return hedgedReads.sum();
+    }
+
+    /**
+     * @return Number of files copied or deleted by repair, either in the background or by
+     * {@link #repair(Credentials, String)}.
+     */
+    public long getRepairs() {
+        return repairs.sum();
+    }
+
+    /**
+     * @return Number of diverged paths waiting to be repaired in the background.
+     */
+    public int getPendingRepairs() {
+        return pendingRepairs.size();
+    }
+
+    /**
+     * Write to the primary replica alone, in order with other operations of the same path.
+     */
+    private FileEntity writePrimary(C credentials, String path,
+                                    Function<StorageServiceProvider<C>, FileEntity> operation) {
+        return replicate(credentials, replicas.subList(0, 1), 1, replica -> operation.apply(replica.provider),
+                () -> {
+                }, path).get(0);
+    }
+
+    /**
+     * Replicate a write to all replicas. When <i>primary</i> is provided, the file was already written to the primary
+     * replica, so it counts towards the quorum.
+     */
+    private FileEntity replicateWrite(C credentials, String path, FileEntity primary,
+                                      Function<StorageServiceProvider<C>, FileEntity> operation, Runnable cleanup) {
+        if (primary == null) {
+            return replicate(credentials, replicas, writeQuorum, replica -> operation.apply(replica.provider),
+                    cleanup, path).get(0);
+        }
+
+        replicate(credentials, replicas.subList(1, replicas.size()), writeQuorum - 1,
+                replica -> operation.apply(replica.provider), cleanup, path);
+        return primary;
+    }
+
+    /**
+     * Apply an operation to the given replicas in parallel and wait for a quorum of them to succeed. On each replica,
+     * the operation starts once operations of the same <i>paths</i> issued earlier completed. Once all replicas
+     * completed, <i>cleanup</i> is executed and, if some replicas failed, <i>paths</i> are scheduled for repair.
+     *
+     * @return Results of the replicas that succeeded before the quorum was reached.
+     * @throws QuorumException If some replicas succeeded, but not enough to reach the quorum. If none succeeded, the
+     *                         failure of the first replica is thrown as-is.
+     */
+    private <T> List<T> replicate(C credentials, List<Replica> targets, int required, Function<Replica, T> operation,
+                                  Runnable cleanup, String... paths) throws QuorumException {
+        Quorum<T> quorum = new Quorum<>(required, targets.size());
+        if (targets.isEmpty()) {
+            cleanup.run();
+            return quorum.await();
+        }
+
+        AtomicInteger remaining = new AtomicInteger(targets.size());
+        for (Replica replica : targets) {
+            Runnable task = () -> {
+                try {
+                    quorum.succeeded(operation.apply(replica));
+                } catch (RuntimeException ex) {
+                    logger.debug("Operation failed on replica #{}.", replica.index, ex);
+                    quorum.failed(ex);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        cleanup.run();
+                        if (quorum.isDiverged()) {
+                            for (String path : paths) {
+                                scheduleRepair(credentials, path, repairDelay);
+                            }
+                        }
+                    }
+                }
+            };
+
+            submit(credentials, replica, paths, TraceContext.wrap(task), ex -> {
+                // Provider is shut down -- the operation fails on this replica.
+                quorum.failed(new StorageException("Replicated provider is shut down.", ex));
+                if (remaining.decrementAndGet() == 0) {
+                    cleanup.run();
+                }
+            });
+        }
+
+        return quorum.await();
+    }
+
+    /**
+     * Execute a replica operation once operations of the same paths, submitted earlier to the same replica, completed.
+     *
+     * @param rejected Invoked instead of <i>task</i> if the executor is shut down.
+     */
+    private void submit(C credentials, Replica replica, String[] paths, Runnable task,
+                        Consumer<RejectedExecutionException> rejected) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        List<List<Object>> keys = new ArrayList<>(paths.length);
+        List<CompletableFuture<Void>> predecessors = new ArrayList<>(paths.length);
+        synchronized (replica.tails) {
+            for (String path : paths) {
+                List<Object> key = List.of(credentials, path);
+                CompletableFuture<Void> tail = replica.tails.put(key, done);
+                if (tail != null && tail != done) {
+                    predecessors.add(tail);
+                }
+                keys.add(key);
+            }
+        }
+
+        Runnable release = () -> {
+            synchronized (replica.tails) {
+                keys.forEach(key -> replica.tails.remove(key, done));
+            }
+            done.complete(null);
+        };
+
+        CompletableFuture.allOf(predecessors.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, failure) -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        release.run();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                try {
+                    rejected.accept(ex);
+                } finally {
+                    release.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Ask replicas to serve a read, fastest first, hedging slow or failed replicas with the next one.
+     */
+    private <T> T race(ReplicaCall<C, T> call) throws StorageException {
+        return new Race<>(call).run();
+    }
+
+    /**
+     * Schedule a path for repair, unless it is already scheduled.
+     */
+    private void scheduleRepair(C credentials, String path, Duration delay) {
+        List<Object> key = List.of(credentials, path);
+        if (!pendingRepairs.add(key)) {
+            return;
+        }
+
+        try {
+            repairer.schedule(() -> {
+                // Removed first, so a divergence occurring during repair schedules another one.
+                pendingRepairs.remove(key);
+                try {
+                    repair(credentials, path);
+                } catch (RuntimeException ex) {
+                    logger.warn("Could not repair replicas of {}, will retry.", path, ex);
+                    scheduleRepair(credentials, path, repairDelay);
+                }
+            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            pendingRepairs.remove(key);
+            logger.warn("Replicated provider is shut down, replicas of {} remain diverged.", path);
+        }
+    }
+
+    /**
+     * Read metadata of a file from all replicas.
+     *
+     * @return Metadata per replica index; {@code null} where the file is missing (or is not a file).
+     */
+    private FileEntity[] fileVersions(C credentials, String path) {
+        FileEntity[] versions = new FileEntity[replicas.size()];
+        for (Replica replica : replicas) {
+            try {
+                versions[replica.index] = replica.provider.readFileMeta(credentials, path);
+            } catch (EntityNotFoundException | InvalidEntityPathException ex) {
+                // Missing from this replica.
+            }
+        }
+
+        return versions;
+    }
+
+    /**
+     * Reconcile replicas of a single file.
+     *
+     * @param versions Metadata of the file per replica index, {@code null} where missing.
+     * @return Number of replicas copied to or deleted from.
+     */
+    private int reconcile(C credentials, String path, FileEntity[] versions) {
+        List<Replica> holders = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (versions[replica.index] != null) {
+                holders.add(replica);
+            }
+        }
+
+        int fixes = 0;
+        if (holders.size() * 2 < replicas.size()) {
+            // A minority holds the file -- a delete (or a write) that did not reach all replicas.
+            for (Replica holder : holders) {
+                try {
+                    holder.provider.delete(credentials, path);
+                } catch (EntityNotFoundException ex) {
+                    // Deleted meanwhile.
+                }
+                logger.info("Repair: deleted {} from replica #{}.", path, holder.index);
+                fixes++;
+            }
+            repairs.add(fixes);
+            return fixes;
+        }
+
+        boolean hashed = holders.stream()
+                .allMatch(holder -> versions[holder.index].getHash(HashAlgorithm.CONTENT_HASH) != null);
+        Map<String, List<Replica>> groups = new LinkedHashMap<>();
+        for (Replica holder : holders) {
+            groups.computeIfAbsent(versionOf(versions[holder.index], hashed), key -> new ArrayList<>()).add(holder);
+        }
+
+        Comparator<List<Replica>> byAuthority = Comparator.<List<Replica>>comparingInt(List::size)
+                .thenComparing(group -> modificationDateOf(versions[group.get(0).index]));
+        List<Replica> authoritative = Collections.max(groups.values(), byAuthority);
+        Replica source = authoritative.get(0);
+
+        for (Replica replica : replicas) {
+            if (!authoritative.contains(replica)) {
+                copyFile(credentials, path, source, replica);
+                logger.info("Repair: copied {} from replica #{} to replica #{}.", path, source.index, replica.index);
+                fixes++;
+            }
+        }
+
+        repairs.add(fixes);
+        return fixes;
+    }
+
+    /**
+     * Stream a file from one replica to another.
+     */
+    private void copyFile(C credentials, String path, Replica source, Replica target) {
+        StreamPipe.transfer(
+                out -> source.provider.readFile(credentials, path, out),
+                in -> target.provider.writeFile(credentials, path, in),
+                StreamPipe.DEFAULT_BUFFER_SIZE,
+                executor);
+    }
+
+    /**
+     * @return Replicas ordered by observed latency, fastest first. Replicas not measured yet keep configuration order.
+     */
+    private List<Replica> replicasByLatency() {
+        List<Replica> ordered = new ArrayList<>(replicas);
+        ordered.sort(Comparator.comparingDouble(replica -> replica.latency));
+        return ordered;
+    }
+
+    private String normalize(C credentials, String path) {
+        validateCredentials(credentials);
+        validatePath(path);
+        return EntityPath.parse(path).toString();
+    }
+
+    /**
+     * Write spooled contents, closing the stream opened from the spool.
+     */
+    private static FileEntity write(Spool spool, Function<InputStream, FileEntity> writer) {
+        try (InputStream in = spool.open()) {
+            return writer.apply(in);
+        } catch (IOException ex) {
+            throw new StorageException("Could not close spooled contents.", ex);
+        }
+    }
+
+    /**
+     * @return Key identifying a file version, for comparison across replicas.
+     */
+    private static String versionOf(FileEntity file, boolean hashed) {
+        return hashed ? file.size + ":" + file.getHash(HashAlgorithm.CONTENT_HASH) : Long.toString(file.size);
+    }
+
+    private static Instant modificationDateOf(FileEntity file) {
+        return file.modificationDate != null ? file.modificationDate : Instant.MIN;
+    }
+
+    private static <C extends Credentials> StorageServiceProvider<C> requirePrimary(
+            List<StorageServiceProvider<C>> replicas) {
+        Assert.notNull(replicas, "Replicas cannot be null.");
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Replicas cannot be empty.");
+        }
+        Assert.notNull(replicas.get(0), "Replica provider cannot be null.");
+        return replicas.get(0);
+    }
+
+    /**
+     * A read operation performed by a single replica.
+     */
+    @FunctionalInterface
+    private interface ReplicaCall<C extends Credentials, T> {
+
+        /**
+         * @param provider Provider of the replica to read from.
+         * @param claim    Claims the read for this replica. Returns {@code false} if another replica already claimed it,
+         *                 in which case the replica must not write to the caller's stream.
+         * @return Read result.
+         */
+        T call(StorageServiceProvider<C> provider, BooleanSupplier claim);
+    }
+
+    /**
+     * A backing provider and its observed read latency.
+     */
+    private final class Replica {
+
+        final StorageServiceProvider<C> provider;
+
+        /**
+         * Position in configuration order.
+         */
+        final int index;
+
+        /**
+         * Moving average of time to first answer, in nanoseconds. Zero until measured.
+         */
+        volatile double latency;
+
+        /**
+         * Completion of the last operation submitted per (credentials, path), guarded by itself.
+         */
+        final Map<List<Object>, CompletableFuture<Void>> tails = new HashMap<>();
+
+        Replica(StorageServiceProvider<C> provider, int index) {
+            this.provider = provider;
+            this.index = index;
+        }
+
+        void recordLatency(long nanos) {
+            double current = latency;
+            latency = current == 0 ? nanos : current + LATENCY_WEIGHT * (nanos - current);
+        }
+    }
+
+    /**
+     * Collects results of an operation applied to several replicas, until a quorum succeeded or too many failed.
+     */
+    private static final class Quorum<T> {
+
+        private final int required;
+        private final int total;
+        private final List<T> results = new ArrayList<>();
+        private final List<RuntimeException> failures = new ArrayList<>();
+
+        Quorum(int required, int total) {
+            this.required = required;
+            this.total = total;
+        }
+
+        synchronized void succeeded(T result) {
+            results.add(result);
+            notifyAll();
+        }
+
+        synchronized void failed(RuntimeException failure) {
+            failures.add(failure);
+            notifyAll();
+        }
+
+        /**
+         * @return {@code true} if the operation succeeded on some replicas but failed on others.
+         */
+        synchronized boolean isDiverged() {
+            return !results.isEmpty() && !failures.isEmpty();
+        }
+
+        synchronized List<T> await() throws StorageException {
+            try {
+                while (results.size() < required && results.size() + failures.size() < total) {
+                    wait();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted while waiting for replicas.", ex);
+            }
+
+            if (results.size() >= required) {
+                return new ArrayList<>(results);
+            }
+
+            RuntimeException first = failures.get(0);
+            if (results.isEmpty()) {
+                failures.stream().skip(1).forEach(first::addSuppressed);
+                throw first;
+            }
+
+            QuorumException ex = new QuorumException("Operation succeeded on " + results.size() + " replicas, "
+                    + required + " required.", first);
+            failures.stream().skip(1).forEach(ex::addSuppressed);
+            throw ex;
+        }
+    }
+
+    /**
+     * A hedged read: replicas are asked one after the other, fastest first, until one of them answers. The first to
+     * claim the read wins; the others are cancelled.
+     */
+    private final class Race<T> {
+
+        private final ReplicaCall<C, T> call;
+        private final List<Replica> order = replicasByLatency();
+        private final List<Future<?>> attempts = new ArrayList<>();
+        private final long[] started = new long[replicas.size()];
+        private final List<RuntimeException> failures = new ArrayList<>();
+
+        /**
+         * Index (in {@link #order}) of the replica that claimed the read, or -1.
+         */
+        private int winner = -1;
+
+        /**
+         * Set when the caller stopped waiting, so late replicas do not claim the read.
+         */
+        private boolean abandoned;
+
+        /**
+         * Set once the winner completed.
+         */
+        private boolean finished;
+
+        private T result;
+        private RuntimeException winnerFailure;
+
+        Race(ReplicaCall<C, T> call) {
+            this.call = call;
+        }
+
+        synchronized T run() throws StorageException {
+            long hedgeNanos = hedgeDelay.toNanos();
+            long nextHedge = launch(hedgeNanos);
+            boolean cancelled = false;
+            try {
+                while (!finished) {
+                    if (winner >= 0) {
+                        if (!cancelled) {
+                            cancelLosers();
+                            cancelled = true;
+                        } else {
+                            wait();
+                        }
+                    } else if (failures.size() == attempts.size()) {
+                        if (attempts.size() == order.size()) {
+                            RuntimeException first = failures.get(0);
+                            failures.stream().skip(1).forEach(first::addSuppressed);
+                            throw first;
+                        }
+
+                        // Fail over to the next replica without waiting.
+                        nextHedge = launch(hedgeNanos);
+                    } else if (attempts.size() < order.size()) {
+                        long remaining = nextHedge - System.nanoTime();
+                        if (remaining > 0) {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        } else {
+                            hedgedReads.increment();
+                            nextHedge = launch(hedgeNanos);
+                        }
+                    } else {
+                        wait();
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                abandoned = true;
+                attempts.forEach(attempt -> attempt.cancel(true));
+                throw new StorageException("Interrupted while waiting for replicas.", ex);
+            }
+
+            if (!cancelled) {
+                cancelLosers();
+            }
+            if (winnerFailure != null) {
+                throw winnerFailure;
+            }
+
+            return result;
+        }
+
+        private long launch(long hedgeNanos) {
+            int index = attempts.size();
+            started[index] = System.nanoTime();
+            attempts.add(executor.submit(TraceContext.wrap(() -> attempt(index))));
+            return started[index] + hedgeNanos;
+        }
+
+        private void attempt(int index) {
+            Replica replica = order.get(index);
+            try {
+                T value = call.call(replica.provider, () -> claim(index));
+                synchronized (this) {
+                    if (claim(index)) {
+                        result = value;
+                        finished = true;
+                        notifyAll();
+                    }
+                }
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    if (winner == index) {
+                        winnerFailure = ex;
+                        finished = true;
+                    } else if (winner < 0) {
+                        if (!(ex instanceof EntityNotFoundException)) {
+                            // Penalize a failing replica, so it is not asked first while it keeps failing.
+                            replica.recordLatency(System.nanoTime() - started[index] + 2 * hedgeDelay.toNanos());
+                        }
+                        failures.add(ex);
+                    }
+                    notifyAll();
+                }
+            }
+        }
+
+        private synchronized boolean claim(int index) {
+            if (winner < 0 && !abandoned) {
+                winner = index;
+                order.get(index).recordLatency(System.nanoTime() - started[index]);
+                notifyAll();
+            }
+
+            return winner == index;
+        }
+
+        private void cancelLosers() {
+            for (int i = 0; i < attempts.size(); i++) {
+                if (i != winner) {
+                    attempts.get(i).cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Output stream that claims a read on its first byte, and rejects writes once another replica claimed it. Not
+     * closed, since the underlying stream belongs to the caller.
+     */
+    private static final class ClaimingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final BooleanSupplier claim;
+        private boolean claimed;
+
+        ClaimingOutputStream(OutputStream out, BooleanSupplier claim) {
+            this.out = out;
+            this.claim = claim;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureClaimed();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+
+            ensureClaimed();
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (claimed) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() {
+            // Caller's stream is left open.
+        }
+
+        private void ensureClaimed() throws IOException {
+            if (!claimed) {
+                if (!claim.getAsBoolean()) {
+                    throw new IOException("Read was served by a faster replica.");
+                }
+                claimed = true;
+            }
+        }
+    }
+}
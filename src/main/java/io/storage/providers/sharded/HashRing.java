@@ -0,0 +1,105 @@
+package io.storage.providers.sharded;
+
+import io.storage.StorageException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An immutable consistent hash ring. Each node is placed at {@value #VIRTUAL_NODES} pseudo-random positions on the
+ * ring, derived from its id only, so adding a node moves only the keys the new node takes over -- roughly
+ * {@code 1 / (nodes + 1)} of all keys -- and leaves all other keys in place.
+ *
+ * @param <T> Generic type of ring nodes.
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class HashRing<T> {
+
+    /**
+     * Number of positions per node. More positions spread keys more evenly across nodes.
+     */
+    static final int VIRTUAL_NODES = 128;
+
+    /**
+     * Nodes, keyed by id.
+     */
+    private final Map<String, T> nodes;
+
+    /**
+     * Ring positions.
+     */
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+
+    /**
+     * Class constructor.
+     *
+     * @param nodes Nodes, keyed by id. Must not be empty.
+     */
+    HashRing(Map<String, T> nodes) {
+        this.nodes = Collections.unmodifiableMap(nodes);
+        for (Map.Entry<String, T> node : nodes.entrySet()) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(node.getKey() + "#" + i), node.getValue());
+            }
+        }
+    }
+
+    /**
+     * @param key Key to look up.
+     * @return Node owning <i>key</i> -- the first node clockwise from the key's position.
+     */
+    T ownerOf(String key) {
+        Map.Entry<Long, T> owner = ring.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return Nodes of this ring.
+     */
+    Collection<T> nodes() {
+        return nodes.values();
+    }
+
+    /**
+     * @param id Node id.
+     * @return {@code true} if this ring contains a node with the given id.
+     */
+    boolean contains(String id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * @return Ring with an additional node.
+     */
+    HashRing<T> with(String id, T node) {
+        Map<String, T> extended = new TreeMap<>(nodes);
+        extended.put(id, node);
+        return new HashRing<>(extended);
+    }
+
+    /**
+     * @return First 64 bits of the MD5 digest of <i>key</i>. MD5 is used for its uniform distribution, not for
+     * security.
+     */
+    private static long hash(String key) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new StorageException("MD5 is not supported by this platform.", ex);
+        }
+
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
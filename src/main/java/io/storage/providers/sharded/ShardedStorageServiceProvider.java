@@ -0,0 +1,871 @@
+package io.storage.providers.sharded;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.tracing.TraceContext;
+import io.storage.utils.Assert;
+import io.storage.utils.Locks;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A storage service provider spreading files across a pool of backing providers (shards), e.g.: several Dropbox
+ * accounts, so aggregate throughput is not capped by the rate limit of a single account.<p>
+ * Each path is mapped to a shard by consistent hashing, either of the full path ({@link ShardingMode#PATH}) or of its
+ * top-level folder ({@link ShardingMode#TOP_LEVEL_FOLDER}). The former spreads load evenly, but folders span all
+ * shards, so listing a folder queries all shards (in parallel) and merges their results. The latter keeps each
+ * top-level folder on a single shard, so listings, copies and moves within a top-level folder are served by one shard.
+ * <p>
+ * Shards can be {@link #addShard(String, StorageServiceProvider) added} at any time. Consistent hashing moves only the
+ * files the new shard takes over; they are {@link #rebalance(Credentials) rebalanced} file by file, while reads keep
+ * finding files not moved yet at their previous shard. Writes always go to the current owner.<p>
+ * Previous owners are known only for shards added since this provider was created. A file missed by all of them
+ * (e.g.: shards were added before a restart, and the file was not rebalanced since) is looked up on all other shards,
+ * in parallel. Deletes are applied to all shards, so a copy left behind by an earlier placement is not found later.
+ * Listings of a top-level folder ({@link ShardingMode#TOP_LEVEL_FOLDER}) include only its known owners, until it is
+ * rebalanced.<p>
+ * Shards may require different credentials (e.g.: a token per account); these are resolved per shard from the
+ * caller's credentials by a {@link ShardCredentialsResolver}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ShardedStorageServiceProvider<C extends Credentials> extends AbstractStorageServiceProvider<C> {
+
+    /**
+     * Number of path lock stripes.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ShardedStorageServiceProvider.class);
+
+    /**
+     * How paths are mapped to shards.
+     */
+    private final ShardingMode mode;
+
+    /**
+     * Current shard ring.
+     */
+    private volatile HashRing<Shard> ring;
+
+    /**
+     * Rings replaced by {@link #addShard(String, StorageServiceProvider)}, newest first, whose files may not have been
+     * rebalanced yet.
+     */
+    private final List<HashRing<Shard>> previousRings = new CopyOnWriteArrayList<>();
+
+    /**
+     * Serialize writes and rebalancing of a path, so a rebalanced file never overwrites a newer write.
+     */
+    private final Object[] locks = Locks.newMonitors(LOCK_STRIPES);
+
+    /**
+     * Executes operations fanned out to several shards.
+     */
+    private final ExecutorService executor =
+            Executors.newCachedThreadPool(StreamPipe.daemonThreadFactory("storage-shard-"));
+
+    /**
+     * Resolves the credentials of each shard.
+     */
+    private volatile ShardCredentialsResolver<C> credentialsResolver = (credentials, shardId) -> credentials;
+
+    /**
+     * Class constructor.
+     *
+     * @param shards Backing providers, keyed by shard id. A shard's id determines the paths it owns, so it must remain
+     *               stable across restarts.
+     * @param mode   How paths are mapped to shards.
+     * @throws IllegalArgumentException If either arguments are {@code null}, or <i>shards</i> is empty or contains
+     *                                  {@code null} values.
+     */
+    public ShardedStorageServiceProvider(Map<String, StorageServiceProvider<C>> shards, ShardingMode mode)
+            throws IllegalArgumentException {
+        super(requireShards(shards).values().iterator().next().credentialsTypes());
+        Assert.notNull(mode, "Sharding mode cannot be null.");
+
+        Map<String, Shard> nodes = new LinkedHashMap<>();
+        for (Map.Entry<String, StorageServiceProvider<C>> shard : shards.entrySet()) {
+            Assert.notNull(shard.getKey(), "Shard id cannot be null.");
+            Assert.notNull(shard.getValue(), "Shard provider cannot be null.");
+            nodes.put(shard.getKey(), new Shard(shard.getKey(), shard.getValue()));
+        }
+        this.ring = new HashRing<>(nodes);
+        this.mode = mode;
+    }
+
+    /**
+     * Folders spanning several shards are listed by all of them in parallel, and their contents merged.
+     */
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        List<Shard> shards = shardsOf(location);
+        List<FolderEntity> listings = fanOut(shards, shard -> {
+            try {
+                return shard.provider.listFolderContents(shard.credentials(credentials), location.toString());
+            } catch (EntityNotFoundException ex) {
+                // Folder has no files on this shard.
+                return null;
+            }
+        });
+
+        return merge(location, shards, listings);
+    }
+
+    /**
+     * Folders owned by a single shard are listed lazily by that shard. Other folders are listed by all shards and
+     * merged.
+     */
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        List<Shard> shards = shardsOf(location);
+        if (shards.size() > 1) {
+            return FolderListing.of(listFolderContents(credentials, location.toString()));
+        }
+
+        Shard shard = shards.get(0);
+        return shard.provider.listFolder(shard.credentials(credentials), location.toString());
+    }
+
+    /**
+     * Searches under a folder owned by a single shard are served by that shard. Other searches list folders of all
+     * shards, as merged.
+     */
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, root));
+        List<Shard> shards = shardsOf(location);
+        if (shards.size() > 1) {
+            return super.find(credentials, location.toString(), glob, filter);
+        }
+
+        Shard shard = shards.get(0);
+        return shard.provider.find(shard.credentials(credentials), location.toString(), glob, filter);
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        for (Shard owner : ownersOf(location)) {
+            if (owner.provider.exists(owner.credentials(credentials), location.toString())) {
+                return true;
+            }
+        }
+
+        // A folder may span other shards, and a file may be held by a shard of an unknown previous ring.
+        List<Shard> others = othersOf(location);
+        return !others.isEmpty()
+                && fanOut(others, shard -> shard.provider.exists(shard.credentials(credentials), location.toString()))
+                .contains(true);
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return fromOwners(credentials, location,
+                shard -> shard.provider.readFileMeta(shard.credentials(credentials), location.toString()));
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        fromOwners(credentials, location, shard -> {
+            shard.provider.readFile(shard.credentials(credentials), location.toString(), out);
+            return null;
+        });
+    }
+
+    @Override
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        fromOwners(credentials, location, shard -> {
+            shard.provider.readFile(shard.credentials(credentials), location.toString(), offset, length, out);
+            return null;
+        });
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(in, "Input stream is null.");
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return write(credentials, location, false,
+                shard -> shard.provider.writeFile(shard.credentials(credentials), location.toString(), in));
+    }
+
+    /**
+     * A file not rebalanced yet is moved to its current shard first, so the <i>revision</i> is verified by it.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(in, "Input stream is null.");
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return write(credentials, location, revision != null, shard -> revision != null
+                ? shard.provider.writeFile(shard.credentials(credentials), location.toString(), in, revision)
+                : shard.provider.writeFile(shard.credentials(credentials), location.toString(), in));
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return write(credentials, location, false,
+                shard -> shard.provider.writeFile(shard.credentials(credentials), location.toString(), data));
+    }
+
+    /**
+     * A file not rebalanced yet is moved to its current shard first, so the <i>revision</i> is verified by it.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return write(credentials, location, revision != null, shard -> revision != null
+                ? shard.provider.writeFile(shard.credentials(credentials), location.toString(), data, revision)
+                : shard.provider.writeFile(shard.credentials(credentials), location.toString(), data));
+    }
+
+    /**
+     * Entities are deleted from all shards in parallel, since shards other than the owners may hold copies placed by an
+     * unknown previous ring.
+     */
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        synchronized (lockFor(location.toString())) {
+            if (!deleteFrom(credentials, location, new ArrayList<>(ring.nodes()))) {
+                throw new EntityNotFoundException("Unknown entity path: " + path);
+            }
+        }
+    }
+
+    /**
+     * Copies within a single shard are performed by that shard. Otherwise files are streamed from the source shard to
+     * the target shard, one by one.
+     */
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return transfer(credentials, from, to, false);
+    }
+
+    /**
+     * Moves within a single shard are performed by that shard. Otherwise files are streamed from the source shard to
+     * the target shard and deleted from the source, one by one.
+     */
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        return transfer(credentials, from, to, true);
+    }
+
+    /**
+     * Add a shard. Subsequent writes of paths the new shard owns go to it; files it owns that are still held by other
+     * shards are served from there until they are {@link #rebalance(Credentials) rebalanced}.
+     *
+     * @param id       Shard id. Must remain stable across restarts.
+     * @param provider Backing provider.
+     * @throws IllegalArgumentException If either arguments are {@code null}, or a shard with the same id exists.
+     */
+    public synchronized void addShard(String id, StorageServiceProvider<C> provider) throws IllegalArgumentException {
+        Assert.notNull(id, "Shard id cannot be null.");
+        Assert.notNull(provider, "Shard provider cannot be null.");
+        if (ring.contains(id)) {
+            throw new IllegalArgumentException("Shard already exists: " + id);
+        }
+
+        previousRings.add(0, ring);
+        ring = ring.with(id, new Shard(id, provider));
+        logger.info("Added shard {}, {} shards in total.", id, ring.nodes().size());
+    }
+
+    /**
+     * Move the files of a tenant that are held by a shard other than their owner, on the calling thread. Files are
+     * moved one by one, so the tenant's files remain readable (and writable) throughout. Folders left empty are not
+     * deleted.
+     *
+     * @param credentials Credentials of the tenant to rebalance.
+     * @return Number of files moved.
+     * @throws IllegalArgumentException If <i>credentials</i> is {@code null}.
+     * @throws CredentialsException     If provided credentials are not supported by the shards or it has expired.
+     * @throws StorageException         If any file could not be moved. Other files are still moved; a failed file remains
+     *                                  at its previous shard until rebalanced again.
+     */
+    public int rebalance(C credentials) throws IllegalArgumentException, CredentialsException, StorageException {
+        validateCredentials(credentials);
+
+        HashRing<Shard> current = ring;
+        int moved = 0;
+        StorageException failure = null;
+        for (Shard shard : current.nodes()) {
+            Deque<EntityPath> folders = new ArrayDeque<>();
+            folders.push(EntityPath.ROOT);
+            while (!folders.isEmpty()) {
+                EntityPath folder = folders.pop();
+                List<EntityPath> misplaced = new ArrayList<>();
+                try {
+                    for (BaseEntity entity : shard.provider.listFolder(shard.credentials(credentials), folder.toString())) {
+                        if (entity instanceof FolderEntity) {
+                            folders.push(entity.location);
+                        } else if (entity instanceof FileEntity && current.ownerOf(keyOf(entity.location)) != shard) {
+                            misplaced.add(entity.location);
+                        }
+                    }
+                } catch (EntityNotFoundException ex) {
+                    // Tenant has no files on this shard.
+                    continue;
+                }
+
+                for (EntityPath file : misplaced) {
+                    try {
+                        synchronized (lockFor(file.toString())) {
+                            relocate(credentials, file, shard, current.ownerOf(keyOf(file)));
+                        }
+                        moved++;
+                    } catch (RuntimeException ex) {
+                        logger.warn("Could not rebalance {} from shard {}.", file, shard.id, ex);
+                        if (failure == null) {
+                            failure = new StorageException("Could not rebalance all files.", ex);
+                        } else {
+                            failure.addSuppressed(ex);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        logger.info("Rebalanced {} files.", moved);
+        return moved;
+    }
+
+    /**
+     * Stop looking up files at their previous shards first. Should be called once all tenants were
+     * {@link #rebalance(Credentials) rebalanced}; files of tenants that were not are then found only by looking them up
+     * on all shards.
+     */
+    public void finishRebalancing() {
+        previousRings.clear();
+    }
+
+    /**
+     * Stop background operations.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Set the resolver of each shard's credentials. Defaults to passing the caller's credentials to all shards.
+     *
+     * @param credentialsResolver Credentials resolver.
+     * @throws IllegalArgumentException If <i>credentialsResolver</i> is {@code null}.
+     */
+    public void setCredentialsResolver(ShardCredentialsResolver<C> credentialsResolver)
+            throws IllegalArgumentException {
+        Assert.notNull(credentialsResolver, "Credentials resolver cannot be null.");
+        this.credentialsResolver = credentialsResolver;
+    }
+
+    /**
+     * Write a file to its owner, and delete copies left at previous owners.
+     *
+     * @param relocate {@code true} to move the file to its owner before it is written.
+     */
+    private FileEntity write(C credentials, EntityPath location, boolean relocate, Function<Shard, FileEntity> writer) {
+        String key = keyOf(location);
+        synchronized (lockFor(location.toString())) {
+            Shard owner = ring.ownerOf(key);
+            if (relocate) {
+                Shard holder = findHolder(credentials, location);
+                if (holder != null && holder != owner) {
+                    relocate(credentials, location, holder, owner);
+                }
+            }
+
+            FileEntity file = writer.apply(owner);
+            for (Shard previous : ownersOf(location)) {
+                if (previous != owner) {
+                    deleteQuietly(credentials, location, previous);
+                }
+            }
+            return file;
+        }
+    }
+
+    /**
+     * Copy or move a file or folder.
+     */
+    private BaseEntity transfer(C credentials, String from, String to, boolean move) {
+        EntityPath source = EntityPath.parse(normalize(credentials, from));
+        EntityPath target = EntityPath.parse(normalize(credentials, to));
+
+        FileEntity file;
+        try {
+            file = readFileMeta(credentials, source.toString());
+        } catch (EntityNotFoundException | InvalidEntityPathException ex) {
+            // Not a file -- either a folder or nothing at all.
+            file = null;
+        }
+
+        if (file != null) {
+            return transferFile(credentials, source, target, move);
+        }
+
+        if (!exists(credentials, source.toString())) {
+            throw new EntityNotFoundException("Unknown entity path: " + from);
+        }
+
+        List<Shard> sources = shardsOf(source);
+        if (sources.size() == 1 && shardsOf(target).equals(sources)) {
+            // The entire folder is held by a single shard, which also owns the target.
+            Shard shard = sources.get(0);
+            return move
+                    ? shard.provider.move(shard.credentials(credentials), source.toString(), target.toString())
+                    : shard.provider.copy(shard.credentials(credentials), source.toString(), target.toString());
+        }
+
+        transferFolder(credentials, source, target, move);
+        if (move) {
+            deleteFrom(credentials, source, shardsOf(source));
+        }
+
+        FolderEntity folder = new FolderEntity();
+        folder.location = target;
+        return folder;
+    }
+
+    /**
+     * Copy or move a folder, file by file. Each folder is listed in full before its files are transferred, so a
+     * listing is never paged while files are moved out of it.
+     */
+    private void transferFolder(C credentials, EntityPath source, EntityPath target, boolean move) {
+        FolderEntity folder = listFolderContents(credentials, source.toString());
+        for (FileEntity file : folder.files) {
+            transferFile(credentials, file.location, target.resolve(file.getName()), move);
+        }
+        for (FolderEntity subFolder : folder.folders) {
+            transferFolder(credentials, subFolder.location, target.resolve(subFolder.getName()), move);
+        }
+    }
+
+    /**
+     * Copy or move a single file, within its shard when source and target have the same owner. Both paths are locked,
+     * so neither is rebalanced nor written meanwhile.
+     */
+    private FileEntity transferFile(C credentials, EntityPath source, EntityPath target, boolean move) {
+        int first = stripeOf(source.toString());
+        int second = stripeOf(target.toString());
+        synchronized (locks[Math.min(first, second)]) {
+            synchronized (locks[Math.max(first, second)]) {
+                return transferLockedFile(credentials, source, target, move);
+            }
+        }
+    }
+
+    /**
+     * Copy or move a single file. Caller must hold the locks of both paths.
+     */
+    private FileEntity transferLockedFile(C credentials, EntityPath source, EntityPath target, boolean move) {
+        Shard holder = holderOf(credentials, source);
+        Shard owner = ring.ownerOf(keyOf(target));
+        FileEntity file;
+        if (holder == owner) {
+            String from = source.toString();
+            String to = target.toString();
+            BaseEntity result = move
+                    ? owner.provider.move(owner.credentials(credentials), from, to)
+                    : owner.provider.copy(owner.credentials(credentials), from, to);
+            file = (FileEntity) result;
+        } else {
+            file = stream(credentials, source, holder, target, owner);
+            if (move) {
+                holder.provider.delete(holder.credentials(credentials), source.toString());
+            }
+        }
+
+        for (Shard previous : ownersOf(target)) {
+            if (previous != owner) {
+                deleteQuietly(credentials, target, previous);
+            }
+        }
+        if (move) {
+            // Stale copies of the source at its other owners would otherwise be found by later reads.
+            for (Shard previous : ownersOf(source)) {
+                if (previous != holder) {
+                    deleteQuietly(credentials, source, previous);
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Move a file from the shard holding it to its owner, unless the owner already holds a (newer) copy. Caller must
+     * hold the path's lock.
+     */
+    private void relocate(C credentials, EntityPath file, Shard holder, Shard owner) {
+        if (!isFile(credentials, file, owner)) {
+            stream(credentials, file, holder, file, owner);
+        }
+        deleteQuietly(credentials, file, holder);
+    }
+
+    /**
+     * Stream a file from one shard to another.
+     */
+    private FileEntity stream(C credentials, EntityPath source, Shard from, EntityPath target, Shard to) {
+        return StreamPipe.transfer(
+                out -> from.provider.readFile(from.credentials(credentials), source.toString(), out),
+                in -> to.provider.writeFile(to.credentials(credentials), target.toString(), in),
+                StreamPipe.DEFAULT_BUFFER_SIZE,
+                executor);
+    }
+
+    /**
+     * Read from the owners of a path, current owner first, until one of them holds it. If none does, the read is
+     * served by another shard holding the file, if any.
+     */
+    private <T> T fromOwners(C credentials, EntityPath location, Function<Shard, T> operation) {
+        EntityNotFoundException notFound = null;
+        for (Shard owner : ownersOf(location)) {
+            try {
+                return operation.apply(owner);
+            } catch (EntityNotFoundException ex) {
+                notFound = ex;
+            }
+        }
+
+        Shard stray = strayHolderOf(credentials, location);
+        if (stray == null) {
+            throw notFound;
+        }
+        return operation.apply(stray);
+    }
+
+    /**
+     * @return Shard holding a file, current owner first.
+     * @throws EntityNotFoundException If no shard holds the file.
+     */
+    private Shard holderOf(C credentials, EntityPath file) throws EntityNotFoundException {
+        Shard holder = findHolder(credentials, file);
+        if (holder == null) {
+            throw new EntityNotFoundException("Unknown file: " + file);
+        }
+        return holder;
+    }
+
+    /**
+     * @return Shard holding a file, current owner first, or {@code null} if no shard holds it.
+     */
+    private Shard findHolder(C credentials, EntityPath file) {
+        for (Shard owner : ownersOf(file)) {
+            if (isFile(credentials, file, owner)) {
+                return owner;
+            }
+        }
+
+        return strayHolderOf(credentials, file);
+    }
+
+    /**
+     * Look up a file on all shards other than its known owners, in parallel.
+     *
+     * @return Shard holding the file, or {@code null} if none does.
+     */
+    private Shard strayHolderOf(C credentials, EntityPath file) {
+        List<Shard> others = othersOf(file);
+        if (others.isEmpty()) {
+            return null;
+        }
+
+        int index = fanOut(others, shard -> isFile(credentials, file, shard)).indexOf(true);
+        return index >= 0 ? others.get(index) : null;
+    }
+
+    private boolean isFile(C credentials, EntityPath file, Shard shard) {
+        try {
+            shard.provider.readFileMeta(shard.credentials(credentials), file.toString());
+            return true;
+        } catch (EntityNotFoundException | InvalidEntityPathException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Delete an entity from the given shards in parallel.
+     *
+     * @return {@code true} if any of the shards held it.
+     */
+    private boolean deleteFrom(C credentials, EntityPath location, List<Shard> shards) {
+        return fanOut(shards, shard -> deleteQuietly(credentials, location, shard)).contains(true);
+    }
+
+    private boolean deleteQuietly(C credentials, EntityPath location, Shard shard) {
+        try {
+            shard.provider.delete(shard.credentials(credentials), location.toString());
+            return true;
+        } catch (EntityNotFoundException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Apply an operation to several shards in parallel.
+     *
+     * @return Results, in the order of <i>shards</i>.
+     */
+    private <T> List<T> fanOut(List<Shard> shards, Function<Shard, T> operation) {
+        if (shards.size() == 1) {
+            return Collections.singletonList(operation.apply(shards.get(0)));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(TraceContext.wrapSupplier(() -> operation.apply(shard)), executor));
+        }
+
+        List<T> results = new ArrayList<>(shards.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new StorageException("Shard operation failed.", ex.getCause());
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Merge listings of a folder by several shards. Files held by more than one shard (i.e.: not rebalanced yet) are
+     * listed once, as reported by their current owner.
+     */
+    private FolderEntity merge(EntityPath location, List<Shard> shards, List<FolderEntity> listings) {
+        HashRing<Shard> current = ring;
+        Map<String, FileEntity> files = new LinkedHashMap<>();
+        Map<String, FolderEntity> folders = new LinkedHashMap<>();
+        FolderEntity merged = null;
+        for (int i = 0; i < listings.size(); i++) {
+            FolderEntity listing = listings.get(i);
+            if (listing == null) {
+                continue;
+            }
+
+            if (merged == null) {
+                merged = new FolderEntity();
+                merged.location = location;
+                merged.creationDate = listing.creationDate;
+            }
+
+            Shard shard = shards.get(i);
+            if (listing.files != null) {
+                for (FileEntity file : listing.files) {
+                    if (current.ownerOf(keyOf(file.location)) == shard) {
+                        files.put(file.getPath(), file);
+                    } else {
+                        files.putIfAbsent(file.getPath(), file);
+                    }
+                }
+            }
+            if (listing.folders != null) {
+                for (FolderEntity folder : listing.folders) {
+                    folders.putIfAbsent(folder.getPath(), folder);
+                }
+            }
+        }
+
+        if (merged == null) {
+            throw new EntityNotFoundException("Unknown folder: " + location);
+        }
+
+        merged.files = new ArrayList<>(files.values());
+        merged.folders = new ArrayList<>(folders.values());
+        return merged;
+    }
+
+    /**
+     * @return Shards that may hold entities under <i>location</i>: all shards, unless <i>location</i> is confined to a
+     * single top-level folder.
+     */
+    private List<Shard> shardsOf(EntityPath location) {
+        return mode == ShardingMode.TOP_LEVEL_FOLDER && !location.isRoot()
+                ? ownersOf(location)
+                : new ArrayList<>(ring.nodes());
+    }
+
+    /**
+     * @return Current owner of <i>location</i>, followed by its distinct owners in previous rings (if any).
+     */
+    private List<Shard> ownersOf(EntityPath location) {
+        String key = keyOf(location);
+        List<Shard> owners = new ArrayList<>(1 + previousRings.size());
+        owners.add(ring.ownerOf(key));
+        for (HashRing<Shard> previous : previousRings) {
+            Shard owner = previous.ownerOf(key);
+            if (!owners.contains(owner)) {
+                owners.add(owner);
+            }
+        }
+
+        return owners;
+    }
+
+    /**
+     * @return Shards other than the owners of <i>location</i>, in ring order.
+     */
+    private List<Shard> othersOf(EntityPath location) {
+        List<Shard> others = new ArrayList<>(ring.nodes());
+        others.removeAll(ownersOf(location));
+        return others;
+    }
+
+    /**
+     * @return Sharding key of a path -- either the path itself, or its top-level folder.
+     */
+    private String keyOf(EntityPath location) {
+        EntityPath key = location;
+        if (mode == ShardingMode.TOP_LEVEL_FOLDER) {
+            while (key.depth() > 1) {
+                key = key.parent();
+            }
+        }
+
+        return key.toString();
+    }
+
+    private String normalize(C credentials, String path) {
+        validateCredentials(credentials);
+        validatePath(path);
+        return EntityPath.parse(path).toString();
+    }
+
+    private Object lockFor(String path) {
+        return locks[stripeOf(path)];
+    }
+
+    private static int stripeOf(String path) {
+        return Math.floorMod(path.hashCode(), LOCK_STRIPES);
+    }
+
+    private static <C extends Credentials> Map<String, StorageServiceProvider<C>> requireShards(
+            Map<String, StorageServiceProvider<C>> shards) {
+        Assert.notNull(shards, "Shards cannot be null.");
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Shards cannot be empty.");
+        }
+        Assert.notNull(shards.values().iterator().next(), "Shard provider cannot be null.");
+        return shards;
+    }
+
+    /**
+     * How paths are mapped to shards.
+     */
+    public enum ShardingMode {
+
+        /**
+         * Each file is mapped by its full path. Spreads load evenly; folders span all shards.
+         */
+        PATH,
+
+        /**
+         * Each file is mapped by its top-level folder, so a top-level folder and all its contents reside on a single
+         * shard. Files directly under the root folder are mapped by their own path.
+         */
+        TOP_LEVEL_FOLDER
+    }
+
+    /**
+     * Resolves the credentials a shard is accessed with.
+     *
+     * @param <C> Generic type of credentials.
+     */
+    @FunctionalInterface
+    public interface ShardCredentialsResolver<C extends Credentials> {
+
+        /**
+         * @param credentials Caller's credentials.
+         * @param shardId     Id of the shard to access.
+         * @return Credentials to access the shard with.
+         * @throws CredentialsException If the caller has no credentials for the shard.
+         */
+        C resolve(C credentials, String shardId) throws CredentialsException;
+    }
+
+    /**
+     * A backing provider and its id.
+     */
+    private final class Shard {
+
+        final String id;
+
+        final StorageServiceProvider<C> provider;
+
+        Shard(String id, StorageServiceProvider<C> provider) {
+            this.id = id;
+            this.provider = provider;
+        }
+
+        C credentials(C credentials) {
+            return credentialsResolver.resolve(credentials, id);
+        }
+    }
+}
@@ -0,0 +1,1036 @@
+package io.storage.providers.tiered;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.utils.Assert;
+import io.storage.utils.Locks;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A storage service provider combining a fast (hot) tier, such as a local file system, with a slow (cold) tier, such
+ * as Dropbox. The cold tier holds all files; the hot tier caches the working set:
+ * <ul>
+ * <li>Reads are served from the hot tier when the file is resident. Otherwise the file is streamed from the cold tier
+ * to the caller and, at the same time, promoted into the hot tier.</li>
+ * <li>Writes go to the hot tier and then to the cold tier -- either synchronously ({@link WritePolicy#WRITE_THROUGH})
+ * or in the background ({@link WritePolicy#WRITE_BEHIND}).</li>
+ * <li>Once the hot tier exceeds its {@link #setCapacity(long) capacity}, files are demoted (removed from the hot tier)
+ * in the background, least frequently accessed first, until usage drops below {@value #LOW_WATERMARK} of capacity.
+ * Access counts decay after each demotion pass, so files hot in the past do not stay resident forever.</li>
+ * </ul>
+ * The hot tier is owned by this provider and treated as a cache: residency is tracked in memory, files left in the hot
+ * tier by a previous run are not trusted and are overwritten when promoted again. Files are written to the hot tier
+ * under {@value #STAGING_FOLDER} first and moved in place once complete, so reads of a resident file are blocked only
+ * for the move -- not while a file is promoted from, or written through to, the cold tier. The cold tier is assumed not to be
+ * modified by other writers, otherwise stale contents may be served from the hot tier.<p>
+ * Write-behind writes pending upload are kept in memory only -- writes not yet uploaded when the process stops exist
+ * only in the hot tier. Call {@link #flush()} to upload them on demand.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TieredStorageServiceProvider<C extends Credentials> extends AbstractStorageServiceProvider<C> {
+
+    /**
+     * Default capacity of the hot tier, in bytes.
+     */
+    public static final long DEFAULT_CAPACITY = 1024L * 1024 * 1024;
+
+    /**
+     * Default delay before retrying a failed write-behind upload.
+     */
+    public static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(30);
+
+    /**
+     * Fraction of capacity a demotion pass reduces hot tier usage to, so demotion does not run on every admission.
+     */
+    static final double LOW_WATERMARK = 0.9;
+
+    /**
+     * Number of path lock stripes.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Hot tier folder of files being promoted or written, until moved in place.
+     */
+    static final String STAGING_FOLDER = "/.tiered-staging";
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(TieredStorageServiceProvider.class);
+
+    /**
+     * Fast tier, caching the working set.
+     */
+    private final StorageServiceProvider<C> hot;
+
+    /**
+     * Slow tier, holding all files.
+     */
+    private final StorageServiceProvider<C> cold;
+
+    /**
+     * Files resident in the hot tier, per credentials, keyed by (normalized) path.
+     */
+    private final Map<C, NavigableMap<String, Resident>> residents = new ConcurrentHashMap<>();
+
+    /**
+     * Guard residency changes of a path. Reads of the hot tier hold the read lock, so a file is never demoted (nor
+     * replaced) while it is read.
+     */
+    private final ReadWriteLock[] locks = Locks.newReadWriteLocks(LOCK_STRIPES);
+
+    /**
+     * Number of residency changes per lock stripe, guarded by the stripe's write lock. Lets a promotion detect that a
+     * path was written, promoted or removed while it was streamed from the cold tier.
+     */
+    private final long[] generations = new long[LOCK_STRIPES];
+
+    /**
+     * Serialize writes of a path, so writes reach the cold tier in the same order they are admitted to the hot tier.
+     */
+    private final Object[] writerLocks = Locks.newMonitors(LOCK_STRIPES);
+
+    /**
+     * Total size of files resident in the hot tier, in bytes.
+     */
+    private final AtomicLong residentBytes = new AtomicLong();
+
+    /**
+     * Set while a demotion pass is scheduled, so concurrent admissions schedule a single pass.
+     */
+    private final AtomicBoolean demotionScheduled = new AtomicBoolean();
+
+    /**
+     * Demotes files from the hot tier.
+     */
+    private final ExecutorService demoter =
+            Executors.newSingleThreadExecutor(StreamPipe.daemonThreadFactory("storage-tiered-demoter-"));
+
+    /**
+     * Uploads write-behind writes to the cold tier.
+     */
+    private final ScheduledExecutorService uploader =
+            Executors.newSingleThreadScheduledExecutor(StreamPipe.daemonThreadFactory("storage-tiered-uploader-"));
+
+    /**
+     * Hit, miss and tier movement counters.
+     */
+    private final TieringStatistics statistics = new TieringStatistics();
+
+    /**
+     * Policy for propagating writes to the cold tier.
+     */
+    private volatile WritePolicy writePolicy = WritePolicy.WRITE_THROUGH;
+
+    /**
+     * Capacity of the hot tier, in bytes.
+     */
+    private volatile long capacity = DEFAULT_CAPACITY;
+
+    /**
+     * Delay before retrying a failed write-behind upload.
+     */
+    private volatile Duration retryDelay = DEFAULT_RETRY_DELAY;
+
+    /**
+     * Class constructor.
+     *
+     * @param hot  Fast tier, caching the working set.
+     * @param cold Slow tier, holding all files.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public TieredStorageServiceProvider(StorageServiceProvider<C> hot, StorageServiceProvider<C> cold)
+            throws IllegalArgumentException {
+        super(requireTier(cold, "Cold").credentialsTypes());
+        this.hot = requireTier(hot, "Hot");
+        this.cold = cold;
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        Map<String, FileEntity> pending = pendingDescendants(credentials, location);
+        if (pending.isEmpty()) {
+            return cold.listFolderContents(credentials, path);
+        }
+
+        FolderEntity folder;
+        try {
+            folder = cold.listFolderContents(credentials, path);
+        } catch (EntityNotFoundException ex) {
+            // Folder exists only in the hot tier so far.
+            folder = new FolderEntity();
+            folder.location = location;
+        }
+
+        return folder.merge(pending);
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return pendingDescendants(credentials, location).isEmpty()
+                ? cold.listFolder(credentials, path)
+                : FolderListing.of(listFolderContents(credentials, path));
+    }
+
+    /**
+     * Searches are served by the cold tier, unless files under <i>root</i> are yet to be written to it. Such searches
+     * list folders, with pending files merged.
+     */
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, root));
+        return pendingDescendants(credentials, location).isEmpty()
+                ? cold.find(credentials, root, glob, filter)
+                : super.find(credentials, root, glob, filter);
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return residentsOf(credentials).containsKey(location.toString())
+                || !pendingDescendants(credentials, location).isEmpty()
+                || cold.exists(credentials, path);
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        Resident resident = residentsOf(credentials).get(normalize(credentials, path));
+        FileEntity pending = resident != null ? resident.pending : null;
+        return pending != null ? pending.copy() : cold.readFileMeta(credentials, path);
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        String normalized = normalize(credentials, path);
+        if (readResident(credentials, normalized, () -> hot.readFile(credentials, normalized, out))) {
+            return;
+        }
+
+        statistics.miss();
+        promote(credentials, normalized, out);
+    }
+
+    /**
+     * Ranged reads of files not resident in the hot tier are served by the cold tier, without promoting the file.
+     */
+    @Override
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        String normalized = normalize(credentials, path);
+        if (readResident(credentials, normalized, () -> hot.readFile(credentials, normalized, offset, length, out))) {
+            return;
+        }
+
+        statistics.miss();
+        cold.readFile(credentials, normalized, offset, length, out);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeFile(credentials, path, in, (String) null);
+    }
+
+    /**
+     * Writes with a <i>revision</i> are always written through, since the revision can only be verified by the cold
+     * tier. A write-behind write of the same path still pending is uploaded first.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(in, "Input stream is null.");
+        String normalized = normalize(credentials, path);
+        return write(credentials, normalized, revision != null,
+                staged -> hot.writeFile(credentials, staged, in),
+                staged -> upload(credentials, staged, normalized, revision));
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        return writeFile(credentials, path, data, (String) null);
+    }
+
+    /**
+     * Writes with a <i>revision</i> are always written through, since the revision can only be verified by the cold
+     * tier. A write-behind write of the same path still pending is uploaded first.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        String normalized = normalize(credentials, path);
+        return write(credentials, normalized, revision != null,
+                staged -> hot.writeFile(credentials, staged, data),
+                staged -> revision != null
+                        ? cold.writeFile(credentials, normalized, data, revision)
+                        : cold.writeFile(credentials, normalized, data));
+    }
+
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        boolean pending = dropAll(credentials, location);
+
+        try {
+            cold.delete(credentials, location.toString());
+        } catch (EntityNotFoundException ex) {
+            if (!pending) {
+                throw ex;
+            }
+            // Entity was written to the hot tier only, and was not uploaded yet.
+        }
+    }
+
+    /**
+     * Copy is performed by the cold tier, after pending writes of the source are uploaded. The copy is not resident in
+     * the hot tier until read.
+     */
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath source = EntityPath.parse(normalize(credentials, from));
+        EntityPath target = EntityPath.parse(normalize(credentials, to));
+
+        flushAll(credentials, source);
+        dropAll(credentials, target);
+        return cold.copy(credentials, source.toString(), target.toString());
+    }
+
+    /**
+     * Move is performed by the cold tier, after pending writes of the source are uploaded. Hot copies of the source are
+     * demoted.
+     */
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath source = EntityPath.parse(normalize(credentials, from));
+        EntityPath target = EntityPath.parse(normalize(credentials, to));
+
+        flushAll(credentials, source);
+        dropAll(credentials, target);
+        BaseEntity result = cold.move(credentials, source.toString(), target.toString());
+        dropAll(credentials, source);
+        return result;
+    }
+
+    /**
+     * Upload all pending write-behind writes to the cold tier, on the calling thread.
+     *
+     * @throws StorageException If any upload failed. Failed uploads remain pending and are retried in the background.
+     */
+    public void flush() throws StorageException {
+        StorageException failure = null;
+        for (Map.Entry<C, NavigableMap<String, Resident>> tier : residents.entrySet()) {
+            for (Map.Entry<String, Resident> entry : tier.getValue().entrySet()) {
+                if (entry.getValue().pending == null) {
+                    continue;
+                }
+
+                try {
+                    upload(tier.getKey(), entry.getKey());
+                } catch (RuntimeException ex) {
+                    if (failure == null) {
+                        failure = new StorageException("Could not upload pending writes to cold tier.", ex);
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Upload pending write-behind writes and stop background tasks. Writes that could not be uploaded remain in the hot
+     * tier only.
+     */
+    public void shutdown() {
+        try {
+            flush();
+        } catch (StorageException ex) {
+            logger.error("Pending writes could not be uploaded to cold tier before shutdown.", ex);
+        } finally {
+            uploader.shutdown();
+            demoter.shutdown();
+        }
+    }
+
+    /**
+     * Set the policy for propagating writes to the cold tier. Defaults to {@link WritePolicy#WRITE_THROUGH}.
+     *
+     * @param writePolicy Write policy.
+     * @throws IllegalArgumentException If <i>writePolicy</i> is {@code null}.
+     */
+    public void setWritePolicy(WritePolicy writePolicy) throws IllegalArgumentException {
+        Assert.notNull(writePolicy, "Write policy cannot be null.");
+        this.writePolicy = writePolicy;
+    }
+
+    /**
+     * Set the capacity of the hot tier. Files are demoted in the background once total size of resident files exceeds
+     * it. Files pending a write-behind upload are not demoted, so usage may exceed capacity until they are uploaded.
+     *
+     * @param capacity Capacity, in bytes. Must be greater than 0.
+     * @throws IllegalArgumentException If <i>capacity</i> is less than 1.
+     */
+    public void setCapacity(long capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity + " (must be greater than 0).");
+        }
+
+        this.capacity = capacity;
+        demoteIfFull();
+    }
+
+    /**
+     * Set the delay before retrying a failed write-behind upload.
+     *
+     * @param retryDelay Retry delay.
+     * @throws IllegalArgumentException If <i>retryDelay</i> is {@code null} or negative.
+     */
+    public void setRetryDelay(Duration retryDelay) throws IllegalArgumentException {
+        Assert.notNull(retryDelay, "Retry delay cannot be null.");
+        if (retryDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid retry delay: " + retryDelay + " (must not be negative).");
+        }
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * @return Total size of files resident in the hot tier, in bytes.
+     */
+    public long getResidentBytes() {
+        return residentBytes.get();
+    }
+
+    /**
+     * @return Hit, miss and tier movement counters.
+     */
+    public TieringStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Wait until demotions scheduled so far are completed.
+     *
+     * @throws InterruptedException If current thread was interrupted while waiting.
+     */
+    void awaitDemoter() throws InterruptedException {
+        try {
+            demoter.submit(() -> {
+            }).get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Unexpected demoter failure.", ex.getCause());
+        }
+    }
+
+    /**
+     * Read a file from the hot tier, if resident.
+     *
+     * @return {@code true} if file was read, {@code false} if it is not resident.
+     */
+    private boolean readResident(C credentials, String path, Runnable reader) {
+        ReadWriteLock lock = lockFor(path);
+        lock.readLock().lock();
+        try {
+            Resident resident = residentsOf(credentials).get(path);
+            if (resident == null) {
+                return false;
+            }
+
+            resident.touch();
+            statistics.hit();
+            reader.run();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stream a file from the cold tier to the caller while promoting it to the hot tier. The file is staged without
+     * holding its lock, and discarded if the path changed meanwhile. Failure to promote does not fail the read.
+     */
+    private void promote(C credentials, String path, OutputStream out) {
+        ReadWriteLock lock = lockFor(path);
+        long generation;
+        lock.readLock().lock();
+        try {
+            Resident resident = residentsOf(credentials).get(path);
+            if (resident != null) {
+                // Promoted by a concurrent read.
+                resident.touch();
+                hot.readFile(credentials, path, out);
+                return;
+            }
+
+            generation = generations[stripeOf(path)];
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        String staged = stagingPath();
+        FileEntity stored;
+        try {
+            stored = StreamPipe.transfer(
+                    pipe -> cold.readFile(credentials, path, new TeeOutputStream(out, pipe)),
+                    in -> storeQuietly(credentials, staged, in));
+        } catch (RuntimeException ex) {
+            deleteQuietly(credentials, staged);
+            throw ex;
+        }
+
+        if (stored == null) {
+            deleteQuietly(credentials, staged);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (generations[stripeOf(path)] != generation || residentsOf(credentials).containsKey(path)) {
+                // Written, promoted or removed concurrently, so the staged contents may be stale.
+                deleteQuietly(credentials, staged);
+                return;
+            }
+
+            FileEntity promoted;
+            try {
+                promoted = moveInPlace(credentials, staged, path);
+            } catch (RuntimeException ex) {
+                logger.debug("Could not promote {} to hot tier.", path, ex);
+                deleteQuietly(credentials, staged);
+                deleteQuietly(credentials, path);
+                return;
+            }
+
+            admit(credentials, path, promoted, false).touch();
+            statistics.promoted();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write a promoted file to the hot tier. On failure, the rest of the contents is drained, so the caller's read is
+     * not affected.
+     *
+     * @return Hot tier file entity or {@code null} if file could not be written.
+     */
+    private FileEntity storeQuietly(C credentials, String path, InputStream in) {
+        try {
+            return hot.writeFile(credentials, path, in);
+        } catch (RuntimeException ex) {
+            logger.debug("Could not promote {} to hot tier.", path, ex);
+            try {
+                in.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException ignore) {
+                // Read from cold tier failed, it is reported to the caller.
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Write a file to the hot tier and propagate it to the cold tier according to {@link #writePolicy}. The file is
+     * staged in the hot tier (and written through to the cold tier) without holding its lock, which is taken only to
+     * move the staged file in place.
+     *
+     * @param conditional {@code true} if cold tier must verify the write (i.e.: a revision was specified), in which case
+     *                    the write is always written through.
+     * @param hotWriter   Writes file to a given hot tier path.
+     * @param coldWriter  Writes file to the cold tier, given the hot tier path it was written to.
+     */
+    private FileEntity write(C credentials, String path, boolean conditional,
+                             Function<String, FileEntity> hotWriter, Function<String, FileEntity> coldWriter) {
+        boolean behind = writePolicy == WritePolicy.WRITE_BEHIND && !conditional;
+
+        synchronized (writerLockFor(path)) {
+            if (conditional) {
+                upload(credentials, path);
+            }
+
+            String staged = stagingPath();
+            FileEntity result = null;
+            try {
+                hotWriter.apply(staged);
+                if (!behind) {
+                    result = coldWriter.apply(staged);
+                }
+            } catch (RuntimeException ex) {
+                // Resident contents, if any, were not replaced.
+                deleteQuietly(credentials, staged);
+                throw ex;
+            }
+
+            FileEntity stored;
+            ReadWriteLock lock = lockFor(path);
+            lock.writeLock().lock();
+            try {
+                try {
+                    stored = moveInPlace(credentials, staged, path);
+                } catch (RuntimeException ex) {
+                    deleteQuietly(credentials, staged);
+                    drop(credentials, path);
+                    if (behind) {
+                        throw ex;
+                    }
+
+                    // Written through, only caching failed.
+                    logger.debug("Could not admit {} to hot tier.", path, ex);
+                    return result;
+                }
+
+                admit(credentials, path, stored, behind);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            if (behind) {
+                scheduleUpload(credentials, path, Duration.ZERO);
+                return stored.copy();
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Move a staged file in place of a hot tier file. Must be called while holding the write lock of <i>path</i>.
+     *
+     * @return Hot tier file entity.
+     */
+    private FileEntity moveInPlace(C credentials, String staged, String path) {
+        // Replaces a file of a previous residency, or left by a previous run.
+        deleteQuietly(credentials, path);
+        return (FileEntity) hot.move(credentials, staged, path);
+    }
+
+    /**
+     * Stream a file from the hot tier to the cold tier.
+     *
+     * @param source Hot tier path of file.
+     * @param path   Cold tier path of file.
+     */
+    private FileEntity upload(C credentials, String source, String path, String revision) {
+        return StreamPipe.transfer(
+                out -> hot.readFile(credentials, source, out),
+                in -> revision != null
+                        ? cold.writeFile(credentials, path, in, revision)
+                        : cold.writeFile(credentials, path, in));
+    }
+
+    /**
+     * Upload a pending write-behind write of a given path, if any.
+     */
+    private void upload(C credentials, String path) throws StorageException {
+        ReadWriteLock lock = lockFor(path);
+        lock.readLock().lock();
+        try {
+            Resident resident = residentsOf(credentials).get(path);
+            if (resident == null || resident.pending == null) {
+                // Already uploaded, or deleted since.
+                return;
+            }
+
+            upload(credentials, path, path, null);
+            resident.pending = null;
+            statistics.uploaded();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Uploaded files may now be demoted.
+        demoteIfFull();
+    }
+
+    /**
+     * Schedule a write-behind upload. Writes of the same path made before the upload starts are coalesced into it.
+     */
+    private void scheduleUpload(C credentials, String path, Duration delay) {
+        if (uploader.isShutdown()) {
+            logger.warn("Uploader is shut down, {} remains in hot tier only.", path);
+            return;
+        }
+
+        uploader.schedule(() -> {
+            try {
+                upload(credentials, path);
+            } catch (RuntimeException ex) {
+                statistics.uploadFailed();
+                logger.warn("Could not upload {} to cold tier, retrying in {}.", path, retryDelay, ex);
+                scheduleUpload(credentials, path, retryDelay);
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Upload pending write-behind writes of a file or all files under a folder.
+     */
+    private void flushAll(C credentials, EntityPath location) throws StorageException {
+        upload(credentials, location.toString());
+        for (String path : pendingDescendants(credentials, location).keySet()) {
+            upload(credentials, path);
+        }
+    }
+
+    /**
+     * Register a file as resident in the hot tier, replacing its previous residency (if any).
+     *
+     * @param stored  Hot tier file entity.
+     * @param pending {@code true} if the file is pending upload to the cold tier.
+     */
+    private Resident admit(C credentials, String path, FileEntity stored, boolean pending) {
+        Resident resident = new Resident(stored.size);
+        resident.pending = pending ? stored.copy() : null;
+
+        Resident previous = residentsOf(credentials).put(path, resident);
+        generations[stripeOf(path)]++;
+        if (previous != null) {
+            resident.hits.set(previous.hits.get());
+        }
+
+        residentBytes.addAndGet(resident.size - (previous != null ? previous.size : 0));
+        demoteIfFull();
+        return resident;
+    }
+
+    /**
+     * Remove a file from the hot tier.
+     *
+     * @return {@code true} if file was pending upload to the cold tier.
+     */
+    private boolean drop(C credentials, String path) {
+        ReadWriteLock lock = lockFor(path);
+        lock.writeLock().lock();
+        try {
+            Resident resident = residentsOf(credentials).remove(path);
+            deleteQuietly(credentials, path);
+            generations[stripeOf(path)]++;
+            if (resident == null) {
+                return false;
+            }
+
+            residentBytes.addAndGet(-resident.size);
+            return resident.pending != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a file or all files under a folder from the hot tier.
+     *
+     * @return {@code true} if any removed file was pending upload to the cold tier.
+     */
+    private boolean dropAll(C credentials, EntityPath location) {
+        boolean pending = false;
+        for (String path : new ArrayList<>(location.descendantsIn(residentsOf(credentials)).keySet())) {
+            pending |= drop(credentials, path);
+        }
+
+        // Dropped last, so a folder's resident files are not deleted from under their locks.
+        return drop(credentials, location.toString()) | pending;
+    }
+
+    /**
+     * Schedule a demotion pass if the hot tier exceeds its capacity.
+     */
+    private void demoteIfFull() {
+        if (residentBytes.get() > capacity && demotionScheduled.compareAndSet(false, true)) {
+            demoter.execute(this::demote);
+        }
+    }
+
+    /**
+     * Demote least frequently accessed files until hot tier usage drops below {@link #LOW_WATERMARK}. Executed by the
+     * demoter.
+     */
+    private void demote() {
+        demotionScheduled.set(false);
+        try {
+            long limit = capacity;
+            if (residentBytes.get() <= limit) {
+                return;
+            }
+
+            // Snapshot of access counters, since they keep changing while sorted.
+            List<Candidate> candidates = new ArrayList<>();
+            residents.forEach((credentials, tier) -> tier.forEach((path, resident) -> {
+                if (resident.pending == null) {
+                    candidates.add(new Candidate(credentials, path, resident));
+                }
+            }));
+            candidates.sort(Comparator.comparingLong((Candidate candidate) -> candidate.hits)
+                    .thenComparingLong(candidate -> candidate.lastAccess));
+
+            long target = (long) (limit * LOW_WATERMARK);
+            for (Candidate candidate : candidates) {
+                if (residentBytes.get() <= target) {
+                    break;
+                }
+                evict(candidate);
+            }
+
+            residents.values().forEach(tier -> tier.values().forEach(Resident::age));
+        } catch (RuntimeException ex) {
+            logger.warn("Demotion pass failed.", ex);
+        }
+    }
+
+    /**
+     * Demote a single file, unless it was replaced or became pending since it was selected.
+     */
+    private void evict(Candidate candidate) {
+        ReadWriteLock lock = lockFor(candidate.path);
+        lock.writeLock().lock();
+        try {
+            Resident resident = candidate.resident;
+            if (resident.pending != null || !residentsOf(candidate.credentials).remove(candidate.path, resident)) {
+                return;
+            }
+
+            residentBytes.addAndGet(-resident.size);
+            deleteQuietly(candidate.credentials, candidate.path);
+            generations[stripeOf(candidate.path)]++;
+            statistics.demoted();
+            logger.debug("Demoted {} from hot tier.", candidate.path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Snapshot of files under a folder pending upload to the cold tier, keyed by path.
+     */
+    private Map<String, FileEntity> pendingDescendants(C credentials, EntityPath folder) {
+        Map<String, FileEntity> pending = new TreeMap<>();
+        for (Map.Entry<String, Resident> entry : folder.descendantsIn(residentsOf(credentials)).entrySet()) {
+            FileEntity file = entry.getValue().pending;
+            if (file != null) {
+                pending.put(entry.getKey(), file);
+            }
+        }
+
+        return pending;
+    }
+
+    private NavigableMap<String, Resident> residentsOf(C credentials) {
+        return residents.computeIfAbsent(credentials, key -> new ConcurrentSkipListMap<>());
+    }
+
+    private void deleteQuietly(C credentials, String path) {
+        try {
+            hot.delete(credentials, path);
+        } catch (EntityNotFoundException ignore) {
+            // Not in hot tier.
+        } catch (RuntimeException ex) {
+            logger.warn("Could not delete {} from hot tier.", path, ex);
+        }
+    }
+
+    private String normalize(C credentials, String path) {
+        validateCredentials(credentials);
+        validatePath(path);
+        return EntityPath.parse(path).toString();
+    }
+
+    private ReadWriteLock lockFor(String path) {
+        return locks[stripeOf(path)];
+    }
+
+    private Object writerLockFor(String path) {
+        return writerLocks[stripeOf(path)];
+    }
+
+    private static int stripeOf(String path) {
+        return Math.floorMod(path.hashCode(), LOCK_STRIPES);
+    }
+
+    private static String stagingPath() {
+        return STAGING_FOLDER + "/" + UUID.randomUUID();
+    }
+
+    private static <C extends Credentials> StorageServiceProvider<C> requireTier(StorageServiceProvider<C> tier,
+                                                                               String name) {
+        Assert.notNull(tier, name + " tier provider cannot be null.");
+        return tier;
+    }
+
+    /**
+     * Policy for propagating writes from the hot tier to the cold tier.
+     */
+    public enum WritePolicy {
+
+        /**
+         * Write to the cold tier before the write returns. A write fails if the cold tier write fails.
+         */
+        WRITE_THROUGH,
+
+        /**
+         * Write to the hot tier only, and upload to the cold tier in the background. Successive writes of the same path
+         * are coalesced; failed uploads are retried.
+         */
+        WRITE_BEHIND
+    }
+
+    /**
+     * Residency of a single file in the hot tier.
+     */
+    private static class Resident {
+
+        /**
+         * File size, in bytes.
+         */
+        final long size;
+
+        /**
+         * Number of accesses, decayed by each demotion pass.
+         */
+        final AtomicLong hits = new AtomicLong();
+
+        /**
+         * Timestamp of last access, in nanoseconds.
+         */
+        volatile long lastAccess = System.nanoTime();
+
+        /**
+         * Hot tier file entity while file is pending upload to the cold tier, {@code null} once uploaded.
+         */
+        volatile FileEntity pending;
+
+        Resident(long size) {
+            this.size = size;
+        }
+
+        void touch() {
+            hits.incrementAndGet();
+            lastAccess = System.nanoTime();
+        }
+
+        void age() {
+            hits.updateAndGet(count -> count >> 1);
+        }
+    }
+
+    /**
+     * A file selected for demotion, with a snapshot of its access counters.
+     */
+    private class Candidate {
+
+        final C credentials;
+
+        final String path;
+
+        final Resident resident;
+
+        final long hits;
+
+        final long lastAccess;
+
+        Candidate(C credentials, String path, Resident resident) {
+            this.credentials = credentials;
+            this.path = path;
+            this.resident = resident;
+            this.hits = resident.hits.get();
+            this.lastAccess = resident.lastAccess;
+        }
+    }
+
+    /**
+     * Output stream that writes to the caller's stream and to the hot tier pipe. The caller's stream is written first,
+     * so a failing caller aborts promotion too. Closing does not close either stream.
+     */
+    private static class TeeOutputStream extends FilterOutputStream {
+
+        private final OutputStream branch;
+
+        TeeOutputStream(OutputStream out, OutputStream branch) {
+            super(out);
+            this.branch = branch;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            branch.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            branch.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+            branch.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.storage.providers.tiered;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts reads served by the hot tier versus the cold tier, and files moved between tiers, by a
+ * {@link TieredStorageServiceProvider}. Counters are updated concurrently and may be read at any time.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TieringStatistics {
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder promotions = new LongAdder();
+
+    private final LongAdder demotions = new LongAdder();
+
+    private final LongAdder uploads = new LongAdder();
+
+    private final LongAdder failedUploads = new LongAdder();
+
+    /**
+     * @return Number of reads served by the hot tier.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of reads served by the cold tier.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Ratio of reads served by the hot tier, between 0 and 1.
+     */
+    public double getHitRatio() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    /**
+     * @return Number of files copied from the cold tier to the hot tier when read.
+     */
+    public long getPromotions() {
+        return promotions.sum();
+    }
+
+    /**
+     * @return Number of files removed from the hot tier to keep within its capacity.
+     */
+    public long getDemotions() {
+        return demotions.sum();
+    }
+
+    /**
+     * @return Number of write-behind uploads to the cold tier.
+     */
+    public long getUploads() {
+        return uploads.sum();
+    }
+
+    /**
+     * @return Number of write-behind uploads that failed (and were rescheduled).
+     */
+    public long getFailedUploads() {
+        return failedUploads.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits: %d, misses: %d, promotions: %d, demotions: %d, uploads: %d (%d failed)",
+                getHits(), getMisses(), getPromotions(), getDemotions(), getUploads(), getFailedUploads());
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void promoted() {
+        promotions.increment();
+    }
+
+    void demoted() {
+        demotions.increment();
+    }
+
+    void uploaded() {
+        uploads.increment();
+    }
+
+    void uploadFailed() {
+        failedUploads.increment();
+    }
+}
@@ -0,0 +1,240 @@
+package io.storage.providers.writebehind;
+
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * A single journaled write -- a file in the journal directory holding the written contents, preceded by a header:
+ * <pre>
+ *     magic (4 bytes) | version (1 byte) | header length (4 bytes) | credentials id | path | timestamp | contents
+ * </pre>
+ * Entries are named after their sequence number, so listing the journal directory in name order yields entries in
+ * write order. An entry is written to a temporary file, forced to disk and only then renamed, so an entry that exists
+ * is always complete.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+final class JournalEntry {
+
+    /**
+     * Suffix of journal entry files.
+     */
+    static final String SUFFIX = ".journal";
+
+    /**
+     * Suffix of journal entries still being written.
+     */
+    static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Journal entry magic number ("SIOJ").
+     */
+    private static final int MAGIC = 0x53494F4A;
+
+    /**
+     * Journal entry format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size of magic, version and header length fields.
+     */
+    private static final int PREAMBLE_SIZE = 9;
+
+    /**
+     * Size of buffer used to write contents.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Sequence number of entry, in write order.
+     */
+    final long sequence;
+
+    /**
+     * Journal entry file.
+     */
+    final Path file;
+
+    /**
+     * Identifier of credentials of the write.
+     */
+    final String credentialsId;
+
+    /**
+     * Path of written file.
+     */
+    final String path;
+
+    /**
+     * Time the write was journaled, reported as modification date of the file until it is uploaded.
+     */
+    final Instant timestamp;
+
+    /**
+     * Offset of contents within {@link #file}.
+     */
+    final long dataOffset;
+
+    /**
+     * Size of contents, in bytes.
+     */
+    final long size;
+
+    private JournalEntry(long sequence, Path file, String credentialsId, String path, Instant timestamp,
+                         long dataOffset, long size) {
+        this.sequence = sequence;
+        this.file = file;
+        this.credentialsId = credentialsId;
+        this.path = path;
+        this.timestamp = timestamp;
+        this.dataOffset = dataOffset;
+        this.size = size;
+    }
+
+    /**
+     * Durably write a new journal entry. Once this method returns, the entry survives a process or system crash.
+     *
+     * @param directory     Journal directory.
+     * @param sequence      Sequence number of entry.
+     * @param credentialsId Identifier of credentials of the write.
+     * @param path          Path of written file.
+     * @param in            Contents to write.
+     * @return New journal entry.
+     * @throws IOException If entry could not be written.
+     */
+    static JournalEntry write(Path directory, long sequence, String credentialsId, String path, InputStream in)
+            throws IOException {
+        Instant timestamp = Instant.now();
+        byte[] header = header(credentialsId, path, timestamp);
+        Path temp = directory.resolve(name(sequence) + TEMP_SUFFIX);
+        Path file = directory.resolve(name(sequence) + SUFFIX);
+
+        try {
+            long size;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                DataOutputStream out =
+                        new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(header.length);
+                out.write(header);
+                size = in.transferTo(out);
+                out.flush();
+                channel.force(true);
+            }
+
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(directory);
+            return new JournalEntry(sequence, file, credentialsId, path, timestamp, PREAMBLE_SIZE + header.length, size);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+    }
+
+    /**
+     * Read the header of an existing journal entry.
+     *
+     * @param file Journal entry file.
+     * @return Journal entry.
+     * @throws IOException If file could not be read or is not a valid journal entry.
+     */
+    static JournalEntry read(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        long sequence;
+        try {
+            sequence = Long.parseUnsignedLong(name.substring(0, name.length() - SUFFIX.length()), 16);
+        } catch (NumberFormatException ex) {
+            throw new IOException("Invalid journal entry name: " + file, ex);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a journal entry: " + file);
+            }
+
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported journal entry version " + version + ": " + file);
+            }
+
+            long dataOffset = PREAMBLE_SIZE + in.readInt();
+            String credentialsId = in.readUTF();
+            String path = in.readUTF();
+            Instant timestamp = Instant.ofEpochMilli(in.readLong());
+            return new JournalEntry(sequence, file, credentialsId, path, timestamp, dataOffset,
+                    Files.size(file) - dataOffset);
+        }
+    }
+
+    /**
+     * Open entry contents for reading. The caller is responsible for closing the stream.
+     *
+     * @param offset Offset within contents to start reading from.
+     * @return Input stream of contents.
+     * @throws IOException If entry could not be opened (e.g.: {@link java.nio.file.NoSuchFileException} if it was
+     *                     deleted).
+     */
+    InputStream open(long offset) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            channel.position(dataOffset + offset);
+            return Channels.newInputStream(channel);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return Entity describing the journaled file.
+     */
+    FileEntity toFileEntity() {
+        FileEntity entity = new FileEntity();
+        entity.location = EntityPath.parse(path);
+        entity.size = size;
+        entity.modificationDate = timestamp;
+        return entity;
+    }
+
+    private static byte[] header(String credentialsId, String path, Instant timestamp) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeUTF(credentialsId);
+        out.writeUTF(path);
+        out.writeLong(timestamp.toEpochMilli());
+        return buffer.toByteArray();
+    }
+
+    private static String name(long sequence) {
+        return String.format("%016x", sequence);
+    }
+
+    /**
+     * Force a rename to disk. Not supported by all platforms and file systems, in which case it is skipped.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException ignore) {
+            // Best effort.
+        }
+    }
+}
@@ -0,0 +1,812 @@
+package io.storage.providers.writebehind;
+
+import io.storage.StorageException;
+import io.storage.core.*;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import io.storage.core.hash.ContentDigest;
+import io.storage.core.hash.HashingInputStream;
+import io.storage.utils.Assert;
+import io.storage.utils.Locks;
+import io.storage.utils.StreamPipe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A decorating provider that acknowledges writes once they are durably journaled to a local directory, and uploads them
+ * to the underlying provider in the background. It hides the latency of slow providers (e.g.: Dropbox uploads take
+ * hundreds of milliseconds) from interactive writers.<p>
+ * Write-behind semantics:
+ * <ul>
+ * <li>Repeated writes of the same path are coalesced -- only the latest contents not yet uploaded is uploaded.</li>
+ * <li>Writes of the same path are uploaded in order, and never concurrently.</li>
+ * <li>Failed uploads are retried with exponential back-off, starting at {@link #setRetryDelay(Duration) retry delay}
+ * and up to {@link #MAX_RETRY_DELAY}.</li>
+ * <li>Journaled writes not yet uploaded when the process stops are replayed when the provider is next constructed over
+ * the same journal directory. Since credentials are not journaled, they are looked up by their {@link Credentials#id
+ * identifier} with a {@link CredentialsResolver}.</li>
+ * <li>Reads, metadata lookups and listings of paths pending upload are served from the journal.</li>
+ * </ul>
+ * Writes of credentials without an identifier cannot be replayed, so they are written through synchronously. Deletes,
+ * copies and moves are performed synchronously, after pending writes they depend on are uploaded (or discarded).
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class WriteBehindStorageServiceProvider<C extends Credentials> extends DelegatingStorageServiceProvider<C> {
+
+    /**
+     * Default number of concurrent uploads.
+     */
+    public static final int DEFAULT_UPLOAD_THREADS = 2;
+
+    /**
+     * Default delay before first retry of a failed upload.
+     */
+    public static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(5);
+
+    /**
+     * Maximum delay between retries of a failed upload.
+     */
+    public static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(10);
+
+    /**
+     * Number of path lock stripes.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Class logger.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindStorageServiceProvider.class);
+
+    /**
+     * Directory holding journal entries.
+     */
+    private final Path journalDirectory;
+
+    /**
+     * Looks up credentials of replayed entries.
+     */
+    private final CredentialsResolver<C> resolver;
+
+    /**
+     * Writes pending upload, per credentials identifier, keyed by (normalized) path.
+     */
+    private final Map<String, NavigableMap<String, PendingWrite<C>>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Keys of paths with an upload scheduled, so repeated writes of a path schedule a single upload.
+     */
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Serialize uploads of the same path, and uploads with deletion of pending writes.
+     */
+    private final Object[] pathLocks = Locks.newMonitors(LOCK_STRIPES);
+
+    /**
+     * Sequence number of last journal entry.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Uploads journaled writes.
+     */
+    private final ScheduledExecutorService uploader;
+
+    /**
+     * Number of writes superseded before they were uploaded.
+     */
+    private final LongAdder coalescedWrites = new LongAdder();
+
+    /**
+     * Number of failed upload attempts.
+     */
+    private final LongAdder failedUploads = new LongAdder();
+
+    /**
+     * Delay before first retry of a failed upload.
+     */
+    private volatile Duration retryDelay = DEFAULT_RETRY_DELAY;
+
+    /**
+     * Construct a new provider with {@link #DEFAULT_UPLOAD_THREADS default number} of concurrent uploads. Writes found
+     * in the journal directory are replayed.
+     *
+     * @param delegate         Underlying provider to upload writes to.
+     * @param journalDirectory Directory to journal writes in. Created if missing.
+     * @param resolver         Looks up credentials of replayed writes.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws StorageException         If journal directory could not be read.
+     */
+    public WriteBehindStorageServiceProvider(StorageServiceProvider<C> delegate,
+                                             Path journalDirectory,
+                                             CredentialsResolver<C> resolver)
+            throws IllegalArgumentException, StorageException {
+        this(delegate, journalDirectory, resolver, DEFAULT_UPLOAD_THREADS);
+    }
+
+    /**
+     * Class constructor. Writes found in the journal directory are replayed.
+     *
+     * @param delegate         Underlying provider to upload writes to.
+     * @param journalDirectory Directory to journal writes in. Created if missing.
+     * @param resolver         Looks up credentials of replayed writes.
+     * @param uploadThreads    Maximum number of concurrent uploads. Must be greater than 0.
+     * @throws IllegalArgumentException If either arguments are {@code null} or <i>uploadThreads</i> is less than 1.
+     * @throws StorageException         If journal directory could not be read.
+     */
+    public WriteBehindStorageServiceProvider(StorageServiceProvider<C> delegate,
+                                             Path journalDirectory,
+                                             CredentialsResolver<C> resolver,
+                                             int uploadThreads) throws IllegalArgumentException, StorageException {
+        super(delegate);
+        Assert.notNull(journalDirectory, "Journal directory cannot be null.");
+        Assert.notNull(resolver, "Credentials resolver cannot be null.");
+        if (uploadThreads < 1) {
+            throw new IllegalArgumentException("Invalid upload threads: " + uploadThreads + " (must be greater than 0).");
+        }
+
+        this.journalDirectory = journalDirectory;
+        this.resolver = resolver;
+        this.uploader = Executors.newScheduledThreadPool(uploadThreads,
+                StreamPipe.daemonThreadFactory("storage-write-behind-"));
+
+        try {
+            replay();
+        } catch (RuntimeException ex) {
+            uploader.shutdownNow();
+            throw ex;
+        }
+    }
+
+    @Override
+    public FolderEntity listFolderContents(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        Map<String, FileEntity> pending = pendingDescendants(credentials, location);
+        if (pending.isEmpty()) {
+            return delegate.listFolderContents(credentials, path);
+        }
+
+        FolderEntity folder;
+        try {
+            folder = delegate.listFolderContents(credentials, path);
+        } catch (EntityNotFoundException ex) {
+            // Folder exists only in the journal so far.
+            folder = new FolderEntity();
+            folder.location = location;
+        }
+
+        return folder.merge(pending);
+    }
+
+    @Override
+    public FolderListing listFolder(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return pendingDescendants(credentials, location).isEmpty()
+                ? delegate.listFolder(credentials, path)
+                : FolderListing.of(listFolderContents(credentials, path));
+    }
+
+    /**
+     * Searches are served by the underlying provider, unless files under <i>root</i> are yet to be written to it. Such
+     * searches list folders, with pending files merged.
+     */
+    @Override
+    public List<BaseEntity> find(C credentials, String root, String glob, Predicate<? super BaseEntity> filter)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, root));
+        return pendingDescendants(credentials, location).isEmpty()
+                ? delegate.find(credentials, root, glob, filter)
+                : super.find(credentials, root, glob, filter);
+    }
+
+    @Override
+    public boolean exists(C credentials, String path)
+            throws IllegalArgumentException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        return pendingOf(credentials).containsKey(location.toString())
+                || !pendingDescendants(credentials, location).isEmpty()
+                || delegate.exists(credentials, path);
+    }
+
+    @Override
+    public FileEntity readFileMeta(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        PendingWrite<C> write = pendingOf(credentials).get(normalize(credentials, path));
+        return write != null ? write.file.copy() : delegate.readFileMeta(credentials, path);
+    }
+
+    @Override
+    public void readFile(C credentials, String path, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        String normalized = normalize(credentials, path);
+
+        InputStream in = openPending(credentials, normalized, 0);
+        if (in == null) {
+            delegate.readFile(credentials, normalized, out);
+            return;
+        }
+
+        try (in) {
+            in.transferTo(out);
+        } catch (IOException ex) {
+            throw new StorageException("Could not read journaled contents of " + path + ".", ex);
+        }
+    }
+
+    @Override
+    public void readFile(C credentials, String path, long offset, long length, OutputStream out)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        Assert.notNull(out, "Output stream is null.");
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range (offset: " + offset + ", length: " + length + ").");
+        }
+        String normalized = normalize(credentials, path);
+
+        InputStream in = openPending(credentials, normalized, offset);
+        if (in == null) {
+            delegate.readFile(credentials, normalized, offset, length, out);
+            return;
+        }
+
+        try (in) {
+            copy(in, out, length);
+        } catch (IOException ex) {
+            throw new StorageException("Could not read journaled contents of " + path + ".", ex);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(in, "Input stream is null.");
+        String normalized = normalize(credentials, path);
+        if (credentials.id == null) {
+            // Journaled writes cannot be replayed without credentials identifier.
+            return delegate.writeFile(credentials, normalized, in);
+        }
+
+        return journal(credentials, normalized, in);
+    }
+
+    /**
+     * Writes with a <i>revision</i> are written through, since the revision can only be verified by the underlying
+     * provider. A pending write of the same path is uploaded first.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, InputStream in, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        if (revision == null) {
+            return writeFile(credentials, path, in);
+        }
+
+        String normalized = normalize(credentials, path);
+        upload(credentials, normalized);
+        return delegate.writeFile(credentials, normalized, in, revision);
+    }
+
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        Assert.notNull(data, "Data cannot be null.");
+        String normalized = normalize(credentials, path);
+        if (credentials.id == null) {
+            return delegate.writeFile(credentials, normalized, data);
+        }
+
+        return journal(credentials, normalized, new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Writes with a <i>revision</i> are written through, since the revision can only be verified by the underlying
+     * provider. A pending write of the same path is uploaded first.
+     */
+    @Override
+    public FileEntity writeFile(C credentials, String path, byte[] data, String revision)
+            throws IllegalArgumentException, InvalidEntityPathException, CredentialsException, InvalidRevisionException,
+            InvalidPathFormatException {
+        if (revision == null) {
+            return writeFile(credentials, path, data);
+        }
+
+        String normalized = normalize(credentials, path);
+        upload(credentials, normalized);
+        return delegate.writeFile(credentials, normalized, data, revision);
+    }
+
+    /**
+     * Pending writes of deleted paths are discarded.
+     */
+    @Override
+    public void delete(C credentials, String path)
+            throws IllegalArgumentException, EntityNotFoundException, CredentialsException, InvalidPathFormatException {
+        EntityPath location = EntityPath.parse(normalize(credentials, path));
+        boolean discarded = discardAll(credentials, location);
+
+        try {
+            delegate.delete(credentials, location.toString());
+        } catch (EntityNotFoundException ex) {
+            if (!discarded) {
+                throw ex;
+            }
+            // Entity was only journaled, and was not uploaded yet.
+        }
+    }
+
+    /**
+     * Pending writes of the source are uploaded first; pending writes of the target are discarded, since they are
+     * overwritten.
+     */
+    @Override
+    public BaseEntity copy(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath source = EntityPath.parse(normalize(credentials, from));
+        EntityPath target = EntityPath.parse(normalize(credentials, to));
+
+        uploadAll(credentials, source);
+        discardAll(credentials, target);
+        return delegate.copy(credentials, source.toString(), target.toString());
+    }
+
+    /**
+     * Pending writes of the source are uploaded first; pending writes of the target are discarded, since they are
+     * overwritten.
+     */
+    @Override
+    public BaseEntity move(C credentials, String from, String to)
+            throws IllegalArgumentException, EntityNotFoundException, InvalidEntityPathException, CredentialsException,
+            InvalidPathFormatException {
+        EntityPath source = EntityPath.parse(normalize(credentials, from));
+        EntityPath target = EntityPath.parse(normalize(credentials, to));
+
+        uploadAll(credentials, source);
+        discardAll(credentials, target);
+        return delegate.move(credentials, source.toString(), target.toString());
+    }
+
+    /**
+     * Upload all pending writes on the calling thread.
+     *
+     * @throws StorageException If any upload failed. Failed uploads remain pending and are retried in the background.
+     */
+    public void flush() throws StorageException {
+        StorageException failure = null;
+        for (Map.Entry<String, NavigableMap<String, PendingWrite<C>>> paths : pending.entrySet()) {
+            for (String path : new ArrayList<>(paths.getValue().keySet())) {
+                try {
+                    upload(paths.getKey(), path);
+                } catch (RuntimeException ex) {
+                    if (failure == null) {
+                        failure = new StorageException("Could not upload journaled writes.", ex);
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
+                }
+            }
+        }
+
+        // Background uploads remove their write before this flush lists pending writes, but may still be completing.
+        // Uploads run under their path's lock, so passing through all locks waits for them.
+        for (Object lock : pathLocks) {
+            synchronized (lock) {
+                // Nothing to do -- barrier only.
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stop uploading. Uploads in progress are completed; pending writes remain journaled and are replayed on next start.
+     * Call {@link #flush()} first to upload them now.
+     */
+    public void shutdown() {
+        uploader.shutdown();
+    }
+
+    /**
+     * Set the delay before first retry of a failed upload. The delay doubles with each further retry, up to
+     * {@link #MAX_RETRY_DELAY}.
+     *
+     * @param retryDelay Retry delay.
+     * @throws IllegalArgumentException If <i>retryDelay</i> is {@code null} or negative.
+     */
+    public void setRetryDelay(Duration retryDelay) throws IllegalArgumentException {
+        Assert.notNull(retryDelay, "Retry delay cannot be null.");
+        if (retryDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid retry delay: " + retryDelay + " (must not be negative).");
+        }
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * @return Number of writes journaled and not uploaded yet.
+     */
+    public int getPendingWrites() {
+        return pending.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * @return Number of writes superseded by a later write of the same path before they were uploaded.
+     */
+    public long getCoalescedWrites() {
+        return coalescedWrites.sum();
+    }
+
+    /**
+     * @return Number of failed upload attempts.
+     */
+    public long getFailedUploads() {
+        return failedUploads.sum();
+    }
+
+    /**
+     * Journal a write and schedule its upload.
+     */
+    private FileEntity journal(C credentials, String path, InputStream in) {
+        ContentDigest digest = newContentDigest();
+        JournalEntry entry;
+        try {
+            entry = JournalEntry.write(journalDirectory, sequence.incrementAndGet(), credentials.id, path,
+                    new HashingInputStream(in, digest));
+        } catch (IOException ex) {
+            throw new StorageException("Could not journal write of " + path + ".", ex);
+        }
+
+        FileEntity file = entry.toFileEntity();
+        file.hashes = digest.getHashes();
+        enqueue(new PendingWrite<>(entry, credentials, file));
+        return file.copy();
+    }
+
+    /**
+     * Register a journaled write as pending and schedule its upload. Of two writes of the same path, the one journaled
+     * last wins, regardless of the order they are enqueued in.
+     */
+    private void enqueue(PendingWrite<C> write) {
+        NavigableMap<String, PendingWrite<C>> paths =
+                pending.computeIfAbsent(write.entry.credentialsId, key -> new ConcurrentSkipListMap<>());
+        String path = write.entry.path;
+
+        PendingWrite<C> superseded;
+        while (true) {
+            PendingWrite<C> current = paths.putIfAbsent(path, write);
+            if (current == null) {
+                superseded = null;
+                break;
+            } else if (current.entry.sequence > write.entry.sequence) {
+                superseded = write;
+                break;
+            } else if (paths.replace(path, current, write)) {
+                superseded = current;
+                break;
+            }
+        }
+
+        if (superseded != null) {
+            coalescedWrites.increment();
+            deleteQuietly(superseded.entry);
+        }
+
+        scheduleUpload(write.entry.credentialsId, path, 0);
+    }
+
+    /**
+     * Schedule upload of a path's pending write, unless one is already scheduled.
+     *
+     * @param attempt Number of failed attempts so far.
+     */
+    private void scheduleUpload(String credentialsId, String path, int attempt) {
+        String key = credentialsId + '\0' + path;
+        if (!scheduled.add(key)) {
+            return;
+        }
+
+        try {
+            uploader.schedule(() -> {
+                // Cleared before upload starts, so writes made during upload schedule another one.
+                scheduled.remove(key);
+                try {
+                    upload(credentialsId, path);
+                } catch (RuntimeException ex) {
+                    failedUploads.increment();
+                    logger.warn("Could not upload journaled write of {} (attempt {}).", path, attempt + 1, ex);
+                    scheduleUpload(credentialsId, path, attempt + 1);
+                }
+            }, retryDelay(attempt).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            scheduled.remove(key);
+            logger.debug("Uploader is shut down, {} remains journaled.", path);
+        }
+    }
+
+    /**
+     * Upload a path's pending write, if any.
+     */
+    private void upload(C credentials, String path) throws StorageException {
+        if (credentials.id != null) {
+            upload(credentials.id, path);
+        }
+    }
+
+    /**
+     * Upload a path's pending write, if any. Once uploaded, the journal entry is deleted.
+     */
+    private void upload(String credentialsId, String path) throws StorageException {
+        NavigableMap<String, PendingWrite<C>> paths = pending.getOrDefault(credentialsId, Collections.emptyNavigableMap());
+        synchronized (lockFor(path)) {
+            PendingWrite<C> write = paths.get(path);
+            if (write == null) {
+                // Coalesced into a previous upload, or deleted since.
+                return;
+            }
+
+            try (InputStream in = write.entry.open(0)) {
+                delegate.writeFile(write.credentials, path, in);
+            } catch (NoSuchFileException ex) {
+                if (paths.get(path) == write) {
+                    throw new StorageException("Journal entry of " + path + " is missing.", ex);
+                }
+                // Superseded meanwhile -- the later write is uploaded instead.
+                return;
+            } catch (IOException ex) {
+                throw new StorageException("Could not read journal entry of " + path + ".", ex);
+            }
+
+            // Entry is removed before its file is deleted, so readers never find a pending write without contents.
+            if (paths.remove(path, write)) {
+                deleteQuietly(write.entry);
+            }
+        }
+    }
+
+    /**
+     * Upload pending writes of a file or all files under a folder.
+     */
+    private void uploadAll(C credentials, EntityPath location) throws StorageException {
+        upload(credentials, location.toString());
+        for (String path : pendingDescendants(credentials, location).keySet()) {
+            upload(credentials, path);
+        }
+    }
+
+    /**
+     * Discard pending writes of a file or all files under a folder.
+     *
+     * @return {@code true} if any pending write was discarded.
+     */
+    private boolean discardAll(C credentials, EntityPath location) {
+        NavigableMap<String, PendingWrite<C>> paths = pendingOf(credentials);
+        List<String> discarded = new ArrayList<>(location.descendantsIn(paths).keySet());
+        discarded.add(location.toString());
+
+        boolean result = false;
+        for (String path : discarded) {
+            synchronized (lockFor(path)) {
+                PendingWrite<C> write = paths.remove(path);
+                if (write != null) {
+                    deleteQuietly(write.entry);
+                    result = true;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Open journaled contents of a path pending upload.
+     *
+     * @return Input stream of contents or {@code null} if path is not pending upload.
+     */
+    private InputStream openPending(C credentials, String path, long offset) {
+        NavigableMap<String, PendingWrite<C>> paths = pendingOf(credentials);
+        PendingWrite<C> write;
+        while ((write = paths.get(path)) != null) {
+            try {
+                return write.entry.open(offset);
+            } catch (NoSuchFileException ex) {
+                // Uploaded or superseded meanwhile, look again.
+                if (paths.get(path) == write) {
+                    throw new StorageException("Journal entry of " + path + " is missing.", ex);
+                }
+            } catch (IOException ex) {
+                throw new StorageException("Could not read journal entry of " + path + ".", ex);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Load journal entries left by a previous run and schedule their upload.
+     */
+    private void replay() throws StorageException {
+        List<Path> files;
+        try {
+            Files.createDirectories(journalDirectory);
+            try (Stream<Path> listing = Files.list(journalDirectory)) {
+                files = listing.sorted().collect(Collectors.toList());
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Could not read journal directory " + journalDirectory + ".", ex);
+        }
+
+        Map<String, C> credentials = new HashMap<>();
+        long last = 0;
+        int replayed = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(JournalEntry.TEMP_SUFFIX)) {
+                // Interrupted before the write was acknowledged.
+                deleteQuietly(file);
+                continue;
+            } else if (!name.endsWith(JournalEntry.SUFFIX)) {
+                continue;
+            }
+
+            JournalEntry entry;
+            try {
+                entry = JournalEntry.read(file);
+            } catch (IOException ex) {
+                logger.error("Skipping unreadable journal entry {}.", file, ex);
+                continue;
+            }
+            last = Math.max(last, entry.sequence);
+
+            C owner;
+            try {
+                owner = credentials.computeIfAbsent(entry.credentialsId, resolver::resolve);
+            } catch (CredentialsException ex) {
+                logger.error("Could not resolve credentials {}, journaled write of {} is kept for next start.",
+                        entry.credentialsId, entry.path, ex);
+                continue;
+            }
+
+            enqueue(new PendingWrite<>(entry, owner, entry.toFileEntity()));
+            replayed++;
+        }
+
+        sequence.set(last);
+        if (replayed > 0) {
+            logger.info("Replaying {} journaled writes from {}.", replayed, journalDirectory);
+        }
+    }
+
+    /**
+     * @return Snapshot of files under a folder pending upload, keyed by path.
+     */
+    private Map<String, FileEntity> pendingDescendants(C credentials, EntityPath folder) {
+        Map<String, FileEntity> files = new TreeMap<>();
+        folder.descendantsIn(pendingOf(credentials)).forEach((path, write) -> files.put(path, write.file));
+        return files;
+    }
+
+    private NavigableMap<String, PendingWrite<C>> pendingOf(C credentials) {
+        NavigableMap<String, PendingWrite<C>> paths = credentials.id != null ? pending.get(credentials.id) : null;
+        return paths != null ? paths : Collections.emptyNavigableMap();
+    }
+
+    private Duration retryDelay(int attempt) {
+        if (attempt == 0) {
+            return Duration.ZERO;
+        }
+
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempt - 1, 16));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private String normalize(C credentials, String path) {
+        validateCredentials(credentials);
+        validatePath(path);
+        return EntityPath.parse(path).toString();
+    }
+
+    private Object lockFor(String path) {
+        return pathLocks[Math.floorMod(path.hashCode(), pathLocks.length)];
+    }
+
+    private static void deleteQuietly(JournalEntry entry) {
+        deleteQuietly(entry.file);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.warn("Could not delete journal file {}.", file, ex);
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, long length) throws IOException {
+        byte[] buffer = new byte[8192];
+        long remaining = length;
+        int read;
+        while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) >= 0) {
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Looks up credentials by their identifier, to upload writes replayed from the journal, e.g.:
+     * {@code repository::getCredentials} of a {@link io.storage.manager.CredentialsRepository}.
+     */
+    @FunctionalInterface
+    public interface CredentialsResolver<C extends Credentials> {
+
+        /**
+         * @param credentialsId Credentials identifier.
+         * @return Credentials.
+         * @throws CredentialsException If credentials are unknown.
+         */
+        C resolve(String credentialsId) throws CredentialsException;
+    }
+
+    /**
+     * A journaled write pending upload.
+     */
+    private static class PendingWrite<C extends Credentials> {
+
+        final JournalEntry entry;
+
+        final C credentials;
+
+        /**
+         * Entity describing the journaled file.
+         */
+        final FileEntity file;
+
+        PendingWrite(JournalEntry entry, C credentials, FileEntity file) {
+            this.entry = entry;
+            this.credentials = credentials;
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.storage.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracer that keeps ended spans in memory. Intended for tests and diagnostics.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class InMemorySpanCollector implements Tracer {
+
+    /**
+     * Ended spans, in the order they ended.
+     */
+    private final ConcurrentLinkedQueue<CollectedSpan> spans = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Generator of span identifiers.
+     */
+    private final AtomicLong ids = new AtomicLong();
+
+    @Override
+    public Span startSpan(String name, Span parent) {
+        CollectedSpan parentSpan = parent instanceof CollectedSpan ? (CollectedSpan) parent : null;
+        return new CollectedSpan(ids.incrementAndGet(), name, parentSpan);
+    }
+
+    /**
+     * @return Ended spans, in the order they ended.
+     */
+    public List<CollectedSpan> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * @param name Name of span.
+     * @return Ended spans named <i>name</i>, in the order they ended.
+     */
+    public List<CollectedSpan> getSpans(String name) {
+        List<CollectedSpan> result = new ArrayList<>();
+        for (CollectedSpan span : spans) {
+            if (span.name.equals(name)) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Discard all collected spans.
+     */
+    public void clear() {
+        spans.clear();
+    }
+
+    /**
+     * A span collected in memory.
+     */
+    public final class CollectedSpan implements Span {
+
+        /**
+         * Identifier of span, unique within its collector.
+         */
+        public final long id;
+
+        /**
+         * Identifier of trace, i.e.: of its root span.
+         */
+        public final long traceId;
+
+        /**
+         * Name of span.
+         */
+        public final String name;
+
+        /**
+         * Parent span or {@code null} for a root span.
+         */
+        public final CollectedSpan parent;
+
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+        private final long start = System.nanoTime();
+
+        private volatile long end;
+
+        private volatile Throwable error;
+
+        CollectedSpan(long id, String name, CollectedSpan parent) {
+            this.id = id;
+            this.traceId = parent != null ? parent.traceId : id;
+            this.name = name;
+            this.parent = parent;
+        }
+
+        @Override
+        public synchronized Span setAttribute(String key, String value) {
+            if (end == 0) {
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        @Override
+        public synchronized Span setAttribute(String key, long value) {
+            if (end == 0) {
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        @Override
+        public void recordError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void end() {
+            synchronized (this) {
+                if (end != 0) {
+                    return;
+                }
+                end = System.nanoTime();
+            }
+            spans.add(this);
+        }
+
+        /**
+         * @return Attributes of span.
+         */
+        public synchronized Map<String, Object> getAttributes() {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+
+        /**
+         * @return Recorded failure or {@code null} if none.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * @return Duration of span, in nanoseconds, or 0 if it has not ended.
+         */
+        public long getDurationNanos() {
+            long ended = end;
+            return ended != 0 ? ended - start : 0;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + getAttributes() + (error != null ? " failed: " + error : "");
+        }
+    }
+}
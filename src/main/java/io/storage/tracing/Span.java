@@ -0,0 +1,41 @@
+package io.storage.tracing;
+
+/**
+ * A timed unit of work within a trace, started by a {@link Tracer}. A span is used by a single thread at a time, and
+ * is ended exactly once.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public interface Span {
+
+    /**
+     * Set a textual attribute.
+     *
+     * @param key   Attribute name.
+     * @param value Attribute value.
+     * @return This span.
+     */
+    Span setAttribute(String key, String value);
+
+    /**
+     * Set a numeric attribute.
+     *
+     * @param key   Attribute name.
+     * @param value Attribute value.
+     * @return This span.
+     */
+    Span setAttribute(String key, long value);
+
+    /**
+     * Record the failure of the work tracked by this span.
+     *
+     * @param error Failure.
+     */
+    void recordError(Throwable error);
+
+    /**
+     * End this span. Attributes set after this call are ignored.
+     */
+    void end();
+}
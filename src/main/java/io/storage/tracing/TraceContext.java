@@ -0,0 +1,105 @@
+package io.storage.tracing;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the span current on each thread, and propagates it to tasks executed asynchronously.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class TraceContext {
+
+    /**
+     * Span current on each thread.
+     */
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    /**
+     * @return Span current on the calling thread or {@code null} if there is none.
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Make a span current on the calling thread, until the returned scope is closed.
+     *
+     * @param span Span to make current. May be {@code null}.
+     * @return Scope that restores the previously current span once closed.
+     */
+    public static Scope attach(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return () -> restore(previous);
+    }
+
+    /**
+     * Wrap a task, so it runs with the span current on the calling thread.
+     *
+     * @param task Task to wrap.
+     * @return Wrapped task, or <i>task</i> itself if there is no current span.
+     */
+    public static Runnable wrap(Runnable task) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+
+        return () -> {
+            Scope scope = attach(span);
+            try {
+                task.run();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * Wrap a task, so it runs with the span current on the calling thread.
+     *
+     * @param task Task to wrap.
+     * @param <T>  Generic type of task's result.
+     * @return Wrapped task, or <i>task</i> itself if there is no current span.
+     */
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+
+        return () -> {
+            Scope scope = attach(span);
+            try {
+                return task.get();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    private static void restore(Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Scope of a current span.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        /**
+         * Restore the span that was current before this scope was opened.
+         */
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,46 @@
+package io.storage.tracing;
+
+/**
+ * Tracing SPI -- starts a {@link Span span} around each storage operation and each remote call of a provider, so storage
+ * calls show up in end-to-end request traces. Adapters to a tracing library (e.g.: OpenTelemetry) implement this
+ * interface; see {@link InMemorySpanCollector} for an in-process implementation.<p>
+ * The parent of a span is the span {@link TraceContext#current() current} on the calling thread, which is propagated to
+ * asynchronous tasks via {@link TraceContext#wrap(Runnable)}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public interface Tracer {
+
+    /**
+     * Tracer that traces nothing. Operations are not instrumented at all when it is used.
+     */
+    Tracer NOOP = new Tracer() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public Span startSpan(String name, Span parent) {
+            throw new IllegalStateException("Tracing is disabled.");
+        }
+    };
+
+    /**
+     * @return {@code true} if operations should be traced. When {@code false}, callers skip tracing altogether, so
+     * no span is started.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Start a span.
+     *
+     * @param name   Name of span.
+     * @param parent Parent span or {@code null} if the span is a root of a new trace.
+     * @return Started span.
+     */
+    Span startSpan(String name, Span parent);
+}
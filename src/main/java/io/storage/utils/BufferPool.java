@@ -0,0 +1,85 @@
+package io.storage.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of equally sized byte buffers, reducing allocation (and garbage collection) of large buffers on hot
+ * streaming paths. Buffers are not cleared on release.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class BufferPool {
+
+    /**
+     * Size of each buffer, in bytes.
+     */
+    private final int bufferSize;
+
+    /**
+     * Maximum number of idle buffers retained.
+     */
+    private final int maxPooled;
+
+    /**
+     * Idle buffers.
+     */
+    private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of idle buffers (tracked separately, since {@code ConcurrentLinkedQueue.size()} is linear).
+     */
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * Class constructor.
+     *
+     * @param bufferSize Size of each buffer, in bytes. Must be greater than 0.
+     * @param maxPooled  Maximum number of idle buffers retained. Must not be negative.
+     * @throws IllegalArgumentException If either arguments are out of range.
+     */
+    public BufferPool(int bufferSize, int maxPooled) throws IllegalArgumentException {
+        if (bufferSize < 1 || maxPooled < 0) {
+            throw new IllegalArgumentException("Invalid buffer pool (buffer size: " + bufferSize + ", max pooled: "
+                    + maxPooled + ").");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return An idle buffer or a newly allocated one, if none are idle.
+     */
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        if (buffer != null) {
+            pooled.decrementAndGet();
+            return buffer;
+        }
+
+        return new byte[bufferSize];
+    }
+
+    /**
+     * Return a buffer to the pool. Buffers beyond the pool's capacity (or of a different size) are left for garbage
+     * collection.
+     *
+     * @param buffer Buffer to return.
+     */
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize && pooled.incrementAndGet() <= maxPooled) {
+            buffers.offer(buffer);
+        } else if (buffer != null && buffer.length == bufferSize) {
+            pooled.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return Size of each buffer, in bytes.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,374 @@
+package io.storage.utils;
+
+import io.storage.StorageException;
+import io.storage.tracing.TraceContext;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reduces tail latency of idempotent remote calls by hedging: if a call did not return within a delay derived from the
+ * recent latency distribution of the same operation (e.g.: its 95th percentile), a duplicate call is issued, the first
+ * successful response is taken and the other call is cancelled.<p>
+ * Hedging costs additional requests, so the fraction of hedged calls is capped (by a token bucket refilled by each
+ * call), protecting the remote service's quota. Operations are not hedged until enough latency samples were collected.
+ * <p>
+ * Only idempotent operations may be hedged, since both calls may complete.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class HedgingPolicy {
+
+    /**
+     * Default latency percentile calls are hedged after.
+     */
+    public static final double DEFAULT_PERCENTILE = 0.95;
+
+    /**
+     * Default maximum fraction of calls that are hedged.
+     */
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+
+    /**
+     * Default minimum hedge delay, so calls are never hedged on jitter alone.
+     */
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(10);
+
+    /**
+     * Number of recent latency samples kept per operation.
+     */
+    static final int WINDOW_SIZE = 1024;
+
+    /**
+     * Number of samples required before an operation is hedged.
+     */
+    static final int MIN_SAMPLES = 32;
+
+    /**
+     * Number of samples between recomputations of an operation's hedge delay.
+     */
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    /**
+     * Maximum number of hedges that can be issued in a burst.
+     */
+    private static final double MAX_BURST = 10;
+
+    /**
+     * Executes calls and their hedges.
+     */
+    private final ExecutorService executor =
+            Executors.newCachedThreadPool(StreamPipe.daemonThreadFactory("storage-hedge-"));
+
+    /**
+     * Latency samples, per operation.
+     */
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Number of calls executed.
+     */
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Number of calls hedged.
+     */
+    private final LongAdder hedges = new LongAdder();
+
+    /**
+     * Number of hedged calls answered first by the hedge.
+     */
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * Hedges that may be issued, refilled by {@link #maxHedgeRatio} per call.
+     */
+    private double hedgeTokens = MAX_BURST;
+
+    private volatile double percentile = DEFAULT_PERCENTILE;
+
+    private volatile double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+
+    private volatile Duration minDelay = DEFAULT_MIN_DELAY;
+
+    /**
+     * Execute an idempotent call, hedging it if it is slow.
+     *
+     * @param operation Name of operation. Latency is tracked per operation.
+     * @param call      Call to execute. May be executed twice, concurrently.
+     * @param <T>       Generic type of call's return value.
+     * @return Result of the first call to succeed.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     * @throws StorageException         If all calls failed (the failure of the first call is thrown as-is), or the
+     *                                  caller was interrupted.
+     */
+    public <T> T execute(String operation, Supplier<T> call) throws IllegalArgumentException, StorageException {
+        Assert.notNull(operation, "Operation cannot be null.");
+        Assert.notNull(call, "Call cannot be null.");
+
+        calls.increment();
+        refill();
+        LatencyWindow window = windows.computeIfAbsent(operation, key -> new LatencyWindow());
+        long delay = window.delayNanos;
+        if (delay <= 0) {
+            // Not enough samples yet.
+            return timed(call, window).get();
+        }
+
+        Race<T> race = new Race<>();
+        Future<?> primary = executor.submit(TraceContext.wrap(() -> race.attempt(timed(call, window), false)));
+        try {
+            try {
+                return race.winner.get(Math.max(delay, minDelay.toNanos()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (!tryAcquireHedge() || !race.addHedge()) {
+                    return race.winner.get();
+                }
+            }
+
+            hedges.increment();
+            Future<?> hedge = executor.submit(TraceContext.wrap(() -> race.attempt(timed(call, window), true)));
+            try {
+                return race.winner.get();
+            } finally {
+                hedge.cancel(true);
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new StorageException("Operation " + operation + " failed.", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while waiting for " + operation + ".", ex);
+        } finally {
+            primary.cancel(true);
+        }
+    }
+
+    /**
+     * Set the latency percentile calls are hedged after. A lower percentile trims more of the tail, at the cost of more
+     * hedges.
+     *
+     * @param percentile Percentile, between 0 and 1 (exclusive).
+     * @throws IllegalArgumentException If <i>percentile</i> is out of range.
+     */
+    public void setPercentile(double percentile) throws IllegalArgumentException {
+        if (!(percentile > 0 && percentile < 1)) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile + " (must be between 0 and 1).");
+        }
+        this.percentile = percentile;
+        windows.values().forEach(LatencyWindow::recompute);
+    }
+
+    /**
+     * Set the maximum fraction of calls that are hedged. Calls that would be hedged beyond this fraction wait for their
+     * first response only.
+     *
+     * @param maxHedgeRatio Ratio, between 0 (never hedge) and 1.
+     * @throws IllegalArgumentException If <i>maxHedgeRatio</i> is out of range.
+     */
+    public void setMaxHedgeRatio(double maxHedgeRatio) throws IllegalArgumentException {
+        if (!(maxHedgeRatio >= 0 && maxHedgeRatio <= 1)) {
+            throw new IllegalArgumentException("Invalid hedge ratio: " + maxHedgeRatio + " (must be between 0 and 1).");
+        }
+
+        synchronized (this) {
+            this.maxHedgeRatio = maxHedgeRatio;
+            if (maxHedgeRatio == 0) {
+                hedgeTokens = 0;
+            }
+        }
+    }
+
+    /**
+     * Set the minimum hedge delay.
+     *
+     * @param minDelay Minimum delay.
+     * @throws IllegalArgumentException If <i>minDelay</i> is {@code null} or negative.
+     */
+    public void setMinDelay(Duration minDelay) throws IllegalArgumentException {
+        Assert.notNull(minDelay, "Minimum delay cannot be null.");
+        if (minDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid minimum delay: " + minDelay + " (must not be negative).");
+        }
+        this.minDelay = minDelay;
+    }
+
+    /**
+     * @param operation Name of operation.
+     * @return Current hedge delay of <i>operation</i>, or {@code null} if it is not hedged yet.
+     */
+    public Duration getDelay(String operation) {
+        LatencyWindow window = windows.get(operation);
+        return window != null && window.delayNanos > 0
+                ? Duration.ofNanos(Math.max(window.delayNanos, minDelay.toNanos()))
+                : null;
+    }
+
+    /**
+     * @return Number of calls executed.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return Number of calls hedged.
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * @return Number of hedged calls answered first by the hedge.
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * Stop executing calls. Calls in progress are completed.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private synchronized void refill() {
+        hedgeTokens = Math.min(hedgeTokens + maxHedgeRatio, MAX_BURST);
+    }
+
+    private synchronized boolean tryAcquireHedge() {
+        if (hedgeTokens < 1) {
+            return false;
+        }
+
+        hedgeTokens--;
+        return true;
+    }
+
+    /**
+     * Wrap a call, so the latency of successful calls is recorded.
+     */
+    private static <T> Supplier<T> timed(Supplier<T> call, LatencyWindow window) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = call.get();
+            window.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    /**
+     * Recent latency samples of an operation, in a ring buffer.
+     */
+    private final class LatencyWindow {
+
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+
+        private final AtomicLong count = new AtomicLong();
+
+        /**
+         * Hedge delay, in nanoseconds. Zero until enough samples were collected.
+         */
+        volatile long delayNanos;
+
+        void record(long nanos) {
+            long index = count.getAndIncrement();
+            samples.set((int) (index % WINDOW_SIZE), nanos);
+            if (index + 1 >= MIN_SAMPLES && (index + 1) % RECOMPUTE_INTERVAL == 0) {
+                recompute();
+            }
+        }
+
+        void recompute() {
+            int size = (int) Math.min(count.get(), WINDOW_SIZE);
+            if (size < MIN_SAMPLES) {
+                return;
+            }
+
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            delayNanos = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * Result of the first call to succeed, or the failure of the first call if all calls failed.
+     */
+    private final class Race<T> {
+
+        final CompletableFuture<T> winner = new CompletableFuture<>();
+
+        /**
+         * Number of calls issued.
+         */
+        private int launched = 1;
+
+        /**
+         * Number of calls failed.
+         */
+        private int failed;
+
+        private RuntimeException firstFailure;
+
+        /**
+         * Register a hedge, unless the race is already decided.
+         *
+         * @return {@code true} if a hedge should be issued.
+         */
+        synchronized boolean addHedge() {
+            if (winner.isDone()) {
+                return false;
+            }
+
+            launched++;
+            return true;
+        }
+
+        void attempt(Supplier<T> call, boolean hedge) {
+            try {
+                T result = call.get();
+                synchronized (this) {
+                    if (winner.isDone()) {
+                        return;
+                    }
+                    // Counted before completion, so the count is visible once the caller returns.
+                    if (hedge) {
+                        hedgeWins.increment();
+                    }
+                    winner.complete(result);
+                }
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    if (firstFailure == null) {
+                        firstFailure = ex;
+                    } else {
+                        firstFailure.addSuppressed(ex);
+                    }
+
+                    if (++failed == launched) {
+                        winner.completeExceptionally(firstFailure);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.storage.utils;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock utils, for striping locks by key (e.g.: by path) rather than holding a lock per key.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public abstract class Locks {
+
+    /**
+     * Create monitors to synchronize on.
+     *
+     * @param stripes Number of monitors to create.
+     * @return Monitors.
+     */
+    public static Object[] newMonitors(int stripes) {
+        Object[] monitors = new Object[stripes];
+        for (int i = 0; i < monitors.length; i++) {
+            monitors[i] = new Object();
+        }
+
+        return monitors;
+    }
+
+    /**
+     * Create read/write locks.
+     *
+     * @param stripes Number of locks to create.
+     * @return Locks.
+     */
+    public static ReadWriteLock[] newReadWriteLocks(int stripes) {
+        ReadWriteLock[] locks = new ReadWriteLock[stripes];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+
+        return locks;
+    }
+}
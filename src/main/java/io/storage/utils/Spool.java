@@ -0,0 +1,83 @@
+package io.storage.utils;
+
+import io.storage.StorageException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Contents of a stream spooled to a temporary file, so it can be read more than once (e.g.: hashed first and uploaded
+ * later) without holding it in memory. The temporary file is deleted when the spool is closed.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class Spool implements Closeable {
+
+    /**
+     * Temporary file holding the contents.
+     */
+    private final Path file;
+
+    private Spool(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Spool the entire contents of a stream. The stream is not closed.
+     *
+     * @param in Input stream to spool.
+     * @return New spool.
+     * @throws IllegalArgumentException If <i>in</i> is {@code null}.
+     * @throws StorageException         If contents could not be spooled.
+     */
+    public static Spool of(InputStream in) throws IllegalArgumentException, StorageException {
+        Assert.notNull(in, "Input stream is null.");
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("storage-spool-", ".tmp");
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return new Spool(file);
+        } catch (IOException ex) {
+            if (file != null) {
+                deleteQuietly(file);
+            }
+            throw new StorageException("Could not spool contents.", ex);
+        }
+    }
+
+    /**
+     * Open a new stream to read the spooled contents. The caller is responsible for closing it.
+     *
+     * @return Input stream of spooled contents.
+     * @throws StorageException If spooled contents could not be opened.
+     */
+    public InputStream open() throws StorageException {
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException ex) {
+            throw new StorageException("Could not open spooled contents.", ex);
+        }
+    }
+
+    /**
+     * Delete the spooled contents.
+     */
+    @Override
+    public void close() {
+        deleteQuietly(file);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignore) {
+            // Temporary file is left for the OS to reclaim.
+        }
+    }
+}
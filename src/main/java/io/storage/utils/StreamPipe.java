@@ -0,0 +1,184 @@
+package io.storage.utils;
+
+import io.storage.StorageException;
+import io.storage.tracing.TraceContext;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Connects an operation that writes data to an {@code OutputStream} (e.g.: reading a file from a storage service) with
+ * an operation that reads data from an {@code InputStream} (e.g.: writing a file to a storage service) through a pipe
+ * with a bounded buffer. Data is streamed between the two, so it is never held in memory whole.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public final class StreamPipe {
+
+    /**
+     * Default size of pipe buffer, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Executor used when caller does not provide one. Threads are daemons, so they do not prevent JVM shutdown.
+     */
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(daemonThreadFactory("storage-pipe-"));
+
+    private StreamPipe() {
+    }
+
+    /**
+     * Stream data from a producer to a consumer, using the default buffer size and executor.
+     *
+     * @param producer Writes data to the pipe. Executed on a separate thread.
+     * @param consumer Reads data from the pipe. Executed on the calling thread.
+     * @param <T>      Generic type of consumer's return value.
+     * @return Consumer's return value.
+     * @throws StorageException If either producer or consumer failed.
+     */
+    public static <T> T transfer(Consumer<OutputStream> producer, Function<InputStream, T> consumer)
+            throws StorageException {
+        return transfer(producer, consumer, DEFAULT_BUFFER_SIZE, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Stream data from a producer to a consumer. The producer runs on a thread provided by <i>executor</i> while the
+     * consumer runs on the calling thread. A failure of the producer is reported to the consumer as an I/O error rather
+     * than a premature end-of-stream, so partial data is never mistaken for complete data.
+     *
+     * @param producer   Writes data to the pipe.
+     * @param consumer   Reads data from the pipe.
+     * @param bufferSize Size of pipe buffer, in bytes.
+     * @param executor   Executor to run the producer.
+     * @param <T>        Generic type of consumer's return value.
+     * @return Consumer's return value.
+     * @throws StorageException If either producer or consumer failed. Runtime exceptions are rethrown as-is.
+     */
+    public static <T> T transfer(Consumer<OutputStream> producer,
+                                 Function<InputStream, T> consumer,
+                                 int bufferSize,
+                                 Executor executor) throws StorageException {
+        Assert.notNull(producer, "Producer cannot be null.");
+        Assert.notNull(consumer, "Consumer cannot be null.");
+        Assert.notNull(executor, "Executor cannot be null.");
+
+        PipedInputStream in = new PipedInputStream(bufferSize);
+        PipedOutputStream out;
+        try {
+            out = new PipedOutputStream(in);
+        } catch (IOException ex) {
+            throw new StorageException("Could not create pipe.", ex);
+        }
+
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        CompletableFuture<Void> production = CompletableFuture.runAsync(TraceContext.wrap(() -> {
+            try {
+                producer.accept(out);
+            } catch (RuntimeException | Error ex) {
+                // Must be set before closing the pipe, so the consumer does not mistake failure for end-of-stream.
+                producerFailure.set(ex);
+                throw ex;
+            } finally {
+                closeQuietly(out);
+            }
+        }), executor);
+
+        // Closing the pipe (even when consumer fails) unblocks the producer.
+        T result;
+        InputStream guarded = new FailureAwareInputStream(in, producerFailure);
+        try {
+            result = consumer.apply(guarded);
+        } finally {
+            closeQuietly(guarded);
+        }
+
+        try {
+            production.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new StorageException("Producer failed.", cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while waiting for producer.", ex);
+        }
+
+        return result;
+    }
+
+    /**
+     * Create a factory of daemon threads.
+     *
+     * @param namePrefix Thread name prefix. Each thread name is suffixed with a running number.
+     * @return Thread factory.
+     */
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Close a stream, ignoring errors.
+     */
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+            // Nothing to do.
+        }
+    }
+
+    /**
+     * Input stream that reports a failure of the producer instead of a premature end-of-stream.
+     */
+    private static class FailureAwareInputStream extends FilterInputStream {
+
+        private final AtomicReference<Throwable> failure;
+
+        FailureAwareInputStream(InputStream in, AtomicReference<Throwable> failure) {
+            super(in);
+            this.failure = failure;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return checkFailure(in.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return checkFailure(in.read(b, off, len));
+        }
+
+        private int checkFailure(int result) throws IOException {
+            if (result < 0 && failure.get() != null) {
+                throw new IOException("Producer failed.", failure.get());
+            }
+
+            return result;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package io.storage.utils;
 
-import java.text.NumberFormat;
+import java.text.DecimalFormatSymbols;
 import java.util.Formatter;
 import java.util.regex.Pattern;
 
@@ -14,9 +14,21 @@ import java.util.regex.Pattern;
 public class StringUtils {
 
     /**
-     * Number formatting utilities.
+     * Thousands separator of the default locale. Captured once, so formatting requires no shared mutable state.
      */
-    private static final NumberFormat numberFormat = NumberFormat.getInstance();
+    private static final char GROUPING_SEPARATOR = DecimalFormatSymbols.getInstance().getGroupingSeparator();
+
+    /**
+     * Decimal separator of the default locale.
+     */
+    private static final char DECIMAL_SEPARATOR = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    /**
+     * Size units, from largest to smallest.
+     */
+    private static final SizeUnits[] SIZE_UNITS_DESCENDING = {
+            SizeUnits.TB, SizeUnits.GB, SizeUnits.MB, SizeUnits.KB
+    };
 
     /**
      * Regular expression to validate E-mail string.
@@ -105,13 +117,42 @@ public class StringUtils {
     }
 
     /**
-     * Format a given value to convenient human-readable string including thousands separator.
+     * Format a given value to convenient human-readable string including thousands separator. This method is
+     * thread-safe.
      *
      * @param value Value to format.
      * @return Formatted value.
      */
     public static String formatNumber(long value) {
-        return numberFormat.format(value);
+        return appendNumber(new StringBuilder(26), value).toString();
+    }
+
+    /**
+     * Format a given size, in bytes, to human-readable string using binary units, e.g.: {@code 1,455 bytes},
+     * {@code 1.8GB}. Sizes smaller than 1KB are formatted in bytes, larger sizes are formatted with a single decimal
+     * digit in the largest unit that fits. This method is thread-safe.
+     *
+     * @param size Size to format, in bytes.
+     * @return Formatted size.
+     */
+    public static String formatSize(long size) {
+        StringBuilder buf = new StringBuilder(16);
+
+        for (SizeUnits unit : SIZE_UNITS_DESCENDING) {
+            if (size >= unit.magnitude) {
+                // Round to a single decimal digit, without overflowing on large sizes.
+                long whole = size / unit.magnitude;
+                long tenths = ((size % unit.magnitude) * 10 + unit.magnitude / 2) / unit.magnitude;
+                if (tenths == 10) {
+                    whole++;
+                    tenths = 0;
+                }
+
+                return appendNumber(buf, whole).append(DECIMAL_SEPARATOR).append(tenths).append(unit.name()).toString();
+            }
+        }
+
+        return appendNumber(buf, size).append(" bytes").toString();
     }
 
     /**
@@ -125,6 +166,32 @@ public class StringUtils {
         return email != null && EMAIL_PATTERN.matcher(email).matches();
     }
 
+    /**
+     * Append a given value, including thousands separator, to a buffer.
+     *
+     * @param buf   Buffer to append to.
+     * @param value Value to append.
+     * @return <i>buf</i>.
+     */
+    private static StringBuilder appendNumber(StringBuilder buf, long value) {
+        if (value < 0) {
+            buf.append('-');
+        }
+
+        // Use the magnitude as characters, so Long.MIN_VALUE is handled as well.
+        String digits = Long.toString(value);
+        int start = value < 0 ? 1 : 0;
+        int length = digits.length() - start;
+        for (int index = 0; index < length; index++) {
+            if (index > 0 && (length - index) % 3 == 0) {
+                buf.append(GROUPING_SEPARATOR);
+            }
+            buf.append(digits.charAt(start + index));
+        }
+
+        return buf;
+    }
+
     /**
      * Convert an array of bytes to hexadecimal-based string representation.
      *
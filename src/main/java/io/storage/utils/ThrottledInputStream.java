@@ -0,0 +1,79 @@
+package io.storage.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Input stream that limits the rate bytes are read at, by one or more {@link TokenBucket token buckets}. Reads are
+ * capped at a {@link #QUANTUM quantum}, so concurrent streams sharing a bucket interleave at a fine grain.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    /**
+     * Maximum number of bytes read per call.
+     */
+    public static final int QUANTUM = 16 * 1024;
+
+    private final TokenBucket[] buckets;
+
+    /**
+     * Class constructor.
+     *
+     * @param in      Stream to read from.
+     * @param buckets Buckets limiting the rate.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public ThrottledInputStream(InputStream in, TokenBucket... buckets) throws IllegalArgumentException {
+        super(in);
+        Assert.notNull(in, "Input stream cannot be null.");
+        Assert.notNull(buckets, "Buckets cannot be null.");
+        this.buckets = buckets;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            acquire(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, Math.min(len, QUANTUM));
+        if (read > 0) {
+            acquire(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes may still be transferred, so they are read (and limited) as any other bytes.
+        byte[] buffer = new byte[(int) Math.min(n, QUANTUM)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    private void acquire(int bytes) throws InterruptedIOException {
+        try {
+            TokenBucket.acquire(buckets, bytes);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.storage.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that limits the rate bytes are written at, by one or more {@link TokenBucket token buckets}. Writes are
+ * split into {@link ThrottledInputStream#QUANTUM quanta}, so concurrent streams sharing a bucket interleave at a fine
+ * grain.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+
+    private final TokenBucket[] buckets;
+
+    /**
+     * Class constructor.
+     *
+     * @param out     Stream to write to.
+     * @param buckets Buckets limiting the rate.
+     * @throws IllegalArgumentException If either arguments are {@code null}.
+     */
+    public ThrottledOutputStream(OutputStream out, TokenBucket... buckets) throws IllegalArgumentException {
+        super(out);
+        Assert.notNull(out, "Output stream cannot be null.");
+        Assert.notNull(buckets, "Buckets cannot be null.");
+        this.buckets = buckets;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        acquire(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int chunk = Math.min(len, ThrottledInputStream.QUANTUM);
+            acquire(chunk);
+            out.write(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+        }
+    }
+
+    private void acquire(int bytes) throws InterruptedIOException {
+        try {
+            TokenBucket.acquire(buckets, bytes);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        }
+    }
+}
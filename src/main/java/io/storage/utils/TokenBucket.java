@@ -0,0 +1,140 @@
+package io.storage.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free token bucket limiting a rate of bytes. Each acquisition reserves its bytes by advancing a theoretical
+ * arrival time with a single compare-and-set and then waits, outside of any lock, until the reservation is due.
+ * Reservations are served in the order they were made, so concurrent callers acquiring in small quanta share the rate
+ * fairly.<p>
+ * A bucket lets a burst of up to {@link #BURST} worth of its rate through without waiting. Its rate may be changed at
+ * any time, taking effect for reservations made afterwards.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TokenBucket {
+
+    /**
+     * Duration of traffic, at full rate, a bucket lets through without waiting after being idle.
+     */
+    public static final long BURST = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Theoretical time, by {@link System#nanoTime()}, the bytes reserved so far are all due at.
+     */
+    private final AtomicLong dueTime = new AtomicLong(System.nanoTime());
+
+    /**
+     * Rate, in bytes per second, or 0 if unlimited.
+     */
+    private volatile long rate;
+
+    /**
+     * Class constructor.
+     *
+     * @param rate Rate, in bytes per second, or 0 if unlimited.
+     * @throws IllegalArgumentException If <i>rate</i> is negative.
+     */
+    public TokenBucket(long rate) throws IllegalArgumentException {
+        setRate(rate);
+    }
+
+    /**
+     * Set the rate of this bucket. Callers already waiting keep their reservations, callers reserving afterwards are
+     * limited by the new rate only.
+     *
+     * @param rate Rate, in bytes per second, or 0 if unlimited.
+     * @throws IllegalArgumentException If <i>rate</i> is negative.
+     */
+    public void setRate(long rate) throws IllegalArgumentException {
+        if (rate < 0) {
+            throw new IllegalArgumentException("Invalid rate: " + rate + " (must not be negative).");
+        }
+        this.rate = rate;
+        dueTime.set(System.nanoTime());
+    }
+
+    /**
+     * @return Rate, in bytes per second, or 0 if unlimited.
+     */
+    public long getRate() {
+        return rate;
+    }
+
+    /**
+     * @return {@code true} if this bucket limits its rate.
+     */
+    public boolean isLimited() {
+        return rate > 0;
+    }
+
+    /**
+     * Reserve bytes, without waiting.
+     *
+     * @param bytes Number of bytes to reserve.
+     * @return Time, by {@link System#nanoTime()}, the reservation is due at.
+     */
+    public long reserve(long bytes) {
+        long rate = this.rate;
+        long now = System.nanoTime();
+        if (rate <= 0 || bytes <= 0) {
+            return now;
+        }
+
+        long cost = bytes >= Long.MAX_VALUE / TimeUnit.SECONDS.toNanos(1)
+                ? Long.MAX_VALUE / 2
+                : bytes * TimeUnit.SECONDS.toNanos(1) / rate;
+        while (true) {
+            long due = dueTime.get();
+            // An idle bucket accumulates no more than a burst.
+            long next = Math.max(due, now) + cost;
+            if (dueTime.compareAndSet(due, next)) {
+                return next - BURST;
+            }
+        }
+    }
+
+    /**
+     * Acquire bytes, waiting until they are due.
+     *
+     * @param bytes Number of bytes to acquire.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void acquire(long bytes) throws InterruptedException {
+        awaitDue(reserve(bytes));
+    }
+
+    /**
+     * Acquire bytes from several buckets at once, waiting until they are due at all of them.
+     *
+     * @param buckets Buckets to acquire from.
+     * @param bytes   Number of bytes to acquire.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public static void acquire(TokenBucket[] buckets, long bytes) throws InterruptedException {
+        long due = Long.MIN_VALUE;
+        for (TokenBucket bucket : buckets) {
+            long bucketDue = bucket.reserve(bytes);
+            if (due == Long.MIN_VALUE || bucketDue - due > 0) {
+                due = bucketDue;
+            }
+        }
+
+        if (due != Long.MIN_VALUE) {
+            awaitDue(due);
+        }
+    }
+
+    private static void awaitDue(long due) throws InterruptedException {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Interrupted while waiting for bandwidth.");
+            }
+        }
+    }
+}
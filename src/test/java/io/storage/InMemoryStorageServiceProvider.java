@@ -0,0 +1,205 @@
+package io.storage;
+
+import io.storage.core.*;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.hash.ContentDigest;
+import io.storage.utils.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal in-memory storage service provider, used as a backend by unit tests. Folders are implied by the paths of
+ * the files they contain.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class InMemoryStorageServiceProvider extends AbstractStorageServiceProvider<EmptyCredentials> {
+
+    /**
+     * File contents, keyed by normalized path.
+     */
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+    /**
+     * File modification timestamps, keyed by normalized path.
+     */
+    private final Map<String, Instant> modificationDates = new ConcurrentHashMap<>();
+
+    /**
+     * Number of write operations performed.
+     */
+    public final AtomicInteger writeCount = new AtomicInteger();
+
+    /**
+     * Number of read operations performed.
+     */
+    public final AtomicInteger readCount = new AtomicInteger();
+
+    public InMemoryStorageServiceProvider() {
+        super(EmptyCredentials.class);
+    }
+
+    @Override
+    public FolderEntity listFolderContents(EmptyCredentials credentials, String path) {
+        EntityPath location = EntityPath.parse(path);
+        String prefix = location.isRoot() ? "/" : location + "/";
+        if (!location.isRoot() && !isFolderPath(prefix)) {
+            throw new EntityNotFoundException("Unknown folder: " + path);
+        }
+
+        FolderEntity folder = new FolderEntity();
+        folder.location = location;
+        folder.files = new ArrayList<>();
+        folder.folders = new ArrayList<>();
+
+        Map<String, FolderEntity> subFolders = new ConcurrentHashMap<>();
+        for (String filePath : files.keySet()) {
+            if (filePath.startsWith(prefix)) {
+                String remainder = filePath.substring(prefix.length());
+                int separator = remainder.indexOf('/');
+                if (separator < 0) {
+                    folder.files.add(toFileEntity(filePath));
+                } else {
+                    subFolders.computeIfAbsent(remainder.substring(0, separator), name -> {
+                        FolderEntity subFolder = new FolderEntity();
+                        subFolder.location = location.resolve(name);
+                        return subFolder;
+                    });
+                }
+            }
+        }
+        folder.folders.addAll(subFolders.values());
+
+        return folder;
+    }
+
+    @Override
+    public boolean exists(EmptyCredentials credentials, String path) {
+        String normalized = normalize(path);
+        return normalized.equals("/") || files.containsKey(normalized) || isFolderPath(normalized + "/");
+    }
+
+    @Override
+    public FileEntity readFileMeta(EmptyCredentials credentials, String path) {
+        return toFileEntity(requireFile(path));
+    }
+
+    @Override
+    public void readFile(EmptyCredentials credentials, String path, OutputStream out) {
+        Assert.notNull(out, "Output stream is null.");
+        byte[] data = files.get(requireFile(path));
+        readCount.incrementAndGet();
+        try {
+            out.write(data);
+        } catch (IOException ex) {
+            throw new StorageException("Could not write to output stream.", ex);
+        }
+    }
+
+    @Override
+    public FileEntity writeFile(EmptyCredentials credentials, String path, InputStream in) {
+        Assert.notNull(in, "Input stream is null.");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            in.transferTo(buffer);
+        } catch (IOException ex) {
+            throw new StorageException("Could not read input stream.", ex);
+        }
+
+        return writeFile(credentials, path, buffer.toByteArray());
+    }
+
+    @Override
+    public FileEntity writeFile(EmptyCredentials credentials, String path, InputStream in, String revision) {
+        return writeFile(credentials, path, in);
+    }
+
+    @Override
+    public FileEntity writeFile(EmptyCredentials credentials, String path, byte[] data) {
+        Assert.notNull(data, "Data cannot be null.");
+        String normalized = normalize(path);
+        files.put(normalized, data.clone());
+        modificationDates.put(normalized, Instant.now());
+        writeCount.incrementAndGet();
+
+        FileEntity file = toFileEntity(normalized);
+        file.hashes = ContentDigest.of(hashAlgorithms(), data).getHashes();
+        return file;
+    }
+
+    @Override
+    public FileEntity writeFile(EmptyCredentials credentials, String path, byte[] data, String revision) {
+        return writeFile(credentials, path, data);
+    }
+
+    @Override
+    public void delete(EmptyCredentials credentials, String path) {
+        String normalized = normalize(path);
+        modificationDates.remove(normalized);
+        if (files.remove(normalized) == null) {
+            String prefix = normalized + "/";
+            modificationDates.keySet().removeIf(filePath -> filePath.startsWith(prefix));
+            if (!files.keySet().removeIf(filePath -> filePath.startsWith(prefix))) {
+                throw new EntityNotFoundException("Unknown entity: " + path);
+            }
+        }
+    }
+
+    /**
+     * @param path Path to file.
+     * @return Stored file contents or {@code null} if file does not exist.
+     */
+    public byte[] getContents(String path) {
+        return files.get(normalize(path));
+    }
+
+    /**
+     * @return Number of stored files.
+     */
+    public int size() {
+        return files.size();
+    }
+
+    private String requireFile(String path) {
+        String normalized = normalize(path);
+        if (!files.containsKey(normalized)) {
+            throw new EntityNotFoundException("Unknown file: " + path);
+        }
+
+        return normalized;
+    }
+
+    private boolean isFolderPath(String prefix) {
+        return files.keySet().stream().anyMatch(filePath -> filePath.startsWith(prefix));
+    }
+
+    private FileEntity toFileEntity(String path) {
+        FileEntity file = new FileEntity();
+        file.location = EntityPath.parse(path);
+        file.size = files.get(path).length;
+        file.modificationDate = modificationDates.get(path);
+        return file;
+    }
+
+    private static String normalize(String path) {
+        validatePathFormat(path);
+        return EntityPath.parse(path).toString();
+    }
+
+    private static void validatePathFormat(String path) {
+        if (path == null || !path.startsWith("/")) {
+            throw new InvalidPathFormatException("Invalid path format.", path);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package io.storage;
 
 import io.storage.core.Credentials;
+import io.storage.core.EntityNotFoundException;
 import io.storage.core.StorageServiceProvider;
+import io.storage.core.entities.BaseEntity;
 import io.storage.core.entities.FileEntity;
 import io.storage.core.entities.FolderEntity;
 import io.storage.utils.Assert;
@@ -9,6 +11,11 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Storage service providers test comparability kit. Specific storage providers integration test can inherit or
@@ -51,7 +58,10 @@ public abstract class TestCompatibilityKit<C extends Credentials> {
     public void runAllTests() {
         testAccessRootFolder();
         testEntryExists();
+        testListFolder();
         testDelete();
+        testCopyAndMove();
+        testFind();
     }
 
     /**
@@ -65,13 +75,13 @@ public abstract class TestCompatibilityKit<C extends Credentials> {
         Assertions.assertThat(folder).isNotNull();
 
         // Name of root folder must be "/".
-        Assertions.assertThat(folder.name).isEqualTo("/");
+        Assertions.assertThat(folder.getName()).isEqualTo("/");
 
         // Root's parent path should be "null", since the root folder has no actual parent.
-        Assertions.assertThat(folder.parentPath).isNull();
+        Assertions.assertThat(folder.getParentPath()).isNull();
 
         // Root's path is... root ("/").
-        Assertions.assertThat(folder.path).isEqualTo("/");
+        Assertions.assertThat(folder.getPath()).isEqualTo("/");
 
         // Folder's file list must never be "null", even if there are no children.
         Assertions.assertThat(folder.files).isNotNull();
@@ -80,6 +90,24 @@ public abstract class TestCompatibilityKit<C extends Credentials> {
         Assertions.assertThat(folder.folders).isNotNull();
     }
 
+    /**
+     * Test lazy folder listing ({@link StorageServiceProvider#listFolder(Credentials, String)}).
+     */
+    @Test
+    public void testListFolder() {
+        String path = createTemporaryFile();
+
+        // A newly created file must be reachable by iterating the root folder listing.
+        boolean found = false;
+        for (BaseEntity entity : provider.listFolder(credentials, "/")) {
+            found |= path.equals(entity.getPath());
+        }
+        Assertions.assertThat(found).isTrue();
+
+        // Cleanup.
+        provider.delete(credentials, path);
+    }
+
     /**
      * Test file read/write operations.
      */
@@ -93,7 +121,7 @@ public abstract class TestCompatibilityKit<C extends Credentials> {
 
         Assertions.assertThat(writtenFile).isNotNull();
         Assertions.assertThat(writtenFile.modificationDate).isNotNull();
-        Assertions.assertThat(writtenFile.humanReadableSize).isNotNull();
+        Assertions.assertThat(writtenFile.getHumanReadableSize()).isNotNull();
         Assertions.assertThat(writtenFile.size).isEqualTo(contents.length);
 
         provider.readFile(credentials, filename, input);
@@ -130,6 +158,74 @@ public abstract class TestCompatibilityKit<C extends Credentials> {
         Assertions.assertThat(provider.exists(credentials, path)).isFalse();
     }
 
+    /**
+     * Test copy and move operations ({@link StorageServiceProvider#copy(Credentials, String, String)},
+     * {@link StorageServiceProvider#move(Credentials, String, String)}).
+     */
+    @Test
+    public void testCopyAndMove() {
+        final byte[] contents = Long.toString(System.currentTimeMillis()).getBytes();
+        String source = createTemporaryFile(contents);
+        String copy = source + ".copy";
+        String moved = source + ".moved";
+
+        // Copy should leave the source in place.
+        provider.copy(credentials, source, copy);
+        Assertions.assertThat(provider.exists(credentials, source)).isTrue();
+
+        // Move should remove the source.
+        provider.move(credentials, copy, moved);
+        Assertions.assertThat(provider.exists(credentials, copy)).isFalse();
+
+        ByteArrayOutputStream input = new ByteArrayOutputStream();
+        provider.readFile(credentials, moved, input);
+        Assertions.assertThat(input.toByteArray()).isEqualTo(contents);
+
+        // Cleanup.
+        provider.delete(credentials, source);
+        provider.delete(credentials, moved);
+    }
+
+    /**
+     * Test search ({@link StorageServiceProvider#find(Credentials, String, String, java.util.function.Predicate)}).
+     */
+    @Test
+    public void testFind() {
+        String folder = "/tck_" + System.currentTimeMillis();
+        provider.writeFile(credentials, folder + "/a.pdf", new byte[5]);
+        provider.writeFile(credentials, folder + "/sub/b.pdf", new byte[500]);
+        provider.writeFile(credentials, folder + "/sub/c.txt", new byte[500]);
+        provider.writeFile(credentials, folder + "/other/d.pdf", new byte[5]);
+
+        // Glob and filter must both match.
+        Assertions.assertThat(paths(provider.find(credentials, folder, "**/*.pdf",
+                entity -> entity instanceof FileEntity && ((FileEntity) entity).size > 100)))
+                .containsExactly(folder + "/sub/b.pdf");
+
+        // Entities of folders the glob cannot match under are not found, e.g.: by searching below the literal prefix.
+        Assertions.assertThat(paths(provider.find(credentials, folder, "sub/*", entity -> true)))
+                .containsExactly(folder + "/sub/b.pdf", folder + "/sub/c.txt");
+        Assertions.assertThat(paths(provider.find(credentials, folder, "*.pdf", entity -> true)))
+                .containsExactly(folder + "/a.pdf");
+
+        // A literal prefix that does not exist, or references a file, matches nothing.
+        Assertions.assertThat(provider.find(credentials, folder, "missing/**", entity -> true).isEmpty()).isTrue();
+        Assertions.assertThat(provider.find(credentials, folder, "a.pdf/**", entity -> true).isEmpty()).isTrue();
+
+        // Searching under a folder that does not exist fails, even if the glob has a literal prefix.
+        assertThrows(EntityNotFoundException.class,
+                () -> provider.find(credentials, folder + "/missing", "sub/*", entity -> true));
+
+        // Cleanup, deepest first, since providers may not delete non-empty folders. Folders of some providers exist
+        // only as long as they hold files.
+        for (String path : new String[]{"/sub/b.pdf", "/sub/c.txt", "/sub", "/other/d.pdf", "/other", "/a.pdf", ""}) {
+            if (provider.exists(credentials, folder + path)) {
+                provider.delete(credentials, folder + path);
+            }
+        }
+        Assertions.assertThat(provider.exists(credentials, folder)).isFalse();
+    }
+
     /**
      * Creates a new temporary file with no contents.
      *
@@ -151,6 +247,17 @@ public abstract class TestCompatibilityKit<C extends Credentials> {
         return tempFile;
     }
 
+    /**
+     * @return Sorted paths of entities.
+     */
+    private static Set<String> paths(List<BaseEntity> entities) {
+        Set<String> paths = new TreeSet<>();
+        for (BaseEntity entity : entities) {
+            paths.add(entity.getPath());
+        }
+        return paths;
+    }
+
     /**
      * @return Temporary file name.
      */
@@ -0,0 +1,74 @@
+package io.storage.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link Glob}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class GlobTest {
+
+    /**
+     * Test matching of wildcards within a single path element.
+     */
+    @Test
+    public void testShouldMatchSegmentWildcards() {
+        assertThat(Glob.compile("*.pdf").matches("report.pdf")).isTrue();
+        assertThat(Glob.compile("*.pdf").matches("docs/report.pdf")).isFalse();
+        assertThat(Glob.compile("report-?.{pdf,doc}").matches("report-1.doc")).isTrue();
+        assertThat(Glob.compile("report-?.{pdf,doc}").matches("report-12.doc")).isFalse();
+        assertThat(Glob.compile("[!a-c]*").matches("delta")).isTrue();
+        assertThat(Glob.compile("[!a-c]*").matches("alpha")).isFalse();
+        assertThat(Glob.compile("a\\*b.txt").matches("a*b.txt")).isTrue();
+        assertThat(Glob.compile("a\\*b.txt").matches("axb.txt")).isFalse();
+    }
+
+    /**
+     * Test matching of any number of path elements.
+     */
+    @Test
+    public void testShouldMatchAnyDepth() {
+        Glob glob = Glob.compile("/docs/**/*.pdf");
+
+        assertThat(glob.matches("docs/a.pdf")).isTrue();
+        assertThat(glob.matches("docs/2026/q1/a.pdf")).isTrue();
+        assertThat(glob.matches("media/a.pdf")).isFalse();
+        assertThat(glob.isRecursive()).isTrue();
+        assertThat(glob.maxDepth()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(glob.literalPrefix()).containsExactly("docs");
+        assertThat(glob.namePrefix()).isEqualTo("");
+    }
+
+    /**
+     * Test that states tell which folders cannot hold matches.
+     */
+    @Test
+    public void testShouldTellWhichFoldersToPrune() {
+        Glob glob = Glob.compile("docs/*/invoice-*.pdf");
+        Glob.State docs = glob.start().next("docs");
+
+        assertThat(glob.start().next("media").canMatchBelow()).isFalse();
+        assertThat(docs.canMatchBelow()).isTrue();
+        assertThat(docs.next("2026").canMatchBelow()).isTrue();
+        assertThat(docs.next("2026").next("invoice-1.pdf").isMatch()).isTrue();
+        assertThat(docs.next("2026").next("invoice-1.pdf").canMatchBelow()).isFalse();
+        assertThat(glob.maxDepth()).isEqualTo(3);
+        assertThat(glob.namePrefix()).isEqualTo("invoice-");
+    }
+
+    /**
+     * Test rejection of malformed globs.
+     */
+    @Test
+    public void testShouldRejectMalformedGlob() {
+        assertThrows(IllegalArgumentException.class, () -> Glob.compile("/"));
+        assertThrows(IllegalArgumentException.class, () -> Glob.compile("[abc"));
+        assertThrows(IllegalArgumentException.class, () -> Glob.compile("{pdf,doc"));
+        assertThrows(IllegalArgumentException.class, () -> Glob.compile("a\\"));
+    }
+}
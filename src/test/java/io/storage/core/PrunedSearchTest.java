@@ -0,0 +1,111 @@
+package io.storage.core;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for the pruned listing fallback of
+ * {@link StorageServiceProvider#find(Credentials, String, String, java.util.function.Predicate)}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class PrunedSearchTest {
+
+    private final List<String> listed = new CopyOnWriteArrayList<>();
+
+    private final InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider() {
+        @Override
+        public FolderEntity listFolderContents(EmptyCredentials credentials, String path) {
+            listed.add(path);
+            return super.listFolderContents(credentials, path);
+        }
+    };
+
+    private final EmptyCredentials credentials = new EmptyCredentials();
+
+    /**
+     * Test finding of files by glob and filter.
+     */
+    @Test
+    public void testShouldFindByGlobAndFilter() {
+        provider.writeFile(credentials, "/docs/a.pdf", new byte[5]);
+        provider.writeFile(credentials, "/docs/2026/b.pdf", new byte[500]);
+        provider.writeFile(credentials, "/docs/2026/c.txt", new byte[500]);
+        provider.writeFile(credentials, "/media/d.pdf", new byte[500]);
+
+        assertThat(paths(provider.find(credentials, "/", "docs/**/*.pdf", entity -> true)))
+                .containsExactly("/docs/2026/b.pdf", "/docs/a.pdf");
+        assertThat(paths(provider.find(credentials, "/", "**/*.pdf",
+                entity -> entity instanceof FileEntity && ((FileEntity) entity).size > 100)))
+                .containsExactly("/docs/2026/b.pdf", "/media/d.pdf");
+        assertThat(paths(provider.find(credentials, "/docs", "*", entity -> entity instanceof FolderEntity)))
+                .containsExactly("/docs/2026");
+    }
+
+    /**
+     * Test that folders the glob cannot match under are not listed.
+     */
+    @Test
+    public void testShouldPruneFolders() {
+        provider.writeFile(credentials, "/docs/a.pdf", new byte[5]);
+        provider.writeFile(credentials, "/docs/2026/b.pdf", new byte[5]);
+        provider.writeFile(credentials, "/media/c.pdf", new byte[5]);
+
+        assertThat(paths(provider.find(credentials, "/", "docs/*.pdf", entity -> true))).containsExactly("/docs/a.pdf");
+        assertThat(listed).containsExactly("/docs");
+    }
+
+    /**
+     * Test finding under a literal prefix that does not exist.
+     */
+    @Test
+    public void testShouldFindNothingUnderMissingPrefix() {
+        provider.writeFile(credentials, "/docs/a.pdf", new byte[5]);
+
+        assertThat(provider.find(credentials, "/", "missing/**", entity -> true).isEmpty()).isTrue();
+        assertThat(listed.isEmpty()).isTrue();
+    }
+
+    /**
+     * Test finding under a root that does not exist, with and without a literal prefix.
+     */
+    @Test
+    public void testShouldFailUnderMissingRoot() {
+        provider.writeFile(credentials, "/docs/a.pdf", new byte[5]);
+
+        assertThrows(EntityNotFoundException.class, () -> provider.find(credentials, "/missing", "*", entity -> true));
+        assertThrows(EntityNotFoundException.class,
+                () -> provider.find(credentials, "/missing", "docs/*", entity -> true));
+    }
+
+    /**
+     * Test finding under a literal prefix that references a file.
+     */
+    @Test
+    public void testShouldFindNothingUnderFilePrefix() {
+        provider.writeFile(credentials, "/docs/a.pdf", new byte[5]);
+
+        assertThat(provider.find(credentials, "/", "docs/a.pdf/*", entity -> true).isEmpty()).isTrue();
+        assertThat(provider.find(credentials, "/", "docs/a.pdf/x/*", entity -> true).isEmpty()).isTrue();
+    }
+
+    private static Set<String> paths(List<BaseEntity> entities) {
+        Set<String> paths = new TreeSet<>();
+        for (BaseEntity entity : entities) {
+            paths.add(entity.getPath());
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,77 @@
+package io.storage.core;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.entities.FileEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link UploadMode#SKIP_UNCHANGED} writes.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class SkipUnchangedUploadTest {
+
+    private final InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+
+    private final EmptyCredentials credentials = new EmptyCredentials();
+
+    /**
+     * Test that rewriting identical contents is skipped, relying on hashes cached by the first write (the in-memory
+     * provider does not report hashes on its own).
+     */
+    @Test
+    public void testShouldSkipUnchangedContents() {
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes(), UploadMode.SKIP_UNCHANGED);
+        FileEntity file = provider.writeFile(credentials, "/a.txt", "alpha".getBytes(), UploadMode.SKIP_UNCHANGED);
+
+        assertThat(file.getPath()).isEqualTo("/a.txt");
+        assertThat(provider.writeCount.get()).isEqualTo(1);
+
+        UploadStatistics statistics = provider.getUploadStatistics();
+        assertThat(statistics.getFilesUploaded()).isEqualTo(1L);
+        assertThat(statistics.getFilesSkipped()).isEqualTo(1L);
+        assertThat(statistics.getBytesSkipped()).isEqualTo(5L);
+    }
+
+    /**
+     * Test that changed contents of the same size is uploaded.
+     */
+    @Test
+    public void testShouldUploadChangedContents() {
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes(), UploadMode.SKIP_UNCHANGED);
+        provider.writeFile(credentials, "/a.txt", "bravo".getBytes(), UploadMode.SKIP_UNCHANGED);
+
+        assertThat(provider.writeCount.get()).isEqualTo(2);
+        assertThat(provider.getContents("/a.txt")).isEqualTo("bravo".getBytes());
+        assertThat(provider.getUploadStatistics().getBytesUploaded()).isEqualTo(10L);
+    }
+
+    /**
+     * Test that stream contents is compared and uploaded only when changed.
+     */
+    @Test
+    public void testShouldSkipUnchangedStream() {
+        provider.writeFile(credentials, "/a.txt", new ByteArrayInputStream("alpha".getBytes()), UploadMode.SKIP_UNCHANGED);
+        provider.writeFile(credentials, "/a.txt", new ByteArrayInputStream("alpha".getBytes()), UploadMode.SKIP_UNCHANGED);
+        provider.writeFile(credentials, "/a.txt", new ByteArrayInputStream("alphas".getBytes()), UploadMode.SKIP_UNCHANGED);
+
+        assertThat(provider.writeCount.get()).isEqualTo(2);
+        assertThat(provider.getContents("/a.txt")).isEqualTo("alphas".getBytes());
+    }
+
+    /**
+     * Test that files written without hashes (i.e.: not via skip-unchanged mode) are conservatively re-uploaded.
+     */
+    @Test
+    public void testShouldUploadWhenHashIsUnknown() {
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes(), UploadMode.SKIP_UNCHANGED);
+
+        assertThat(provider.writeCount.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,75 @@
+package io.storage.core;
+
+import io.storage.InMemoryStorageServiceProvider;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for the streaming fallback of {@link StorageServiceProvider#copy(Credentials, String, String)} and
+ * {@link StorageServiceProvider#move(Credentials, String, String)}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class StreamingCopyTest {
+
+    private final InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+
+    private final EmptyCredentials credentials = new EmptyCredentials();
+
+    /**
+     * Test copying of a single file.
+     */
+    @Test
+    public void testShouldCopyFile() {
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes());
+
+        assertThat(provider.copy(credentials, "/a.txt", "/b.txt").getPath()).isEqualTo("/b.txt");
+        assertThat(provider.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(provider.getContents("/b.txt")).isEqualTo("alpha".getBytes());
+    }
+
+    /**
+     * Test moving of a folder tree.
+     */
+    @Test
+    public void testShouldMoveFolderRecursively() {
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/docs/nested/b.txt", "bravo".getBytes());
+
+        provider.move(credentials, "/docs", "/archive/docs");
+
+        assertThat(provider.getContents("/archive/docs/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(provider.getContents("/archive/docs/nested/b.txt")).isEqualTo("bravo".getBytes());
+        assertThat(provider.exists(credentials, "/docs")).isFalse();
+    }
+
+    /**
+     * Test that a folder cannot be copied or moved into itself or its own subtree.
+     */
+    @Test
+    public void testShouldRejectDestinationUnderSource() {
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+
+        assertThrows(InvalidEntityPathException.class, () -> provider.copy(credentials, "/docs", "/docs/nested"));
+        assertThrows(InvalidEntityPathException.class, () -> provider.copy(credentials, "/docs", "/docs"));
+        assertThrows(InvalidEntityPathException.class, () -> provider.move(credentials, "/docs", "/docs/nested"));
+
+        assertThat(provider.size()).isEqualTo(1);
+        assertThat(provider.getContents("/docs/a.txt")).isEqualTo("alpha".getBytes());
+
+        // A sibling sharing the source's name as a prefix is not under it.
+        provider.copy(credentials, "/docs", "/docs-copy");
+        assertThat(provider.getContents("/docs-copy/a.txt")).isEqualTo("alpha".getBytes());
+    }
+
+    /**
+     * Test copying of a missing entity.
+     */
+    @Test
+    public void testShouldFailOnMissingSource() {
+        assertThrows(EntityNotFoundException.class, () -> provider.copy(credentials, "/missing.txt", "/b.txt"));
+    }
+}
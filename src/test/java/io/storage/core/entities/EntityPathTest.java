@@ -0,0 +1,113 @@
+package io.storage.core.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link EntityPath}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class EntityPathTest {
+
+    /**
+     * Test parsing of path strings and rebuilding them.
+     */
+    @Test
+    public void testParseAndFormat() {
+        EntityPath path = EntityPath.parse("/contents/documents/logs/trace.txt");
+
+        assertThat(path.toString()).isEqualTo("/contents/documents/logs/trace.txt");
+        assertThat(path.name()).isEqualTo("trace.txt");
+        assertThat(path.parent().toString()).isEqualTo("/contents/documents/logs");
+        assertThat(path.depth()).isEqualTo(4);
+
+        // Folder paths with trailing separator and empty segments are normalized.
+        assertThat(EntityPath.parse("/contents//documents/").toString()).isEqualTo("/contents/documents");
+    }
+
+    /**
+     * Test root path properties.
+     */
+    @Test
+    public void testRootPath() {
+        assertThat(EntityPath.parse("/")).isSameAs(EntityPath.ROOT);
+        assertThat(EntityPath.ROOT.toString()).isEqualTo("/");
+        assertThat(EntityPath.ROOT.name()).isEqualTo("/");
+        assertThat(EntityPath.ROOT.parent()).isNull();
+        assertThat(EntityPath.ROOT.isRoot()).isTrue();
+    }
+
+    /**
+     * Test that children share their parent and that paths built differently are equal.
+     */
+    @Test
+    public void testChildrenShareParent() {
+        EntityPath parent = EntityPath.parse("/documents");
+        EntityPath first = parent.resolve("a.txt");
+        EntityPath second = parent.resolve("b.txt");
+
+        assertThat(first.parent()).isSameAs(second.parent());
+        assertThat(first).isEqualTo(EntityPath.parse("/documents/a.txt"));
+        assertThat(first.hashCode()).isEqualTo(EntityPath.parse("/documents/a.txt").hashCode());
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first).isNotEqualTo(EntityPath.parse("/a.txt"));
+    }
+
+    /**
+     * Test that invalid child names are rejected.
+     */
+    @Test
+    public void testShouldRejectInvalidNames() {
+        assertThrows(IllegalArgumentException.class, () -> EntityPath.ROOT.resolve("a/b"));
+        assertThrows(IllegalArgumentException.class, () -> EntityPath.ROOT.resolve(""));
+    }
+
+    /**
+     * Test checking whether a path lies within another.
+     */
+    @Test
+    public void testShouldTellPathsWithin() {
+        EntityPath docs = EntityPath.parse("/docs");
+        assertThat(EntityPath.parse("/docs/a/b.txt").isWithin(docs)).isTrue();
+        assertThat(docs.isWithin(docs)).isTrue();
+        assertThat(docs.isWithin(EntityPath.ROOT)).isTrue();
+        assertThat(EntityPath.parse("/docs-copy").isWithin(docs)).isFalse();
+        assertThat(EntityPath.ROOT.isWithin(docs)).isFalse();
+    }
+
+    /**
+     * Test checking whether either of two paths lies within the other.
+     */
+    @Test
+    public void testShouldTellRelatedPaths() {
+        EntityPath docs = EntityPath.parse("/docs");
+        assertThat(docs.isRelatedTo(EntityPath.parse("/docs/a.txt"))).isTrue();
+        assertThat(EntityPath.parse("/docs/a.txt").isRelatedTo(docs)).isTrue();
+        assertThat(docs.isRelatedTo(docs)).isTrue();
+        assertThat(docs.isRelatedTo(EntityPath.parse("/docs-copy/a.txt"))).isFalse();
+    }
+
+    /**
+     * Test selecting descendants of a path from a map keyed by path strings.
+     */
+    @Test
+    public void testShouldSelectDescendants() {
+        NavigableMap<String, Integer> paths = new TreeMap<>();
+        for (String path : new String[] {"/docs", "/docs-copy/a.txt", "/docs.txt", "/docs/a.txt", "/docs/b/c.txt"}) {
+            paths.put(path, path.length());
+        }
+
+        EntityPath docs = EntityPath.parse("/docs");
+        assertThat(docs.toPrefix()).isEqualTo("/docs/");
+        assertThat(EntityPath.ROOT.toPrefix()).isEqualTo("/");
+        assertThat(docs.descendantsIn(paths).keySet()).containsExactly("/docs/a.txt", "/docs/b/c.txt");
+        assertThat(EntityPath.ROOT.descendantsIn(paths)).hasSize(5);
+    }
+}
@@ -0,0 +1,156 @@
+package io.storage.core.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link FolderListing}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class FolderListingTest {
+
+    /**
+     * Test that iteration flattens pages (skipping empty ones) and fetches pages only on demand.
+     */
+    @Test
+    public void testShouldFetchPagesLazily() {
+        FileEntity first = file("a.txt");
+        FolderEntity second = folder("docs");
+        FileEntity third = file("b.txt");
+        AtomicInteger fetched = new AtomicInteger();
+
+        List<List<? extends BaseEntity>> pages = Arrays.asList(
+                Collections.singletonList(first),
+                Collections.emptyList(),
+                Arrays.asList(second, third));
+
+        FolderListing listing = new FolderListing(folder("/"), () -> new Iterator<List<? extends BaseEntity>>() {
+            @Override
+            public boolean hasNext() {
+                return fetched.get() < pages.size();
+            }
+
+            @Override
+            public List<? extends BaseEntity> next() {
+                return pages.get(fetched.getAndIncrement());
+            }
+        });
+
+        Iterator<BaseEntity> iterator = listing.iterator();
+        assertThat(fetched.get()).isEqualTo(0);
+
+        // Reading the first entity should only fetch the first page.
+        assertThat(iterator.next()).isSameAs(first);
+        assertThat(fetched.get()).isEqualTo(1);
+
+        // Reading the next entity should skip the empty page.
+        assertThat(iterator.next()).isSameAs(second);
+        assertThat(iterator.next()).isSameAs(third);
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    /**
+     * Test materialization of a listing into a populated folder entity, and adapting it back into a listing.
+     */
+    @Test
+    public void testShouldMaterializeFolderEntity() {
+        FileEntity file = file("a.txt");
+        FolderEntity subFolder = folder("docs");
+
+        FolderEntity folder = new FolderListing(folder("/"),
+                () -> Collections.<List<? extends BaseEntity>>singletonList(Arrays.asList(subFolder, file)).iterator())
+                .toFolderEntity();
+
+        assertThat(folder.files).containsExactly(file);
+        assertThat(folder.folders).containsExactly(subFolder);
+        assertThat(FolderListing.of(folder)).containsExactly(file, subFolder);
+    }
+
+    /**
+     * Test that mapping a listing transforms its children.
+     */
+    @Test
+    public void testShouldMapChildren() {
+        FolderEntity folder = folder("/");
+        folder.files = Collections.singletonList(file("a.txt"));
+
+        FolderEntity mapped = FolderListing.of(folder).map(entity -> {
+            ((FileEntity) entity).size = 42;
+            return entity;
+        }).toFolderEntity();
+
+        assertThat(mapped.files.get(0).size).isEqualTo(42L);
+    }
+
+    /**
+     * Test that closing a listing releases passes that were not fully iterated, including passes of mapped listings.
+     */
+    @Test
+    public void testShouldCloseUnfinishedPasses() {
+        AtomicInteger closed = new AtomicInteger();
+        FolderListing listing = new FolderListing(folder("/"), () -> new ClosablePages(closed));
+
+        // A fully iterated pass is not tracked.
+        for (BaseEntity ignored : listing) {
+            // Nothing to do.
+        }
+        listing.close();
+        assertThat(closed.get()).isEqualTo(0);
+
+        try (FolderListing mapped = listing.map(entity -> entity)) {
+            assertThat(mapped.iterator().next().getName()).isEqualTo("a.txt");
+        }
+        assertThat(closed.get()).isEqualTo(1);
+    }
+
+    private static FileEntity file(String name) {
+        FileEntity file = new FileEntity();
+        file.location = EntityPath.parse(name);
+        return file;
+    }
+
+    private static FolderEntity folder(String name) {
+        FolderEntity folder = new FolderEntity();
+        folder.location = EntityPath.parse(name);
+        return folder;
+    }
+
+    /**
+     * Two single-entity pages, counting closes.
+     */
+    private static class ClosablePages implements Iterator<List<? extends BaseEntity>>, AutoCloseable {
+
+        private final AtomicInteger closed;
+
+        private int fetched;
+
+        ClosablePages(AtomicInteger closed) {
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return fetched < 2;
+        }
+
+        @Override
+        public List<? extends BaseEntity> next() {
+            fetched++;
+            return Collections.singletonList(file(fetched == 1 ? "a.txt" : "b.txt"));
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.storage.core.hash;
+
+import io.storage.core.ContentHashMismatchException;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link ContentDigest} and hashing streams.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ContentDigestTest {
+
+    private static final byte[] ABC = "abc".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testKnownHashes() {
+        ContentDigest digest = ContentDigest.of(EnumSet.allOf(HashAlgorithm.class), ABC);
+
+        Map<HashAlgorithm, String> hashes = digest.getHashes();
+        assertThat(hashes.get(HashAlgorithm.SHA_256)).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        // A single block: SHA-256 of the block's SHA-256.
+        assertThat(hashes.get(HashAlgorithm.CONTENT_HASH)).isEqualTo("4f8b42c22dd3729b519ba6f68d2da7cc5b2d606d05daed5ad5128cc03e6c6358");
+        assertThat(digest.getSize()).isEqualTo(3L);
+
+        byte[] check = "123456789".getBytes(StandardCharsets.US_ASCII);
+        assertThat(ContentDigest.of(EnumSet.of(HashAlgorithm.CRC32C), check).getHashes().get(HashAlgorithm.CRC32C))
+                .isEqualTo("e3069283");
+    }
+
+    @Test
+    public void testContentHashOfEmptyContents() {
+        ContentDigest digest = ContentDigest.of(EnumSet.of(HashAlgorithm.CONTENT_HASH), new byte[0]);
+        assertThat(digest.getHashes().get(HashAlgorithm.CONTENT_HASH))
+                .isEqualTo("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855");
+    }
+
+    @Test
+    public void testContentHashAcrossBlocks() throws IOException {
+        byte[] data = new byte[DropboxContentHasher.BLOCK_SIZE + 1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 251);
+        }
+
+        // Read through stream with odd-sized chunks, so block boundaries fall in the middle of reads.
+        ContentDigest digest = new ContentDigest(EnumSet.of(HashAlgorithm.CONTENT_HASH));
+        try (InputStream in = new HashingInputStream(new ByteArrayInputStream(data), digest)) {
+            byte[] buffer = new byte[7777];
+            while (in.read(buffer) >= 0) {
+                // Consume.
+            }
+        }
+
+        assertThat(digest.getSize()).isEqualTo((long) data.length);
+        assertThat(digest.getHashes().get(HashAlgorithm.CONTENT_HASH))
+                .isEqualTo("dcb4ba5ff947d11766fb50a93a46724c8cd5d530b3e98c6540b893fcbf4d8f4a");
+    }
+
+    @Test
+    public void testOutputStreamMatchesInputStream() throws IOException {
+        ContentDigest digest = new ContentDigest(EnumSet.of(HashAlgorithm.SHA_256));
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (HashingOutputStream out = new HashingOutputStream(target, digest)) {
+            out.write('a');
+            out.write(ABC, 1, 2);
+        }
+
+        assertThat(target.toByteArray()).isEqualTo(ABC);
+        assertThat(digest.getHashes()).isEqualTo(ContentDigest.of(EnumSet.of(HashAlgorithm.SHA_256), ABC).getHashes());
+    }
+
+    @Test
+    public void testVerify() {
+        FileEntity file = new FileEntity();
+        file.location = EntityPath.parse("/file.txt");
+        file.size = ABC.length;
+
+        ContentDigest digest = ContentDigest.of(EnumSet.of(HashAlgorithm.SHA_256), ABC);
+        digest.verify(file);
+
+        file.hashes = Map.of(HashAlgorithm.SHA_256, "00");
+        assertThrows(ContentHashMismatchException.class, () -> digest.verify(file));
+
+        file.hashes = null;
+        file.size = 4;
+        assertThrows(ContentHashMismatchException.class, () -> digest.verify(file));
+    }
+}
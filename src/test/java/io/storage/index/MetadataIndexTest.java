@@ -0,0 +1,193 @@
+package io.storage.index;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.EntityPath;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link MetadataIndex}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class MetadataIndexTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private Path directory;
+
+    private MetadataIndex index;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("metadata-index-");
+        index = new MetadataIndex(directory);
+        index.setFlushThreshold(3);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Test that entities are found by name, extension, size, modification time and folder, across segments and after
+     * the index is reopened.
+     */
+    @Test
+    public void testShouldSearch() {
+        index.put("/reports", folder("/reports"));
+        index.put("/reports/annual-2025.pdf", file("/reports/annual-2025.pdf", 3_000_000, NOW.minusSeconds(86400 * 300)));
+        index.put("/reports/Q3-summary.PDF", file("/reports/Q3-summary.PDF", 20_000, NOW.minusSeconds(86400 * 20)));
+        index.put("/reports/q3-notes.txt", file("/reports/q3-notes.txt", 500, NOW.minusSeconds(86400 * 2)));
+        index.put("/photos/summer.jpg", file("/photos/summer.jpg", 4_000_000, NOW.minusSeconds(86400 * 60)));
+        assertThat(index.getSegmentCount()).isGreaterThan(0);
+
+        assertThat(paths(new IndexQuery().nameStartsWith("q3"))).containsExactly("/reports/Q3-summary.PDF",
+                "/reports/q3-notes.txt");
+        assertThat(paths(new IndexQuery().nameContains("summ"))).containsExactly("/photos/summer.jpg",
+                "/reports/Q3-summary.PDF");
+        assertThat(paths(new IndexQuery().extension("pdf"))).containsExactly("/reports/Q3-summary.PDF",
+                "/reports/annual-2025.pdf");
+        assertThat(paths(new IndexQuery().sizeBetween(1_000_000, Long.MAX_VALUE))).containsExactly(
+                "/photos/summer.jpg", "/reports/annual-2025.pdf");
+        assertThat(paths(new IndexQuery().modifiedBetween(NOW.minusSeconds(86400 * 30), null))).containsExactly(
+                "/reports/Q3-summary.PDF", "/reports/q3-notes.txt");
+        assertThat(paths(new IndexQuery().under("/reports").extension("pdf").sizeBetween(0, 1_000_000)))
+                .containsExactly("/reports/Q3-summary.PDF");
+        assertThat(paths(new IndexQuery().foldersOnly())).containsExactly("/reports");
+        assertThat(paths(new IndexQuery().limit(2))).containsExactly("/photos/summer.jpg", "/reports");
+
+        FileEntity file = (FileEntity) index.get("/reports/q3-notes.txt");
+        assertThat(file.size).isEqualTo(500L);
+        assertThat(file.getName()).isEqualTo("q3-notes.txt");
+
+        index.close();
+        index = new MetadataIndex(directory);
+        assertThat(paths(new IndexQuery().extension("pdf"))).containsExactly("/reports/Q3-summary.PDF",
+                "/reports/annual-2025.pdf");
+    }
+
+    /**
+     * Test that removed, moved and replaced entities are reflected in searches, before and after compaction.
+     */
+    @Test
+    public void testShouldApplyChanges() {
+        index.put("/a", folder("/a"));
+        index.put("/a/one.txt", file("/a/one.txt", 1, NOW));
+        index.put("/a/b/two.txt", file("/a/b/two.txt", 2, NOW));
+        index.put("/c/three.txt", file("/c/three.txt", 3, NOW));
+
+        index.move("/a", "/moved");
+        index.put("/c/three.txt", file("/c/three.txt", 33, NOW));
+        index.remove("/moved/b");
+        index.copy("/c/three.txt", "/c/copy.txt");
+
+        List<String> expected = List.of("/c/copy.txt", "/c/three.txt", "/moved", "/moved/one.txt");
+        assertThat(paths(new IndexQuery())).isEqualTo(expected);
+        assertThat(((FileEntity) index.get("/c/three.txt")).size).isEqualTo(33L);
+        assertThat(index.get("/a/one.txt")).isNull();
+
+        index.compact();
+        assertThat(index.getSegmentCount()).isEqualTo(1);
+        assertThat(paths(new IndexQuery())).isEqualTo(expected);
+
+        index.close();
+        index = new MetadataIndex(directory);
+        assertThat(paths(new IndexQuery())).isEqualTo(expected);
+    }
+
+    /**
+     * Test that a crawl indexes a tree, and a later crawl removes entities that no longer exist.
+     */
+    @Test
+    public void testShouldCrawl() {
+        InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+        EmptyCredentials credentials = new EmptyCredentials();
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/docs/sub/b.txt", "bravo".getBytes());
+        provider.writeFile(credentials, "/c.txt", "charlie".getBytes());
+
+        MetadataIndex.FolderLister lister = path -> {
+            FolderEntity folder = provider.listFolderContents(credentials, path);
+            List<BaseEntity> children = new ArrayList<>(folder.files);
+            children.addAll(folder.folders);
+            return children;
+        };
+        assertThat(index.crawl("/", lister)).isEqualTo(5);
+        assertThat(paths(new IndexQuery().filesOnly())).containsExactly("/c.txt", "/docs/a.txt", "/docs/sub/b.txt");
+
+        provider.delete(credentials, "/docs/sub/b.txt");
+        assertThat(index.crawl("/docs", lister)).isEqualTo(1);
+        assertThat(paths(new IndexQuery())).containsExactly("/c.txt", "/docs", "/docs/a.txt");
+    }
+
+    @Test
+    public void testShouldKeepChangesMadeDuringCrawl() {
+        index.put("/docs/gone.txt", file("/docs/gone.txt", 1, Instant.ofEpochMilli(1000)));
+        index.put("/docs/stale.txt", file("/docs/stale.txt", 1, Instant.ofEpochMilli(1000)));
+
+        // Listing of '/docs' is taken before the changes below, so it lacks 'new.txt', holds an older 'a.txt' and
+        // still holds 'gone.txt'.
+        MetadataIndex.FolderLister lister = path -> {
+            if (!path.equals("/docs")) {
+                return path.equals("/") ? List.of(folder("/docs")) : List.of();
+            }
+            List<BaseEntity> children = List.of(file("/docs/a.txt", 5, Instant.ofEpochMilli(1000)),
+                    file("/docs/gone.txt", 1, Instant.ofEpochMilli(1000)));
+            index.put("/docs/new.txt", file("/docs/new.txt", 3, Instant.ofEpochMilli(2000)));
+            index.put("/docs/a.txt", file("/docs/a.txt", 10, Instant.ofEpochMilli(2000)));
+            index.remove("/docs/gone.txt");
+            return children;
+        };
+        index.crawl("/", lister);
+
+        assertThat(paths(new IndexQuery().filesOnly())).containsExactly("/docs/a.txt", "/docs/new.txt");
+        for (BaseEntity entity : index.search(new IndexQuery().filesOnly())) {
+            if (entity.getPath().equals("/docs/a.txt")) {
+                assertThat(((FileEntity) entity).size).isEqualTo(10L);
+            }
+        }
+    }
+
+    private List<String> paths(IndexQuery query) {
+        List<String> paths = new ArrayList<>();
+        for (BaseEntity entity : index.search(query)) {
+            paths.add(entity.getPath());
+        }
+        return paths;
+    }
+
+    private static FolderEntity folder(String path) {
+        FolderEntity folder = new FolderEntity();
+        folder.location = EntityPath.parse(path);
+        return folder;
+    }
+
+    private static FileEntity file(String path, long size, Instant modified) {
+        FileEntity file = new FileEntity();
+        file.location = EntityPath.parse(path);
+        file.size = size;
+        file.modificationDate = modified;
+        return file;
+    }
+}
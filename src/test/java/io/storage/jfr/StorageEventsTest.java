@@ -0,0 +1,81 @@
+package io.storage.jfr;
+
+import io.storage.StorageException;
+import io.storage.metrics.StorageOperation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link StorageEvents}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class StorageEventsTest {
+
+    /**
+     * Test that no event is created while nothing is recorded.
+     */
+    @Test
+    public void testShouldNotCreateEventsWhenDisabled() {
+        assertThat(StorageEvents.begin(StorageOperation.READ_FILE)).isNull();
+        assertThat(StorageEvents.beginRemoteCall("exists")).isNull();
+
+        // Committing a disabled event is a no-op.
+        StorageEvents.commit(null, "test", "/a.txt", 0, null);
+    }
+
+    /**
+     * Test that events are recorded with their attributes.
+     */
+    @Test
+    public void testShouldRecordEvents() throws Exception {
+        Path file = Files.createTempFile("storage-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.storage.Read").withThreshold(Duration.ZERO);
+            recording.enable("io.storage.Delete").withThreshold(Duration.ZERO);
+            recording.start();
+
+            StorageEvent read = StorageEvents.begin(StorageOperation.READ_FILE);
+            StorageEvents.commit(read, "test", "/a.txt", 42, null);
+            StorageEvent delete = StorageEvents.begin(StorageOperation.DELETE);
+            StorageEvents.commit(delete, "test", "/b.txt", 0, new StorageException("Failed."));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent read = find(events, "io.storage.Read");
+            assertThat(read.getString("provider")).isEqualTo("test");
+            assertThat(read.getString("operation")).isEqualTo("READ_FILE");
+            assertThat(read.getInt("pathHash")).isEqualTo("/a.txt".hashCode());
+            assertThat(read.getLong("bytes")).isEqualTo(42);
+            assertThat(read.getString("outcome")).isEqualTo(StorageEvents.SUCCESS);
+
+            RecordedEvent delete = find(events, "io.storage.Delete");
+            assertThat(delete.getString("outcome")).isEqualTo(StorageException.class.getName());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                return event;
+            }
+        }
+        throw new AssertionError("Event not recorded: " + name);
+    }
+}
@@ -0,0 +1,128 @@
+package io.storage.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link PriorityScheduler}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class PrioritySchedulerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that bulk operations cannot take all capacity, and waiting interactive operations are admitted first.
+     */
+    @Test
+    public void testShouldAdmitInteractiveFirst() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(2);
+        CountDownLatch releaseBulk = new CountDownLatch(1);
+        CountDownLatch releaseInteractive = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Bulk may take only half the capacity.
+        Future<?> bulk1 = submit(scheduler, Priority.BULK, () -> await(releaseBulk));
+        awaitRunning(scheduler, Priority.BULK, 1);
+        Future<?> bulk2 = submit(scheduler, Priority.BULK, () -> order.add("bulk"));
+        awaitQueued(scheduler, Priority.BULK, 1);
+
+        // Interactive operations still run immediately.
+        CountDownLatch interactiveRunning = new CountDownLatch(1);
+        Future<?> interactive1 = submit(scheduler, Priority.INTERACTIVE, () -> {
+            interactiveRunning.countDown();
+            await(releaseInteractive);
+        });
+        assertThat(interactiveRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Capacity is now full: an interactive operation queues, and goes ahead of the earlier bulk one.
+        Future<?> interactive2 = submit(scheduler, Priority.INTERACTIVE, () -> order.add("interactive"));
+        awaitQueued(scheduler, Priority.INTERACTIVE, 1);
+
+        // A single freed slot goes to the interactive operation.
+        releaseBulk.countDown();
+        interactive2.get(5, TimeUnit.SECONDS);
+        releaseInteractive.countDown();
+
+        for (Future<?> future : List.of(bulk1, bulk2, interactive1, interactive2)) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(order).containsExactly("interactive", "bulk");
+
+        PriorityScheduler.Statistics statistics = scheduler.getStatistics(Priority.BULK);
+        assertThat(statistics.executed).isEqualTo(2L);
+        assertThat(statistics.queued).isEqualTo(0);
+        assertThat(statistics.queueWait.count).isEqualTo(2L);
+        assertThat(statistics.queueWait.max).isGreaterThan(0L);
+    }
+
+    /**
+     * Test that an operation waiting beyond the maximum wait is admitted regardless of limits.
+     */
+    @Test
+    public void testShouldNotStarve() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(1);
+        scheduler.setMaxWait(Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> blocker = submit(scheduler, Priority.INTERACTIVE, () -> await(release));
+        awaitRunning(scheduler, Priority.INTERACTIVE, 1);
+
+        long start = System.nanoTime();
+        scheduler.execute(Priority.BULK, () -> null);
+        assertThat((System.nanoTime() - start) / 1_000_000).isBetween(50L, 3000L);
+        assertThat(scheduler.getStatistics(Priority.BULK).overflowed).isEqualTo(1L);
+
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+    }
+
+    private Future<?> submit(PriorityScheduler scheduler, Priority priority, Runnable task) {
+        return executor.submit(() -> scheduler.execute(priority, () -> {
+            task.run();
+            return null;
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitRunning(PriorityScheduler scheduler, Priority priority, int running) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getStatistics(priority).running < running && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(scheduler.getStatistics(priority).running).isEqualTo(running);
+    }
+
+    private static void awaitQueued(PriorityScheduler scheduler, Priority priority, int queued) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getStatistics(priority).queued < queued && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(scheduler.getStatistics(priority).queued).isEqualTo(queued);
+    }
+}
@@ -0,0 +1,181 @@
+package io.storage.manager;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.StorageException;
+import io.storage.core.Credentials;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.StorageServiceProvider;
+import io.storage.core.entities.BaseEntity;
+import io.storage.index.IndexQuery;
+import io.storage.index.MetadataIndex;
+import io.storage.metrics.MetricsRegistry;
+import io.storage.metrics.MetricsSnapshot;
+import io.storage.metrics.StorageOperation;
+import io.storage.tracing.InMemorySpanCollector;
+import io.storage.tracing.Span;
+import io.storage.tracing.TraceContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link StorageService}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class StorageServiceTest {
+
+    /**
+     * Test that operations are reported to the provider's metrics recorder.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testShouldRecordMetrics() {
+        InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+        MetricsRegistry registry = new MetricsRegistry();
+        provider.setMetricsRecorder(registry);
+        StorageService service = new StorageService(new EmptyCredentials(),
+                (StorageServiceProvider<Credentials>) (StorageServiceProvider<?>) provider);
+
+        service.writeFile("/a.txt", "alpha".getBytes());
+        service.writeFile("/b.txt", new ByteArrayInputStream("beta".getBytes()));
+        service.readFile("/a.txt", new ByteArrayOutputStream());
+        service.exists("/a.txt");
+        assertThrows(StorageException.class, () -> service.readFile("/missing.txt", new ByteArrayOutputStream()));
+
+        String name = InMemoryStorageServiceProvider.class.getSimpleName();
+        MetricsSnapshot snapshot = registry.snapshot();
+        MetricsSnapshot.OperationSnapshot writes = snapshot.get(name, StorageOperation.WRITE_FILE);
+        assertThat(writes.calls).isEqualTo(2);
+        assertThat(writes.bytesOut).isEqualTo(9);
+
+        MetricsSnapshot.OperationSnapshot reads = snapshot.get(name, StorageOperation.READ_FILE);
+        assertThat(reads.calls).isEqualTo(2);
+        assertThat(reads.bytesIn).isEqualTo(5);
+        assertThat(reads.getErrorCount()).isEqualTo(1);
+
+        assertThat(snapshot.get(name, StorageOperation.EXISTS).calls).isEqualTo(1);
+    }
+
+    /**
+     * Test that nothing is recorded by default.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMetricsDisabledByDefault() {
+        InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+        StorageService service = new StorageService(new EmptyCredentials(),
+                (StorageServiceProvider<Credentials>) (StorageServiceProvider<?>) provider);
+
+        service.writeFile("/a.txt", "alpha".getBytes());
+        assertThat(provider.metricsRecorder().isEnabled()).isFalse();
+    }
+
+    /**
+     * Test that operations are traced as children of the caller's current span.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testShouldTraceOperations() {
+        InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+        InMemorySpanCollector collector = new InMemorySpanCollector();
+        provider.setTracer(collector);
+        StorageService service = new StorageService(new EmptyCredentials(),
+                (StorageServiceProvider<Credentials>) (StorageServiceProvider<?>) provider);
+
+        Span request = collector.startSpan("request", null);
+        try (TraceContext.Scope ignored = TraceContext.attach(request)) {
+            service.writeFile("/a.txt", new ByteArrayInputStream("alpha".getBytes()));
+            assertThrows(StorageException.class, () -> service.readFile("/missing.txt", new ByteArrayOutputStream()));
+        }
+        request.end();
+        assertThat(TraceContext.current()).isNull();
+
+        List<InMemorySpanCollector.CollectedSpan> writes = collector.getSpans("storage.write_file");
+        assertThat(writes.size()).isEqualTo(1);
+        InMemorySpanCollector.CollectedSpan write = writes.get(0);
+        assertThat(write.parent).isSameAs(request);
+        assertThat(write.getAttributes().get("storage.path")).isEqualTo("/a.txt");
+        assertThat(write.getAttributes().get("storage.bytes_out")).isEqualTo(5L);
+        assertThat(write.getError()).isNull();
+
+        InMemorySpanCollector.CollectedSpan read = collector.getSpans("storage.read_file").get(0);
+        assertThat(read.traceId).isEqualTo(write.traceId);
+        assertThat(read.getError()).isInstanceOf(StorageException.class);
+    }
+
+    /**
+     * Test that file contents is throttled by the bandwidth policy.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testShouldThrottleTransfers() {
+        InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+        BandwidthPolicy policy = new BandwidthPolicy();
+        StorageService service = new StorageService(new EmptyCredentials("user-1", null),
+                (StorageServiceProvider<Credentials>) (StorageServiceProvider<?>) provider, policy);
+
+        // Unlimited until a limit is set.
+        long start = System.nanoTime();
+        service.writeFile("/a.bin", new byte[500_000]);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(300L);
+
+        policy.setCredentialsLimit(BandwidthPolicy.Direction.WRITE, "user-1", 1_000_000);
+        policy.setCredentialsLimit(BandwidthPolicy.Direction.READ, "user-2", 1_000);
+        start = System.nanoTime();
+        service.writeFile("/b.bin", new byte[500_000]);
+        assertThat((System.nanoTime() - start) / 1_000_000).isBetween(300L, 3000L);
+        assertThat(provider.getContents("/b.bin").length).isEqualTo(500_000);
+
+        // Limits of other credentials do not apply.
+        start = System.nanoTime();
+        service.readFile("/b.bin", new ByteArrayOutputStream());
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(300L);
+    }
+
+    /**
+     * Test that modifications made through a service are applied to its metadata index.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testShouldKeepIndexFresh() throws IOException {
+        InMemoryStorageServiceProvider provider = new InMemoryStorageServiceProvider();
+        EmptyCredentials credentials = new EmptyCredentials("user-1", null);
+        provider.writeFile(credentials, "/docs/existing.txt", "existing".getBytes());
+        Path directory = Files.createTempDirectory("metadata-index-");
+        try (MetadataIndex index = new MetadataIndex(directory)) {
+            StorageService service = new StorageService(credentials,
+                    (StorageServiceProvider<Credentials>) (StorageServiceProvider<?>) provider, null, null,
+                    Priority.INTERACTIVE, index);
+
+            assertThat(service.crawlIndex("/")).isEqualTo(2);
+            service.writeFile("/docs/report.pdf", new byte[2048]);
+            service.writeFile("/docs/notes.txt", new ByteArrayInputStream(new byte[16]));
+            service.delete("/docs/existing.txt");
+
+            List<String> paths = new ArrayList<>();
+            for (BaseEntity entity : index.search(new IndexQuery().under("/docs").filesOnly())) {
+                paths.add(entity.getPath());
+            }
+            assertThat(paths).containsExactly("/docs/notes.txt", "/docs/report.pdf");
+            assertThat(index.search(new IndexQuery().sizeBetween(1024, 4096)).size()).isEqualTo(1);
+            assertThat(provider.readCount.get()).isEqualTo(0);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.storage.manager;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.Credentials;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.StorageServiceProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link TransferEngine}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TransferEngineTest {
+
+    private final InMemoryStorageServiceProvider sourceProvider = new InMemoryStorageServiceProvider();
+
+    private final InMemoryStorageServiceProvider targetProvider = new InMemoryStorageServiceProvider();
+
+    private final StorageService source = service(sourceProvider);
+
+    private final StorageService target = service(targetProvider);
+
+    /**
+     * Engine to test.
+     */
+    private final TransferEngine engine = new TransferEngine(2);
+
+    @AfterEach
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    /**
+     * Test copying of a folder tree, including nested folders.
+     */
+    @Test
+    public void testShouldCopyFolderTree() throws Exception {
+        byte[] large = new byte[100_000];
+        Arrays.fill(large, (byte) 7);
+        source.writeFile("/docs/a.txt", "alpha".getBytes());
+        source.writeFile("/docs/nested/b.bin", large);
+        source.writeFile("/other/c.txt", "gamma".getBytes());
+
+        // Use a small buffer, so files are streamed through the pipe in several chunks.
+        engine.setBufferSize(1024);
+        TransferProgress progress = engine.copyFolder(source, target, "/docs").await();
+
+        assertThat(progress.getFilesTransferred()).isEqualTo(2);
+        assertThat(progress.getFilesFailed()).isEqualTo(0);
+        assertThat(progress.getBytesTransferred()).isEqualTo(large.length + 5);
+        assertThat(targetProvider.getContents("/docs/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(targetProvider.getContents("/docs/nested/b.bin")).isEqualTo(large);
+        assertThat(targetProvider.getContents("/other/c.txt")).isNull();
+
+        // Copy should leave source intact.
+        assertThat(sourceProvider.size()).isEqualTo(3);
+    }
+
+    /**
+     * Test that move deletes source files and that failures are recorded per file.
+     */
+    @Test
+    public void testShouldMoveFilesAndRecordFailures() throws Exception {
+        source.writeFile("/a.txt", "alpha".getBytes());
+
+        TransferProgress progress = engine.move(source, target, Arrays.asList("/a.txt", "/missing.txt")).await();
+
+        assertThat(progress.getFilesTransferred()).isEqualTo(1);
+        assertThat(progress.getFailures()).containsKey("/missing.txt");
+        assertThat(targetProvider.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(sourceProvider.getContents("/a.txt")).isNull();
+    }
+
+    /**
+     * Test that resuming a transfer skips files already present at the target.
+     */
+    @Test
+    public void testShouldSkipUpToDateFilesOnResume() throws Exception {
+        source.writeFile("/a.txt", "alpha".getBytes());
+        source.writeFile("/b.txt", "bravo".getBytes());
+        target.writeFile("/a.txt", "alpha".getBytes());
+        target.writeFile("/b.txt", "BRAVO".getBytes());
+        int writes = targetProvider.writeCount.get();
+
+        engine.setResumeMode(TransferEngine.ResumeMode.CHECKSUM);
+        TransferProgress progress = engine.copy(source, target, Arrays.asList("/a.txt", "/b.txt")).await();
+
+        // Only the file with different contents is transferred.
+        assertThat(progress.getFilesSkipped()).isEqualTo(1);
+        assertThat(progress.getFilesTransferred()).isEqualTo(1);
+        assertThat(targetProvider.writeCount.get()).isEqualTo(writes + 1);
+        assertThat(targetProvider.getContents("/b.txt")).isEqualTo("bravo".getBytes());
+    }
+
+    /**
+     * Test that an empty transfer completes immediately.
+     */
+    @Test
+    public void testEmptyTransferShouldComplete() throws Exception {
+        assertThat(engine.copy(source, target, Collections.emptyList()).await().isCompleted()).isTrue();
+    }
+
+    /**
+     * Test that a transfer between services sharing a scheduler is admitted once, so it does not wait on itself when
+     * its class has a single permit.
+     */
+    @Test
+    public void testShouldAdmitSharedSchedulerTransferOnce() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(2);
+        scheduler.setMaxWait(Duration.ofSeconds(30));
+        StorageService scheduledSource = service(sourceProvider, scheduler);
+        StorageService scheduledTarget = service(targetProvider, scheduler);
+        sourceProvider.writeFile(new EmptyCredentials(), "/a.txt", "alpha".getBytes());
+
+        TransferProgress progress = engine.copy(scheduledSource, scheduledTarget, Collections.singletonList("/a.txt"))
+                .await(10, TimeUnit.SECONDS);
+
+        assertThat(progress.getFilesTransferred()).isEqualTo(1);
+        assertThat(targetProvider.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(scheduler.getStatistics(Priority.BULK).overflowed).isEqualTo(0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StorageService service(InMemoryStorageServiceProvider provider) {
+        return new StorageService(new EmptyCredentials(),
+                (StorageServiceProvider<Credentials>) (StorageServiceProvider<?>) provider);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StorageService service(InMemoryStorageServiceProvider provider, PriorityScheduler scheduler) {
+        return new StorageService(new EmptyCredentials(),
+                (StorageServiceProvider<Credentials>) (StorageServiceProvider<?>) provider, null, scheduler,
+                Priority.INTERACTIVE, null);
+    }
+}
@@ -0,0 +1,81 @@
+package io.storage.metrics;
+
+import io.storage.StorageException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link MetricsRegistry} and {@link LatencyHistogram}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class MetricsRegistryTest {
+
+    /**
+     * Test that histogram percentiles are accurate within the resolution of a bucket.
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count).isEqualTo(10_000);
+        assertThat(snapshot.max).isEqualTo(10_000_000);
+        assertThat(snapshot.getMean()).isEqualTo(5_000_500.0);
+
+        long p50 = snapshot.getPercentile(50);
+        long p99 = snapshot.getPercentile(99);
+        assertThat(p50).isBetween(5_000_000L, 5_000_000L + 5_000_000L / LatencyHistogram.SUB_BUCKETS);
+        assertThat(p99).isBetween(9_900_000L, 9_900_000L + 9_900_000L / LatencyHistogram.SUB_BUCKETS);
+        assertThat(snapshot.getPercentile(100)).isEqualTo(10_000_000);
+    }
+
+    /**
+     * Test that every value maps to a bucket whose upper bound is not below it.
+     */
+    @Test
+    public void testBucketBoundaries() {
+        long[] values = {0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789, 35_000_000_000_000L};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.highestValueOf(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestValueOf(index - 1)).isLessThan(value);
+            }
+        }
+
+        // Values beyond the histogram's range saturate its last bucket.
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.indexOf(35_000_000_000_000L));
+    }
+
+    /**
+     * Test that calls, bytes and errors are aggregated per provider and operation.
+     */
+    @Test
+    public void testShouldAggregatePerProviderAndOperation() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.recordSuccess("dropbox", StorageOperation.READ_FILE, 2_000_000, 100, 0);
+        registry.recordSuccess("dropbox", StorageOperation.READ_FILE, 4_000_000, 50, 0);
+        registry.recordFailure("dropbox", StorageOperation.READ_FILE, 1_000_000, new StorageException("Failed."));
+        registry.recordSuccess("fs", StorageOperation.WRITE_FILE, 1_000, 0, 10);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        MetricsSnapshot.OperationSnapshot reads = snapshot.get("dropbox", StorageOperation.READ_FILE);
+        assertThat(reads.calls).isEqualTo(3);
+        assertThat(reads.bytesIn).isEqualTo(150);
+        assertThat(reads.getErrorCount()).isEqualTo(1);
+        assertThat(reads.errors.get(StorageException.class.getName())).isEqualTo(1L);
+        assertThat(reads.latency.count).isEqualTo(3);
+        assertThat(reads.latency.max).isEqualTo(4_000_000);
+
+        assertThat(snapshot.get("fs", StorageOperation.WRITE_FILE).bytesOut).isEqualTo(10);
+        assertThat(snapshot.get("fs", StorageOperation.READ_FILE)).isNull();
+        assertThat(snapshot.get("s3", StorageOperation.READ_FILE)).isNull();
+        assertThat(snapshot.toString()).contains("dropbox").contains("READ_FILE");
+    }
+}
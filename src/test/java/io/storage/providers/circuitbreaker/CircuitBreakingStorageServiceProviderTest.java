@@ -0,0 +1,148 @@
+package io.storage.providers.circuitbreaker;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.StorageException;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link CircuitBreakingStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class CircuitBreakingStorageServiceProviderTest {
+
+    private final EmptyCredentials credentials = new EmptyCredentials("user-1", null);
+
+    private final EmptyCredentials otherCredentials = new EmptyCredentials("user-2", null);
+
+    private final FlakyStorageServiceProvider backend = new FlakyStorageServiceProvider();
+
+    private final CircuitBreakingStorageServiceProvider<EmptyCredentials> provider =
+            new CircuitBreakingStorageServiceProvider<>(backend);
+
+    private final List<CircuitBreakingStorageServiceProvider.State> transitions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        provider.setWindowSize(10);
+        provider.setMinimumCalls(4);
+        provider.setProbes(2);
+        provider.setOpenDuration(Duration.ofMillis(100));
+        provider.addListener((name, key, from, to) -> transitions.add(to));
+    }
+
+    /**
+     * Test that a failing service opens the circuit, and calls are rejected without reaching it.
+     */
+    @Test
+    public void testShouldOpenOnFailures() {
+        backend.writeFile(credentials, "/a.txt", "alpha".getBytes());
+        backend.available = false;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(StorageException.class, () -> provider.exists(credentials, "/a.txt"));
+        }
+
+        assertThat(provider.getState(credentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.OPEN);
+        int calls = backend.calls;
+        CircuitOpenException ex =
+                assertThrows(CircuitOpenException.class, () -> provider.exists(credentials, "/a.txt"));
+        assertThat(ex.getRetryAfter().toNanos()).isGreaterThan(0L);
+        assertThat(backend.calls).isEqualTo(calls);
+        assertThat(provider.getRejectedCalls()).isEqualTo(1L);
+        assertThat(provider.getTrips()).isEqualTo(1L);
+
+        // Circuits are per credentials.
+        assertThat(provider.getState(otherCredentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.CLOSED);
+        assertThrows(StorageException.class, () -> provider.exists(otherCredentials, "/a.txt"));
+        assertThat(backend.calls).isEqualTo(calls + 1);
+    }
+
+    /**
+     * Test that an open circuit is probed once its open duration elapsed, and closes once probes succeed.
+     */
+    @Test
+    public void testShouldCloseAfterSuccessfulProbes() throws Exception {
+        backend.available = false;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(StorageException.class, () -> provider.exists(credentials, "/a.txt"));
+        }
+
+        // A failed probe opens the circuit again.
+        Thread.sleep(150);
+        assertThrows(StorageException.class, () -> provider.exists(credentials, "/a.txt"));
+        assertThat(provider.getState(credentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.OPEN);
+
+        backend.available = true;
+        Thread.sleep(150);
+        provider.exists(credentials, "/a.txt");
+        assertThat(provider.getState(credentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.HALF_OPEN);
+        provider.exists(credentials, "/a.txt");
+        assertThat(provider.getState(credentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.CLOSED);
+
+        assertThat(transitions).containsExactly(
+                CircuitBreakingStorageServiceProvider.State.OPEN,
+                CircuitBreakingStorageServiceProvider.State.HALF_OPEN,
+                CircuitBreakingStorageServiceProvider.State.OPEN,
+                CircuitBreakingStorageServiceProvider.State.HALF_OPEN,
+                CircuitBreakingStorageServiceProvider.State.CLOSED);
+    }
+
+    /**
+     * Test that failures caused by the request itself, or slow calls, are classified correctly.
+     */
+    @Test
+    public void testShouldClassifyCalls() {
+        for (int i = 0; i < 10; i++) {
+            assertThrows(EntityNotFoundException.class, () -> provider.readFileMeta(credentials, "/missing.txt"));
+        }
+        assertThat(provider.getState(credentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.CLOSED);
+
+        provider.setSlowCallThreshold(Duration.ofMillis(5));
+        backend.delay = 20;
+        for (int i = 0; i < 8; i++) {
+            provider.exists(credentials, "/a.txt");
+        }
+        assertThat(provider.getState(credentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.OPEN);
+
+        provider.reset(credentials);
+        assertThat(provider.getState(credentials)).isEqualTo(CircuitBreakingStorageServiceProvider.State.CLOSED);
+    }
+
+    private static class FlakyStorageServiceProvider extends InMemoryStorageServiceProvider {
+
+        volatile boolean available = true;
+
+        volatile long delay;
+
+        volatile int calls;
+
+        @Override
+        public boolean exists(EmptyCredentials credentials, String path) {
+            calls++;
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new StorageException("Interrupted.", ex);
+                }
+            }
+            if (!available) {
+                throw new StorageException("Service unavailable.");
+            }
+
+            return super.exists(credentials, path);
+        }
+    }
+}
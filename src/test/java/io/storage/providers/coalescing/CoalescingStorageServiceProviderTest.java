@@ -0,0 +1,190 @@
+package io.storage.providers.coalescing;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.EntityNotFoundException;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link CoalescingStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class CoalescingStorageServiceProviderTest {
+
+    private static final int CALLERS = 8;
+
+    private final EmptyCredentials credentials = new EmptyCredentials("user-1", null);
+
+    private final BlockingStorageServiceProvider backend = new BlockingStorageServiceProvider();
+
+    private final CoalescingStorageServiceProvider<EmptyCredentials> provider =
+            new CoalescingStorageServiceProvider<>(backend);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that concurrent identical requests share a single backend call, and each caller receives its own copy.
+     */
+    @Test
+    public void testShouldCoalesceConcurrentRequests() throws Exception {
+        backend.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+
+        List<Future<FileEntity>> metas = new ArrayList<>();
+        List<Future<FolderEntity>> listings = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            metas.add(executor.submit(() -> provider.readFileMeta(credentials, "/docs/a.txt")));
+            listings.add(executor.submit(() -> provider.listFolderContents(credentials, "/docs")));
+        }
+        awaitCoalesced(2 * CALLERS - 2);
+        backend.release.countDown();
+
+        Set<FileEntity> files = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<FileEntity> meta : metas) {
+            FileEntity file = meta.get(5, TimeUnit.SECONDS);
+            assertThat(file.size).isEqualTo(5L);
+            files.add(file);
+        }
+        assertThat(files.size()).isEqualTo(CALLERS);
+        for (Future<FolderEntity> listing : listings) {
+            assertThat(listing.get(5, TimeUnit.SECONDS).files.size()).isEqualTo(1);
+        }
+
+        assertThat(backend.metaCalls.get()).isEqualTo(1);
+        assertThat(backend.listCalls.get()).isEqualTo(1);
+        assertThat(provider.getCalls()).isEqualTo(2L * CALLERS);
+        assertThat(provider.getCoalescedCalls()).isEqualTo(2L * CALLERS - 2);
+
+        // Nothing is cached once requests complete.
+        provider.readFileMeta(credentials, "/docs/a.txt");
+        assertThat(backend.metaCalls.get()).isEqualTo(2);
+    }
+
+    /**
+     * Test that a failure is propagated to all waiting callers.
+     */
+    @Test
+    public void testShouldPropagateFailures() throws Exception {
+        List<Future<FileEntity>> metas = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            metas.add(executor.submit(() -> provider.readFileMeta(credentials, "/missing.txt")));
+        }
+        awaitCoalesced(CALLERS - 1);
+        backend.release.countDown();
+
+        for (Future<FileEntity> meta : metas) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> meta.get(5, TimeUnit.SECONDS));
+            assertThat(ex.getCause()).isInstanceOf(EntityNotFoundException.class);
+        }
+        assertThat(backend.metaCalls.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test that a modification detaches requests in flight, so later callers do not share a stale result.
+     */
+    @Test
+    public void testShouldDetachOnModification() throws Exception {
+        Future<Boolean> before = executor.submit(() -> provider.exists(credentials, "/docs/b.txt"));
+        awaitCalls(1);
+
+        backend.bypass = true;
+        provider.writeFile(credentials, "/docs/b.txt", "bravo".getBytes());
+        assertThat(provider.exists(credentials, "/docs/b.txt")).isTrue();
+
+        backend.release.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(provider.getCoalescedCalls()).isEqualTo(0L);
+    }
+
+    private void awaitCoalesced(long coalesced) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (provider.getCoalescedCalls() < coalesced && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(provider.getCoalescedCalls()).isEqualTo(coalesced);
+    }
+
+    private void awaitCalls(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.existsCalls.get() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(backend.existsCalls.get()).isEqualTo(calls);
+    }
+
+    /**
+     * In-memory provider whose metadata requests block until released.
+     */
+    private static final class BlockingStorageServiceProvider extends InMemoryStorageServiceProvider {
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final AtomicInteger metaCalls = new AtomicInteger();
+
+        final AtomicInteger listCalls = new AtomicInteger();
+
+        final AtomicInteger existsCalls = new AtomicInteger();
+
+        volatile boolean bypass;
+
+        @Override
+        public FileEntity readFileMeta(EmptyCredentials credentials, String path) {
+            metaCalls.incrementAndGet();
+            await();
+            return super.readFileMeta(credentials, path);
+        }
+
+        @Override
+        public FolderEntity listFolderContents(EmptyCredentials credentials, String path) {
+            listCalls.incrementAndGet();
+            await();
+            return super.listFolderContents(credentials, path);
+        }
+
+        @Override
+        public boolean exists(EmptyCredentials credentials, String path) {
+            if (bypass) {
+                return super.exists(credentials, path);
+            }
+
+            existsCalls.incrementAndGet();
+            // Answer is taken before the modification; returned once released.
+            boolean exists = super.exists(credentials, path);
+            await();
+            return exists;
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.storage.providers.compression;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.entities.FileEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link CompressingStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class CompressingStorageServiceProviderTest {
+
+    private final InMemoryStorageServiceProvider backend = new InMemoryStorageServiceProvider();
+
+    private final CompressingStorageServiceProvider<EmptyCredentials> provider =
+            new CompressingStorageServiceProvider<>(backend);
+
+    private final EmptyCredentials credentials = new EmptyCredentials();
+
+    /**
+     * Test that compressible contents is stored compressed and reported with its original size.
+     */
+    @Test
+    public void testShouldCompressCompressibleContents() {
+        byte[] data = json(1000);
+
+        FileEntity file = provider.writeFile(credentials, "/data.json", data);
+
+        assertThat(file.size).isEqualTo((long) data.length);
+        assertThat(backend.getContents("/data.json").length).isLessThan(data.length / 4);
+        assertThat(provider.readFileMeta(credentials, "/data.json").size).isEqualTo((long) data.length);
+        assertThat(read(provider, "/data.json")).isEqualTo(data);
+    }
+
+    /**
+     * Test that incompressible contents is stored as-is, following the header.
+     */
+    @Test
+    public void testShouldStoreIncompressibleContents() {
+        byte[] data = new byte[10_000];
+        new Random(17).nextBytes(data);
+
+        provider.writeFile(credentials, "/random.bin", new ByteArrayInputStream(data));
+
+        assertThat(backend.getContents("/random.bin").length)
+                .isEqualTo(data.length + CompressingStorageServiceProvider.HEADER_SIZE);
+        assertThat(read(provider, "/random.bin")).isEqualTo(data);
+    }
+
+    /**
+     * Test resolving the original size of a streamed file larger than the sample, without a cached size.
+     */
+    @Test
+    public void testShouldResolveSizeOfStreamedFile() {
+        provider.setSampleSize(16);
+        provider.setCodec(JdkCodecs.GZIP);
+        byte[] data = json(100);
+        provider.writeFile(credentials, "/data.json", new ByteArrayInputStream(data));
+
+        // A fresh provider has no cached sizes.
+        CompressingStorageServiceProvider<EmptyCredentials> other = new CompressingStorageServiceProvider<>(backend);
+        assertThat(other.readFileMeta(credentials, "/data.json").size).isEqualTo((long) data.length);
+        assertThat(other.listFolderContents(credentials, "/").files.get(0).size).isEqualTo((long) data.length);
+        assertThat(read(other, "/data.json")).isEqualTo(data);
+    }
+
+    /**
+     * Test that listings do not download files whose original size is not cached.
+     */
+    @Test
+    public void testShouldListWithoutReadingFiles() {
+        byte[] data = json(100);
+        provider.writeFile(credentials, "/data.json", data);
+        int reads = backend.readCount.get();
+
+        // A fresh provider has no cached sizes, so the stored size is listed.
+        CompressingStorageServiceProvider<EmptyCredentials> other = new CompressingStorageServiceProvider<>(backend);
+        FileEntity listed = other.listFolderContents(credentials, "/").files.get(0);
+        assertThat(listed.size).isEqualTo((long) backend.getContents("/data.json").length);
+        assertThat(backend.readCount.get()).isEqualTo(reads);
+
+        // Once resolved, the original size is listed.
+        other.readFileMeta(credentials, "/data.json");
+        assertThat(other.listFolderContents(credentials, "/").files.get(0).size).isEqualTo((long) data.length);
+    }
+
+    /**
+     * Test that files stored without compression header are read as-is.
+     */
+    @Test
+    public void testShouldReadPlainFiles() {
+        byte[] data = "plain".getBytes(StandardCharsets.UTF_8);
+        backend.writeFile(credentials, "/plain.txt", data);
+
+        assertThat(provider.readFileMeta(credentials, "/plain.txt").size).isEqualTo(5L);
+        assertThat(read(provider, "/plain.txt")).isEqualTo(data);
+    }
+
+    private static byte[] json(int records) {
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < records; i++) {
+            buf.append("{\"id\": ").append(i).append(", \"status\": \"active\", \"tags\": [\"storage\", \"io\"]},");
+        }
+        buf.append("{}]");
+        return buf.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] read(CompressingStorageServiceProvider<EmptyCredentials> source, String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        source.readFile(credentials, path, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,200 @@
+package io.storage.providers.dedup;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.EntityNotFoundException;
+import io.storage.core.InvalidEntityPathException;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.hash.HashAlgorithm;
+import io.storage.providers.jfs.JimFSCredentials;
+import io.storage.providers.jfs.JimFileSystemStorageServiceProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link DeduplicatingStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class DeduplicatingStorageServiceProviderTest {
+
+    private final InMemoryStorageServiceProvider backend = new InMemoryStorageServiceProvider();
+
+    private final DeduplicatingStorageServiceProvider<EmptyCredentials> provider =
+            new DeduplicatingStorageServiceProvider<>(backend);
+
+    private final EmptyCredentials credentials = new EmptyCredentials();
+
+    /**
+     * Test that identical contents written under different paths is stored once.
+     */
+    @Test
+    public void testShouldStoreIdenticalContentsOnce() {
+        provider.writeFile(credentials, "/a/one.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/b/two.txt", new ByteArrayInputStream("alpha".getBytes()));
+
+        // A single blob and two manifest files.
+        assertThat(backend.size()).isEqualTo(3);
+        assertThat(provider.getBytesDeduplicated()).isEqualTo(5L);
+        assertThat(read("/a/one.txt")).isEqualTo("alpha");
+        assertThat(read("/b/two.txt")).isEqualTo("alpha");
+        assertThat(provider.readFileMeta(credentials, "/b/two.txt").getHash(HashAlgorithm.CONTENT_HASH)).isNotNull();
+    }
+
+    /**
+     * Test that blobs are collected once no longer referenced.
+     */
+    @Test
+    public void testShouldCollectUnreferencedBlobs() throws InterruptedException {
+        provider.writeFile(credentials, "/one.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/two.txt", "alpha".getBytes());
+
+        provider.delete(credentials, "/one.txt");
+        provider.awaitCollector();
+        assertThat(backend.size()).isEqualTo(2);
+
+        // Overwriting the last reference releases the old blob.
+        provider.writeFile(credentials, "/two.txt", "bravo".getBytes());
+        provider.awaitCollector();
+        assertThat(backend.size()).isEqualTo(2);
+        assertThat(read("/two.txt")).isEqualTo("bravo");
+
+        provider.delete(credentials, "/two.txt");
+        provider.awaitCollector();
+        assertThat(backend.size()).isEqualTo(0);
+    }
+
+    /**
+     * Test folder listing, copy and folder deletion.
+     */
+    @Test
+    public void testFolderOperations() {
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/docs/nested/b.txt", "bravo".getBytes());
+
+        FolderEntity folder = provider.listFolderContents(credentials, "/docs");
+        assertThat(folder.files).hasSize(1);
+        assertThat(folder.folders).hasSize(1);
+        assertThat(folder.folders.get(0).getPath()).isEqualTo("/docs/nested");
+
+        int writes = backend.writeCount.get();
+        provider.copy(credentials, "/docs", "/backup");
+        assertThat(read("/backup/nested/b.txt")).isEqualTo("bravo");
+        // Only manifest files are written.
+        assertThat(backend.writeCount.get()).isEqualTo(writes + 2);
+
+        provider.delete(credentials, "/docs");
+        assertThat(provider.exists(credentials, "/docs")).isFalse();
+        assertThrows(EntityNotFoundException.class, () -> provider.readFileMeta(credentials, "/docs/a.txt"));
+        assertThat(read("/backup/a.txt")).isEqualTo("alpha");
+    }
+
+    /**
+     * Test folder deletion and move over a file system backend, whose delete does not remove non-empty folders.
+     */
+    @Test
+    public void testShouldDeleteAndMoveFoldersOverFileSystem() {
+        JimFileSystemStorageServiceProvider fileSystem = new JimFileSystemStorageServiceProvider();
+        JimFSCredentials fsCredentials = fileSystem.createFileSystem();
+        DeduplicatingStorageServiceProvider<JimFSCredentials> fsProvider =
+                new DeduplicatingStorageServiceProvider<>(fileSystem);
+        try {
+            fsProvider.writeFile(fsCredentials, "/docs/a.txt", "alpha".getBytes());
+            fsProvider.writeFile(fsCredentials, "/docs/nested/b.txt", "bravo".getBytes());
+            fsProvider.writeFile(fsCredentials, "/media/c.txt", "charlie".getBytes());
+
+            fsProvider.move(fsCredentials, "/docs", "/archive/docs");
+            assertThat(fsProvider.exists(fsCredentials, "/docs")).isFalse();
+            assertThat(fileSystem.exists(fsCredentials, DeduplicatingStorageServiceProvider.MANIFEST_ROOT + "/docs"))
+                    .isFalse();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            fsProvider.readFile(fsCredentials, "/archive/docs/nested/b.txt", out);
+            assertThat(out.toString()).isEqualTo("bravo");
+
+            assertThrows(InvalidEntityPathException.class,
+                    () -> fsProvider.move(fsCredentials, "/archive", "/archive/docs/self"));
+
+            fsProvider.delete(fsCredentials, "/archive");
+            assertThat(fsProvider.exists(fsCredentials, "/archive")).isFalse();
+            assertThat(fileSystem.exists(fsCredentials, DeduplicatingStorageServiceProvider.MANIFEST_ROOT + "/archive"))
+                    .isFalse();
+            assertThat(fsProvider.exists(fsCredentials, "/media/c.txt")).isTrue();
+        } finally {
+            fsProvider.shutdown();
+        }
+    }
+
+    /**
+     * Test that a sub-folder is listed once, even if paths sorted between its descendants.
+     */
+    @Test
+    public void testShouldListSubFolderOnce() {
+        provider.writeFile(credentials, "/docs/a-b/x.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/docs/a.txt", "bravo".getBytes());
+        provider.writeFile(credentials, "/docs/a/y.txt", "charlie".getBytes());
+
+        FolderEntity folder = provider.listFolderContents(credentials, "/docs");
+        assertThat(folder.files.size()).isEqualTo(1);
+        assertThat(folder.folders.size()).isEqualTo(2);
+    }
+
+    /**
+     * Test that concurrent writers of the same new contents store a single blob, which every path can read.
+     */
+    @Test
+    public void testShouldStoreConcurrentIdenticalContentsOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String path = "/copies/" + i + ".txt";
+                writes.add(executor.submit(() -> provider.writeFile(credentials, path, "alpha".getBytes())));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // A single blob and eight manifest files.
+        assertThat(backend.size()).isEqualTo(9);
+        assertThat(provider.getBytesDeduplicated()).isEqualTo(35L);
+        for (int i = 0; i < 8; i++) {
+            assertThat(read("/copies/" + i + ".txt")).isEqualTo("alpha");
+        }
+    }
+
+    /**
+     * Test that the manifest is reloaded from the backend and orphaned blobs are collected.
+     */
+    @Test
+    public void testShouldReloadManifest() throws InterruptedException {
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes());
+        backend.writeFile(credentials, DeduplicatingStorageServiceProvider.BLOBS_ROOT + "/ff/ff00", "orphan".getBytes());
+
+        DeduplicatingStorageServiceProvider<EmptyCredentials> reloaded = new DeduplicatingStorageServiceProvider<>(backend);
+        assertThat(reloaded.readFileMeta(credentials, "/a.txt").size).isEqualTo(5L);
+        reloaded.awaitCollector();
+
+        assertThat(backend.getContents(DeduplicatingStorageServiceProvider.BLOBS_ROOT + "/ff/ff00")).isNull();
+        assertThat(backend.size()).isEqualTo(2);
+    }
+
+    private String read(String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, path, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package io.storage.providers.encryption;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.StorageException;
+import io.storage.core.EmptyCredentials;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link EncryptingStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class EncryptingStorageServiceProviderTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private final InMemoryStorageServiceProvider backend = new InMemoryStorageServiceProvider();
+
+    private final EncryptingStorageServiceProvider<EmptyCredentials> provider =
+            new EncryptingStorageServiceProvider<>(backend, credentials -> key(1), CHUNK_SIZE);
+
+    private final EmptyCredentials credentials = new EmptyCredentials();
+
+    /**
+     * Test round trip of files of various sizes, including empty files and exact chunk multiples.
+     */
+    @Test
+    public void testShouldEncryptAndDecrypt() {
+        for (int size : new int[]{0, 1, CHUNK_SIZE, CHUNK_SIZE + 1, 3 * CHUNK_SIZE}) {
+            byte[] data = random(size);
+            provider.writeFile(credentials, "/file.bin", new ByteArrayInputStream(data));
+
+            byte[] stored = backend.getContents("/file.bin");
+            assertThat(Arrays.equals(stored, data)).isFalse();
+            assertThat(provider.readFileMeta(credentials, "/file.bin").size).isEqualTo((long) size);
+            assertThat(read(provider, "/file.bin")).isEqualTo(data);
+        }
+    }
+
+    /**
+     * Test ranged reads within a chunk, across chunk boundaries and past the end of file.
+     */
+    @Test
+    public void testRangedReads() {
+        byte[] data = random(3 * CHUNK_SIZE + 100);
+        provider.writeFile(credentials, "/file.bin", data);
+
+        assertThat(readRange(10, 20)).isEqualTo(Arrays.copyOfRange(data, 10, 30));
+        assertThat(readRange(CHUNK_SIZE - 5, CHUNK_SIZE + 10)).isEqualTo(Arrays.copyOfRange(data, CHUNK_SIZE - 5, 2 * CHUNK_SIZE + 5));
+        assertThat(readRange(3 * CHUNK_SIZE + 50, 1000)).isEqualTo(Arrays.copyOfRange(data, 3 * CHUNK_SIZE + 50, data.length));
+        assertThat(readRange(data.length, 10).length).isEqualTo(0);
+    }
+
+    /**
+     * Test that tampered and truncated contents, as well as a wrong master key, are detected.
+     */
+    @Test
+    public void testShouldDetectTampering() {
+        byte[] data = random(2 * CHUNK_SIZE);
+        provider.writeFile(credentials, "/file.bin", data);
+        byte[] stored = backend.getContents("/file.bin");
+
+        byte[] tampered = stored.clone();
+        tampered[EncryptingStorageServiceProvider.HEADER_SIZE + 5] ^= 1;
+        backend.writeFile(credentials, "/tampered.bin", tampered);
+        assertThrows(StorageException.class, () -> read(provider, "/tampered.bin"));
+
+        // Dropping the final chunk must not pass as a shorter file.
+        byte[] truncated = Arrays.copyOf(stored, EncryptingStorageServiceProvider.HEADER_SIZE + CHUNK_SIZE + 16);
+        backend.writeFile(credentials, "/truncated.bin", truncated);
+        assertThrows(StorageException.class, () -> read(provider, "/truncated.bin"));
+
+        EncryptingStorageServiceProvider<EmptyCredentials> otherKey =
+                new EncryptingStorageServiceProvider<>(backend, credentials -> key(2), CHUNK_SIZE);
+        assertThrows(StorageException.class, () -> read(otherKey, "/file.bin"));
+    }
+
+    private byte[] readRange(long offset, long length) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, "/file.bin", offset, length, out);
+        return out.toByteArray();
+    }
+
+    private byte[] read(EncryptingStorageServiceProvider<EmptyCredentials> source, String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        source.readFile(credentials, path, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    private static SecretKeySpec key(int seed) {
+        byte[] key = new byte[32];
+        new Random(seed).nextBytes(key);
+        return new SecretKeySpec(key, "AES");
+    }
+}
@@ -0,0 +1,70 @@
+package io.storage.providers.encryption;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.StorageServiceProvider;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * Measures read and write throughput (MB/s) of {@link EncryptingStorageServiceProvider} versus plaintext access to the
+ * same in-memory backend. Not a unit test -- run manually, e.g.:
+ * <pre>
+ *     java -cp ... io.storage.providers.encryption.EncryptionThroughputBenchmark [size-in-MB] [iterations]
+ * </pre>
+ * Each measurement is preceded by warm-up iterations, so JIT compilation is excluded from the results.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class EncryptionThroughputBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+
+    public static void main(String[] args) {
+        int sizeMB = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        byte[] data = new byte[sizeMB * 1024 * 1024];
+        new Random(1).nextBytes(data);
+        byte[] masterKey = new byte[32];
+        new Random(2).nextBytes(masterKey);
+
+        EmptyCredentials credentials = new EmptyCredentials();
+        InMemoryStorageServiceProvider plaintext = new InMemoryStorageServiceProvider();
+        EncryptingStorageServiceProvider<EmptyCredentials> encrypted = new EncryptingStorageServiceProvider<>(
+                new InMemoryStorageServiceProvider(), c -> new SecretKeySpec(masterKey, "AES"));
+
+        System.out.printf("File size: %d MB, chunk size: %d KB, iterations: %d%n",
+                sizeMB, encrypted.getChunkSize() / 1024, iterations);
+        report("plaintext", plaintext, credentials, data, iterations);
+        report("encrypted", encrypted, credentials, data, iterations);
+    }
+
+    private static void report(String name, StorageServiceProvider<EmptyCredentials> provider,
+                               EmptyCredentials credentials, byte[] data, int iterations) {
+        double write = measure(iterations, data.length,
+                () -> provider.writeFile(credentials, "/bench.bin", new ByteArrayInputStream(data)));
+        double read = measure(iterations, data.length,
+                () -> provider.readFile(credentials, "/bench.bin", OutputStream.nullOutputStream()));
+
+        System.out.printf("%-10s write: %8.1f MB/s, read: %8.1f MB/s%n", name, write, read);
+    }
+
+    private static double measure(int iterations, long bytes, Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return bytes * (double) iterations / (1024 * 1024) / seconds;
+    }
+}
@@ -0,0 +1,215 @@
+package io.storage.providers.jfs;
+
+import io.storage.core.EntityNotFoundException;
+import io.storage.core.InvalidEntityPathException;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.core.entities.FolderListing;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link AbstractFileSystemStorageServiceProvider}, backed by an in-memory file system.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class JimFileSystemStorageServiceProviderTest {
+
+    private final JimFileSystemStorageServiceProvider provider = new JimFileSystemStorageServiceProvider();
+
+    private final JimFSCredentials credentials = provider.createFileSystem();
+
+    /**
+     * Test listing of a folder larger than a single page.
+     */
+    @Test
+    public void testShouldListFolderInPages() {
+        int count = 1500;
+        for (int i = 0; i < count; i++) {
+            provider.writeFile(credentials, "/many/file-" + i + ".txt", new byte[0]);
+        }
+        provider.writeFile(credentials, "/many/nested/a.txt", new byte[0]);
+
+        Set<String> names = new HashSet<>();
+        try (FolderListing listing = provider.listFolder(credentials, "/many")) {
+            for (BaseEntity entity : listing) {
+                assertThat(entity.getParentPath()).isEqualTo("/many");
+                names.add(entity.getName());
+            }
+        }
+        assertThat(names.size()).isEqualTo(count + 1);
+
+        FolderEntity folder = provider.listFolderContents(credentials, "/many");
+        assertThat(folder.files.size()).isEqualTo(count);
+        assertThat(folder.folders.size()).isEqualTo(1);
+    }
+
+    /**
+     * Test that closing a listing that was not fully iterated releases its directory handle.
+     */
+    @Test
+    public void testShouldReleaseDirectoryOnEarlyClose() {
+        for (int i = 0; i < 1100; i++) {
+            provider.writeFile(credentials, "/docs/file-" + i + ".txt", new byte[0]);
+        }
+
+        FolderListing listing = provider.listFolder(credentials, "/docs");
+        Iterator<BaseEntity> iterator = listing.iterator();
+        iterator.next();
+        listing.close();
+
+        // Entries of the page read so far (1024 entries) are still served, but the closed directory stream behaves as
+        // if all its entries were read.
+        int remaining = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            remaining++;
+        }
+        assertThat(remaining).isEqualTo(1023);
+        assertThat(provider.listFolderContents(credentials, "/docs").files.size()).isEqualTo(1100);
+    }
+
+    /**
+     * Test reading a range of a file.
+     */
+    @Test
+    public void testShouldReadRange() {
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, "/a.txt", 1, 3, out);
+        assertThat(out.toString()).isEqualTo("lph");
+
+        out.reset();
+        provider.readFile(credentials, "/a.txt", 2, 100, out);
+        assertThat(out.toString()).isEqualTo("pha");
+
+        out.reset();
+        provider.readFile(credentials, "/a.txt", 10, 5, out);
+        assertThat(out.size()).isEqualTo(0);
+        assertThrows(IllegalArgumentException.class, () -> provider.readFile(credentials, "/a.txt", -1, 5, out));
+    }
+
+    /**
+     * Test that writing a file creates its missing parent folders, and that a folder cannot be written as a file.
+     */
+    @Test
+    public void testShouldCreateParentFoldersOnWrite() {
+        provider.writeFile(credentials, "/a/b/c.txt", "alpha".getBytes());
+
+        assertThat(provider.exists(credentials, "/a/b")).isTrue();
+        assertThat(provider.listFolderContents(credentials, "/a").folders.get(0).getPath()).isEqualTo("/a/b");
+        assertThat(read("/a/b/c.txt")).isEqualTo("alpha");
+        assertThrows(InvalidEntityPathException.class, () -> provider.writeFile(credentials, "/a/b", new byte[0]));
+    }
+
+    /**
+     * Test copying of a folder tree, leaving the source in place.
+     */
+    @Test
+    public void testShouldCopyFolder() {
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/docs/nested/b.txt", "bravo".getBytes());
+
+        assertThat(provider.copy(credentials, "/docs", "/archive/docs").getPath()).isEqualTo("/archive/docs");
+
+        assertThat(read("/archive/docs/a.txt")).isEqualTo("alpha");
+        assertThat(read("/archive/docs/nested/b.txt")).isEqualTo("bravo");
+        assertThat(read("/docs/nested/b.txt")).isEqualTo("bravo");
+    }
+
+    /**
+     * Test moving of a file and a folder tree.
+     */
+    @Test
+    public void testShouldMoveFileAndFolder() {
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/docs/nested/b.txt", "bravo".getBytes());
+
+        provider.move(credentials, "/docs/a.txt", "/docs/nested/a.txt");
+        provider.move(credentials, "/docs/nested", "/archive");
+
+        assertThat(read("/archive/a.txt")).isEqualTo("alpha");
+        assertThat(read("/archive/b.txt")).isEqualTo("bravo");
+        assertThat(provider.exists(credentials, "/docs/nested")).isFalse();
+        assertThat(provider.exists(credentials, "/docs/a.txt")).isFalse();
+    }
+
+    /**
+     * Test that a folder cannot be copied or moved into itself or its own subtree.
+     */
+    @Test
+    public void testShouldRejectDestinationUnderSource() {
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+
+        assertThrows(InvalidEntityPathException.class, () -> provider.copy(credentials, "/docs", "/docs/nested/copy"));
+        assertThrows(InvalidEntityPathException.class, () -> provider.copy(credentials, "/docs", "/docs"));
+        assertThrows(InvalidEntityPathException.class, () -> provider.move(credentials, "/docs", "/docs/nested"));
+
+        assertThat(provider.exists(credentials, "/docs/nested")).isFalse();
+        assertThat(provider.listFolderContents(credentials, "/docs").files).hasSize(1);
+        assertThat(read("/docs/a.txt")).isEqualTo("alpha");
+    }
+
+    /**
+     * Test search by glob and filter, in a single walk of the directory tree.
+     */
+    @Test
+    public void testShouldFind() {
+        provider.writeFile(credentials, "/docs/a.pdf", new byte[5]);
+        provider.writeFile(credentials, "/docs/2026/b.pdf", new byte[500]);
+        provider.writeFile(credentials, "/docs/2026/c.txt", new byte[500]);
+        provider.writeFile(credentials, "/media/d.pdf", new byte[500]);
+
+        assertThat(paths(provider.find(credentials, "/", "**/*.pdf", entity -> true)))
+                .containsExactly("/docs/2026/b.pdf", "/docs/a.pdf", "/media/d.pdf");
+        assertThat(paths(provider.find(credentials, "/", "docs/**/*.pdf",
+                entity -> entity instanceof FileEntity && ((FileEntity) entity).size > 100)))
+                .containsExactly("/docs/2026/b.pdf");
+        assertThat(paths(provider.find(credentials, "/docs", "*", entity -> entity instanceof FolderEntity)))
+                .containsExactly("/docs/2026");
+
+        // Depth is bounded by the glob, so deeper files are not matched.
+        assertThat(paths(provider.find(credentials, "/", "*/*.pdf", entity -> true)))
+                .containsExactly("/docs/a.pdf", "/media/d.pdf");
+    }
+
+    /**
+     * Test search under a missing or non-folder literal prefix, and under a missing or non-folder root.
+     */
+    @Test
+    public void testShouldFindNothingUnderMissingPrefix() {
+        provider.writeFile(credentials, "/docs/a.pdf", new byte[5]);
+
+        assertThat(provider.find(credentials, "/", "missing/**", entity -> true).isEmpty()).isTrue();
+        assertThat(provider.find(credentials, "/", "docs/a.pdf/*", entity -> true).isEmpty()).isTrue();
+        assertThrows(EntityNotFoundException.class, () -> provider.find(credentials, "/missing", "docs/*", entity -> true));
+        assertThrows(InvalidEntityPathException.class,
+                () -> provider.find(credentials, "/docs/a.pdf", "*", entity -> true));
+    }
+
+    private static Set<String> paths(List<BaseEntity> entities) {
+        Set<String> paths = new TreeSet<>();
+        for (BaseEntity entity : entities) {
+            paths.add(entity.getPath());
+        }
+        return paths;
+    }
+
+    private String read(String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, path, out);
+        return out.toString();
+    }
+}
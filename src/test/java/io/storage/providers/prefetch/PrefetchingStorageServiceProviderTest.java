@@ -0,0 +1,184 @@
+package io.storage.providers.prefetch;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link PrefetchingStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class PrefetchingStorageServiceProviderTest {
+
+    private final EmptyCredentials credentials = new EmptyCredentials("user-1", null);
+
+    private final CountingStorageServiceProvider backend = new CountingStorageServiceProvider();
+
+    private final PrefetchingStorageServiceProvider<EmptyCredentials> provider =
+            new PrefetchingStorageServiceProvider<>(backend);
+
+    @AfterEach
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    /**
+     * Test that subfolder listings and file metadata are served from prefetched entries after a listing.
+     */
+    @Test
+    public void testShouldServePrefetchedEntries() throws Exception {
+        backend.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        backend.writeFile(credentials, "/docs/sub/b.txt", "bravo".getBytes());
+
+        provider.listFolderContents(credentials, "/docs");
+        awaitPrefetches(1);
+        int listings = backend.listings.get();
+
+        FolderEntity sub = provider.listFolderContents(credentials, "/docs/sub");
+        assertThat(sub.files.size()).isEqualTo(1);
+        FileEntity file = provider.readFileMeta(credentials, "/docs/a.txt");
+        assertThat(file.size).isEqualTo(5L);
+        assertThat(provider.exists(credentials, "/docs/sub")).isTrue();
+        assertThat(backend.listings.get()).isEqualTo(listings);
+        assertThat(backend.metas.get()).isEqualTo(0);
+
+        // Callers receive copies.
+        sub.files.clear();
+        assertThat(provider.listFolderContents(credentials, "/docs/sub").files.size()).isEqualTo(1);
+
+        PrefetchStatistics statistics = provider.getStatistics();
+        assertThat(statistics.getMisses()).isEqualTo(1L);
+        assertThat(statistics.getHits()).isEqualTo(4L);
+        // Only the listing of '/docs/sub' was fetched ahead of demand, file metadata was kept from listings at hand.
+        assertThat(statistics.getPrefetches()).isEqualTo(1L);
+        assertThat(statistics.getUsed()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that a modification drops affected entries.
+     */
+    @Test
+    public void testShouldInvalidateOnModification() throws Exception {
+        backend.writeFile(credentials, "/docs/sub/b.txt", "bravo".getBytes());
+        provider.listFolderContents(credentials, "/docs");
+        awaitPrefetches(1);
+
+        provider.writeFile(credentials, "/docs/sub/c.txt", "charlie".getBytes());
+        assertThat(provider.listFolderContents(credentials, "/docs/sub").files.size()).isEqualTo(2);
+        assertThat(provider.getStatistics().getHits()).isEqualTo(0L);
+    }
+
+    /**
+     * Test that a modification with other credentials does not discard prefetches in progress.
+     */
+    @Test
+    public void testShouldKeepPrefetchesOverlappingOtherTenantModification() throws Exception {
+        backend.writeFile(credentials, "/docs/sub/b.txt", "bravo".getBytes());
+        backend.block = new CountDownLatch(1);
+        provider.listFolderContents(credentials, "/docs");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.blocked.get() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        provider.writeFile(new EmptyCredentials("user-2", null), "/other/c.txt", "charlie".getBytes());
+        backend.block.countDown();
+        awaitPrefetches(1);
+
+        assertThat(provider.listFolderContents(credentials, "/docs/sub").files.size()).isEqualTo(1);
+        assertThat(provider.getStatistics().getHits()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that pending prefetches beyond budget are skipped, and pending ones are cancelled on navigation.
+     */
+    @Test
+    public void testShouldBoundAndCancelPrefetches() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            backend.writeFile(credentials, "/docs/sub" + i + "/file.txt", "data".getBytes());
+        }
+        backend.block = new CountDownLatch(1);
+        provider.setBudget(3);
+
+        // Two threads block on the first two prefetches, a third is queued and the fourth exceeds budget.
+        provider.listFolderContents(credentials, "/docs");
+        assertThat(provider.getStatistics().getSkipped()).isEqualTo(1L);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.blocked.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(backend.blocked.get()).isEqualTo(2);
+
+        // Navigating away cancels the queued prefetch.
+        provider.listFolderContents(credentials, "/");
+        backend.block.countDown();
+
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (provider.getStatistics().getCancelled() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(provider.getStatistics().getCancelled()).isEqualTo(1L);
+    }
+
+    private void awaitPrefetches(long prefetches) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.prefetched.get() < prefetches && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+        assertThat(backend.prefetched.get()).isEqualTo((int) prefetches);
+    }
+
+    /**
+     * In-memory provider counting metadata calls, optionally blocking prefetching threads.
+     */
+    private static final class CountingStorageServiceProvider extends InMemoryStorageServiceProvider {
+
+        final AtomicInteger listings = new AtomicInteger();
+
+        final AtomicInteger metas = new AtomicInteger();
+
+        final AtomicInteger prefetched = new AtomicInteger();
+
+        final AtomicInteger blocked = new AtomicInteger();
+
+        volatile CountDownLatch block;
+
+        @Override
+        public FolderEntity listFolderContents(EmptyCredentials credentials, String path) {
+            listings.incrementAndGet();
+            boolean prefetch = Thread.currentThread().getName().startsWith("storage-prefetch-");
+            if (prefetch && block != null) {
+                blocked.incrementAndGet();
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            FolderEntity folder = super.listFolderContents(credentials, path);
+            if (prefetch) {
+                prefetched.incrementAndGet();
+            }
+            return folder;
+        }
+
+        @Override
+        public FileEntity readFileMeta(EmptyCredentials credentials, String path) {
+            metas.incrementAndGet();
+            return super.readFileMeta(credentials, path);
+        }
+    }
+}
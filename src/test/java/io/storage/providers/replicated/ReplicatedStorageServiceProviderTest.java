@@ -0,0 +1,221 @@
+package io.storage.providers.replicated;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.StorageException;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.StorageServiceProvider;
+import io.storage.core.entities.FileEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link ReplicatedStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ReplicatedStorageServiceProviderTest {
+
+    private final EmptyCredentials credentials = new EmptyCredentials("user-1", null);
+
+    private final FlakyStorageServiceProvider a = new FlakyStorageServiceProvider();
+
+    private final FlakyStorageServiceProvider b = new FlakyStorageServiceProvider();
+
+    private final FlakyStorageServiceProvider c = new FlakyStorageServiceProvider();
+
+    private final ReplicatedStorageServiceProvider<EmptyCredentials> provider =
+            new ReplicatedStorageServiceProvider<>(List.<StorageServiceProvider<EmptyCredentials>>of(a, b, c));
+
+    @AfterEach
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    /**
+     * Test that writes are mirrored to all replicas and can be read back.
+     */
+    @Test
+    public void testShouldMirrorWritesToAllReplicas() {
+        provider.writeFile(credentials, "/docs/a.txt", new ByteArrayInputStream("alpha".getBytes()));
+        provider.writeFile(credentials, "/docs/b.txt", "beta".getBytes());
+
+        awaitCondition(() -> a.size() == 2 && b.size() == 2 && c.size() == 2);
+        for (InMemoryStorageServiceProvider replica : List.of(a, b, c)) {
+            assertThat(replica.getContents("/docs/a.txt")).isEqualTo("alpha".getBytes());
+            assertThat(replica.getContents("/docs/b.txt")).isEqualTo("beta".getBytes());
+        }
+
+        assertThat(read("/docs/a.txt")).isEqualTo("alpha");
+        assertThat(provider.readFileMeta(credentials, "/docs/b.txt").size).isEqualTo(4L);
+        assertThat(provider.listFolderContents(credentials, "/docs").files).hasSize(2);
+
+        provider.delete(credentials, "/docs/a.txt");
+        awaitCondition(() -> a.size() == 1 && b.size() == 1 && c.size() == 1);
+        assertThat(provider.exists(credentials, "/docs/a.txt")).isFalse();
+    }
+
+    /**
+     * Test that a write is acknowledged by a quorum, and the replica that missed it is repaired once available.
+     */
+    @Test
+    public void testShouldRepairReplicaThatMissedWrite() {
+        provider.setRepairDelay(Duration.ofMillis(50));
+        c.available = false;
+
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes());
+        assertThat(a.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(b.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+
+        awaitCondition(() -> provider.getPendingRepairs() > 0);
+        c.available = true;
+        awaitCondition(() -> c.getContents("/a.txt") != null);
+        assertThat(c.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(provider.getRepairs()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that a write acknowledged by fewer replicas than the quorum fails.
+     */
+    @Test
+    public void testShouldFailWriteWithoutQuorum() {
+        b.available = false;
+        c.available = false;
+
+        assertThrows(QuorumException.class, () -> provider.writeFile(credentials, "/a.txt", "alpha".getBytes()));
+
+        provider.setWriteQuorum(1);
+        provider.writeFile(credentials, "/b.txt", "beta".getBytes());
+        assertThat(a.getContents("/b.txt")).isEqualTo("beta".getBytes());
+    }
+
+    /**
+     * Test that a read is served by another replica when the first one is slow.
+     */
+    @Test
+    public void testShouldHedgeSlowRead() {
+        provider.setWriteQuorum(3);
+        provider.setHedgeDelay(Duration.ofMillis(20));
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes());
+        a.readDelay = 2000;
+
+        long start = System.nanoTime();
+        assertThat(read("/a.txt")).isEqualTo("alpha");
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isLessThan(1000L);
+        assertThat(provider.getHedgedReads()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that a folder scan resolves divergence by majority.
+     */
+    @Test
+    public void testShouldRepairDivergedFolder() {
+        a.writeFile(credentials, "/docs/x.txt", "aaa".getBytes());
+        b.writeFile(credentials, "/docs/x.txt", "aaa".getBytes());
+        c.writeFile(credentials, "/docs/x.txt", "b".getBytes());
+        c.writeFile(credentials, "/docs/sub/y.txt", "stale".getBytes());
+
+        assertThat(provider.repair(credentials, "/docs")).isEqualTo(2);
+        assertThat(c.getContents("/docs/x.txt")).isEqualTo("aaa".getBytes());
+        assertThat(c.getContents("/docs/sub/y.txt")).isNull();
+        assertThat(provider.repair(credentials, "/docs")).isEqualTo(0);
+    }
+
+    /**
+     * Test that a replica lagging behind the quorum applies writes of a path in the order they were issued.
+     */
+    @Test
+    public void testShouldApplyLateWritesInOrder() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        c.writeGate.set(gate);
+
+        provider.writeFile(credentials, "/a.txt", "first".getBytes());
+        provider.writeFile(credentials, "/a.txt", "second".getBytes());
+        assertThat(c.getContents("/a.txt")).isNull();
+
+        gate.countDown();
+        awaitCondition(() -> c.writeCount.get() == 2);
+        assertThat(c.getContents("/a.txt")).isEqualTo("second".getBytes());
+    }
+
+    private String read(String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, path, out);
+        return out.toString();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met in time.");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted.", ex);
+            }
+        }
+    }
+
+    /**
+     * In-memory replica that can be made unavailable for writes, blocked on its next write, or slow to read.
+     */
+    private static class FlakyStorageServiceProvider extends InMemoryStorageServiceProvider {
+
+        volatile boolean available = true;
+
+        volatile long readDelay;
+
+        /**
+         * Blocks the next write until opened.
+         */
+        final AtomicReference<CountDownLatch> writeGate = new AtomicReference<>();
+
+        @Override
+        public FileEntity writeFile(EmptyCredentials credentials, String path, byte[] data) {
+            if (!available) {
+                throw new StorageException("Service unavailable.");
+            }
+
+            CountDownLatch gate = writeGate.getAndSet(null);
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new StorageException("Interrupted.", ex);
+                }
+            }
+
+            return super.writeFile(credentials, path, data);
+        }
+
+        @Override
+        public void readFile(EmptyCredentials credentials, String path, OutputStream out) {
+            if (readDelay > 0) {
+                try {
+                    Thread.sleep(readDelay);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new StorageException("Interrupted.", ex);
+                }
+            }
+
+            super.readFile(credentials, path, out);
+        }
+    }
+}
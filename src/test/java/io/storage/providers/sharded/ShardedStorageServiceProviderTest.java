@@ -0,0 +1,167 @@
+package io.storage.providers.sharded;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.StorageServiceProvider;
+import io.storage.core.entities.FolderEntity;
+import io.storage.providers.sharded.ShardedStorageServiceProvider.ShardingMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link ShardedStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class ShardedStorageServiceProviderTest {
+
+    private static final int FILES = 60;
+
+    private final EmptyCredentials credentials = new EmptyCredentials("user-1", null);
+
+    private final List<InMemoryStorageServiceProvider> shards = List.of(
+            new InMemoryStorageServiceProvider(),
+            new InMemoryStorageServiceProvider(),
+            new InMemoryStorageServiceProvider());
+
+    private ShardedStorageServiceProvider<EmptyCredentials> provider;
+
+    @AfterEach
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    /**
+     * Test that files are spread across all shards, and listings merge them.
+     */
+    @Test
+    public void testShouldSpreadFilesAcrossShards() {
+        provider = newProvider(ShardingMode.PATH);
+        writeFiles();
+
+        for (InMemoryStorageServiceProvider shard : shards) {
+            assertThat(shard.size()).isGreaterThan(0);
+        }
+        assertThat(shards.stream().mapToInt(InMemoryStorageServiceProvider::size).sum()).isEqualTo(FILES);
+
+        FolderEntity folder = provider.listFolderContents(credentials, "/docs");
+        assertThat(folder.files).hasSize(FILES);
+        assertThat(read("/docs/file-7.txt")).isEqualTo("contents-7");
+        assertThat(provider.exists(credentials, "/docs")).isTrue();
+
+        provider.delete(credentials, "/docs");
+        assertThat(shards.stream().mapToInt(InMemoryStorageServiceProvider::size).sum()).isEqualTo(0);
+    }
+
+    /**
+     * Test that files remain readable after a shard is added, and are moved to it by rebalancing.
+     */
+    @Test
+    public void testShouldRebalanceToNewShard() {
+        provider = newProvider(ShardingMode.PATH);
+        writeFiles();
+
+        InMemoryStorageServiceProvider added = new InMemoryStorageServiceProvider();
+        provider.addShard("shard-3", added);
+        for (int i = 0; i < FILES; i++) {
+            assertThat(read("/docs/file-" + i + ".txt")).isEqualTo("contents-" + i);
+        }
+        assertThat(provider.listFolderContents(credentials, "/docs").files).hasSize(FILES);
+
+        int moved = provider.rebalance(credentials);
+        assertThat(moved).isGreaterThan(0).isLessThan(FILES);
+        assertThat(added.size()).isEqualTo(moved);
+        assertThat(shards.stream().mapToInt(InMemoryStorageServiceProvider::size).sum() + added.size())
+                .isEqualTo(FILES);
+
+        provider.finishRebalancing();
+        for (int i = 0; i < FILES; i++) {
+            assertThat(read("/docs/file-" + i + ".txt")).isEqualTo("contents-" + i);
+        }
+        assertThat(provider.rebalance(credentials)).isEqualTo(0);
+    }
+
+    /**
+     * Test that files not rebalanced remain reachable after a restart, when the previous shard ring is not known.
+     */
+    @Test
+    public void testShouldFindFilesOfUnknownPreviousRing() {
+        provider = newProvider(ShardingMode.PATH);
+        writeFiles();
+        provider.shutdown();
+
+        // Restarted with an added shard, but without the history of rings.
+        InMemoryStorageServiceProvider added = new InMemoryStorageServiceProvider();
+        Map<String, StorageServiceProvider<EmptyCredentials>> map = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            map.put("shard-" + i, shards.get(i));
+        }
+        map.put("shard-3", added);
+        provider = new ShardedStorageServiceProvider<>(map, ShardingMode.PATH);
+
+        for (int i = 0; i < FILES; i++) {
+            String path = "/docs/file-" + i + ".txt";
+            assertThat(read(path)).isEqualTo("contents-" + i);
+            assertThat(provider.readFileMeta(credentials, path).size).isEqualTo(("contents-" + i).length());
+            assertThat(provider.exists(credentials, path)).isTrue();
+        }
+        assertThat(added.size()).isEqualTo(0);
+
+        for (int i = 0; i < FILES; i++) {
+            provider.delete(credentials, "/docs/file-" + i + ".txt");
+        }
+        assertThat(shards.stream().mapToInt(InMemoryStorageServiceProvider::size).sum()).isEqualTo(0);
+        assertThat(provider.exists(credentials, "/docs/file-0.txt")).isFalse();
+    }
+
+    /**
+     * Test that a top-level folder resides on a single shard, and is moved within it.
+     */
+    @Test
+    public void testShouldKeepTopLevelFolderOnSingleShard() {
+        provider = newProvider(ShardingMode.TOP_LEVEL_FOLDER);
+        writeFiles();
+
+        assertThat(shards.stream().filter(shard -> shard.size() > 0).count()).isEqualTo(1L);
+        InMemoryStorageServiceProvider owner = shards.stream().filter(shard -> shard.size() > 0).findFirst().get();
+        int writes = owner.writeCount.get();
+
+        provider.move(credentials, "/docs/file-1.txt", "/docs/renamed.txt");
+        assertThat(owner.getContents("/docs/renamed.txt")).isEqualTo("contents-1".getBytes());
+        assertThat(owner.getContents("/docs/file-1.txt")).isNull();
+        assertThat(provider.listFolderContents(credentials, "/docs").files).hasSize(FILES);
+
+        provider.copy(credentials, "/docs", "/backup");
+        assertThat(provider.listFolderContents(credentials, "/backup").files).hasSize(FILES);
+        assertThat(read("/backup/renamed.txt")).isEqualTo("contents-1");
+        assertThat(owner.writeCount.get()).isGreaterThan(writes);
+    }
+
+    private ShardedStorageServiceProvider<EmptyCredentials> newProvider(ShardingMode mode) {
+        Map<String, StorageServiceProvider<EmptyCredentials>> map = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            map.put("shard-" + i, shards.get(i));
+        }
+        return new ShardedStorageServiceProvider<>(map, mode);
+    }
+
+    private void writeFiles() {
+        for (int i = 0; i < FILES; i++) {
+            provider.writeFile(credentials, "/docs/file-" + i + ".txt", ("contents-" + i).getBytes());
+        }
+    }
+
+    private String read(String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, path, out);
+        return out.toString();
+    }
+}
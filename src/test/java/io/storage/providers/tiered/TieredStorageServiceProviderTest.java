@@ -0,0 +1,174 @@
+package io.storage.providers.tiered;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.EntityNotFoundException;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import io.storage.providers.tiered.TieredStorageServiceProvider.WritePolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link TieredStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TieredStorageServiceProviderTest {
+
+    private final InMemoryStorageServiceProvider hot = new InMemoryStorageServiceProvider();
+
+    private final InMemoryStorageServiceProvider cold = new InMemoryStorageServiceProvider();
+
+    private final TieredStorageServiceProvider<EmptyCredentials> provider = new TieredStorageServiceProvider<>(hot, cold);
+
+    private final EmptyCredentials credentials = new EmptyCredentials();
+
+    @AfterEach
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    /**
+     * Test that a file read from the cold tier is promoted, and subsequent reads are served by the hot tier.
+     */
+    @Test
+    public void testShouldPromoteOnRead() {
+        cold.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+
+        assertThat(read("/docs/a.txt")).isEqualTo("alpha");
+        assertThat(hot.getContents("/docs/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(read("/docs/a.txt")).isEqualTo("alpha");
+
+        assertThat(cold.readCount.get()).isEqualTo(1);
+        assertThat(provider.getStatistics().getMisses()).isEqualTo(1L);
+        assertThat(provider.getStatistics().getHits()).isEqualTo(1L);
+        assertThat(provider.getStatistics().getPromotions()).isEqualTo(1L);
+        assertThat(provider.getResidentBytes()).isEqualTo(5L);
+
+        assertThrows(EntityNotFoundException.class, () -> read("/docs/missing.txt"));
+        assertThat(hot.getContents("/docs/missing.txt")).isNull();
+    }
+
+    /**
+     * Test that write-through writes reach both tiers before returning.
+     */
+    @Test
+    public void testWriteThrough() {
+        provider.writeFile(credentials, "/a.txt", new ByteArrayInputStream("alpha".getBytes()));
+
+        assertThat(hot.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(cold.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(read("/a.txt")).isEqualTo("alpha");
+        assertThat(cold.readCount.get()).isEqualTo(0);
+    }
+
+    /**
+     * Test that write-behind writes are visible before they are uploaded, and uploaded on flush.
+     */
+    @Test
+    public void testWriteBehind() {
+        provider.setWritePolicy(WritePolicy.WRITE_BEHIND);
+        provider.writeFile(credentials, "/docs/nested/a.txt", "alpha".getBytes());
+
+        assertThat(provider.exists(credentials, "/docs/nested/a.txt")).isTrue();
+        assertThat(provider.readFileMeta(credentials, "/docs/nested/a.txt").size).isEqualTo(5L);
+        FolderEntity folder = provider.listFolderContents(credentials, "/docs");
+        assertThat(folder.folders).hasSize(1);
+
+        provider.flush();
+        assertThat(cold.getContents("/docs/nested/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(read("/docs/nested/a.txt")).isEqualTo("alpha");
+
+        provider.delete(credentials, "/docs");
+        assertThat(cold.size()).isEqualTo(0);
+        assertThat(hot.size()).isEqualTo(0);
+        assertThat(provider.getResidentBytes()).isEqualTo(0L);
+    }
+
+    /**
+     * Test that least frequently accessed files are demoted once hot tier exceeds its capacity.
+     */
+    @Test
+    public void testShouldDemoteLeastFrequentlyAccessed() throws InterruptedException {
+        provider.setCapacity(10);
+        provider.writeFile(credentials, "/a.txt", "aaaa".getBytes());
+        provider.writeFile(credentials, "/b.txt", "bbbb".getBytes());
+        read("/a.txt");
+        read("/a.txt");
+
+        provider.writeFile(credentials, "/c.txt", "cccc".getBytes());
+        provider.awaitDemoter();
+
+        assertThat(provider.getResidentBytes()).isEqualTo(8L);
+        assertThat(provider.getStatistics().getDemotions()).isEqualTo(1L);
+        assertThat(hot.getContents("/a.txt")).isNotNull();
+        assertThat(hot.getContents("/b.txt")).isNull();
+
+        // Demoted files are still served, by the cold tier.
+        assertThat(read("/b.txt")).isEqualTo("bbbb");
+    }
+
+    /**
+     * Test that a resident file remains readable while a write-through write of it is uploaded to the cold tier.
+     */
+    @Test
+    public void testShouldReadResidentFileDuringWriteThrough() throws Exception {
+        CountDownLatch uploading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryStorageServiceProvider slowCold = new InMemoryStorageServiceProvider() {
+            @Override
+            public FileEntity writeFile(EmptyCredentials credentials, String path, InputStream in) {
+                uploading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.writeFile(credentials, path, in);
+            }
+        };
+        TieredStorageServiceProvider<EmptyCredentials> tiered = new TieredStorageServiceProvider<>(hot, slowCold);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            tiered.writeFile(credentials, "/a.txt", "alpha".getBytes());
+            Future<?> write = executor.submit(
+                    () -> tiered.writeFile(credentials, "/a.txt", new ByteArrayInputStream("beta".getBytes())));
+            assertThat(uploading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            tiered.readFile(credentials, "/a.txt", out);
+            assertThat(out.toString()).isEqualTo("alpha");
+
+            release.countDown();
+            write.get(5, TimeUnit.SECONDS);
+            out.reset();
+            tiered.readFile(credentials, "/a.txt", out);
+            assertThat(out.toString()).isEqualTo("beta");
+            assertThat(slowCold.getContents("/a.txt")).isEqualTo("beta".getBytes());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            tiered.shutdown();
+        }
+    }
+
+    private String read(String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, path, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,211 @@
+package io.storage.providers.writebehind;
+
+import io.storage.InMemoryStorageServiceProvider;
+import io.storage.StorageException;
+import io.storage.core.EmptyCredentials;
+import io.storage.core.entities.BaseEntity;
+import io.storage.core.entities.FileEntity;
+import io.storage.core.entities.FolderEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link WriteBehindStorageServiceProvider}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class WriteBehindStorageServiceProviderTest {
+
+    private final EmptyCredentials credentials = new EmptyCredentials("user-1", null);
+
+    private final GatedStorageServiceProvider backend = new GatedStorageServiceProvider();
+
+    private Path journal;
+
+    private WriteBehindStorageServiceProvider<EmptyCredentials> provider;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        journal = Files.createTempDirectory("storage-journal-");
+        provider = newProvider(backend);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        backend.gate.countDown();
+        provider.shutdown();
+        try (Stream<Path> files = Files.walk(journal)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /**
+     * Test that writes are acknowledged before they are uploaded, and served from the journal meanwhile.
+     */
+    @Test
+    public void testShouldServePendingWritesFromJournal() {
+        FileEntity file = provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        assertThat(file.size).isEqualTo(5L);
+
+        assertThat(backend.getContents("/docs/a.txt")).isNull();
+        assertThat(read("/docs/a.txt")).isEqualTo("alpha");
+        assertThat(provider.readFileMeta(credentials, "/docs/a.txt").size).isEqualTo(5L);
+        assertThat(provider.exists(credentials, "/docs")).isTrue();
+        FolderEntity folder = provider.listFolderContents(credentials, "/docs");
+        assertThat(folder.files).hasSize(1);
+
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        provider.readFile(credentials, "/docs/a.txt", 1, 3, range);
+        assertThat(range.toString()).isEqualTo("lph");
+
+        backend.gate.countDown();
+        provider.flush();
+        assertThat(backend.getContents("/docs/a.txt")).isEqualTo("alpha".getBytes());
+        assertThat(provider.getPendingWrites()).isEqualTo(0);
+        assertThat(journalFiles()).isEqualTo(0L);
+    }
+
+    /**
+     * Test that searches see pending writes, and are forwarded once writes are uploaded.
+     */
+    @Test
+    public void testShouldFindPendingWrites() {
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        assertThat(provider.find(credentials, "/", "**/*.txt", entity -> true)).hasSize(1);
+        assertThat(backend.finds.get()).isEqualTo(0);
+
+        backend.gate.countDown();
+        provider.flush();
+        assertThat(provider.find(credentials, "/", "**/*.txt", entity -> true)).hasSize(1);
+        assertThat(backend.finds.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test that repeated writes of a path are coalesced and the latest contents wins.
+     */
+    @Test
+    public void testShouldCoalesceRepeatedWrites() {
+        for (int i = 1; i <= 5; i++) {
+            provider.writeFile(credentials, "/a.txt", ("v" + i).getBytes());
+        }
+        assertThat(read("/a.txt")).isEqualTo("v5");
+
+        backend.gate.countDown();
+        provider.flush();
+        assertThat(backend.getContents("/a.txt")).isEqualTo("v5".getBytes());
+        assertThat(backend.writeCount.get()).isLessThan(5);
+        assertThat(provider.getCoalescedWrites()).isGreaterThan(0L);
+    }
+
+    /**
+     * Test that writes not uploaded are replayed by a new provider over the same journal.
+     */
+    @Test
+    public void testShouldReplayJournalAfterRestart() throws IOException {
+        backend.available = false;
+        backend.gate.countDown();
+        provider.writeFile(credentials, "/a.txt", "alpha".getBytes());
+        provider.writeFile(credentials, "/b.txt", "bravo".getBytes());
+        provider.shutdown();
+
+        InMemoryStorageServiceProvider restarted = new InMemoryStorageServiceProvider();
+        WriteBehindStorageServiceProvider<EmptyCredentials> replayed = newProvider(restarted);
+        try {
+            replayed.flush();
+            assertThat(restarted.getContents("/a.txt")).isEqualTo("alpha".getBytes());
+            assertThat(restarted.getContents("/b.txt")).isEqualTo("bravo".getBytes());
+            assertThat(journalFiles()).isEqualTo(0L);
+        } finally {
+            replayed.shutdown();
+        }
+    }
+
+    /**
+     * Test that deleting a path discards its pending write.
+     */
+    @Test
+    public void testShouldDiscardPendingWriteOnDelete() {
+        backend.available = false;
+        backend.gate.countDown();
+        provider.writeFile(credentials, "/docs/a.txt", "alpha".getBytes());
+        provider.delete(credentials, "/docs");
+
+        assertThat(provider.exists(credentials, "/docs/a.txt")).isFalse();
+        assertThat(provider.getPendingWrites()).isEqualTo(0);
+        assertThat(journalFiles()).isEqualTo(0L);
+        assertThat(backend.size()).isEqualTo(0);
+    }
+
+    private WriteBehindStorageServiceProvider<EmptyCredentials> newProvider(InMemoryStorageServiceProvider backend) {
+        WriteBehindStorageServiceProvider<EmptyCredentials> provider = new WriteBehindStorageServiceProvider<>(
+                backend, journal, id -> new EmptyCredentials(id, null));
+        provider.setRetryDelay(Duration.ofMillis(10));
+        return provider;
+    }
+
+    private long journalFiles() {
+        try (Stream<Path> files = Files.list(journal)) {
+            return files.count();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String read(String path) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.readFile(credentials, path, out);
+        return out.toString();
+    }
+
+    /**
+     * In-memory provider whose stream writes wait for a gate to open, and fail while unavailable.
+     */
+    private static class GatedStorageServiceProvider extends InMemoryStorageServiceProvider {
+
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        volatile boolean available = true;
+
+        final AtomicInteger finds = new AtomicInteger();
+
+        @Override
+        public List<BaseEntity> find(EmptyCredentials credentials, String root, String glob,
+                                     Predicate<? super BaseEntity> filter) {
+            finds.incrementAndGet();
+            return super.find(credentials, root, glob, filter);
+        }
+
+        @Override
+        public FileEntity writeFile(EmptyCredentials credentials, String path, InputStream in) {
+            try {
+                gate.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted.", ex);
+            }
+
+            if (!available) {
+                throw new StorageException("Service unavailable.");
+            }
+
+            return super.writeFile(credentials, path, in);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.storage.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link TraceContext}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TraceContextTest {
+
+    /**
+     * Test that scopes restore the previously current span.
+     */
+    @Test
+    public void testShouldRestorePreviousSpan() {
+        InMemorySpanCollector collector = new InMemorySpanCollector();
+        Span outer = collector.startSpan("outer", null);
+        Span inner = collector.startSpan("inner", outer);
+
+        try (TraceContext.Scope ignored = TraceContext.attach(outer)) {
+            try (TraceContext.Scope ignored2 = TraceContext.attach(inner)) {
+                assertThat(TraceContext.current()).isSameAs(inner);
+            }
+            assertThat(TraceContext.current()).isSameAs(outer);
+        }
+        assertThat(TraceContext.current()).isNull();
+    }
+
+    /**
+     * Test that the current span is propagated to tasks executed asynchronously.
+     */
+    @Test
+    public void testShouldPropagateToAsyncTasks() throws Exception {
+        InMemorySpanCollector collector = new InMemorySpanCollector();
+        Span span = collector.startSpan("request", null);
+        AtomicReference<Span> observed = new AtomicReference<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Runnable task = () -> observed.set(TraceContext.current());
+
+            // Without a current span, tasks are not wrapped at all.
+            assertThat(TraceContext.wrap(task)).isSameAs(task);
+
+            try (TraceContext.Scope ignored = TraceContext.attach(span)) {
+                executor.submit(TraceContext.wrap(task)).get();
+            }
+            assertThat(observed.get()).isSameAs(span);
+
+            // Worker thread no longer carries the span.
+            executor.submit(task).get();
+            assertThat(observed.get()).isNull();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test that ended spans are collected with their parent.
+     */
+    @Test
+    public void testShouldCollectEndedSpans() {
+        InMemorySpanCollector collector = new InMemorySpanCollector();
+        Span parent = collector.startSpan("parent", null);
+        Span child = collector.startSpan("child", parent).setAttribute("size", 3);
+        child.end();
+        child.setAttribute("ignored", "value");
+        assertThat(collector.getSpans().size()).isEqualTo(1);
+        parent.end();
+
+        InMemorySpanCollector.CollectedSpan collected = collector.getSpans("child").get(0);
+        assertThat(collected.parent).isSameAs(parent);
+        assertThat(collected.getAttributes().size()).isEqualTo(1);
+        assertThat(collector.getSpans().size()).isEqualTo(2);
+    }
+}
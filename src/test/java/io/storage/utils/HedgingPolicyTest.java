@@ -0,0 +1,98 @@
+package io.storage.utils;
+
+import io.storage.StorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test suite for {@link HedgingPolicy}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class HedgingPolicyTest {
+
+    private final HedgingPolicy policy = new HedgingPolicy();
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            policy.execute("lookup", () -> sleep(2));
+        }
+        assertThat(policy.getDelay("lookup")).isNotNull();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        policy.shutdown();
+    }
+
+    /**
+     * Test that a slow call is hedged and answered by the hedge.
+     */
+    @Test
+    public void testShouldHedgeSlowCall() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.nanoTime();
+        String result = policy.execute("lookup", () -> attempts.incrementAndGet() == 1 ? sleep(5000) : "fast");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(elapsedMillis).isLessThan(2000L);
+        assertThat(policy.getHedges()).isEqualTo(1L);
+        assertThat(policy.getHedgeWins()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that calls are not hedged once the hedge budget is exhausted.
+     */
+    @Test
+    public void testShouldNotHedgeBeyondRatio() {
+        policy.setMaxHedgeRatio(0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = policy.execute("lookup", () -> {
+            attempts.incrementAndGet();
+            return sleep(200);
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(policy.getHedges()).isEqualTo(0L);
+    }
+
+    /**
+     * Test that a call fails only once both the call and its hedge failed.
+     */
+    @Test
+    public void testShouldFailWhenAllCallsFail() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        StorageException ex = assertThrows(StorageException.class, () -> policy.execute("lookup", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(200);
+            }
+            throw new StorageException("Failure #" + attempts.get());
+        }));
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(ex.getSuppressed().length).isEqualTo(1);
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted.", ex);
+        }
+        return "done";
+    }
+}
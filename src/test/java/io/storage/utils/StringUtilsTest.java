@@ -0,0 +1,51 @@
+package io.storage.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormatSymbols;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link StringUtils}.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class StringUtilsTest {
+
+    /**
+     * Thousands separator of the default locale.
+     */
+    private static final char GROUPING = DecimalFormatSymbols.getInstance().getGroupingSeparator();
+
+    /**
+     * Decimal separator of the default locale.
+     */
+    private static final char DECIMAL = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    /**
+     * Test formatting of numbers with thousands separator.
+     */
+    @Test
+    public void testFormatNumber() {
+        assertThat(StringUtils.formatNumber(0)).isEqualTo("0");
+        assertThat(StringUtils.formatNumber(999)).isEqualTo("999");
+        assertThat(StringUtils.formatNumber(1455)).isEqualTo("1" + GROUPING + "455");
+        assertThat(StringUtils.formatNumber(-1234567)).isEqualTo("-1" + GROUPING + "234" + GROUPING + "567");
+    }
+
+    /**
+     * Test formatting of sizes using binary units.
+     */
+    @Test
+    public void testFormatSize() {
+        assertThat(StringUtils.formatSize(1000)).isEqualTo("1" + GROUPING + "000 bytes");
+        assertThat(StringUtils.formatSize(1024)).isEqualTo("1" + DECIMAL + "0KB");
+        assertThat(StringUtils.formatSize(1536)).isEqualTo("1" + DECIMAL + "5KB");
+        assertThat(StringUtils.formatSize((long) (1.8 * StringUtils.SizeUnits.GB.magnitude))).isEqualTo("1" + DECIMAL + "8GB");
+
+        // Rounding up should carry into the whole part.
+        assertThat(StringUtils.formatSize(2 * StringUtils.SizeUnits.MB.magnitude - 1)).isEqualTo("2" + DECIMAL + "0MB");
+    }
+}
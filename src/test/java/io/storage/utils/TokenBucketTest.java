@@ -0,0 +1,87 @@
+package io.storage.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite for {@link TokenBucket} and throttled streams.
+ *
+ * @author Guy Raz Nir
+ * @since 18/10/2026
+ */
+public class TokenBucketTest {
+
+    /**
+     * Test that a throttled stream does not exceed its rate, apart from the initial burst.
+     */
+    @Test
+    public void testShouldLimitRate() throws Exception {
+        TokenBucket bucket = new TokenBucket(200_000);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        long start = System.nanoTime();
+        try (ThrottledOutputStream out = new ThrottledOutputStream(sink, bucket)) {
+            out.write(new byte[100_000]);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 100KB at 200KB/s, less a burst of 100ms.
+        assertThat(sink.size()).isEqualTo(100_000);
+        assertThat(elapsedMillis).isBetween(350L, 2000L);
+    }
+
+    /**
+     * Test that an unlimited bucket never waits, and a rate change applies to subsequent acquisitions.
+     */
+    @Test
+    public void testShouldChangeRate() throws Exception {
+        TokenBucket bucket = new TokenBucket(1);
+        bucket.setRate(0);
+        assertThat(bucket.isLimited()).isFalse();
+
+        long start = System.nanoTime();
+        bucket.acquire(100_000_000);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(100L);
+
+        bucket.setRate(1_000_000);
+        start = System.nanoTime();
+        bucket.acquire(300_000);
+        assertThat((System.nanoTime() - start) / 1_000_000).isBetween(150L, 1500L);
+    }
+
+    /**
+     * Test that concurrent transfers share a bucket fairly.
+     */
+    @Test
+    public void testShouldShareFairly() throws Exception {
+        TokenBucket bucket = new TokenBucket(400_000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> first = executor.submit(() -> transfer(bucket, 100_000));
+            Future<Long> second = executor.submit(() -> transfer(bucket, 100_000));
+            long firstMillis = first.get();
+            long secondMillis = second.get();
+
+            // Both transfers progress together, so they complete at about the same time rather than one after another.
+            assertThat(Math.abs(firstMillis - secondMillis)).isLessThan(Math.max(firstMillis, secondMillis) / 3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static long transfer(TokenBucket bucket, int size) throws Exception {
+        long start = System.nanoTime();
+        try (ThrottledOutputStream out = new ThrottledOutputStream(new ByteArrayOutputStream(), bucket)) {
+            for (int i = 0; i < size; i += 4096) {
+                out.write(new byte[Math.min(4096, size - i)]);
+            }
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}